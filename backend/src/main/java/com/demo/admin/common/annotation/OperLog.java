@@ -5,6 +5,8 @@ import java.lang.annotation.*;
 /**
  * 操作日志注解
  * 标记在 Controller 方法上，自动记录操作日志
+ * <p>
+ * 记录级别、抽样率和长度上限可通过参数配置 sys.audit.policy 在运行时覆盖
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
@@ -15,4 +17,38 @@ public @interface OperLog {
      * 操作描述
      */
     String value() default "";
+
+    /**
+     * 记录级别
+     */
+    Level level() default Level.FULL;
+
+    /**
+     * 成功调用的抽样率（0~1），失败的调用始终记录
+     */
+    double sampleRate() default 1.0;
+
+    /**
+     * 请求参数最大字符数，0 表示不记录
+     */
+    int maxParams() default 2000;
+
+    /**
+     * 响应结果最大字符数，0 表示不记录，不超过 {@link com.demo.admin.common.audit.AuditResponseFilter#MAX_RESPONSE_CHARS}
+     */
+    int maxResponse() default 2000;
+
+    /**
+     * 记录级别，依次包含前一级的内容
+     */
+    enum Level {
+        /** 不记录 */
+        NONE,
+        /** 操作、用户、IP、耗时与执行结果 */
+        SUMMARY,
+        /** 另记录请求参数与修改前后的字段差异 */
+        PARAMS,
+        /** 另记录响应结果 */
+        FULL
+    }
 }
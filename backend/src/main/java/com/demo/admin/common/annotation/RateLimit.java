@@ -1,7 +1,6 @@
 package com.demo.admin.common.annotation;
 
 import java.lang.annotation.*;
-import java.util.concurrent.TimeUnit;
 
 /**
  * 接口限流注解
@@ -25,4 +24,27 @@ public @interface RateLimit {
      * 提示信息
      */
     String message() default "请求过于频繁，请稍后再试";
+
+    /**
+     * 限流算法
+     */
+    Algorithm algorithm() default Algorithm.FIXED_WINDOW;
+
+    /**
+     * 每次从Redis预取的配额数，0 表示自动（限流次数的1/10，至少为1）；
+     * 为1时每次调用都访问Redis，计数精确。滑动日志算法不支持预取
+     */
+    int lease() default 0;
+
+    /**
+     * 限流算法
+     */
+    enum Algorithm {
+        /** 固定窗口：窗口内计数，窗口结束后清零 */
+        FIXED_WINDOW,
+        /** 滑动日志：记录每次请求时间，统计最近一个窗口内的请求数，每次调用访问Redis */
+        SLIDING_LOG,
+        /** 令牌桶：容量为限流次数，按 次数/窗口 匀速补充，允许突发 */
+        TOKEN_BUCKET
+    }
 }
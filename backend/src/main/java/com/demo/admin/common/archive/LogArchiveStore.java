@@ -0,0 +1,359 @@
+package com.demo.admin.common.archive;
+
+import com.demo.admin.common.utils.CompressUtils;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * 日志归档文件
+ * <p>
+ * 每个表的每个归档分段（通常对应一个月分区）写成一个只读的 .seg 文件和一个 .idx 索引：
+ * 分段由若干数据块组成，每块是一批按ID升序排列的记录序列化为 JSON 数组后压缩（{@link CompressUtils}），
+ * 索引记录每块的偏移、条数、ID 范围和时间范围。查询时按索引跳过时间范围不相交的块，只解压需要的块。
+ * <p>
+ * 写入先写临时文件，全部完成后再改名并设为只读，中途失败不会留下不完整的分段。
+ */
+@Slf4j
+@Component
+public class LogArchiveStore {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Value("${admin.log-archive.dir:./data/log-archive}")
+    private String dir = "./data/log-archive";
+
+    /** 表名 -> 已加载的分段索引，按分段名升序 */
+    private final Map<String, List<SegmentIndex>> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * 分段是否已归档
+     */
+    public boolean exists(String table, String segment) {
+        return new File(tableDir(table), segment + INDEX_SUFFIX).exists();
+    }
+
+    /**
+     * 开始写入一个分段
+     */
+    public <T> Writer<T> open(String table, String segment, ToLongFunction<T> idGetter,
+                              Function<T, LocalDateTime> timeGetter) throws IOException {
+        File directory = tableDir(table);
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("无法创建归档目录 " + directory.getAbsolutePath());
+        }
+        return new Writer<>(table, segment, directory, idGetter, timeGetter);
+    }
+
+    /**
+     * 归档数据覆盖到的最晚时间，无归档时返回null
+     */
+    public LocalDateTime getArchivedUntil(String table) {
+        LocalDateTime until = null;
+        for (SegmentIndex index : snapshot(table)) {
+            if (index.getMaxTime() != null && (until == null || index.getMaxTime().isAfter(until))) {
+                until = index.getMaxTime();
+            }
+        }
+        return until;
+    }
+
+    /**
+     * 在归档中查询，结果按时间从新到旧；total 为全部匹配条数，records 为跳过 offset 条后的至多 limit 条
+     */
+    public <T> ArchivePage<T> search(String table, Class<T> type, LocalDateTime begin, LocalDateTime end,
+                                     Function<T, LocalDateTime> timeGetter, Predicate<T> filter,
+                                     long offset, int limit) throws IOException {
+        ArchivePage<T> page = new ArchivePage<>();
+        List<SegmentIndex> segments = snapshot(table);
+        Collections.reverse(segments);
+        for (SegmentIndex segment : segments) {
+            if (!overlaps(segment.getMinTime(), segment.getMaxTime(), begin, end)) {
+                continue;
+            }
+            List<Block> blocks = segment.getBlocks();
+            for (int b = blocks.size() - 1; b >= 0; b--) {
+                Block block = blocks.get(b);
+                if (!overlaps(block.getMinTime(), block.getMaxTime(), begin, end)) {
+                    continue;
+                }
+                List<T> rows = readBlock(table, segment.getSegment(), block, type);
+                for (int i = rows.size() - 1; i >= 0; i--) {
+                    T row = rows.get(i);
+                    LocalDateTime time = timeGetter.apply(row);
+                    if ((begin != null && (time == null || time.isBefore(begin)))
+                            || (end != null && time != null && time.isAfter(end))
+                            || (filter != null && !filter.test(row))) {
+                        continue;
+                    }
+                    if (page.total >= offset && page.records.size() < limit) {
+                        page.records.add(row);
+                    }
+                    page.total++;
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * 按ID查找归档记录，未找到返回null
+     */
+    public <T> T findById(String table, Class<T> type, long id, ToLongFunction<T> idGetter) throws IOException {
+        for (SegmentIndex segment : snapshot(table)) {
+            if (id < segment.getMinId() || id > segment.getMaxId()) {
+                continue;
+            }
+            for (Block block : segment.getBlocks()) {
+                if (id < block.getMinId() || id > block.getMaxId()) {
+                    continue;
+                }
+                for (T row : readBlock(table, segment.getSegment(), block, type)) {
+                    if (idGetter.applyAsLong(row) == id) {
+                        return row;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 表的全部分段索引副本，按分段名升序
+     */
+    List<SegmentIndex> snapshot(String table) {
+        return new ArrayList<>(segments(table));
+    }
+
+    /**
+     * 首次访问时从磁盘加载索引
+     */
+    private List<SegmentIndex> segments(String table) {
+        return indexes.computeIfAbsent(table, this::loadIndexes);
+    }
+
+    private List<SegmentIndex> loadIndexes(String table) {
+        List<SegmentIndex> result = new ArrayList<>();
+        File[] files = tableDir(table).listFiles((d, name) -> name.endsWith(INDEX_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                try {
+                    result.add(MAPPER.readValue(file, SegmentIndex.class));
+                } catch (IOException e) {
+                    log.warn("读取日志归档索引失败 {}: {}", file.getName(), e.getMessage());
+                }
+            }
+        }
+        result.sort(Comparator.comparing(SegmentIndex::getSegment));
+        return Collections.synchronizedList(result);
+    }
+
+    private <T> List<T> readBlock(String table, String segment, Block block, Class<T> type) throws IOException {
+        byte[] data = new byte[block.getLength()];
+        try (RandomAccessFile file = new RandomAccessFile(new File(tableDir(table), segment + SEGMENT_SUFFIX), "r")) {
+            file.seek(block.getOffset());
+            file.readFully(data);
+        }
+        JavaType listType = MAPPER.getTypeFactory().constructCollectionType(List.class, type);
+        return MAPPER.readValue(CompressUtils.uncompress(data), listType);
+    }
+
+    private File tableDir(String table) {
+        return new File(dir, table);
+    }
+
+    private static boolean overlaps(LocalDateTime min, LocalDateTime max, LocalDateTime begin, LocalDateTime end) {
+        return (begin == null || max == null || !max.isBefore(begin))
+                && (end == null || min == null || !min.isAfter(end));
+    }
+
+    /**
+     * 分段写入器：每次 append 写一个数据块，commit 后分段才可见
+     */
+    public final class Writer<T> implements AutoCloseable {
+
+        private final String table;
+        private final File segmentFile;
+        private final File indexFile;
+        private final File tempSegment;
+        private final FileOutputStream out;
+        private final ToLongFunction<T> idGetter;
+        private final Function<T, LocalDateTime> timeGetter;
+        private final SegmentIndex index = new SegmentIndex();
+        private long offset;
+        private boolean committed;
+
+        private Writer(String table, String segment, File directory, ToLongFunction<T> idGetter,
+                       Function<T, LocalDateTime> timeGetter) throws IOException {
+            this.table = table;
+            this.segmentFile = new File(directory, segment + SEGMENT_SUFFIX);
+            this.indexFile = new File(directory, segment + INDEX_SUFFIX);
+            this.tempSegment = new File(directory, segment + SEGMENT_SUFFIX + TEMP_SUFFIX);
+            this.out = new FileOutputStream(tempSegment);
+            this.idGetter = idGetter;
+            this.timeGetter = timeGetter;
+            index.setTable(table);
+            index.setSegment(segment);
+            index.setMinId(Long.MAX_VALUE);
+            index.setMaxId(Long.MIN_VALUE);
+        }
+
+        /**
+         * 写入一个数据块，rows 需按ID升序
+         */
+        public void append(List<T> rows) throws IOException {
+            if (rows.isEmpty()) {
+                return;
+            }
+            byte[] data = CompressUtils.compress(MAPPER.writeValueAsString(rows));
+            out.write(data);
+            Block block = new Block();
+            block.setOffset(offset);
+            block.setLength(data.length);
+            block.setCount(rows.size());
+            block.setMinId(Long.MAX_VALUE);
+            block.setMaxId(Long.MIN_VALUE);
+            for (T row : rows) {
+                long id = idGetter.applyAsLong(row);
+                block.setMinId(Math.min(block.getMinId(), id));
+                block.setMaxId(Math.max(block.getMaxId(), id));
+                LocalDateTime time = timeGetter.apply(row);
+                if (time != null) {
+                    block.setMinTime(block.getMinTime() == null || time.isBefore(block.getMinTime()) ? time : block.getMinTime());
+                    block.setMaxTime(block.getMaxTime() == null || time.isAfter(block.getMaxTime()) ? time : block.getMaxTime());
+                }
+            }
+            offset += data.length;
+            index.getBlocks().add(block);
+            index.setRows(index.getRows() + rows.size());
+            index.setMinId(Math.min(index.getMinId(), block.getMinId()));
+            index.setMaxId(Math.max(index.getMaxId(), block.getMaxId()));
+            if (block.getMinTime() != null && (index.getMinTime() == null || block.getMinTime().isBefore(index.getMinTime()))) {
+                index.setMinTime(block.getMinTime());
+            }
+            if (block.getMaxTime() != null && (index.getMaxTime() == null || block.getMaxTime().isAfter(index.getMaxTime()))) {
+                index.setMaxTime(block.getMaxTime());
+            }
+        }
+
+        /**
+         * 刷盘并发布分段，返回写入的记录数
+         */
+        public long commit() throws IOException {
+            out.getFD().sync();
+            out.close();
+            index.setCreateTime(LocalDateTime.now());
+            File tempIndex = new File(indexFile.getPath() + TEMP_SUFFIX);
+            MAPPER.writeValue(tempIndex, index);
+            Files.move(tempSegment.toPath(), segmentFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            // 索引最后改名，存在索引即表示分段完整
+            Files.move(tempIndex.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            if (!segmentFile.setReadOnly() || !indexFile.setReadOnly()) {
+                log.debug("设置归档文件只读失败: {}", segmentFile.getName());
+            }
+            List<SegmentIndex> segments = segments(table);
+            synchronized (segments) {
+                segments.removeIf(s -> s.getSegment().equals(index.getSegment()));
+                segments.add(index);
+                segments.sort(Comparator.comparing(SegmentIndex::getSegment));
+            }
+            committed = true;
+            return index.getRows();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(tempSegment.toPath());
+            }
+        }
+    }
+
+    /**
+     * 归档查询结果
+     */
+    @Data
+    public static class ArchivePage<T> {
+
+        private long total;
+
+        private List<T> records = new ArrayList<>();
+    }
+
+    /**
+     * 分段索引
+     */
+    @Data
+    public static class SegmentIndex {
+
+        private String table;
+
+        private String segment;
+
+        private long rows;
+
+        private long minId;
+
+        private long maxId;
+
+        private LocalDateTime minTime;
+
+        private LocalDateTime maxTime;
+
+        private LocalDateTime createTime;
+
+        private List<Block> blocks = new ArrayList<>();
+    }
+
+    /**
+     * 数据块索引
+     */
+    @Data
+    public static class Block {
+
+        private long offset;
+
+        private int length;
+
+        private int count;
+
+        private long minId;
+
+        private long maxId;
+
+        private LocalDateTime minTime;
+
+        private LocalDateTime maxTime;
+    }
+}
@@ -1,27 +1,35 @@
 package com.demo.admin.common.aspect;
 
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.json.JSONObject;
-import cn.hutool.json.JSONUtil;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.demo.admin.common.annotation.OperLog;
+import com.demo.admin.common.audit.AuditDiff;
+import com.demo.admin.common.audit.AuditLogWriter;
+import com.demo.admin.common.audit.AuditMetadata;
+import com.demo.admin.common.audit.AuditPolicy;
+import com.demo.admin.common.audit.AuditResponseCapture;
+import com.demo.admin.common.audit.BoundedJsonSerializer;
+import com.demo.admin.common.utils.IpUtils;
 import com.demo.admin.modules.system.entity.SysLog;
-import com.demo.admin.modules.system.mapper.SysLogMapper;
 import com.demo.admin.security.service.LoginUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 
 /**
  * 操作日志切面
@@ -30,21 +38,41 @@ import java.lang.reflect.Method;
 @Component
 public class LogAspect {
 
+    /** 变更前后数据最大字符数 */
+    private static final int MAX_VALUE_CHARS = 5000;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
     @Autowired
-    private SysLogMapper logMapper;
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuditPolicy auditPolicy;
 
     @Around("@annotation(com.demo.admin.common.annotation.OperLog)")
     public Object around(ProceedingJoinPoint point) throws Throwable {
+        MethodSignature signature = (MethodSignature) point.getSignature();
+        AuditMetadata.HandlerMeta handler = AuditMetadata.getHandler(signature.getMethod(), point.getTarget().getClass());
+        AuditPolicy.Rule rule = auditPolicy.resolve(handler);
+        if (rule.getLevel() == OperLog.Level.NONE) {
+            return point.proceed();
+        }
+        // 未抽中的成功调用不记录，失败的调用始终记录
+        boolean sampled = rule.sample();
+
         long startTime = System.currentTimeMillis();
         Object result = null;
         Throwable ex = null;
 
         // 尝试获取变更前数据（仅对修改操作）
-        String oldValue = null;
-        try {
-            oldValue = captureOldValue(point);
-        } catch (Exception e) {
-            // ignore
+        Object oldEntity = null;
+        if (sampled && rule.includes(OperLog.Level.PARAMS)) {
+            try {
+                oldEntity = captureOldEntity(point);
+            } catch (Exception e) {
+                // ignore
+            }
         }
 
         try {
@@ -54,10 +82,12 @@ public class LogAspect {
             throw throwable;
         } finally {
             long elapsed = System.currentTimeMillis() - startTime;
-            try {
-                saveLog(point, elapsed, ex, result, oldValue);
-            } catch (Exception e) {
-                // 日志记录失败不影响业务
+            if (sampled || ex != null) {
+                try {
+                    saveLog(point, handler, rule, elapsed, ex, result, oldEntity);
+                } catch (Exception e) {
+                    // 日志记录失败不影响业务
+                }
             }
         }
 
@@ -65,9 +95,9 @@ public class LogAspect {
     }
 
     /**
-     * 对修改操作，在执行前捕获旧数据
+     * 对修改操作，在执行前查询旧数据
      */
-    private String captureOldValue(ProceedingJoinPoint point) {
+    private Object captureOldEntity(ProceedingJoinPoint point) {
         // 判断是否为PUT请求（修改操作）
         ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         if (attrs == null) return null;
@@ -81,82 +111,39 @@ public class LogAspect {
         Object entity = args[0];
         if (entity == null) return null;
 
-        Long entityId = extractId(entity);
+        Long entityId = AuditMetadata.getId(entity);
         if (entityId == null) return null;
 
         // 在Controller中查找BaseMapper类型的字段，用它来查询旧数据
-        Object target = point.getTarget();
-        BaseMapper mapper = findMapper(target);
+        BaseMapper mapper = AuditMetadata.getMapper(point.getTarget());
         if (mapper == null) return null;
 
-        Object oldEntity = mapper.selectById(entityId);
-        if (oldEntity == null) return null;
-
-        String json = JSONUtil.toJsonStr(oldEntity);
-        return json.length() > 5000 ? json.substring(0, 5000) : json;
-    }
-
-    /**
-     * 从实体对象中提取ID字段值
-     */
-    private Long extractId(Object entity) {
-        try {
-            // 先尝试JSON方式获取
-            if (entity instanceof java.util.Map) {
-                Object id = ((java.util.Map<?, ?>) entity).get("id");
-                if (id != null) return Long.valueOf(id.toString());
-            }
-
-            // 反射获取id字段
-            Field idField = null;
-            Class<?> clazz = entity.getClass();
-            while (clazz != null) {
-                try {
-                    idField = clazz.getDeclaredField("id");
-                    break;
-                } catch (NoSuchFieldException e) {
-                    clazz = clazz.getSuperclass();
-                }
-            }
-            if (idField != null) {
-                idField.setAccessible(true);
-                Object val = idField.get(entity);
-                if (val != null) return Long.valueOf(val.toString());
-            }
-        } catch (Exception e) {
-            // ignore
-        }
-        return null;
+        return mapper.selectById(entityId);
     }
 
     /**
-     * 在Controller中查找BaseMapper或IService的实例
+     * 可记录的参数：请求/响应对象、绑定结果不序列化，上传文件只记录文件名
      */
-    @SuppressWarnings("rawtypes")
-    private BaseMapper findMapper(Object target) {
-        Class<?> clazz = target.getClass();
-        // 可能是CGLIB代理类
-        if (clazz.getName().contains("$$")) {
-            clazz = clazz.getSuperclass();
-        }
-        for (Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-            try {
-                Object val = field.get(target);
-                if (val instanceof BaseMapper) {
-                    return (BaseMapper) val;
-                }
-            } catch (Exception e) {
-                // ignore
+    private static Object[] loggableArgs(Object[] args) {
+        Object[] loggable = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg instanceof ServletRequest || arg instanceof ServletResponse || arg instanceof BindingResult) {
+                loggable[i] = null;
+            } else if (arg instanceof MultipartFile) {
+                loggable[i] = ((MultipartFile) arg).getOriginalFilename();
+            } else if (arg instanceof InputStreamSource) {
+                loggable[i] = arg.getClass().getSimpleName();
+            } else {
+                loggable[i] = arg;
             }
         }
-        return null;
+        return loggable;
     }
 
-    private void saveLog(ProceedingJoinPoint point, long elapsed, Throwable ex, Object result, String oldValue) {
-        MethodSignature signature = (MethodSignature) point.getSignature();
-        Method method = signature.getMethod();
-        OperLog operLog = method.getAnnotation(OperLog.class);
+    private void saveLog(ProceedingJoinPoint point, AuditMetadata.HandlerMeta handler, AuditPolicy.Rule rule,
+                         long elapsed, Throwable ex, Object result, Object oldEntity) {
+        OperLog operLog = handler.getOperLog();
 
         SysLog log = new SysLog();
 
@@ -166,31 +153,30 @@ public class LogAspect {
         }
 
         // 请求方法（类名.方法名）
-        String className = point.getTarget().getClass().getName();
-        String methodName = method.getName();
-        log.setMethod(className + "." + methodName + "()");
+        log.setMethod(handler.getSignature());
 
         // 请求参数（截断过长参数）
-        String newValue = null;
+        Object[] args = point.getArgs();
         try {
-            Object[] args = point.getArgs();
-            if (args != null && args.length > 0) {
-                String params = JSONUtil.toJsonStr(args);
-                log.setParams(params.length() > 2000 ? params.substring(0, 2000) : params);
-
-                // 对修改操作，记录新值
-                if (oldValue != null) {
-                    newValue = JSONUtil.toJsonStr(args[0]);
-                    if (newValue.length() > 5000) newValue = newValue.substring(0, 5000);
-                }
+            if (rule.includes(OperLog.Level.PARAMS) && rule.getMaxParams() > 0 && args != null && args.length > 0) {
+                log.setParams(BoundedJsonSerializer.toJson(objectMapper, loggableArgs(args), rule.getMaxParams()));
             }
         } catch (Exception e) {
             log.setParams("参数序列化失败");
         }
 
-        // 变更前后数据
-        log.setOldValue(oldValue);
-        log.setNewValue(newValue);
+        // 变更前后数据：只记录有变化的字段
+        if (oldEntity != null && args != null && args.length > 0) {
+            try {
+                AuditDiff diff = AuditDiff.of(oldEntity, args[0]);
+                if (!diff.isEmpty()) {
+                    log.setOldValue(BoundedJsonSerializer.toJson(objectMapper, diff.getOldValues(), MAX_VALUE_CHARS));
+                    log.setNewValue(BoundedJsonSerializer.toJson(objectMapper, diff.getNewValues(), MAX_VALUE_CHARS));
+                }
+            } catch (Exception e) {
+                // ignore
+            }
+        }
 
         // 执行时长
         log.setTime(elapsed);
@@ -210,19 +196,7 @@ public class LogAspect {
         try {
             ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
             if (attrs != null) {
-                HttpServletRequest request = attrs.getRequest();
-                String ip = request.getHeader("X-Forwarded-For");
-                if (StrUtil.isBlank(ip) || "unknown".equalsIgnoreCase(ip)) {
-                    ip = request.getHeader("X-Real-IP");
-                }
-                if (StrUtil.isBlank(ip) || "unknown".equalsIgnoreCase(ip)) {
-                    ip = request.getRemoteAddr();
-                }
-                // 多代理时取第一个
-                if (ip != null && ip.contains(",")) {
-                    ip = ip.split(",")[0].trim();
-                }
-                log.setIp(ip);
+                log.setIp(IpUtils.getClientIp(attrs.getRequest()));
             }
         } catch (Exception e) {
             // ignore
@@ -237,16 +211,19 @@ public class LogAspect {
             log.setStatus(1);
         }
 
-        // 响应结果
-        if (result != null) {
+        // 响应结果：优先截获写给客户端的响应内容，待响应写完后再保存
+        boolean recordResponse = result != null && rule.includes(OperLog.Level.FULL) && rule.getMaxResponse() > 0;
+        if (recordResponse && ex == null && AuditResponseCapture.defer(log, result, rule.getMaxResponse())) {
+            return;
+        }
+        if (recordResponse) {
             try {
-                String resBody = JSONUtil.toJsonStr(result);
-                log.setResponseBody(resBody.length() > 2000 ? resBody.substring(0, 2000) : resBody);
+                log.setResponseBody(BoundedJsonSerializer.toJson(objectMapper, result, rule.getMaxResponse()));
             } catch (Exception e) {
                 // ignore
             }
         }
 
-        logMapper.insert(log);
+        auditLogWriter.submit(log);
     }
 }
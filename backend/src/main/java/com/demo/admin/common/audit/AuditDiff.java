@@ -0,0 +1,128 @@
+package com.demo.admin.common.audit;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 修改操作的字段级差异
+ * <p>
+ * 以请求参数（DTO 或 Map）中非空的属性为准与修改前的实体比较，只保留值不同的字段；
+ * 实体上没有的属性（如角色ID列表）只记录新值。审计字段不参与比较，密码类字段只记录是否变更。
+ */
+public final class AuditDiff {
+
+    /** 不参与比较的审计字段，与前端变更对比的忽略字段一致 */
+    private static final Set<String> IGNORED = new HashSet<>(Arrays.asList(
+            "id", "createTime", "updateTime", "createBy", "updateBy", "deleted", "serialVersionUID"));
+
+    private static final Set<String> MASKED = new HashSet<>(Arrays.asList("password", "oldPassword", "newPassword"));
+
+    private static final String MASK = "******";
+
+    private final Map<String, Object> oldValues;
+    private final Map<String, Object> newValues;
+
+    private AuditDiff(Map<String, Object> oldValues, Map<String, Object> newValues) {
+        this.oldValues = oldValues;
+        this.newValues = newValues;
+    }
+
+    /**
+     * 计算修改前实体与请求参数的差异
+     */
+    public static AuditDiff of(Object oldEntity, Object request) {
+        Map<String, Object> oldValues = new LinkedHashMap<>();
+        Map<String, Object> newValues = new LinkedHashMap<>();
+        if (oldEntity == null || request == null) {
+            return new AuditDiff(oldValues, newValues);
+        }
+        Map<String, Function<Object, Object>> oldProperties = AuditMetadata.getProperties(oldEntity.getClass());
+        for (Map.Entry<String, Object> entry : requestValues(request).entrySet()) {
+            String name = entry.getKey();
+            Object newValue = entry.getValue();
+            if (newValue == null || IGNORED.contains(name)) {
+                continue;
+            }
+            Function<Object, Object> getter = oldProperties.get(name);
+            if (getter == null) {
+                newValues.put(name, mask(name, newValue));
+                continue;
+            }
+            Object oldValue = getter.apply(oldEntity);
+            if (!sameValue(oldValue, newValue)) {
+                oldValues.put(name, mask(name, oldValue));
+                newValues.put(name, mask(name, newValue));
+            }
+        }
+        return new AuditDiff(oldValues, newValues);
+    }
+
+    public boolean isEmpty() {
+        return oldValues.isEmpty() && newValues.isEmpty();
+    }
+
+    /**
+     * 变更字段的旧值
+     */
+    public Map<String, Object> getOldValues() {
+        return oldValues;
+    }
+
+    /**
+     * 变更字段的新值
+     */
+    public Map<String, Object> getNewValues() {
+        return newValues;
+    }
+
+    private static Map<String, Object> requestValues(Object request) {
+        if (request instanceof Map) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) request).entrySet()) {
+                values.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            return values;
+        }
+        Map<String, Function<Object, Object>> properties = AuditMetadata.getProperties(request.getClass());
+        if (properties.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> values = new LinkedHashMap<>(properties.size() * 2);
+        for (Map.Entry<String, Function<Object, Object>> entry : properties.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().apply(request));
+        }
+        return values;
+    }
+
+    /**
+     * 数值按数值比较（Integer 与 Long、BigDecimal 精度），其余按 equals
+     */
+    private static boolean sameValue(Object oldValue, Object newValue) {
+        if (Objects.equals(oldValue, newValue)) {
+            return true;
+        }
+        if (oldValue instanceof Number && newValue instanceof Number) {
+            try {
+                return new BigDecimal(oldValue.toString()).compareTo(new BigDecimal(newValue.toString())) == 0;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        if (oldValue instanceof Number || newValue instanceof Number) {
+            // Map 参数中的数值可能是字符串
+            return oldValue != null && String.valueOf(oldValue).equals(String.valueOf(newValue));
+        }
+        return false;
+    }
+
+    private static Object mask(String name, Object value) {
+        return value != null && MASKED.contains(name) ? MASK : value;
+    }
+}
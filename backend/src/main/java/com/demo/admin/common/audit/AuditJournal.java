@@ -0,0 +1,389 @@
+package com.demo.admin.common.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * 操作日志本地日志文件（write-ahead journal）
+ * <p>
+ * 日志先追加到内存映射的分段文件，再由 {@link AuditLogWriter} 成批回放写入 sys_log，
+ * 数据库确认后推进检查点并删除已全部确认的分段。进程重启时从检查点恢复未确认的记录。
+ * <p>
+ * 记录格式：[长度 int][CRC32 int][内容]，长度为0表示分段尚未写到此处，-1 表示分段已封存。
+ * 检查点在数据库提交之后写入，崩溃时最后一批可能重复回放（至少一次）。
+ * <p>
+ * 刷盘在锁外进行，不阻塞追加；{@link #force()} 与 {@link #confirm(Batch)} 只由写入线程调用，
+ * 确认时先解除分段映射再删除文件，刷盘不会访问已解除映射的分段。
+ */
+@Slf4j
+@Component
+public class AuditJournal {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int HEADER_SIZE = 8;
+    private static final int SEALED = -1;
+
+    @Value("${admin.audit.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${admin.audit.journal.dir:./data/audit-journal}")
+    private String dir = "./data/audit-journal";
+
+    /** 单个分段大小（字节） */
+    @Value("${admin.audit.journal.segment-size:8388608}")
+    private int segmentSize = 8 * 1024 * 1024;
+
+    /** 最多保留的分段数，写满后追加失败，由调用方走内存队列 */
+    @Value("${admin.audit.journal.max-segments:64}")
+    private int maxSegments = 64;
+
+    private File directory;
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private long writeSegment;
+    private int writeOffset;
+    private long readSegment;
+    private int readOffset;
+    private final AtomicLong pending = new AtomicLong();
+    /** 已封存、尚未刷盘的分段 */
+    private final List<MappedByteBuffer> unforced = new ArrayList<>();
+    private RandomAccessFile checkpoint;
+
+    @PostConstruct
+    public synchronized void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            directory = new File(dir);
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw new IOException("无法创建目录 " + directory.getAbsolutePath());
+            }
+            checkpoint = new RandomAccessFile(new File(directory, CHECKPOINT_FILE), "rw");
+            recover();
+            log.info("操作日志journal已打开：{}，待回放 {} 条，分段 {} 个", directory.getAbsolutePath(), pending.get(), segments.size());
+        } catch (IOException e) {
+            log.error("操作日志journal打开失败，改为仅使用内存队列: {}", e.getMessage());
+            enabled = false;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (!enabled) {
+            return;
+        }
+        force();
+        try {
+            checkpoint.close();
+        } catch (IOException e) {
+            // ignore
+        }
+        segments.clear();
+        enabled = false;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 追加一条记录；未启用、记录过大、分段数已满或写入失败时返回false
+     */
+    public synchronized boolean append(byte[] record) {
+        if (!enabled || record.length + HEADER_SIZE + 4 > segmentSize) {
+            return false;
+        }
+        try {
+            MappedByteBuffer buffer = segments.get(writeSegment);
+            if (writeOffset + HEADER_SIZE + record.length + 4 > segmentSize) {
+                if (segments.size() >= maxSegments) {
+                    return false;
+                }
+                buffer.putInt(writeOffset, SEALED);
+                unforced.add(buffer);
+                writeSegment++;
+                writeOffset = 0;
+                buffer = mapSegment(writeSegment);
+                segments.put(writeSegment, buffer);
+            }
+            ByteBuffer target = buffer.duplicate();
+            target.position(writeOffset + HEADER_SIZE);
+            target.put(record);
+            buffer.putInt(writeOffset + 4, crc(record));
+            // 长度最后写入，读到非0长度即表示记录完整
+            buffer.putInt(writeOffset, record.length);
+            writeOffset += HEADER_SIZE + record.length;
+            pending.incrementAndGet();
+            return true;
+        } catch (IOException e) {
+            log.warn("写入操作日志journal失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 从检查点开始读取至多 max 条未确认记录，不推进检查点
+     */
+    public synchronized Batch read(int max) {
+        Batch batch = new Batch();
+        long segment = readSegment;
+        int offset = readOffset;
+        while (enabled && batch.records.size() < max) {
+            MappedByteBuffer buffer = segments.get(segment);
+            if (buffer == null) {
+                break;
+            }
+            int length = offset + HEADER_SIZE <= segmentSize ? buffer.getInt(offset) : SEALED;
+            if (length == 0 && segment == writeSegment) {
+                break;
+            }
+            byte[] record = length > 0 ? readRecord(buffer, offset, length) : null;
+            if (record == null) {
+                // 已封存或尾部损坏，转到下一个分段
+                Long next = segments.higherKey(segment);
+                if (next == null) {
+                    break;
+                }
+                segment = next;
+                offset = 0;
+                continue;
+            }
+            batch.records.add(record);
+            offset += HEADER_SIZE + length;
+        }
+        batch.segment = segment;
+        batch.offset = offset;
+        return batch;
+    }
+
+    /**
+     * 确认一批记录已写入数据库：推进检查点并删除已全部确认的分段
+     */
+    public synchronized void confirm(Batch batch) {
+        if (!enabled || batch.records.isEmpty()) {
+            return;
+        }
+        readSegment = batch.segment;
+        readOffset = batch.offset;
+        int confirmed = batch.records.size();
+        pending.updateAndGet(value -> Math.max(0, value - confirmed));
+        try {
+            writeCheckpoint();
+        } catch (IOException e) {
+            log.warn("写入操作日志journal检查点失败: {}", e.getMessage());
+        }
+        while (!segments.isEmpty() && segments.firstKey() < readSegment) {
+            Map.Entry<Long, MappedByteBuffer> entry = segments.pollFirstEntry();
+            long id = entry.getKey();
+            unforced.remove(entry.getValue());
+            unmap(entry.getValue());
+            if (!segmentFile(id).delete()) {
+                log.warn("删除操作日志journal分段失败: {}", id);
+            }
+        }
+    }
+
+    /**
+     * 刷盘：在锁内取出需要刷盘的分段，锁外执行 msync
+     */
+    public void force() {
+        List<MappedByteBuffer> buffers;
+        synchronized (this) {
+            buffers = new ArrayList<>(unforced);
+            unforced.clear();
+            MappedByteBuffer buffer = segments.get(writeSegment);
+            if (buffer != null) {
+                buffers.add(buffer);
+            }
+        }
+        for (MappedByteBuffer buffer : buffers) {
+            buffer.force();
+        }
+    }
+
+    public long pending() {
+        return pending.get();
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 按检查点恢复：删除已确认的分段，统计未确认记录，定位写入位置
+     */
+    private void recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        File[] files = directory.listFiles((d, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                try {
+                    ids.add(Long.parseLong(file.getName().substring(0, file.getName().length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // 非分段文件
+                }
+            }
+        }
+        ids.sort(null);
+        readCheckpoint(ids.isEmpty() ? 0 : ids.get(0));
+        for (Long id : ids) {
+            if (id < readSegment) {
+                segmentFile(id).delete();
+            } else {
+                segments.put(id, mapSegment(id));
+            }
+        }
+        if (!segments.isEmpty() && !segments.containsKey(readSegment)) {
+            readSegment = segments.firstKey();
+            readOffset = 0;
+        }
+        if (segments.isEmpty()) {
+            readOffset = 0;
+            writeSegment = readSegment;
+            writeOffset = 0;
+            segments.put(writeSegment, mapSegment(writeSegment));
+            writeCheckpoint();
+            return;
+        }
+        // 统计待回放条数，并定位最后一个分段的写入位置
+        pending.set(0);
+        for (Map.Entry<Long, MappedByteBuffer> entry : segments.entrySet()) {
+            int offset = entry.getKey() == readSegment ? readOffset : 0;
+            MappedByteBuffer buffer = entry.getValue();
+            while (offset + HEADER_SIZE <= segmentSize) {
+                int length = buffer.getInt(offset);
+                if (length <= 0 || readRecord(buffer, offset, length) == null) {
+                    break;
+                }
+                pending.incrementAndGet();
+                offset += HEADER_SIZE + length;
+            }
+            writeSegment = entry.getKey();
+            writeOffset = offset;
+        }
+        // 清除尾部残缺记录，避免之后被误读
+        MappedByteBuffer last = segments.get(writeSegment);
+        for (int i = writeOffset; i < segmentSize; i++) {
+            last.put(i, (byte) 0);
+        }
+    }
+
+    private byte[] readRecord(MappedByteBuffer buffer, int offset, int length) {
+        if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+            return null;
+        }
+        byte[] record = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset + HEADER_SIZE);
+        source.get(record);
+        return crc(record) == buffer.getInt(offset + 4) ? record : null;
+    }
+
+    private MappedByteBuffer mapSegment(long id) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(id), "rw");
+             FileChannel channel = file.getChannel()) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    /**
+     * 立即解除内存映射，不等GC回收（JDK 9+ 使用 Unsafe.invokeCleaner，JDK 8 使用 DirectBuffer.cleaner）；
+     * 失败时由GC回收映射
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            try {
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+                return;
+            } catch (NoSuchMethodException e) {
+                // JDK 8
+            }
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (Exception e) {
+            log.debug("解除操作日志journal分段映射失败: {}", e.getMessage());
+        }
+    }
+
+    private File segmentFile(long id) {
+        return new File(directory, String.format("%020d%s", id, SEGMENT_SUFFIX));
+    }
+
+    private void readCheckpoint(long defaultSegment) throws IOException {
+        readSegment = defaultSegment;
+        readOffset = 0;
+        if (checkpoint.length() < 16) {
+            return;
+        }
+        checkpoint.seek(0);
+        long segment = checkpoint.readLong();
+        int offset = checkpoint.readInt();
+        int crc = checkpoint.readInt();
+        if (crc == checkpointCrc(segment, offset)) {
+            readSegment = segment;
+            readOffset = offset;
+        } else {
+            log.warn("操作日志journal检查点损坏，从最早的分段开始回放");
+        }
+    }
+
+    private void writeCheckpoint() throws IOException {
+        checkpoint.seek(0);
+        checkpoint.writeLong(readSegment);
+        checkpoint.writeInt(readOffset);
+        checkpoint.writeInt(checkpointCrc(readSegment, readOffset));
+    }
+
+    private static int checkpointCrc(long segment, int offset) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(12).putLong(segment).putInt(offset).array());
+        return (int) crc.getValue();
+    }
+
+    private static int crc(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 一批待回放的记录及其结束位置
+     */
+    public static final class Batch {
+
+        private final List<byte[]> records = new ArrayList<>();
+        private long segment;
+        private int offset;
+
+        public List<byte[]> getRecords() {
+            return records;
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.demo.admin.common.audit;
+
+import com.demo.admin.modules.system.entity.SysLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.demo.admin.modules.system.service.LiveStatsService;
+import com.demo.admin.modules.system.service.StatRollupService;
+import com.demo.admin.modules.system.service.SysLogService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 操作日志异步写入
+ * <p>
+ * 切面只把日志放入有界无锁队列，由单个写入线程按条数或时间间隔批量插入 sys_log。
+ * 队列满时按溢出策略处理：
+ * <ul>
+ *     <li>BLOCK：等待队列腾出空间，超过 block-timeout 仍未腾出则丢弃</li>
+ *     <li>DROP_OLDEST：丢弃最早的一条，保留最新日志</li>
+ *     <li>SAMPLE：队列超过 3/4 后按 sample-rate 抽样保留，满时丢弃新日志</li>
+ * </ul>
+ * 应用关闭时写完队列中剩余的日志。
+ * <p>
+ * 启用 {@link AuditJournal} 后日志先追加到本地journal，写入线程从journal成批回放，
+ * 数据库确认后才推进检查点；写库失败时保留记录稍后重试，请求不受影响。
+ * journal写满或不可用时退回内存队列。
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    public enum OverflowPolicy {
+        BLOCK, DROP_OLDEST, SAMPLE
+    }
+
+    @Value("${admin.audit.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${admin.audit.batch-size:200}")
+    private int batchSize = 200;
+
+    /** 最长攒批时间（毫秒） */
+    @Value("${admin.audit.flush-interval:1000}")
+    private long flushInterval = 1000;
+
+    @Value("${admin.audit.overflow-policy:BLOCK}")
+    private String overflowPolicy = "BLOCK";
+
+    /** BLOCK 策略下最长等待时间（毫秒） */
+    @Value("${admin.audit.block-timeout:100}")
+    private long blockTimeout = 100;
+
+    /** SAMPLE 策略下每多少条保留一条 */
+    @Value("${admin.audit.sample-rate:10}")
+    private int sampleRate = 10;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Autowired
+    private SysLogService logService;
+
+    @Autowired
+    private AuditJournal journal;
+
+    @Autowired
+    private StatRollupService rollupService;
+
+    @Autowired
+    private LiveStatsService liveStatsService;
+
+    private final ConcurrentLinkedQueue<SysLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder journalFailures = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushTimeTotal = new LongAdder();
+    private final LongAccumulator flushTimeMax = new LongAccumulator(Math::max, 0);
+
+    private OverflowPolicy policy = OverflowPolicy.BLOCK;
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    @PostConstruct
+    public void start() {
+        policy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("操作日志异步写入已启动，队列容量 {}，批量 {}，溢出策略 {}", queueCapacity, batchSize, policy);
+    }
+
+    /**
+     * 关闭时写完剩余日志
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushAll();
+    }
+
+    /**
+     * 提交一条日志，返回是否已入队
+     */
+    public boolean submit(SysLog sysLog) {
+        if (sysLog.getCreateTime() == null) {
+            sysLog.setCreateTime(LocalDateTime.now());
+        }
+        if (!running) {
+            // 未启动或已关闭时直接写入
+            insert(Collections.singletonList(sysLog));
+            return true;
+        }
+        if (appendJournal(sysLog)) {
+            enqueued.increment();
+            if (journal.pending() >= batchSize) {
+                LockSupport.unpark(writerThread);
+            }
+            return true;
+        }
+        switch (policy) {
+            case DROP_OLDEST:
+                while (!reserve()) {
+                    if (queue.poll() != null) {
+                        size.decrementAndGet();
+                        dropped.increment();
+                    }
+                }
+                break;
+            case SAMPLE:
+                if (size.get() >= queueCapacity * 3 / 4
+                        && sampleCounter.incrementAndGet() % Math.max(1, sampleRate) != 0) {
+                    sampledOut.increment();
+                    return false;
+                }
+                if (!reserve()) {
+                    dropped.increment();
+                    return false;
+                }
+                break;
+            case BLOCK:
+            default:
+                if (!reserve() && !reserveBlocking()) {
+                    dropped.increment();
+                    return false;
+                }
+                break;
+        }
+        queue.offer(sysLog);
+        enqueued.increment();
+        if (size.get() >= batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    /**
+     * 运行指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long count = flushes.sum();
+        metrics.put("policy", policy.name());
+        metrics.put("queueDepth", size.get());
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("enqueued", enqueued.sum());
+        metrics.put("written", written.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("sampledOut", sampledOut.sum());
+        metrics.put("blocked", blocked.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("flushes", count);
+        metrics.put("avgFlushLatency", count > 0 ? flushTimeTotal.sum() / count : 0);
+        metrics.put("maxFlushLatency", flushTimeMax.get());
+        boolean journalEnabled = journalEnabled();
+        metrics.put("journalEnabled", journalEnabled);
+        metrics.put("journalPending", journalEnabled ? journal.pending() : 0);
+        metrics.put("journalSegments", journalEnabled ? journal.segmentCount() : 0);
+        metrics.put("journalFailures", journalFailures.sum());
+        return metrics;
+    }
+
+    /**
+     * 占用一个队列名额，队列已满时返回false
+     */
+    private boolean reserve() {
+        while (true) {
+            int current = size.get();
+            if (current >= queueCapacity) {
+                return false;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean reserveBlocking() {
+        blocked.increment();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeout);
+        LockSupport.unpark(writerThread);
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            if (reserve()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                if (size.get() < batchSize && journalPending() < batchSize) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushInterval));
+                }
+                drain(batchSize);
+                if (replay(batchSize) < 0) {
+                    // 数据库不可用，稍后重试
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushInterval));
+                }
+                if (journalEnabled()) {
+                    journal.force();
+                }
+            } catch (Exception e) {
+                log.warn("操作日志写入线程异常: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void flushAll() {
+        while (size.get() > 0) {
+            if (drain(batchSize) == 0) {
+                break;
+            }
+        }
+        // 写库失败的记录留在journal中，下次启动时回放
+        while (journalPending() > 0) {
+            if (replay(batchSize) <= 0) {
+                break;
+            }
+        }
+    }
+
+    private boolean journalEnabled() {
+        return journal != null && journal.isEnabled();
+    }
+
+    private long journalPending() {
+        return journalEnabled() ? journal.pending() : 0;
+    }
+
+    private boolean appendJournal(SysLog sysLog) {
+        if (!journalEnabled()) {
+            return false;
+        }
+        try {
+            if (journal.append(MAPPER.writeValueAsBytes(sysLog))) {
+                return true;
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("操作日志序列化失败: {}", e.getMessage());
+        }
+        journalFailures.increment();
+        return false;
+    }
+
+    /**
+     * 从journal回放至多 limit 条写入数据库，成功后推进检查点；返回回放条数，写库失败返回-1
+     */
+    int replay(int limit) {
+        if (!journalEnabled()) {
+            return 0;
+        }
+        AuditJournal.Batch batch = journal.read(limit);
+        if (batch.getRecords().isEmpty()) {
+            return 0;
+        }
+        List<SysLog> logs = new ArrayList<>(batch.getRecords().size());
+        for (byte[] record : batch.getRecords()) {
+            try {
+                logs.add(MAPPER.readValue(record, SysLog.class));
+            } catch (Exception e) {
+                log.warn("跳过无法解析的操作日志记录: {}", e.getMessage());
+            }
+        }
+        if (!logs.isEmpty() && !write(logs)) {
+            return -1;
+        }
+        journal.confirm(batch);
+        return batch.getRecords().size();
+    }
+
+    /**
+     * 取出至多 limit 条写入数据库，返回取出条数
+     */
+    int drain(int limit) {
+        List<SysLog> batch = new ArrayList<>(Math.min(limit, Math.max(1, size.get())));
+        SysLog sysLog;
+        while (batch.size() < limit && (sysLog = queue.poll()) != null) {
+            batch.add(sysLog);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        size.addAndGet(-batch.size());
+        insert(batch);
+        return batch.size();
+    }
+
+    private void insert(List<SysLog> batch) {
+        if (!write(batch)) {
+            failed.add(batch.size());
+            log.error("批量写入操作日志失败，丢失 {} 条", batch.size());
+        }
+    }
+
+    private boolean write(List<SysLog> batch) {
+        long start = System.nanoTime();
+        try {
+            logService.saveBatch(batch, batchSize);
+            written.add(batch.size());
+            rollupService.recordLogs(batch);
+            liveStatsService.recordOperations(batch);
+            liveStatsService.addRecentLogs(batch);
+            return true;
+        } catch (Exception e) {
+            log.warn("批量写入操作日志失败: {}", e.getMessage());
+            return false;
+        } finally {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            flushes.increment();
+            flushTimeTotal.add(elapsed);
+            flushTimeMax.accumulate(elapsed);
+        }
+    }
+}
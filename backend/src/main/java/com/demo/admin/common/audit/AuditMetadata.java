@@ -0,0 +1,238 @@
+package com.demo.admin.common.audit;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.demo.admin.common.annotation.OperLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 操作日志切面用到的反射元数据缓存
+ * <p>
+ * 首次遇到某个类或处理方法时解析一次：实体的 id 访问器（优先 getter 经 LambdaMetafactory 生成的函数，
+ * 其次字段的 MethodHandle）、实体全部属性的 getter 访问器、Controller 中 BaseMapper 字段的访问器、
+ * 方法上的 {@link OperLog}、方法签名及简短名称。
+ * 之后的调用只做缓存查找和函数调用，不再反射。
+ */
+@Slf4j
+public final class AuditMetadata {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /** 实体类 -> id 访问器，无 id 时为 {@link #NONE} */
+    private static final ClassValue<Function<Object, Object>> ID_ACCESSORS = new ClassValue<Function<Object, Object>>() {
+        @Override
+        protected Function<Object, Object> computeValue(Class<?> type) {
+            return resolveIdAccessor(type);
+        }
+    };
+
+    /** Controller 类 -> BaseMapper 字段访问器，无 mapper 时为 {@link #NONE} */
+    private static final ClassValue<Function<Object, Object>> MAPPER_ACCESSORS = new ClassValue<Function<Object, Object>>() {
+        @Override
+        protected Function<Object, Object> computeValue(Class<?> type) {
+            return resolveMapperAccessor(type);
+        }
+    };
+
+    /** 类 -> 属性名到 getter 访问器，按属性名排序 */
+    private static final ClassValue<Map<String, Function<Object, Object>>> PROPERTIES =
+            new ClassValue<Map<String, Function<Object, Object>>>() {
+                @Override
+                protected Map<String, Function<Object, Object>> computeValue(Class<?> type) {
+                    return resolveProperties(type);
+                }
+            };
+
+    private static final Map<Method, HandlerMeta> HANDLERS = new ConcurrentHashMap<>();
+
+    private static final Function<Object, Object> NONE = target -> null;
+
+    private AuditMetadata() {
+    }
+
+    /**
+     * 读取实体的 id，Map 取 "id" 键；无 id 或无法转换为 Long 时返回 null
+     */
+    public static Long getId(Object entity) {
+        if (entity == null) {
+            return null;
+        }
+        Object id = entity instanceof Map
+                ? ((Map<?, ?>) entity).get("id")
+                : ID_ACCESSORS.get(entity.getClass()).apply(entity);
+        if (id == null) {
+            return null;
+        }
+        if (id instanceof Long) {
+            return (Long) id;
+        }
+        try {
+            return Long.valueOf(id.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 类的可读属性（不含 class），属性名到访问器
+     */
+    public static Map<String, Function<Object, Object>> getProperties(Class<?> type) {
+        return PROPERTIES.get(type);
+    }
+
+    /**
+     * 在 Controller 中查找 BaseMapper 实例
+     */
+    @SuppressWarnings("rawtypes")
+    public static BaseMapper getMapper(Object target) {
+        if (target == null) {
+            return null;
+        }
+        Object mapper = MAPPER_ACCESSORS.get(target.getClass()).apply(target);
+        return mapper instanceof BaseMapper ? (BaseMapper) mapper : null;
+    }
+
+    /**
+     * 处理方法元数据
+     */
+    public static HandlerMeta getHandler(Method method, Class<?> targetClass) {
+        HandlerMeta meta = HANDLERS.get(method);
+        if (meta == null) {
+            meta = HANDLERS.computeIfAbsent(method, m -> new HandlerMeta(m, targetClass));
+        }
+        return meta;
+    }
+
+    private static Function<Object, Object> resolveIdAccessor(Class<?> type) {
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            Field field;
+            try {
+                field = clazz.getDeclaredField("id");
+            } catch (NoSuchFieldException e) {
+                continue;
+            }
+            try {
+                Method getter = type.getMethod("getId");
+                if (getter.getParameterCount() == 0) {
+                    return getterFunction(getter);
+                }
+            } catch (NoSuchMethodException e) {
+                // 无 getter，直接读字段
+            } catch (Throwable e) {
+                log.debug("生成 {}.getId 访问器失败，改用字段读取: {}", type.getName(), e.getMessage());
+            }
+            return fieldFunction(field);
+        }
+        return NONE;
+    }
+
+    private static Map<String, Function<Object, Object>> resolveProperties(Class<?> type) {
+        Map<String, Function<Object, Object>> properties = new TreeMap<>();
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+            Method getter = descriptor.getReadMethod();
+            if (getter == null || getter.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            try {
+                properties.put(descriptor.getName(), getterFunction(getter));
+            } catch (Throwable e) {
+                log.debug("生成 {}.{} 访问器失败: {}", type.getName(), getter.getName(), e.getMessage());
+            }
+        }
+        return Collections.unmodifiableMap(properties);
+    }
+
+    private static Function<Object, Object> resolveMapperAccessor(Class<?> type) {
+        Class<?> clazz = type;
+        // 可能是CGLIB代理类
+        if (clazz.getName().contains("$$")) {
+            clazz = clazz.getSuperclass();
+        }
+        for (Field field : clazz.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && BaseMapper.class.isAssignableFrom(field.getType())) {
+                return fieldFunction(field);
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * 将无参 getter 转为 Function，调用开销与直接调用相当
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getterFunction(Method getter) throws Throwable {
+        MethodHandle handle = LOOKUP.unreflect(getter);
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                handle,
+                handle.type().wrap());
+        return (Function<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    private static Function<Object, Object> fieldFunction(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            return target -> {
+                try {
+                    return handle.invokeExact(target);
+                } catch (Throwable e) {
+                    return null;
+                }
+            };
+        } catch (Exception e) {
+            log.debug("无法访问字段 {}.{}: {}", field.getDeclaringClass().getName(), field.getName(), e.getMessage());
+            return NONE;
+        }
+    }
+
+    /**
+     * 处理方法元数据：操作描述与日志中的方法签名
+     */
+    public static final class HandlerMeta {
+
+        private final OperLog operLog;
+        private final String signature;
+        private final String name;
+
+        HandlerMeta(Method method, Class<?> targetClass) {
+            Class<?> userClass = ClassUtils.getUserClass(targetClass);
+            this.operLog = method.getAnnotation(OperLog.class);
+            this.signature = targetClass.getName() + "." + method.getName() + "()";
+            this.name = userClass.getSimpleName() + "." + method.getName();
+        }
+
+        public OperLog getOperLog() {
+            return operLog;
+        }
+
+        public String getSignature() {
+            return signature;
+        }
+
+        /**
+         * 简短名称：类名.方法名
+         */
+        public String getName() {
+            return name;
+        }
+    }
+}
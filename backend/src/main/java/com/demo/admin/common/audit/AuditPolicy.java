@@ -0,0 +1,224 @@
+package com.demo.admin.common.audit;
+
+import cn.hutool.core.util.StrUtil;
+import com.demo.admin.common.annotation.OperLog;
+import com.demo.admin.modules.system.service.SysConfigService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 操作日志记录策略
+ * <p>
+ * 默认取 {@link OperLog} 上的级别、抽样率和长度上限，参数配置 sys.audit.policy 可在运行时逐项覆盖，
+ * 每30秒重新读取一次。配置格式为分号分隔的多条规则：
+ * <pre>
+ * SysUserController.export=SUMMARY;导入用户=PARAMS,sample:0.5,params:500;*=sample:0.2
+ * </pre>
+ * 规则左侧为 "类名.方法名"、操作描述或 *（其余全部），右侧为级别及 sample、params、response 三项，
+ * 未写的项沿用注解上的值。
+ */
+@Slf4j
+@Component
+public class AuditPolicy {
+
+    public static final String CONFIG_KEY = "sys.audit.policy";
+
+    private static final String WILDCARD = "*";
+
+    @Autowired
+    private SysConfigService configService;
+
+    private volatile String source;
+    private volatile Map<String, RuleOverride> overrides = Collections.emptyMap();
+    private volatile Map<AuditMetadata.HandlerMeta, Rule> rules = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("加载操作日志策略失败，使用注解配置: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelay = 30000, initialDelay = 30000)
+    public void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("刷新操作日志策略失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 重新读取参数配置，内容变化时清空已解析的规则
+     */
+    public void reload() {
+        String value = configService.getConfigByKey(CONFIG_KEY);
+        if (value == null) {
+            value = "";
+        }
+        if (value.equals(source)) {
+            return;
+        }
+        overrides = parse(value);
+        rules = new ConcurrentHashMap<>();
+        source = value;
+        log.info("操作日志策略已更新，覆盖规则 {} 条", overrides.size());
+    }
+
+    /**
+     * 处理方法当前生效的记录规则
+     */
+    public Rule resolve(AuditMetadata.HandlerMeta handler) {
+        Map<AuditMetadata.HandlerMeta, Rule> current = rules;
+        Rule rule = current.get(handler);
+        if (rule == null) {
+            rule = current.computeIfAbsent(handler, this::build);
+        }
+        return rule;
+    }
+
+    private Rule build(AuditMetadata.HandlerMeta handler) {
+        Rule rule = Rule.of(handler.getOperLog());
+        Map<String, RuleOverride> current = overrides;
+        RuleOverride override = current.get(handler.getName());
+        if (override == null && handler.getOperLog() != null && StrUtil.isNotBlank(handler.getOperLog().value())) {
+            override = current.get(handler.getOperLog().value());
+        }
+        if (override == null) {
+            override = current.get(WILDCARD);
+        }
+        return override != null ? override.apply(rule) : rule;
+    }
+
+    static Map<String, RuleOverride> parse(String value) {
+        Map<String, RuleOverride> result = new HashMap<>();
+        for (String entry : value.split("[;\\n]")) {
+            int eq = entry.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String key = entry.substring(0, eq).trim();
+            RuleOverride override = new RuleOverride();
+            try {
+                for (String token : entry.substring(eq + 1).split(",")) {
+                    token = token.trim();
+                    if (token.isEmpty()) {
+                        continue;
+                    }
+                    int colon = token.indexOf(':');
+                    if (colon < 0) {
+                        override.level = OperLog.Level.valueOf(token.toUpperCase(Locale.ROOT));
+                        continue;
+                    }
+                    String name = token.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                    String number = token.substring(colon + 1).trim();
+                    switch (name) {
+                        case "sample":
+                            override.sampleRate = Double.valueOf(number);
+                            break;
+                        case "params":
+                            override.maxParams = Integer.valueOf(number);
+                            break;
+                        case "response":
+                            override.maxResponse = Integer.valueOf(number);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("未知配置项 " + name);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                log.warn("忽略无效的操作日志策略 [{}]: {}", entry.trim(), e.getMessage());
+                continue;
+            }
+            result.put(key, override);
+        }
+        return result;
+    }
+
+    /**
+     * 参数配置中的一条覆盖规则，未配置的项为null
+     */
+    static final class RuleOverride {
+
+        private OperLog.Level level;
+        private Double sampleRate;
+        private Integer maxParams;
+        private Integer maxResponse;
+
+        Rule apply(Rule rule) {
+            return new Rule(level != null ? level : rule.level,
+                    sampleRate != null ? sampleRate : rule.sampleRate,
+                    maxParams != null ? maxParams : rule.maxParams,
+                    maxResponse != null ? maxResponse : rule.maxResponse);
+        }
+    }
+
+    /**
+     * 生效的记录规则
+     */
+    public static final class Rule {
+
+        private static final Rule DEFAULT = new Rule(OperLog.Level.FULL, 1.0, 2000, AuditResponseFilter.MAX_RESPONSE_CHARS);
+
+        private final OperLog.Level level;
+        private final double sampleRate;
+        private final int maxParams;
+        private final int maxResponse;
+
+        Rule(OperLog.Level level, double sampleRate, int maxParams, int maxResponse) {
+            this.level = level;
+            this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+            this.maxParams = Math.max(0, maxParams);
+            this.maxResponse = Math.max(0, Math.min(maxResponse, AuditResponseFilter.MAX_RESPONSE_CHARS));
+        }
+
+        static Rule of(OperLog operLog) {
+            if (operLog == null) {
+                return DEFAULT;
+            }
+            return new Rule(operLog.level(), operLog.sampleRate(), operLog.maxParams(), operLog.maxResponse());
+        }
+
+        /**
+         * 是否记录到指定级别
+         */
+        public boolean includes(OperLog.Level target) {
+            return level.compareTo(target) >= 0;
+        }
+
+        /**
+         * 按抽样率决定本次成功调用是否记录
+         */
+        public boolean sample() {
+            return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        }
+
+        public OperLog.Level getLevel() {
+            return level;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public int getMaxParams() {
+            return maxParams;
+        }
+
+        public int getMaxResponse() {
+            return maxResponse;
+        }
+    }
+}
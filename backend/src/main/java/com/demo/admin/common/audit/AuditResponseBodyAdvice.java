@@ -0,0 +1,38 @@
+package com.demo.admin.common.audit;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 响应体写出前通知 {@link AuditResponseCapture} 开始记录
+ * <p>
+ * 只在切面挂起了操作日志、且响应为 JSON 时记录，文件下载等二进制响应不记录。
+ */
+@RestControllerAdvice
+public class AuditResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest && MediaType.APPLICATION_JSON.isCompatibleWith(selectedContentType)) {
+            Object capture = ((ServletServerHttpRequest) request).getServletRequest()
+                    .getAttribute(AuditResponseCapture.ATTRIBUTE);
+            if (capture instanceof AuditResponseCapture) {
+                ((AuditResponseCapture) capture).startRecording();
+            }
+        }
+        return body;
+    }
+}
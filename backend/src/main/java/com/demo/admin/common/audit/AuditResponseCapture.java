@@ -0,0 +1,174 @@
+package com.demo.admin.common.audit;
+
+import com.demo.admin.modules.system.entity.SysLog;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+
+/**
+ * 单个请求的响应截获
+ * <p>
+ * 由 {@link AuditResponseFilter} 包装响应输出流，切面把待保存的操作日志挂到这里，
+ * {@link AuditResponseBodyAdvice} 确认响应体为 JSON 后开始记录，只保留前 maxBytes 个字节，
+ * 即直接复用 Spring MVC 写给客户端的内容，不再单独序列化一次返回值。
+ */
+public final class AuditResponseCapture {
+
+    static final String ATTRIBUTE = AuditResponseCapture.class.getName();
+
+    private final int maxBytes;
+    private final HttpServletResponse response;
+    private byte[] buffer;
+    private int length;
+    private volatile boolean recording;
+    private SysLog pendingLog;
+    private Object body;
+    private int maxChars;
+
+    AuditResponseCapture(HttpServletResponse response, int maxBytes) {
+        this.maxBytes = maxBytes;
+        this.response = new CapturingResponse(response);
+    }
+
+    /**
+     * 当前请求可截获响应时挂起日志，待响应写完后补充至多 maxChars 个字符的响应结果再保存；否则返回false
+     */
+    public static boolean defer(SysLog sysLog, Object body, int maxChars) {
+        AuditResponseCapture capture = current();
+        if (capture == null || capture.pendingLog != null) {
+            return false;
+        }
+        capture.pendingLog = sysLog;
+        capture.body = body;
+        capture.maxChars = maxChars;
+        return true;
+    }
+
+    static AuditResponseCapture current() {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        if (!(attrs instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        Object capture = ((ServletRequestAttributes) attrs).getRequest().getAttribute(ATTRIBUTE);
+        return capture instanceof AuditResponseCapture ? (AuditResponseCapture) capture : null;
+    }
+
+    HttpServletResponse getResponse() {
+        return response;
+    }
+
+    boolean hasPendingLog() {
+        return pendingLog != null;
+    }
+
+    SysLog getPendingLog() {
+        return pendingLog;
+    }
+
+    Object getBody() {
+        return body;
+    }
+
+    int getMaxChars() {
+        return maxChars;
+    }
+
+    void startRecording() {
+        if (pendingLog != null) {
+            recording = true;
+        }
+    }
+
+    /**
+     * 已截获的响应内容，解码为至多 maxChars 个字符；未截获时返回null
+     */
+    String getCaptured(int maxChars) {
+        return length > 0 ? BoundedJsonSerializer.decode(buffer, length, maxChars) : null;
+    }
+
+    private void record(int b) {
+        if (recording && length < maxBytes) {
+            ensureBuffer();
+            buffer[length++] = (byte) b;
+        }
+    }
+
+    private void record(byte[] b, int off, int len) {
+        if (recording && length < maxBytes) {
+            ensureBuffer();
+            int n = Math.min(len, maxBytes - length);
+            System.arraycopy(b, off, buffer, length, n);
+            length += n;
+        }
+    }
+
+    private void ensureBuffer() {
+        if (buffer == null) {
+            buffer = new byte[maxBytes];
+        }
+    }
+
+    private final class CapturingResponse extends HttpServletResponseWrapper {
+
+        private ServletOutputStream outputStream;
+
+        CapturingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CapturingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+    }
+
+    private final class CapturingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        CapturingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            record(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            record(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.demo.admin.common.audit;
+
+import com.demo.admin.modules.system.entity.SysLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 操作日志响应截获过滤器
+ * <p>
+ * 为每个请求挂上 {@link AuditResponseCapture}，请求结束后为切面挂起的日志补充响应结果并提交保存。
+ * 响应体未经 JSON 消息转换器写出（如文件导出）时，退回对返回值做限长序列化。
+ */
+@Slf4j
+@Component
+public class AuditResponseFilter extends OncePerRequestFilter {
+
+    /** 响应结果最大字符数，同时限定截获缓冲区大小，避免压缩写入 sys_log_detail 的单条详情过大 */
+    public static final int MAX_RESPONSE_CHARS = 2000;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        // UTF-8 下每个字符至多4字节
+        AuditResponseCapture capture = new AuditResponseCapture(response, MAX_RESPONSE_CHARS * 4);
+        request.setAttribute(AuditResponseCapture.ATTRIBUTE, capture);
+        try {
+            filterChain.doFilter(request, capture.getResponse());
+        } finally {
+            request.removeAttribute(AuditResponseCapture.ATTRIBUTE);
+            if (capture.hasPendingLog()) {
+                complete(capture);
+            }
+        }
+    }
+
+    private void complete(AuditResponseCapture capture) {
+        SysLog sysLog = capture.getPendingLog();
+        try {
+            int maxChars = Math.min(capture.getMaxChars(), MAX_RESPONSE_CHARS);
+            String responseBody = capture.getCaptured(maxChars);
+            if (responseBody == null) {
+                responseBody = BoundedJsonSerializer.toJson(objectMapper, capture.getBody(), maxChars);
+            }
+            sysLog.setResponseBody(responseBody);
+        } catch (Exception e) {
+            // 响应结果记录失败不影响日志保存
+        }
+        try {
+            auditLogWriter.submit(sysLog);
+        } catch (Exception e) {
+            log.warn("保存操作日志失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.demo.admin.common.audit;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 限长 JSON 序列化
+ * <p>
+ * 流式写入一个限长缓冲区，写满后中止序列化，大对象不会先生成完整字符串再截断；
+ * 超出部分最多多序列化 Jackson 的一个输出缓冲（约4K字符）。
+ */
+public final class BoundedJsonSerializer {
+
+    private BoundedJsonSerializer() {
+    }
+
+    /**
+     * 序列化为至多 maxChars 个字符的 JSON，超长时截断
+     */
+    public static String toJson(ObjectMapper mapper, Object value, int maxChars) throws IOException {
+        if (value == null || maxChars <= 0) {
+            return null;
+        }
+        BoundedWriter writer = new BoundedWriter(maxChars);
+        try {
+            mapper.writeValue(writer, value);
+        } catch (LimitReachedException e) {
+            // 已写满，截断
+        } catch (JsonMappingException e) {
+            if (!(e.getCause() instanceof LimitReachedException)) {
+                throw e;
+            }
+        }
+        return writer.toString();
+    }
+
+    /**
+     * 将截获的 UTF-8 字节解码为至多 maxChars 个字符，去掉截断产生的残缺字符
+     */
+    public static String decode(byte[] bytes, int length, int maxChars) {
+        if (bytes == null || length <= 0 || maxChars <= 0) {
+            return null;
+        }
+        String text = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        if (text.length() > maxChars) {
+            text = text.substring(0, maxChars);
+        }
+        int end = text.length();
+        while (end > 0 && text.charAt(end - 1) == '\uFFFD') {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    /**
+     * 写满后抛出 {@link LimitReachedException} 的 Writer
+     */
+    private static final class BoundedWriter extends Writer {
+
+        private final StringBuilder buffer;
+        private final int limit;
+
+        BoundedWriter(int limit) {
+            this.limit = limit;
+            this.buffer = new StringBuilder(Math.min(limit, 256));
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            int room = limit - buffer.length();
+            if (len > room) {
+                buffer.append(cbuf, off, room);
+                throw new LimitReachedException();
+            }
+            buffer.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            int room = limit - buffer.length();
+            if (len > room) {
+                buffer.append(str, off, off + room);
+                throw new LimitReachedException();
+            }
+            buffer.append(str, off, off + len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+
+    private static final class LimitReachedException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        LimitReachedException() {
+            super("limit reached", null);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.demo.admin.common.audit;
+
+import com.demo.admin.modules.system.entity.SysLoginLog;
+import com.demo.admin.modules.system.mapper.SysLoginLogMapper;
+import com.demo.admin.modules.system.service.LiveStatsService;
+import com.demo.admin.modules.system.service.StatRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录日志异步写入
+ * <p>
+ * 登录请求只把日志放入有界队列，由单个写入线程按条数或时间间隔多行插入 sys_login_log。
+ * 登录高峰时不会为每条日志创建线程；队列满时丢弃新日志并计数，不阻塞登录。
+ * 应用关闭时写完队列中剩余的日志。
+ */
+@Slf4j
+@Component
+public class LoginLogWriter {
+
+    @Value("${admin.login-log.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${admin.login-log.batch-size:200}")
+    private int batchSize = 200;
+
+    /** 最长攒批时间（毫秒） */
+    @Value("${admin.login-log.flush-interval:1000}")
+    private long flushInterval = 1000;
+
+    @Autowired
+    private SysLoginLogMapper loginLogMapper;
+
+    @Autowired
+    private StatRollupService rollupService;
+
+    @Autowired
+    private LiveStatsService liveStatsService;
+
+    private BlockingQueue<SysLoginLog> queue;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        running = true;
+        writerThread = new Thread(this::writeLoop, "login-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("登录日志异步写入已启动，队列容量 {}，批量 {}", queueCapacity, batchSize);
+    }
+
+    /**
+     * 关闭时写完剩余日志
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        while (drain(batchSize) > 0) {
+            // 写完为止
+        }
+    }
+
+    /**
+     * 提交一条日志，返回是否已入队
+     */
+    public boolean submit(SysLoginLog loginLog) {
+        if (loginLog.getCreateTime() == null) {
+            loginLog.setCreateTime(LocalDateTime.now());
+        }
+        if (!running) {
+            // 未启动或已关闭时直接写入
+            insert(Collections.singletonList(loginLog));
+            return true;
+        }
+        if (!queue.offer(loginLog)) {
+            dropped.increment();
+            return false;
+        }
+        enqueued.increment();
+        return true;
+    }
+
+    /**
+     * 运行指标
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("queueDepth", queue != null ? queue.size() : 0);
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("enqueued", enqueued.sum());
+        metrics.put("written", written.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("flushes", flushes.sum());
+        return metrics;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            List<SysLoginLog> batch = new ArrayList<>();
+            try {
+                SysLoginLog first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // 攒满一批或到达时间间隔再写入
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushInterval);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    SysLoginLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                insert(batch);
+            } catch (InterruptedException e) {
+                // 关闭时由 stop 写完剩余日志
+                if (!batch.isEmpty()) {
+                    insert(batch);
+                }
+                return;
+            } catch (Exception e) {
+                log.warn("登录日志写入线程异常: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 取出至多 limit 条写入数据库，返回取出条数
+     */
+    int drain(int limit) {
+        if (queue == null) {
+            return 0;
+        }
+        List<SysLoginLog> batch = new ArrayList<>(Math.min(limit, Math.max(1, queue.size())));
+        queue.drainTo(batch, limit);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        insert(batch);
+        return batch.size();
+    }
+
+    private void insert(List<SysLoginLog> batch) {
+        try {
+            loginLogMapper.batchInsert(batch);
+            written.add(batch.size());
+            rollupService.recordLoginLogs(batch);
+            liveStatsService.recordLogins(batch);
+        } catch (Exception e) {
+            failed.add(batch.size());
+            log.error("批量写入登录日志失败，丢失 {} 条: {}", batch.size(), e.getMessage());
+        } finally {
+            flushes.increment();
+        }
+    }
+}
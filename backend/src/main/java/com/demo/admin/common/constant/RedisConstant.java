@@ -13,6 +13,25 @@ public class RedisConstant {
     public static final String DICT_PREFIX = "admin:dict:";
     public static final String LOGIN_FAIL_PREFIX = "admin:login_fail:";
 
+    /** 会话本地缓存失效广播频道 */
+    public static final String TOKEN_EVICT_CHANNEL = "admin:channel:token_evict";
+    /** 无状态token吊销表（ZSET，score为token过期时间）及同步频道 */
+    public static final String TOKEN_REVOKED_KEY = "admin:token_revoked";
+    public static final String TOKEN_REVOKE_CHANNEL = "admin:channel:token_revoke";
+    /** 会话权限版本号，角色授权变更时递增 */
+    public static final String PERM_VERSION_KEY = "admin:perm_version";
+    /** 登录限流计数同步频道 */
+    public static final String LOGIN_THROTTLE_CHANNEL = "admin:channel:login_throttle";
+    /** 角色权限缓存变更广播频道 */
+    public static final String ROLE_PERM_CHANNEL = "admin:channel:role_perm";
+
+    /** 当天实时计数（HASH，按日期分key）及活跃用户（HyperLogLog） */
+    public static final String LIVE_STATS_PREFIX = "admin:stats:live:";
+    public static final String ACTIVE_USER_PREFIX = "admin:stats:dau:";
+
+    /** 值使用紧凑二进制编码的key前缀，其余前缀仍为JSON */
+    public static final String[] COMPACT_PREFIXES = {TOKEN_PREFIX};
+
     public static final long CAPTCHA_EXPIRE = 5;
     public static final long TOKEN_EXPIRE = 86400;
     public static final int LOGIN_MAX_RETRY = 5;
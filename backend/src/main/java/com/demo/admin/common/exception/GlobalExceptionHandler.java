@@ -34,6 +34,16 @@ public class GlobalExceptionHandler {
         return R.fail(e.getCode(), e.getMessage());
     }
 
+    /**
+     * 过载/限流异常，返回 429 便于客户端退避重试
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public R<Void> handleTooManyRequestsException(TooManyRequestsException e) {
+        log.warn("请求被拒绝: {}", e.getMessage());
+        return R.fail(e.getCode(), e.getMessage());
+    }
+
     /**
      * 参数校验异常 - @RequestBody
      */
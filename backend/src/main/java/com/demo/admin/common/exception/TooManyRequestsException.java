@@ -0,0 +1,19 @@
+package com.demo.admin.common.exception;
+
+import com.demo.admin.common.result.ResultCode;
+
+/**
+ * 过载或限流异常（HTTP 429）
+ */
+public class TooManyRequestsException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TooManyRequestsException() {
+        super(ResultCode.TOO_MANY_REQUESTS);
+    }
+
+    public TooManyRequestsException(String message) {
+        super(ResultCode.TOO_MANY_REQUESTS, message);
+    }
+}
@@ -0,0 +1,295 @@
+package com.demo.admin.common.ratelimit;
+
+import cn.hutool.core.util.IdUtil;
+import com.demo.admin.common.annotation.RateLimit;
+import com.demo.admin.common.utils.RedisUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 限流引擎
+ * <p>
+ * 固定窗口与令牌桶支持配额预取：本地按key维护一份从Redis租借的配额，用完前异步续借，
+ * 请求路径上只扣减本地计数，每租借一次才访问一次Redis。各节点最多多放行一个租借量，
+ * 租借量为1时退化为每次调用访问Redis的精确计数。
+ * 租借不到配额时在本地记下耗尽状态（固定窗口到窗口结束，令牌桶到补充出一个令牌），期间直接拒绝，不再访问Redis。
+ * 滑动日志需要逐次记录请求时间，始终每次调用访问Redis。
+ */
+@Slf4j
+@Component
+public class RateLimitEngine {
+
+    /** 固定窗口：原子的 incr + 首次设置expire */
+    private static final String FIXED_WINDOW_LUA =
+            "local c = redis.call('incr', KEYS[1]); " +
+            "if c == 1 then redis.call('expire', KEYS[1], ARGV[1]) end; " +
+            "return c;";
+
+    /** 固定窗口预取：一次占用 ARGV[1] 个名额，返回占用后的计数 */
+    private static final String FIXED_WINDOW_LEASE_LUA =
+            "local c = redis.call('incrby', KEYS[1], ARGV[1]); " +
+            "if c == tonumber(ARGV[1]) then redis.call('expire', KEYS[1], ARGV[2]) end; " +
+            "return c;";
+
+    /** 滑动日志：清除窗口外记录，未超限时记录本次请求，返回1放行、0拒绝 */
+    private static final String SLIDING_LOG_LUA =
+            "local now = tonumber(ARGV[1]); local win = tonumber(ARGV[2]); " +
+            "redis.call('zremrangebyscore', KEYS[1], 0, now - win); " +
+            "if redis.call('zcard', KEYS[1]) >= tonumber(ARGV[3]) then return 0 end; " +
+            "redis.call('zadd', KEYS[1], now, ARGV[4]); " +
+            "redis.call('pexpire', KEYS[1], win); " +
+            "return 1;";
+
+    /** 令牌桶：按时间补充令牌后取出至多 ARGV[4] 个，返回实际取出数 */
+    private static final String TOKEN_BUCKET_LUA =
+            "local cap = tonumber(ARGV[1]); local win = tonumber(ARGV[2]); " +
+            "local now = tonumber(ARGV[3]); local want = tonumber(ARGV[4]); " +
+            "local b = redis.call('hmget', KEYS[1], 't', 'ts'); " +
+            "local t = tonumber(b[1]); local ts = tonumber(b[2]); " +
+            "if t == nil or ts == nil then t = cap; ts = now end; " +
+            "if now > ts then t = math.min(cap, t + (now - ts) * cap / win); ts = now end; " +
+            "local g = math.min(want, math.floor(t)); " +
+            "redis.call('hmset', KEYS[1], 't', tostring(t - g), 'ts', tostring(ts)); " +
+            "redis.call('pexpire', KEYS[1], win * 2); " +
+            "return g;";
+
+    private static final DefaultRedisScript<Long> FIXED_WINDOW_SCRIPT = script(FIXED_WINDOW_LUA);
+    private static final DefaultRedisScript<Long> FIXED_WINDOW_LEASE_SCRIPT = script(FIXED_WINDOW_LEASE_LUA);
+    private static final DefaultRedisScript<Long> SLIDING_LOG_SCRIPT = script(SLIDING_LOG_LUA);
+    private static final DefaultRedisScript<Long> TOKEN_BUCKET_SCRIPT = script(TOKEN_BUCKET_LUA);
+
+    /** 本地租借表上限，超出后清理已过期的租借 */
+    private static final int MAX_LEASES = 100000;
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    private final ExecutorService prefetchExecutor = new ThreadPoolExecutor(1, 2, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1024), r -> {
+                Thread t = new Thread(r, "rate-limit-prefetch");
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdown();
+    }
+
+    /**
+     * 尝试获取一次调用许可
+     *
+     * @param key  限流key
+     * @param rule 限流规则
+     * @return 是否放行
+     */
+    public boolean tryAcquire(String key, RateLimit rule) {
+        int leaseSize = leaseSize(rule);
+        switch (rule.algorithm()) {
+            case SLIDING_LOG:
+                return slidingLog(key, rule);
+            case TOKEN_BUCKET:
+                return leaseSize > 1 ? leased(key, rule, leaseSize) : tokenBucket(key, rule, 1) > 0;
+            case FIXED_WINDOW:
+            default:
+                if (leaseSize > 1) {
+                    return leased(key, rule, leaseSize);
+                }
+                Long count = redisUtils.executeLuaScript(FIXED_WINDOW_SCRIPT,
+                        Collections.singletonList(key), rule.time());
+                return count == null || count <= rule.count();
+        }
+    }
+
+    int leaseSize(RateLimit rule) {
+        if (rule.algorithm() == RateLimit.Algorithm.SLIDING_LOG) {
+            return 1;
+        }
+        int size = rule.lease() > 0 ? rule.lease() : rule.count() / 10;
+        return Math.max(1, Math.min(size, rule.count()));
+    }
+
+    int leaseCount() {
+        return leases.size();
+    }
+
+    private boolean slidingLog(String key, RateLimit rule) {
+        Long allowed = redisUtils.executeLuaScript(SLIDING_LOG_SCRIPT, Collections.singletonList(key),
+                System.currentTimeMillis(), windowMillis(rule), rule.count(), IdUtil.fastSimpleUUID());
+        return allowed == null || allowed > 0;
+    }
+
+    /**
+     * 从本地租借中扣减，不足时同步租借；余量低于租借量的1/4时异步续借
+     */
+    private boolean leased(String key, RateLimit rule, int leaseSize) {
+        Lease lease = lease(key);
+        long now = System.currentTimeMillis();
+        if (lease.tryTake(now)) {
+            if (lease.remaining() <= leaseSize / 4 && lease.startPrefetch()) {
+                prefetchExecutor.execute(() -> {
+                    try {
+                        borrow(lease, key, rule, leaseSize);
+                    } catch (Exception e) {
+                        log.warn("限流配额预取失败: {}", e.getMessage());
+                    } finally {
+                        lease.endPrefetch();
+                    }
+                });
+            }
+            return true;
+        }
+        if (lease.isExhausted(now)) {
+            return false;
+        }
+        synchronized (lease) {
+            // 等待锁期间可能已被其他线程续借或确认耗尽
+            now = System.currentTimeMillis();
+            if (lease.tryTake(now)) {
+                return true;
+            }
+            if (lease.isExhausted(now)) {
+                return false;
+            }
+            return borrow(lease, key, rule, leaseSize) > 0 && lease.tryTake(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 向Redis租借配额并计入本地，返回租借到的数量
+     */
+    private int borrow(Lease lease, String key, RateLimit rule, int leaseSize) {
+        long now = System.currentTimeMillis();
+        long window = windowMillis(rule);
+        int granted;
+        long expireAt;
+        if (rule.algorithm() == RateLimit.Algorithm.TOKEN_BUCKET) {
+            granted = tokenBucket(key, rule, leaseSize);
+            // 租借的令牌在全局补充同样数量所需的时间内有效，限制单节点囤积
+            expireAt = now + Math.max(1000L, window * leaseSize / rule.count());
+            if (granted <= 0) {
+                // 补充出一个令牌之前不再访问Redis
+                lease.exhaust(now + Math.max(1L, (window + rule.count() - 1) / rule.count()));
+            }
+        } else {
+            long windowStart = now - now % window;
+            Long count = redisUtils.executeLuaScript(FIXED_WINDOW_LEASE_SCRIPT,
+                    Collections.singletonList(key + ":" + windowStart / window), leaseSize, rule.time());
+            long before = count != null ? count - leaseSize : 0;
+            granted = (int) Math.max(0, Math.min(leaseSize, rule.count() - before));
+            expireAt = windowStart + window;
+            if (before + leaseSize >= rule.count()) {
+                // 本窗口名额已全部分出，窗口结束前不再访问Redis
+                lease.exhaust(expireAt);
+            }
+        }
+        if (granted > 0) {
+            lease.add(granted, expireAt, now);
+        }
+        return granted;
+    }
+
+    private int tokenBucket(String key, RateLimit rule, int want) {
+        Long granted = redisUtils.executeLuaScript(TOKEN_BUCKET_SCRIPT, Collections.singletonList(key),
+                rule.count(), windowMillis(rule), System.currentTimeMillis(), want);
+        return granted != null ? granted.intValue() : want;
+    }
+
+    private Lease lease(String key) {
+        Lease lease = leases.get(key);
+        if (lease == null) {
+            if (leases.size() >= MAX_LEASES) {
+                long now = System.currentTimeMillis();
+                leases.values().removeIf(l -> l.isExpired(now));
+            }
+            lease = leases.computeIfAbsent(key, k -> new Lease());
+        }
+        return lease;
+    }
+
+    private static long windowMillis(RateLimit rule) {
+        return TimeUnit.SECONDS.toMillis(Math.max(1, rule.time()));
+    }
+
+    private static DefaultRedisScript<Long> script(String text) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setScriptText(text);
+        script.setResultType(Long.class);
+        return script;
+    }
+
+    /**
+     * 本地租借的配额
+     */
+    static final class Lease {
+
+        private final AtomicInteger remaining = new AtomicInteger();
+        private volatile long expireAt;
+        /** 全局配额耗尽，在此之前直接拒绝 */
+        private volatile long exhaustedUntil;
+        private volatile boolean prefetching;
+
+        boolean tryTake(long now) {
+            if (now >= expireAt) {
+                remaining.set(0);
+                return false;
+            }
+            while (true) {
+                int current = remaining.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        synchronized void add(int granted, long newExpireAt, long now) {
+            if (now >= expireAt) {
+                remaining.set(granted);
+            } else {
+                remaining.addAndGet(granted);
+            }
+            expireAt = Math.max(expireAt, newExpireAt);
+        }
+
+        int remaining() {
+            return remaining.get();
+        }
+
+        void exhaust(long until) {
+            exhaustedUntil = until;
+        }
+
+        boolean isExhausted(long now) {
+            return now < exhaustedUntil;
+        }
+
+        synchronized boolean startPrefetch() {
+            if (prefetching || isExhausted(System.currentTimeMillis())) {
+                return false;
+            }
+            prefetching = true;
+            return true;
+        }
+
+        void endPrefetch() {
+            prefetching = false;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expireAt;
+        }
+    }
+}
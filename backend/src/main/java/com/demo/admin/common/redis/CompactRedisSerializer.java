@@ -0,0 +1,145 @@
+package com.demo.admin.common.redis;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis 值序列化器：紧凑二进制格式 + JSON 回退
+ * <p>
+ * 二进制格式：[MAGIC][VERSION][FLAGS][TYPE_ID][原始长度(仅压缩时)][载荷]，
+ * 载荷超过阈值时使用 LZ4 压缩。MAGIC 不是合法的 UTF-8 首字节，
+ * 因此读取时可与历史 JSON 数据区分，无需迁移。
+ * <p>
+ * 只有包装为 {@link CompactValue} 且类型已注册编解码器的值才使用二进制格式，其余仍走 JSON。
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte VERSION = 1;
+    static final byte FLAG_LZ4 = 0x01;
+
+    private static final int HEADER_SIZE = 4;
+
+    private final RedisSerializer<Object> fallback;
+    private final int compressThreshold;
+    private final Map<Class<?>, RedisValueCodec<Object>> codecsByType = new HashMap<>();
+    private final Map<Byte, RedisValueCodec<Object>> codecsById = new HashMap<>();
+
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    @SuppressWarnings("unchecked")
+    public CompactRedisSerializer(RedisSerializer<Object> fallback, List<RedisValueCodec<?>> codecs,
+                                  int compressThreshold) {
+        this.fallback = fallback;
+        this.compressThreshold = compressThreshold;
+        for (RedisValueCodec<?> codec : codecs) {
+            RedisValueCodec<Object> c = (RedisValueCodec<Object>) codec;
+            if (codecsById.put(c.typeId(), c) != null) {
+                throw new IllegalStateException("Redis编解码器类型编号重复: " + c.typeId());
+            }
+            codecsByType.put(c.type(), c);
+        }
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!(value instanceof CompactValue)) {
+            return fallback.serialize(value);
+        }
+        Object actual = ((CompactValue) value).getValue();
+        RedisValueCodec<Object> codec = actual != null ? codecsByType.get(actual.getClass()) : null;
+        if (codec == null) {
+            return fallback.serialize(actual);
+        }
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+            codec.write(actual, new DataOutputStream(bos));
+            byte[] payload = bos.toByteArray();
+            if (compressThreshold > 0 && payload.length > compressThreshold) {
+                return compress(codec.typeId(), payload);
+            }
+            byte[] result = new byte[HEADER_SIZE + payload.length];
+            writeHeader(result, (byte) 0, codec.typeId());
+            System.arraycopy(payload, 0, result, HEADER_SIZE, payload.length);
+            return result;
+        } catch (IOException e) {
+            throw new SerializationException("紧凑编码失败: " + actual.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_SIZE || bytes[1] != VERSION) {
+            throw new SerializationException("不支持的紧凑编码版本: " + (bytes.length > 1 ? bytes[1] : -1));
+        }
+        byte flags = bytes[2];
+        RedisValueCodec<Object> codec = codecsById.get(bytes[3]);
+        if (codec == null) {
+            throw new SerializationException("未注册的紧凑编码类型: " + bytes[3]);
+        }
+        try {
+            byte[] payload;
+            if ((flags & FLAG_LZ4) != 0) {
+                int length = readInt(bytes, HEADER_SIZE);
+                payload = new byte[length];
+                decompressor.decompress(bytes, HEADER_SIZE + 4, payload, 0, length);
+            } else {
+                payload = Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length);
+            }
+            return codec.read(new DataInputStream(new ByteArrayInputStream(payload)));
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("紧凑解码失败: " + codec.type().getName(), e);
+        }
+    }
+
+    private byte[] compress(byte typeId, byte[] payload) {
+        int maxLength = compressor.maxCompressedLength(payload.length);
+        byte[] buffer = new byte[HEADER_SIZE + 4 + maxLength];
+        writeHeader(buffer, FLAG_LZ4, typeId);
+        writeInt(buffer, HEADER_SIZE, payload.length);
+        int compressed = compressor.compress(payload, 0, payload.length, buffer, HEADER_SIZE + 4, maxLength);
+        return Arrays.copyOf(buffer, HEADER_SIZE + 4 + compressed);
+    }
+
+    private static void writeHeader(byte[] buffer, byte flags, byte typeId) {
+        buffer[0] = MAGIC;
+        buffer[1] = VERSION;
+        buffer[2] = flags;
+        buffer[3] = typeId;
+    }
+
+    private static void writeInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] buffer, int offset) {
+        return ((buffer[offset] & 0xFF) << 24) | ((buffer[offset + 1] & 0xFF) << 16)
+                | ((buffer[offset + 2] & 0xFF) << 8) | (buffer[offset + 3] & 0xFF);
+    }
+}
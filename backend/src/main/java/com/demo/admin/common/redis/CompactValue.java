@@ -0,0 +1,19 @@
+package com.demo.admin.common.redis;
+
+/**
+ * 标记一个值需要以紧凑二进制格式写入 Redis
+ * <p>
+ * 由 RedisUtils 按 key 前缀包装，仅在写入时使用，读取时格式由数据头自描述
+ */
+public final class CompactValue {
+
+    private final Object value;
+
+    public CompactValue(Object value) {
+        this.value = value;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,89 @@
+package com.demo.admin.common.redis;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis 值的紧凑二进制编解码器，按类型注册到 {@link CompactRedisSerializer}
+ */
+public interface RedisValueCodec<T> {
+
+    /**
+     * 类型编号，写入数据头，全局唯一且不可变更
+     */
+    byte typeId();
+
+    /**
+     * 支持的值类型
+     */
+    Class<T> type();
+
+    /**
+     * 编码，实现应先写入自身的结构版本号
+     */
+    void write(T value, DataOutput out) throws IOException;
+
+    /**
+     * 解码
+     */
+    T read(DataInput in) throws IOException;
+
+    /* ---------- 可空字段读写辅助 ---------- */
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    static void writeLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    static void writeInt(DataOutput out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    static Integer readInt(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    static void writeStrings(DataOutput out, List<String> values) throws IOException {
+        int size = values != null ? values.size() : 0;
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            String value = values.get(i);
+            out.writeUTF(value != null ? value : "");
+        }
+    }
+
+    /**
+     * 读取字符串列表，元素做 intern，减少同一权限标识在各会话中的重复副本
+     */
+    static List<String> readStrings(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF().intern());
+        }
+        return values;
+    }
+}
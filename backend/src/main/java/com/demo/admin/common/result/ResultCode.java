@@ -21,6 +21,9 @@ public enum ResultCode {
     // 权限相关 403xx
     FORBIDDEN(403, "没有操作权限"),
 
+    // 限流相关
+    TOO_MANY_REQUESTS(429, "系统繁忙，请稍后重试"),
+
     // 参数相关 400xx
     BAD_REQUEST(400, "请求参数错误"),
     VALIDATE_FAILED(40001, "参数校验失败"),
@@ -0,0 +1,95 @@
+package com.demo.admin.common.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 文本压缩工具类
+ * <p>
+ * 格式与 MySQL 的 COMPRESS()/UNCOMPRESS() 相同：4字节小端序原文长度 + zlib 数据，空串压缩后仍为空。
+ * 因此压缩数据既可以在 SQL 中生成（迁移脚本），也可以直接用 UNCOMPRESS() 查看。
+ */
+public final class CompressUtils {
+
+    /** 解压后的最大字节数，防止损坏的长度头导致分配过大的数组 */
+    private static final int MAX_LENGTH = 16 * 1024 * 1024;
+
+    private CompressUtils() {
+    }
+
+    /**
+     * 压缩 UTF-8 文本，null 返回 null
+     */
+    public static byte[] compress(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] input = text.getBytes(StandardCharsets.UTF_8);
+        if (input.length == 0) {
+            return new byte[0];
+        }
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            out.write(input.length);
+            out.write(input.length >>> 8);
+            out.write(input.length >>> 16);
+            out.write(input.length >>> 24);
+            byte[] buffer = new byte[Math.min(input.length + 64, 8192)];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 解压为 UTF-8 文本，null 返回 null
+     *
+     * @throws IllegalArgumentException 数据不是有效的压缩格式
+     */
+    public static String uncompress(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0) {
+            return "";
+        }
+        if (data.length < 4) {
+            throw new IllegalArgumentException("压缩数据长度不足");
+        }
+        int length = (data[0] & 0xff) | (data[1] & 0xff) << 8 | (data[2] & 0xff) << 16 | (data[3] & 0xff) << 24;
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("压缩数据长度无效: " + length);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, 4, data.length - 4);
+            byte[] output = new byte[length];
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int n = inflater.inflate(output, offset, length - offset);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += n;
+            }
+            if (offset != length) {
+                throw new IllegalArgumentException("压缩数据不完整");
+            }
+            return new String(output, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("压缩数据格式错误", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.demo.admin.common.utils;
+
+import cn.hutool.core.net.NetUtil;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 客户端IP工具类
+ */
+public final class IpUtils {
+
+    private IpUtils() {
+    }
+
+    /**
+     * 获取客户端IP，依次取 X-Forwarded-For、X-Real-IP、RemoteAddr
+     */
+    public static String getClientIp(HttpServletRequest request) {
+        String ip = request.getHeader("X-Forwarded-For");
+        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
+            ip = request.getHeader("X-Real-IP");
+        }
+        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
+            ip = request.getRemoteAddr();
+        }
+        // 多级代理时取第一个
+        if (ip != null && ip.contains(",")) {
+            ip = ip.split(",")[0].trim();
+        }
+        return ip;
+    }
+
+    /**
+     * 获取用于安全判断的客户端IP
+     * <p>
+     * 只有直连地址属于可信代理时才读取 X-Forwarded-For，并从右向左跳过可信代理，取第一个不可信的地址；
+     * 否则直接使用 RemoteAddr，客户端自行伪造的请求头不会生效。
+     * 可信代理支持单个IP或 IPv4 CIDR（如 10.0.0.0/8）。
+     */
+    public static String getClientIp(HttpServletRequest request, String[] trustedProxies) {
+        String remoteAddr = request.getRemoteAddr();
+        if (trustedProxies == null || trustedProxies.length == 0 || !isTrusted(remoteAddr, trustedProxies)) {
+            return remoteAddr;
+        }
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null || forwarded.trim().isEmpty()) {
+            return remoteAddr;
+        }
+        String[] hops = forwarded.split(",");
+        String ip = remoteAddr;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty() || "unknown".equalsIgnoreCase(hop)) {
+                break;
+            }
+            ip = hop;
+            if (!isTrusted(hop, trustedProxies)) {
+                break;
+            }
+        }
+        return ip;
+    }
+
+    private static boolean isTrusted(String ip, String[] trustedProxies) {
+        if (ip == null) {
+            return false;
+        }
+        for (String proxy : trustedProxies) {
+            String trusted = proxy.trim();
+            if (trusted.isEmpty()) {
+                continue;
+            }
+            if (trusted.equals(ip)) {
+                return true;
+            }
+            if (trusted.indexOf('/') > 0 && ip.indexOf(':') < 0 && NetUtil.isInRange(ip, trusted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 所属网段：IPv4 取 /24，IPv6 取前四段（/64），无法识别时返回null
+     */
+    public static String getSubnet(String ip) {
+        if (ip == null) {
+            return null;
+        }
+        if (ip.indexOf(':') >= 0) {
+            int end = -1;
+            for (int i = 0; i < 4; i++) {
+                end = ip.indexOf(':', end + 1);
+                if (end < 0) {
+                    return null;
+                }
+            }
+            return ip.substring(0, end) + "::/64";
+        }
+        int last = ip.lastIndexOf('.');
+        if (last < 0 || ip.indexOf('.') == last) {
+            return null;
+        }
+        return ip.substring(0, last) + ".0/24";
+    }
+}
@@ -1,12 +1,19 @@
 package com.demo.admin.common.utils;
 
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.DefaultClaims;
+import io.jsonwebtoken.impl.TextCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -30,6 +37,17 @@ public class JwtUtils {
     @Value("${jwt.prefix}")
     private String prefix;
 
+    /** 已验签Claims缓存容量 */
+    @Value("${jwt.claims-cache-size:10000}")
+    private int claimsCacheSize = 10000;
+
+    /** 由secret派生的签名密钥与解析器，首次使用时构建后复用 */
+    private volatile Key signingKey;
+    private volatile JwtParser parser;
+
+    /** token -> 已验签的Claims，条目在token过期时随之失效 */
+    private volatile LRUCache<String, Claims> claimsCache;
+
     /**
      * 生成Token
      */
@@ -40,6 +58,16 @@ public class JwtUtils {
         return generateToken(claims);
     }
 
+    /**
+     * 生成携带附加声明的Token
+     */
+    public String generateToken(String username, Map<String, Object> extraClaims) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put("sub", username);
+        claims.put("created", new Date());
+        return generateToken(claims);
+    }
+
     /**
      * 生成Token
      */
@@ -47,70 +75,128 @@ public class JwtUtils {
         return Jwts.builder()
                 .setClaims(claims)
                 .setExpiration(generateExpirationDate())
-                .signWith(SignatureAlgorithm.HS512, secret)
+                .signWith(SignatureAlgorithm.HS512, getSigningKey())
                 .compact();
     }
 
     /**
-     * 从Token中获取用户名
+     * 解析并验证Token，返回Claims；无效或已过期返回null
+     * <p>
+     * 同一token只做一次验签，结果缓存到token过期为止
      */
-    public String getUsernameFromToken(String token) {
-        String username;
+    public Claims parseToken(String token) {
+        if (token == null) {
+            return null;
+        }
+        LRUCache<String, Claims> cache = getClaimsCache();
+        Claims claims = cache.get(token, false);
+        if (claims != null) {
+            return claims;
+        }
         try {
-            Claims claims = getClaimsFromToken(token);
-            username = claims.getSubject();
+            claims = getClaimsFromToken(token);
         } catch (Exception e) {
-            username = null;
+            return null;
         }
-        return username;
+        Date exp = claims.getExpiration();
+        if (exp != null) {
+            long ttl = exp.getTime() - System.currentTimeMillis();
+            if (ttl <= 0) {
+                return null;
+            }
+            cache.put(token, claims, ttl);
+        }
+        return claims;
+    }
+
+    /**
+     * 从Token中获取用户名
+     */
+    public String getUsernameFromToken(String token) {
+        Claims claims = parseToken(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     /**
      * 验证Token是否有效
      */
     public boolean validateToken(String token, String username) {
-        String tokenUsername = getUsernameFromToken(token);
-        return tokenUsername != null && tokenUsername.equals(username) && !isTokenExpired(token);
+        Claims claims = parseToken(token);
+        return claims != null && claims.getSubject() != null && claims.getSubject().equals(username)
+                && !isExpired(claims);
     }
 
     /**
      * 判断Token是否过期
      */
     public boolean isTokenExpired(String token) {
-        try {
-            Claims claims = getClaimsFromToken(token);
-            Date expiration = claims.getExpiration();
-            return expiration.before(new Date());
-        } catch (Exception e) {
-            return true;
-        }
+        Claims claims = parseToken(token);
+        return claims == null || isExpired(claims);
     }
 
     /**
      * 刷新Token
      */
     public String refreshToken(String token) {
-        String refreshedToken;
-        try {
-            Claims claims = getClaimsFromToken(token);
-            claims.put("created", new Date());
-            refreshedToken = generateToken(claims);
-        } catch (Exception e) {
-            refreshedToken = null;
+        Claims cached = parseToken(token);
+        if (cached == null) {
+            return null;
         }
-        return refreshedToken;
+        // 缓存中的Claims为共享实例，复制后再修改
+        Claims claims = new DefaultClaims(new HashMap<>(cached));
+        claims.put("created", new Date());
+        return generateToken(claims);
+    }
+
+    private boolean isExpired(Claims claims) {
+        Date exp = claims.getExpiration();
+        return exp != null && exp.before(new Date());
     }
 
     /**
-     * 从Token中获取Claims
+     * 从Token中获取Claims（验签）
      */
     private Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(secret)
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    /**
+     * 签名密钥，与 signWith(alg, base64Secret) 的派生方式一致
+     */
+    private Key getSigningKey() {
+        Key key = signingKey;
+        if (key == null) {
+            key = new SecretKeySpec(TextCodec.BASE64.decode(secret), SignatureAlgorithm.HS512.getJcaName());
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser p = parser;
+        if (p == null) {
+            p = Jwts.parser().setSigningKey(getSigningKey());
+            parser = p;
+        }
+        return p;
+    }
+
+    private LRUCache<String, Claims> getClaimsCache() {
+        LRUCache<String, Claims> cache = claimsCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = claimsCache;
+                if (cache == null) {
+                    cache = CacheUtil.newLRUCache(claimsCacheSize);
+                    claimsCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
     /**
      * 生成过期时间
      */
@@ -1,14 +1,23 @@
 package com.demo.admin.common.utils;
 
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.redis.CompactValue;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Redis 工具类
@@ -23,21 +32,21 @@ public class RedisUtils {
      * 设置缓存
      */
     public void set(String key, Object value) {
-        redisTemplate.opsForValue().set(key, value);
+        redisTemplate.opsForValue().set(key, wrap(key, value));
     }
 
     /**
      * 设置缓存（带过期时间）
      */
     public void set(String key, Object value, long timeout, TimeUnit unit) {
-        redisTemplate.opsForValue().set(key, value, timeout, unit);
+        redisTemplate.opsForValue().set(key, wrap(key, value), timeout, unit);
     }
 
     /**
      * 设置缓存（秒）
      */
     public void setEx(String key, Object value, long seconds) {
-        redisTemplate.opsForValue().set(key, value, seconds, TimeUnit.SECONDS);
+        redisTemplate.opsForValue().set(key, wrap(key, value), seconds, TimeUnit.SECONDS);
     }
 
     /**
@@ -119,7 +128,7 @@ public class RedisUtils {
      * 原子设置（SETNX + EX），key不存在时设置成功返回true
      */
     public Boolean setIfAbsent(String key, Object value, long timeout, TimeUnit unit) {
-        return redisTemplate.opsForValue().setIfAbsent(key, value, timeout, unit);
+        return redisTemplate.opsForValue().setIfAbsent(key, wrap(key, value), timeout, unit);
     }
 
     /**
@@ -150,10 +159,165 @@ public class RedisUtils {
         return redisTemplate.opsForSet().members(key);
     }
 
+    /**
+     * 批量获取多个集合的成员（管道，一次往返）
+     */
+    @SuppressWarnings("unchecked")
+    public List<Set<Object>> getSetMembers(List<String> keys) {
+        List<Object> results = executePipelined(ops -> keys.forEach(key -> ops.opsForSet().members(key)));
+        List<Set<Object>> members = new ArrayList<>(results.size());
+        for (Object result : results) {
+            members.add((Set<Object>) result);
+        }
+        return members;
+    }
+
+    /**
+     * 批量获取缓存，不存在的key对应null
+     */
+    public List<Object> multiGet(List<String> keys) {
+        return redisTemplate.opsForValue().multiGet(keys);
+    }
+
+    /**
+     * 批量获取剩余过期时间（毫秒，管道）
+     */
+    public List<Long> getExpireMillis(List<String> keys) {
+        List<Object> results = executePipelined(ops -> keys.forEach(key -> ops.getExpire(key, TimeUnit.MILLISECONDS)));
+        List<Long> expires = new ArrayList<>(results.size());
+        for (Object result : results) {
+            expires.add(result instanceof Number ? ((Number) result).longValue() : null);
+        }
+        return expires;
+    }
+
+    /**
+     * 批量覆盖已存在的缓存并各自指定过期时间（SET XX PX，管道），key已被删除时不会重新写入；
+     * 返回与 values 迭代顺序一致的写入结果
+     */
+    public List<Boolean> setAllIfPresent(Map<String, Object> values, Map<String, Long> expireMillis) {
+        List<Object> results = executePipelined(ops -> values.forEach((key, value) ->
+                ops.opsForValue().setIfPresent(key, wrap(key, value), expireMillis.get(key), TimeUnit.MILLISECONDS)));
+        List<Boolean> written = new ArrayList<>(results.size());
+        for (Object result : results) {
+            written.add(Boolean.TRUE.equals(result));
+        }
+        return written;
+    }
+
     /**
      * 删除集合成员
      */
     public Long removeSetMembers(String key, Object... values) {
         return redisTemplate.opsForSet().remove(key, values);
     }
+
+    /**
+     * 添加有序集合成员
+     */
+    public Boolean addZSetMember(String key, Object value, double score) {
+        return redisTemplate.opsForZSet().add(key, value, score);
+    }
+
+    /**
+     * 按分数区间获取有序集合成员（含分数）
+     */
+    public Set<ZSetOperations.TypedTuple<Object>> rangeZSetByScore(String key, double min, double max) {
+        return redisTemplate.opsForZSet().rangeByScoreWithScores(key, min, max);
+    }
+
+    /**
+     * 按分数区间删除有序集合成员
+     */
+    public Long removeZSetRangeByScore(String key, double min, double max) {
+        return redisTemplate.opsForZSet().removeRangeByScore(key, min, max);
+    }
+
+    /**
+     * 哈希字段不存在时设置
+     */
+    public Boolean putHashIfAbsent(String key, String field, Object value) {
+        return redisTemplate.opsForHash().putIfAbsent(key, field, value);
+    }
+
+    /**
+     * 删除哈希字段
+     */
+    public Long deleteHashFields(String key, Object... fields) {
+        return redisTemplate.opsForHash().delete(key, fields);
+    }
+
+    /**
+     * 批量累加哈希字段并设置过期时间（管道），返回各字段累加后的值
+     */
+    public Map<String, Long> incrementHash(String key, Map<String, Long> deltas, long timeout, TimeUnit unit) {
+        List<String> fields = new ArrayList<>(deltas.keySet());
+        List<Object> results = executePipelined(ops -> {
+            fields.forEach(field -> ops.opsForHash().increment(key, field, deltas.get(field)));
+            ops.expire(key, timeout, unit);
+        });
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            Object result = results.get(i);
+            totals.put(fields.get(i), result instanceof Number ? ((Number) result).longValue() : 0L);
+        }
+        return totals;
+    }
+
+    /**
+     * 向HyperLogLog添加元素并设置过期时间（管道）
+     */
+    public void addHyperLogLog(String key, Collection<?> values, long timeout, TimeUnit unit) {
+        executePipelined(ops -> {
+            ops.opsForHyperLogLog().add(key, values.toArray());
+            ops.expire(key, timeout, unit);
+        });
+    }
+
+    /**
+     * HyperLogLog基数估计
+     */
+    public Long countHyperLogLog(String key) {
+        return redisTemplate.opsForHyperLogLog().size(key);
+    }
+
+    /**
+     * 发布消息到频道
+     */
+    public void publish(String channel, Object message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
+    /**
+     * 按值序列化器反序列化消息体
+     */
+    public Object deserialize(byte[] body) {
+        return redisTemplate.getValueSerializer().deserialize(body);
+    }
+
+    /**
+     * 以管道方式执行一组命令，返回按值序列化器反序列化后的结果
+     */
+    private List<Object> executePipelined(Consumer<RedisOperations<String, Object>> commands) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                commands.accept((RedisOperations<String, Object>) operations);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 按key前缀决定是否使用紧凑二进制编码（作为Lua脚本参数写入时也需包装）
+     */
+    public Object wrap(String key, Object value) {
+        for (String prefix : RedisConstant.COMPACT_PREFIXES) {
+            if (key.startsWith(prefix)) {
+                return new CompactValue(value);
+            }
+        }
+        return value;
+    }
 }
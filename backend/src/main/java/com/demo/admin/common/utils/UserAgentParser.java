@@ -0,0 +1,110 @@
+package com.demo.admin.common.utils;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * User-Agent 解析
+ * <p>
+ * 解析出浏览器和操作系统名称，结果按 UA 字符串缓存在 LRU 中，同一客户端重复登录不再逐项匹配
+ */
+@Component
+public class UserAgentParser {
+
+    /** 参与缓存的 UA 最大长度，与 sys_login_log.user_agent 列宽一致 */
+    private static final int MAX_LENGTH = 500;
+
+    private static final UserAgent UNKNOWN = new UserAgent("未知", "未知");
+
+    @Value("${admin.user-agent.cache-size:1000}")
+    private int cacheSize = 1000;
+
+    private volatile LRUCache<String, UserAgent> cache;
+
+    public UserAgent parse(String ua) {
+        if (ua == null || ua.isEmpty()) {
+            return UNKNOWN;
+        }
+        if (ua.length() > MAX_LENGTH) {
+            ua = ua.substring(0, MAX_LENGTH);
+        }
+        LRUCache<String, UserAgent> c = getCache();
+        UserAgent result = c.get(ua, false);
+        if (result == null) {
+            result = new UserAgent(parseBrowser(ua), parseOs(ua));
+            c.put(ua, result);
+        }
+        return result;
+    }
+
+    static String parseBrowser(String ua) {
+        if (ua.contains("Edg/")) {
+            return "Edge";
+        } else if (ua.contains("Chrome/")) {
+            return "Chrome";
+        } else if (ua.contains("Firefox/")) {
+            return "Firefox";
+        } else if (ua.contains("Safari/")) {
+            return "Safari";
+        } else if (ua.contains("MSIE") || ua.contains("Trident/")) {
+            return "IE";
+        } else if (ua.contains("Opera") || ua.contains("OPR/")) {
+            return "Opera";
+        }
+        return "其他";
+    }
+
+    static String parseOs(String ua) {
+        if (ua.contains("Windows")) {
+            return "Windows";
+        } else if (ua.contains("Android")) {
+            return "Android";
+        } else if (ua.contains("iPhone") || ua.contains("iPad")) {
+            // iOS 的 UA 同样包含 "like Mac OS X"，需先于 macOS 判断
+            return "iOS";
+        } else if (ua.contains("Mac OS")) {
+            return "macOS";
+        } else if (ua.contains("Linux")) {
+            return "Linux";
+        }
+        return "其他";
+    }
+
+    private LRUCache<String, UserAgent> getCache() {
+        LRUCache<String, UserAgent> c = cache;
+        if (c == null) {
+            synchronized (this) {
+                c = cache;
+                if (c == null) {
+                    c = CacheUtil.newLRUCache(cacheSize);
+                    cache = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * 解析结果
+     */
+    public static final class UserAgent {
+
+        private final String browser;
+        private final String os;
+
+        UserAgent(String browser, String os) {
+            this.browser = browser;
+            this.os = os;
+        }
+
+        public String getBrowser() {
+            return browser;
+        }
+
+        public String getOs() {
+            return os;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.demo.admin.common.websocket;
+
+import com.demo.admin.modules.system.service.DashboardSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 大屏快照推送
+ * <p>
+ * 有订阅者时每隔 push-interval 毫秒计算一次快照，只推送与上次相比发生变化的字段（bigscreen-delta），
+ * 新订阅者先收到完整快照（bigscreen）。统计查询次数与打开的大屏数量无关。
+ * 发送超时或缓冲超限的连接直接关闭，不拖慢其他订阅者；登录凭证过期的订阅者在下次推送时断开。
+ * 快照在锁外计算，数据库变慢时不阻塞新订阅者；锁内只比较快照和发送消息，保证新订阅者的完整快照与后续增量衔接。
+ */
+@Slf4j
+@Component
+public class DashboardPublisher {
+
+    public static final String TYPE_SNAPSHOT = "bigscreen";
+    public static final String TYPE_DELTA = "bigscreen-delta";
+
+    /** 单条消息最长发送时间（毫秒） */
+    @Value("${admin.dashboard.send-time-limit:5000}")
+    private int sendTimeLimit = 5000;
+
+    /** 单个连接待发送消息的最大字节数 */
+    @Value("${admin.dashboard.buffer-size-limit:524288}")
+    private int bufferSizeLimit = 524288;
+
+    @Autowired
+    private DashboardSnapshotService snapshotService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    /** 最近一次推送的快照，新订阅者以此为基准接收后续增量 */
+    private volatile Map<String, Object> lastSent;
+
+    /**
+     * 订阅推送并立即发送完整快照，expiresAt 为登录凭证过期时间（毫秒）
+     */
+    public void subscribe(WebSocketSession session, long expiresAt) {
+        Subscriber subscriber = new Subscriber(
+                new ConcurrentWebSocketSessionDecorator(session, sendTimeLimit, bufferSizeLimit), expiresAt);
+        Map<String, Object> snapshot = lastSent;
+        if (snapshot == null) {
+            snapshot = snapshotService.getBigscreen();
+        }
+        synchronized (this) {
+            subscribers.put(session.getId(), subscriber);
+            if (lastSent == null) {
+                lastSent = snapshot;
+            }
+            send(subscriber, toMessage(TYPE_SNAPSHOT, lastSent));
+        }
+        log.debug("大屏订阅: {}, 订阅数: {}", session.getId(), subscribers.size());
+    }
+
+    public void unsubscribe(WebSocketSession session) {
+        subscribers.remove(session.getId());
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * 计算快照并推送变化的字段
+     */
+    @Scheduled(fixedDelayString = "${admin.dashboard.push-interval:5000}")
+    public void publish() {
+        long now = System.currentTimeMillis();
+        subscribers.values().removeIf(subscriber -> {
+            if (subscriber.expiresAt > now && subscriber.session.isOpen()) {
+                return false;
+            }
+            close(subscriber, CloseStatus.POLICY_VIOLATION);
+            return true;
+        });
+        if (subscribers.isEmpty()) {
+            synchronized (this) {
+                if (subscribers.isEmpty()) {
+                    lastSent = null;
+                }
+            }
+            return;
+        }
+        Map<String, Object> snapshot;
+        try {
+            snapshot = snapshotService.refresh();
+        } catch (Exception e) {
+            log.warn("计算大屏快照失败: {}", e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            Map<String, Object> delta = diff(lastSent, snapshot);
+            lastSent = snapshot;
+            if (delta.isEmpty()) {
+                return;
+            }
+            TextMessage message = toMessage(TYPE_DELTA, delta);
+            if (message == null) {
+                return;
+            }
+            for (Subscriber subscriber : subscribers.values()) {
+                send(subscriber, message);
+            }
+        }
+    }
+
+    /**
+     * 与上次推送相比发生变化的字段
+     */
+    static Map<String, Object> diff(Map<String, Object> previous, Map<String, Object> current) {
+        if (previous == null) {
+            return current;
+        }
+        Map<String, Object> delta = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            if (!Objects.equals(previous.get(entry.getKey()), entry.getValue())) {
+                delta.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return delta;
+    }
+
+    private TextMessage toMessage(String type, Map<String, Object> data) {
+        Map<String, Object> msg = new HashMap<>();
+        msg.put("type", type);
+        msg.put("data", data);
+        try {
+            return new TextMessage(objectMapper.writeValueAsString(msg));
+        } catch (Exception e) {
+            log.error("序列化大屏快照失败", e);
+            return null;
+        }
+    }
+
+    private void send(Subscriber subscriber, TextMessage message) {
+        if (message == null) {
+            return;
+        }
+        try {
+            subscriber.session.sendMessage(message);
+        } catch (Exception e) {
+            // 发送超时、缓冲超限或连接已断开
+            log.debug("推送大屏快照失败: {}", subscriber.session.getId());
+            subscribers.remove(subscriber.session.getId());
+            close(subscriber, CloseStatus.SESSION_NOT_RELIABLE);
+        }
+    }
+
+    private static void close(Subscriber subscriber, CloseStatus status) {
+        try {
+            subscriber.session.close(status);
+        } catch (Exception ignored) {
+            // 连接已关闭
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final WebSocketSession session;
+        private final long expiresAt;
+
+        private Subscriber(WebSocketSession session, long expiresAt) {
+            this.session = session;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.demo.admin.common.websocket;
+
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.demo.admin.common.utils.JwtUtils;
+import com.demo.admin.security.service.LoginUser;
+import com.demo.admin.security.service.StatelessSessionService;
+import com.demo.admin.security.service.TokenCacheService;
+import io.jsonwebtoken.Claims;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+
+/**
+ * 大屏WebSocket处理器 - 客户端连接后发送 {"type":"subscribe","token":"..."} 订阅快照推送
+ */
+public class DashboardWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardWebSocketHandler.class);
+
+    @Autowired
+    private DashboardPublisher publisher;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenCacheService tokenCacheService;
+
+    @Autowired
+    private StatelessSessionService statelessSessionService;
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        publisher.unsubscribe(session);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        String payload = message.getPayload();
+        // 客户端心跳 ping -> pong
+        if ("ping".equals(payload)) {
+            session.sendMessage(new TextMessage("pong"));
+            return;
+        }
+        if (!JSONUtil.isTypeJSONObject(payload)) {
+            return;
+        }
+        JSONObject msg = JSONUtil.parseObj(payload);
+        if (!"subscribe".equals(msg.getStr("type"))) {
+            return;
+        }
+        Claims claims = authenticate(msg.getStr("token"));
+        if (claims == null) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("unauthorized"));
+            return;
+        }
+        publisher.subscribe(session, claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        publisher.unsubscribe(session);
+    }
+
+    /**
+     * 校验登录凭证，与请求认证一致：无状态token由声明还原用户，否则查会话缓存
+     */
+    private Claims authenticate(String token) {
+        if (StringUtils.isBlank(token)) {
+            return null;
+        }
+        Claims claims = jwtUtils.parseToken(token);
+        String username = claims != null ? claims.getSubject() : null;
+        if (StringUtils.isBlank(username)) {
+            return null;
+        }
+        LoginUser loginUser = statelessSessionService.resolve(claims);
+        if (loginUser == null) {
+            loginUser = tokenCacheService.get(token);
+        }
+        if (loginUser == null || !username.equals(loginUser.getUsername())) {
+            log.debug("大屏订阅认证失败");
+            return null;
+        }
+        return claims;
+    }
+}
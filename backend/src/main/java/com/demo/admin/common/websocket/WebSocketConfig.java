@@ -19,9 +19,16 @@ public class WebSocketConfig implements WebSocketConfigurer {
         return new NoticeWebSocketHandler();
     }
 
+    @Bean
+    public DashboardWebSocketHandler dashboardWebSocketHandler() {
+        return new DashboardWebSocketHandler();
+    }
+
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(noticeWebSocketHandler(), "/ws/notice")
                 .setAllowedOrigins("*");
+        registry.addHandler(dashboardWebSocketHandler(), "/ws/dashboard")
+                .setAllowedOrigins("*");
     }
 }
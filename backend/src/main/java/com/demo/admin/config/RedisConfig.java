@@ -4,15 +4,21 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.demo.admin.common.redis.CompactRedisSerializer;
+import com.demo.admin.common.redis.RedisValueCodec;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.List;
+
 /**
  * Redis 配置
  */
@@ -20,8 +26,12 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 @EnableCaching
 public class RedisConfig {
 
+    /** 紧凑编码载荷超过该字节数时启用LZ4压缩，0表示不压缩 */
+    @Value("${admin.redis.compress-threshold:1024}")
+    private int compressThreshold;
+
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory, List<RedisValueCodec<?>> codecs) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(factory);
 
@@ -39,11 +49,21 @@ public class RedisConfig {
         // key采用String序列化
         template.setKeySerializer(stringRedisSerializer);
         template.setHashKeySerializer(stringRedisSerializer);
-        // value采用JSON序列化
-        template.setValueSerializer(jackson2JsonRedisSerializer);
+        // value默认JSON序列化，按key前缀包装的值使用紧凑二进制编码（见 RedisConstant.COMPACT_PREFIXES）
+        template.setValueSerializer(new CompactRedisSerializer(jackson2JsonRedisSerializer, codecs, compressThreshold));
         template.setHashValueSerializer(jackson2JsonRedisSerializer);
 
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * Redis 消息监听容器（用于跨节点缓存失效广播）
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        return container;
+    }
 }
@@ -0,0 +1,21 @@
+package com.demo.admin.config;
+
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * 定时任务配置
+ * <p>
+ * WebSocket 配置会声明 defaultSockJsTaskScheduler 这个 TaskScheduler bean，Boot 的调度线程池自动配置随之退让，
+ * @Scheduled 任务会回落到单线程执行；这里按 spring.task.scheduling 配置显式声明名为 taskScheduler 的线程池。
+ */
+@Configuration
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
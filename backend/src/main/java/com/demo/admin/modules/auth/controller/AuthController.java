@@ -3,8 +3,10 @@ package com.demo.admin.modules.auth.controller;
 import com.demo.admin.common.annotation.OperLog;
 import com.demo.admin.common.constant.RedisConstant;
 import com.demo.admin.common.result.R;
+import com.demo.admin.common.utils.IpUtils;
 import com.demo.admin.common.utils.JwtUtils;
 import com.demo.admin.common.utils.RedisUtils;
+import com.demo.admin.common.utils.UserAgentParser;
 import com.demo.admin.modules.auth.dto.LoginRequest;
 import com.demo.admin.modules.auth.dto.LoginResponse;
 import com.demo.admin.modules.auth.dto.UserInfoResponse;
@@ -15,14 +17,15 @@ import com.demo.admin.modules.system.service.SysFileService;
 import com.demo.admin.modules.system.service.SysMenuService;
 import com.demo.admin.modules.system.service.SysUserService;
 import com.demo.admin.modules.system.service.SysLoginLogService;
+import com.demo.admin.security.service.CaptchaService;
+import com.demo.admin.security.service.LoginExecutor;
+import com.demo.admin.security.service.LoginSessionManager;
 import com.demo.admin.security.service.LoginUser;
-import cn.hutool.captcha.CaptchaUtil;
-import cn.hutool.captcha.ShearCaptcha;
-import cn.hutool.core.util.IdUtil;
+import com.demo.admin.security.service.StatelessSessionService;
+import com.demo.admin.security.service.TokenCacheService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
@@ -33,7 +36,6 @@ import org.springframework.web.multipart.MultipartFile;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -45,14 +47,29 @@ import java.util.stream.Collectors;
 public class AuthController {
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private JwtUtils jwtUtils;
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private UserAgentParser userAgentParser;
 
     @Autowired
     private RedisUtils redisUtils;
 
+    @Autowired
+    private TokenCacheService tokenCacheService;
+
+    @Autowired
+    private LoginSessionManager loginSessionManager;
+
+    @Autowired
+    private CaptchaService captchaService;
+
+    @Autowired
+    private LoginExecutor loginExecutor;
+
+    @Autowired
+    private StatelessSessionService statelessSessionService;
+
     @Autowired
     private SysMenuService menuService;
 
@@ -71,98 +88,73 @@ public class AuthController {
     @ApiOperation("获取验证码")
     @GetMapping("/captcha")
     public R<Map<String, String>> getCaptcha() {
-        // 生成算术验证码 (如: 3 + 5 = ?)
-        ShearCaptcha captcha = CaptchaUtil.createShearCaptcha(130, 38, 4, 2);
-        // 算术表达式的结果
-        String code = captcha.getCode();
-        // 生成唯一key
-        String key = IdUtil.simpleUUID();
-        // 存入Redis，5分钟过期
-        redisUtils.set(RedisConstant.CAPTCHA_PREFIX + key, code,
-                RedisConstant.CAPTCHA_EXPIRE, TimeUnit.MINUTES);
-
-        Map<String, String> result = new LinkedHashMap<>();
-        result.put("key", key);
-        result.put("image", captcha.getImageBase64Data());
-        return R.ok(result);
+        // 从预渲染池取出验证码（算术表达式图片及答案）
+        return R.ok(captchaService.generate());
     }
 
     @ApiOperation("用户登录")
     @PostMapping("/login")
     public R<LoginResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
-        String ip = getClientIp(httpRequest);
+        String ip = IpUtils.getClientIp(httpRequest);
         String userAgent = httpRequest.getHeader("User-Agent");
 
-        // 校验验证码（根据参数配置决定是否开启）
+        // 校验并消费验证码（根据参数配置决定是否开启）、检查账号锁定，一次原子脚本完成
         boolean captchaEnabled = !"false".equals(configService.getConfigByKey("sys.account.captchaEnabled"));
-        if (captchaEnabled) {
-            if (request.getCaptchaKey() == null || request.getCaptcha() == null) {
-                return R.fail("请输入验证码");
-            }
-            String captchaKey = RedisConstant.CAPTCHA_PREFIX + request.getCaptchaKey();
-            Object cachedCode = redisUtils.get(captchaKey);
-            // 不管对错都删除，防止重复使用
-            redisUtils.delete(captchaKey);
-            if (cachedCode == null) {
+        if (captchaEnabled && (request.getCaptchaKey() == null || request.getCaptcha() == null)) {
+            return R.fail("请输入验证码");
+        }
+        LoginSessionManager.PreCheckResult check = loginSessionManager.preCheck(
+                captchaEnabled ? request.getCaptchaKey() : null, request.getCaptcha(), request.getUsername());
+        switch (check.getStatus()) {
+            case CAPTCHA_EXPIRED:
                 return R.fail("验证码已过期");
-            }
-            if (!cachedCode.toString().equalsIgnoreCase(request.getCaptcha())) {
+            case CAPTCHA_MISMATCH:
                 return R.fail("验证码错误");
-            }
-        }
-
-        // 检查账号是否被锁定
-        String failKey = RedisConstant.LOGIN_FAIL_PREFIX + request.getUsername();
-        Object failCountObj = redisUtils.get(failKey);
-        int failCount = failCountObj != null ? Integer.parseInt(failCountObj.toString()) : 0;
-        if (failCount >= RedisConstant.LOGIN_MAX_RETRY) {
-            Long ttl = redisUtils.getExpire(failKey);
-            String ttlMsg = ttl != null && ttl > 0 ? (ttl / 60 + 1) + "分钟" : "稍后";
-            loginLogService.recordLoginLog(request.getUsername(), 0, "账号已被锁定", ip, userAgent);
-            return R.fail("密码错误次数过多，账号已被锁定，请" + ttlMsg + "后重试");
+            case LOCKED:
+                long ttl = check.getLockTtl();
+                String ttlMsg = ttl > 0 ? (ttl / 60 + 1) + "分钟" : "稍后";
+                loginLogService.recordLoginLog(request.getUsername(), 0, "账号已被锁定", ip, userAgent);
+                return R.fail("密码错误次数过多，账号已被锁定，请" + ttlMsg + "后重试");
+            default:
+                break;
         }
 
         Authentication authentication;
         try {
-            // 认证
-            authentication = authenticationManager.authenticate(
+            // 认证（在有界线程池中校验密码，过载时返回429）
+            authentication = loginExecutor.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
             );
         } catch (AuthenticationException e) {
             // 记录失败次数
-            Long newCount = redisUtils.increment(failKey);
-            if (newCount != null && newCount == 1) {
-                redisUtils.expire(failKey, RedisConstant.LOGIN_LOCK_TIME * 60, TimeUnit.SECONDS);
-            }
-            int remaining = RedisConstant.LOGIN_MAX_RETRY - (newCount != null ? newCount.intValue() : 0);
+            long newCount = loginSessionManager.recordFailure(request.getUsername());
+            int remaining = RedisConstant.LOGIN_MAX_RETRY - (int) newCount;
             String msg = remaining > 0 ? "用户名或密码错误，还可尝试" + remaining + "次" : "密码错误次数过多，账号已被锁定30分钟";
             loginLogService.recordLoginLog(request.getUsername(), 0, msg, ip, userAgent);
             return R.fail(msg);
         }
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        // 登录成功，清除失败计数
-        redisUtils.delete(failKey);
-
         // 获取登录用户信息
         LoginUser loginUser = (LoginUser) authentication.getPrincipal();
 
-        // 生成Token
-        String token = jwtUtils.generateToken(loginUser.getUsername());
+        // 生成Token（无状态模式下携带会话声明）
+        Map<String, Object> sessionClaims = statelessSessionService.isEnabled()
+                ? statelessSessionService.buildClaims(loginUser) : null;
+        String token = sessionClaims != null
+                ? jwtUtils.generateToken(loginUser.getUsername(), sessionClaims)
+                : jwtUtils.generateToken(loginUser.getUsername());
 
         // 设置设备信息
         loginUser.setLoginIp(ip);
         loginUser.setLoginTime(System.currentTimeMillis());
         loginUser.setTokenKey(token);
-        parseUserAgent(userAgent, loginUser);
+        UserAgentParser.UserAgent agent = userAgentParser.parse(userAgent);
+        loginUser.setBrowser(agent.getBrowser());
+        loginUser.setOs(agent.getOs());
 
-        // 存入Redis
-        redisUtils.set(RedisConstant.TOKEN_PREFIX + token, loginUser,
-                jwtUtils.getExpiration(), TimeUnit.MILLISECONDS);
-        // 为用户维护会话token索引，避免全量扫描Redis
-        String userTokenSetKey = buildUserTokenSetKey(loginUser.getUserId());
-        redisUtils.addSetMember(userTokenSetKey, token);
-        redisUtils.expire(userTokenSetKey, jwtUtils.getExpiration(), TimeUnit.MILLISECONDS);
+        // 存入Redis并维护用户会话token索引（避免全量扫描Redis），同时清除失败计数
+        loginSessionManager.createSession(token, loginUser, request.getUsername(), jwtUtils.getExpiration());
 
         // 记录登录成功日志
         loginLogService.recordLoginLog(loginUser.getUsername(), 1, "登录成功", ip, userAgent);
@@ -282,6 +274,7 @@ public class AuthController {
                 redisUtils.removeSetMembers(buildUserTokenSetKey(loginUser.getUserId()), token);
             }
             redisUtils.delete(redisTokenKey);
+            tokenCacheService.evict(token);
         }
         SecurityContextHolder.clearContext();
         return R.ok("登出成功", null);
@@ -350,6 +343,7 @@ public class AuthController {
         }
         redisUtils.delete(RedisConstant.TOKEN_PREFIX + tokenKey);
         redisUtils.removeSetMembers(userTokenSetKey, tokenKey);
+        tokenCacheService.evict(tokenKey);
         return R.ok();
     }
 
@@ -372,6 +366,7 @@ public class AuthController {
                 }
                 redisUtils.delete(RedisConstant.TOKEN_PREFIX + tokenKey);
                 redisUtils.removeSetMembers(userTokenSetKey, tokenKey);
+                tokenCacheService.evict(tokenKey);
             }
         }
         return R.ok();
@@ -387,62 +382,4 @@ public class AuthController {
     private String buildUserTokenSetKey(Long userId) {
         return RedisConstant.USER_TOKEN_SET_PREFIX + userId;
     }
-
-    private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("X-Real-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        // 多级代理时取第一个
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
-        }
-        return ip;
-    }
-
-    /** 从 User-Agent 解析浏览器和操作系统 */
-    private void parseUserAgent(String ua, LoginUser loginUser) {
-        if (ua == null || ua.isEmpty()) {
-            loginUser.setBrowser("未知");
-            loginUser.setOs("未知");
-            return;
-        }
-        // 解析浏览器
-        String browser;
-        if (ua.contains("Edg/")) {
-            browser = "Edge";
-        } else if (ua.contains("Chrome/") && !ua.contains("Edg/")) {
-            browser = "Chrome";
-        } else if (ua.contains("Firefox/")) {
-            browser = "Firefox";
-        } else if (ua.contains("Safari/") && !ua.contains("Chrome/")) {
-            browser = "Safari";
-        } else if (ua.contains("MSIE") || ua.contains("Trident/")) {
-            browser = "IE";
-        } else if (ua.contains("Opera") || ua.contains("OPR/")) {
-            browser = "Opera";
-        } else {
-            browser = "其他";
-        }
-        // 解析操作系统
-        String os;
-        if (ua.contains("Windows")) {
-            os = "Windows";
-        } else if (ua.contains("Mac OS")) {
-            os = "macOS";
-        } else if (ua.contains("Android")) {
-            os = "Android";
-        } else if (ua.contains("iPhone") || ua.contains("iPad")) {
-            os = "iOS";
-        } else if (ua.contains("Linux")) {
-            os = "Linux";
-        } else {
-            os = "其他";
-        }
-        loginUser.setBrowser(browser);
-        loginUser.setOs(os);
-    }
 }
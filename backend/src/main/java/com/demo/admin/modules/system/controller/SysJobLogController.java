@@ -7,12 +7,14 @@ import com.demo.admin.common.result.PageResult;
 import com.demo.admin.common.result.R;
 import com.demo.admin.modules.system.entity.SysJobLog;
 import com.demo.admin.modules.system.mapper.SysJobLogMapper;
+import com.demo.admin.modules.system.service.LogArchiveService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -26,6 +28,9 @@ public class SysJobLogController {
     @Autowired
     private SysJobLogMapper jobLogMapper;
 
+    @Autowired
+    private LogArchiveService archiveService;
+
     @ApiOperation("分页查询任务日志")
     @GetMapping("/page")
     @PreAuthorize("@ss.hasPermi('system:job:list')")
@@ -34,14 +39,23 @@ public class SysJobLogController {
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) String jobName,
             @RequestParam(required = false) Integer status,
-            @RequestParam(required = false) Long jobId) {
+            @RequestParam(required = false) Long jobId,
+            @RequestParam(required = false) String beginTime,
+            @RequestParam(required = false) String endTime) {
         Page<SysJobLog> page = new Page<>(current, size);
         LambdaQueryWrapper<SysJobLog> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(jobId != null, SysJobLog::getJobId, jobId)
                 .like(StrUtil.isNotBlank(jobName), SysJobLog::getJobName, jobName)
                 .eq(status != null, SysJobLog::getStatus, status)
+                .ge(StrUtil.isNotBlank(beginTime), SysJobLog::getCreateTime, beginTime + " 00:00:00")
+                .le(StrUtil.isNotBlank(endTime), SysJobLog::getCreateTime, endTime + " 23:59:59")
                 .orderByDesc(SysJobLog::getCreateTime);
-        return R.ok(PageResult.of(jobLogMapper.selectPage(page, wrapper)));
+        return R.ok(PageResult.of(archiveService.withArchive(jobLogMapper.selectPage(page, wrapper), SysJobLog.class,
+                StrUtil.isNotBlank(beginTime) ? LocalDate.parse(beginTime).atStartOfDay() : null,
+                StrUtil.isNotBlank(endTime) ? LocalDate.parse(endTime).atTime(23, 59, 59) : null,
+                log -> (jobId == null || jobId.equals(log.getJobId()))
+                        && (StrUtil.isBlank(jobName) || StrUtil.containsIgnoreCase(log.getJobName(), jobName))
+                        && (status == null || status.equals(log.getStatus())))));
     }
 
     @ApiOperation("删除任务日志")
@@ -9,6 +9,7 @@ import com.demo.admin.common.annotation.OperLog;
 import com.demo.admin.common.result.PageResult;
 import com.demo.admin.common.result.R;
 import com.demo.admin.modules.system.entity.SysLog;
+import com.demo.admin.modules.system.service.LogArchiveService;
 import com.demo.admin.modules.system.service.SysLogService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -20,6 +21,8 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -33,6 +36,9 @@ public class SysLogController {
     @Autowired
     private SysLogService logService;
 
+    @Autowired
+    private LogArchiveService archiveService;
+
     @ApiOperation("分页查询操作日志")
     @GetMapping("/page")
     @PreAuthorize("@ss.hasPermi('system:log:list')")
@@ -52,14 +58,34 @@ public class SysLogController {
                 .ge(StrUtil.isNotBlank(beginTime), SysLog::getCreateTime, beginTime != null ? beginTime + " 00:00:00" : null)
                 .le(StrUtil.isNotBlank(endTime), SysLog::getCreateTime, endTime != null ? endTime + " 23:59:59" : null)
                 .orderByDesc(SysLog::getCreateTime);
-        return R.ok(PageResult.of(logService.page(page, wrapper)));
+        // 开始时间早于在线保留期时，数据库结果之后接上归档中的记录
+        return R.ok(PageResult.of(archiveService.withArchive(logService.page(page, wrapper), SysLog.class,
+                StrUtil.isNotBlank(beginTime) ? LocalDate.parse(beginTime).atStartOfDay() : null,
+                StrUtil.isNotBlank(endTime) ? LocalDate.parse(endTime).atTime(23, 59, 59) : null,
+                log -> (StrUtil.isBlank(username) || StrUtil.containsIgnoreCase(log.getUsername(), username))
+                        && (StrUtil.isBlank(operation) || StrUtil.containsIgnoreCase(log.getOperation(), operation))
+                        && (status == null || status.equals(log.getStatus())))));
+    }
+
+    @ApiOperation("查询日志详情")
+    @GetMapping("/{id}")
+    @PreAuthorize("@ss.hasPermi('system:log:list')")
+    public R<SysLog> detail(@PathVariable Long id) {
+        SysLog sysLog = logService.getDetail(id);
+        if (sysLog == null) {
+            sysLog = archiveService.findArchived(SysLog.class, id);
+        }
+        if (sysLog == null) {
+            return R.fail("日志不存在");
+        }
+        return R.ok(sysLog);
     }
 
     @ApiOperation("删除日志")
     @DeleteMapping("/{id}")
     @PreAuthorize("@ss.hasPermi('system:log:delete')")
     public R<Void> delete(@PathVariable Long id) {
-        logService.removeById(id);
+        logService.deleteLogs(Collections.singletonList(id));
         return R.ok();
     }
 
@@ -67,9 +93,7 @@ public class SysLogController {
     @DeleteMapping("/batch")
     @PreAuthorize("@ss.hasPermi('system:log:delete')")
     public R<Void> batchDelete(@RequestBody List<Long> ids) {
-        if (ids != null && !ids.isEmpty()) {
-            logService.removeByIds(ids);
-        }
+        logService.deleteLogs(ids);
         return R.ok();
     }
 
@@ -77,7 +101,7 @@ public class SysLogController {
     @DeleteMapping("/clean")
     @PreAuthorize("@ss.hasPermi('system:log:delete')")
     public R<Void> clean() {
-        logService.remove(new LambdaQueryWrapper<>());
+        logService.cleanLogs();
         return R.ok();
     }
 
@@ -95,6 +119,7 @@ public class SysLogController {
                 .eq(status != null, SysLog::getStatus, status)
                 .orderByDesc(SysLog::getCreateTime);
         List<SysLog> list = logService.list(wrapper);
+        logService.fillDetails(list);
 
         ExcelWriter writer = ExcelUtil.getWriter(true);
         writer.addHeaderAlias("username", "操作用户");
@@ -9,6 +9,7 @@ import com.demo.admin.common.annotation.OperLog;
 import com.demo.admin.common.result.PageResult;
 import com.demo.admin.common.result.R;
 import com.demo.admin.modules.system.entity.SysLoginLog;
+import com.demo.admin.modules.system.service.LogArchiveService;
 import com.demo.admin.modules.system.service.SysLoginLogService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -20,6 +21,7 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 
 /**
  * 登录日志控制器
@@ -32,6 +34,9 @@ public class SysLoginLogController {
     @Autowired
     private SysLoginLogService loginLogService;
 
+    @Autowired
+    private LogArchiveService archiveService;
+
     @ApiOperation("分页查询登录日志")
     @GetMapping("/page")
     @PreAuthorize("@ss.hasPermi('system:loginLog:list')")
@@ -49,7 +54,11 @@ public class SysLoginLogController {
                 .ge(StrUtil.isNotBlank(beginTime), SysLoginLog::getCreateTime, beginTime + " 00:00:00")
                 .le(StrUtil.isNotBlank(endTime), SysLoginLog::getCreateTime, endTime + " 23:59:59")
                 .orderByDesc(SysLoginLog::getCreateTime);
-        return R.ok(PageResult.of(loginLogService.page(page, wrapper)));
+        return R.ok(PageResult.of(archiveService.withArchive(loginLogService.page(page, wrapper), SysLoginLog.class,
+                StrUtil.isNotBlank(beginTime) ? LocalDate.parse(beginTime).atStartOfDay() : null,
+                StrUtil.isNotBlank(endTime) ? LocalDate.parse(endTime).atTime(23, 59, 59) : null,
+                log -> (StrUtil.isBlank(username) || StrUtil.containsIgnoreCase(log.getUsername(), username))
+                        && (status == null || status.equals(log.getStatus())))));
     }
 
     @ApiOperation("删除登录日志")
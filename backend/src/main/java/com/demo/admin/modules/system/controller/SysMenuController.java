@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.demo.admin.common.annotation.OperLog;
 import com.demo.admin.common.result.R;
 import com.demo.admin.modules.system.entity.SysMenu;
+import com.demo.admin.modules.system.service.RolePermissionCache;
 import com.demo.admin.modules.system.service.SysMenuService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -26,6 +27,9 @@ public class SysMenuController {
     @Autowired
     private SysMenuService menuService;
 
+    @Autowired
+    private RolePermissionCache rolePermissionCache;
+
     @ApiOperation("获取菜单列表")
     @GetMapping("/list")
     @PreAuthorize("@ss.hasPermi('system:menu:list')")
@@ -60,6 +64,7 @@ public class SysMenuController {
         menu.setStatus(1);
         menu.setDeleted(0);
         menuService.save(menu);
+        rolePermissionCache.menusChanged();
         return R.ok();
     }
 
@@ -69,6 +74,7 @@ public class SysMenuController {
     @OperLog("修改菜单")
     public R<Void> update(@Valid @RequestBody SysMenu menu) {
         menuService.updateById(menu);
+        rolePermissionCache.menusChanged();
         return R.ok();
     }
 
@@ -84,6 +90,7 @@ public class SysMenuController {
             return R.fail("存在子菜单，无法删除");
         }
         menuService.removeById(id);
+        rolePermissionCache.menusChanged();
         return R.ok();
     }
 
@@ -100,6 +107,7 @@ public class SysMenuController {
             menu.setSort(sort);
             menuService.updateById(menu);
         }
+        rolePermissionCache.menusChanged();
         return R.ok();
     }
 }
@@ -5,6 +5,7 @@ import com.demo.admin.common.constant.RedisConstant;
 import com.demo.admin.common.result.R;
 import com.demo.admin.common.utils.RedisUtils;
 import com.demo.admin.security.service.LoginUser;
+import com.demo.admin.security.service.TokenCacheService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,9 @@ public class SysOnlineController {
     @Autowired
     private RedisUtils redisUtils;
 
+    @Autowired
+    private TokenCacheService tokenCacheService;
+
     @ApiOperation("获取在线用户列表")
     @GetMapping("/list")
     @PreAuthorize("@ss.hasPermi('system:online:list')")
@@ -69,6 +73,7 @@ public class SysOnlineController {
     @OperLog("强制下线用户")
     public R<Void> forceLogout(@PathVariable String tokenKey) {
         redisUtils.delete(RedisConstant.TOKEN_PREFIX + tokenKey);
+        tokenCacheService.evict(tokenKey);
         return R.ok();
     }
 }
@@ -1,8 +1,12 @@
 package com.demo.admin.modules.system.controller;
 
+import com.demo.admin.common.audit.AuditLogWriter;
+import com.demo.admin.common.audit.LoginLogWriter;
 import com.demo.admin.common.result.R;
+import com.demo.admin.security.service.LoginExecutor;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -24,6 +28,15 @@ import java.util.*;
 @RequestMapping("/system/server")
 public class SysServerController {
 
+    @Autowired
+    private LoginExecutor loginExecutor;
+
+    @Autowired
+    private AuditLogWriter auditLogWriter;
+
+    @Autowired
+    private LoginLogWriter loginLogWriter;
+
     @ApiOperation("获取服务器信息")
     @GetMapping
     @PreAuthorize("@ss.hasPermi('system:server:list')")
@@ -33,6 +46,9 @@ public class SysServerController {
         data.put("mem", getMemInfo());
         data.put("sys", getSysInfo());
         data.put("disk", getDiskInfo());
+        data.put("login", loginExecutor.getMetrics());
+        data.put("auditLog", auditLogWriter.getMetrics());
+        data.put("loginLog", loginLogWriter.getMetrics());
         return R.ok(data);
     }
 
@@ -188,7 +188,7 @@ public class SysUserController {
     @ApiOperation("导出用户列表")
     @GetMapping("/export")
     @PreAuthorize("@ss.hasPermi('system:user:list')")
-    @OperLog("导出用户列表")
+    @OperLog(value = "导出用户列表", level = OperLog.Level.PARAMS)
     @DataScope
     public void export(HttpServletResponse response,
                        @RequestParam(required = false) String username,
@@ -241,7 +241,7 @@ public class SysUserController {
     @ApiOperation("导入用户")
     @PostMapping("/import")
     @PreAuthorize("@ss.hasPermi('system:user:add')")
-    @OperLog("导入用户")
+    @OperLog(value = "导入用户", maxResponse = 500)
     public R<String> importUsers(@RequestParam("file") MultipartFile file) throws IOException {
         ExcelReader reader = ExcelUtil.getReader(file.getInputStream());
         List<Map<String, Object>> rows = reader.readAll();
@@ -8,6 +8,9 @@ import java.time.LocalDateTime;
 
 /**
  * 操作日志实体
+ * <p>
+ * sys_log 只保存列表和统计用到的窄字段；请求参数、响应结果、错误信息和变更前后数据
+ * 压缩存放在 sys_log_detail，保存时一并写入，查看单条日志时再读取
  */
 @Data
 @TableName("sys_log")
@@ -36,6 +39,7 @@ public class SysLog implements Serializable {
     /**
      * 请求参数
      */
+    @TableField(exist = false)
     private String params;
 
     /**
@@ -56,23 +60,32 @@ public class SysLog implements Serializable {
     /**
      * 错误信息
      */
+    @TableField(exist = false)
     private String errorMsg;
 
     /**
      * 响应结果
      */
+    @TableField(exist = false)
     private String responseBody;
 
     /**
      * 变更前数据
      */
+    @TableField(exist = false)
     private String oldValue;
 
     /**
      * 变更后数据
      */
+    @TableField(exist = false)
     private String newValue;
 
+    /**
+     * 是否有变更前后数据：0-否，1-是
+     */
+    private Integer changed;
+
     /**
      * 创建时间
      */
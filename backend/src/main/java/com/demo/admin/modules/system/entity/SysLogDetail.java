@@ -0,0 +1,37 @@
+package com.demo.admin.modules.system.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 操作日志详情实体
+ * <p>
+ * 请求参数、响应结果、错误信息和变更前后数据，压缩后单独存放，只在查看单条日志时读取
+ */
+@Data
+@TableName("sys_log_detail")
+public class SysLogDetail implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 日志ID
+     */
+    @TableId(type = IdType.INPUT)
+    private Long logId;
+
+    /**
+     * 压缩后的详情（JSON，MySQL COMPRESS 格式）
+     */
+    private byte[] content;
+
+    /**
+     * 创建时间，与日志一致，用于按时间清理
+     */
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,43 @@
+package com.demo.admin.modules.system.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 按小时汇总的统计计数
+ * <p>
+ * 由日志写入时增量累加，并由定时任务从原始日志重新计算校准；按天汇总表 sys_stat_daily 结构相同，以日期代替小时
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("sys_stat_hourly")
+public class SysStatHourly implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 统计项：log-操作次数，login-登录次数，operation-按操作类型的次数
+     */
+    private String metric;
+
+    /**
+     * 维度值，operation 为操作类型，其余为空串
+     */
+    private String dim;
+
+    /**
+     * 统计小时（整点）
+     */
+    private LocalDateTime statTime;
+
+    /**
+     * 次数
+     */
+    private Long cnt;
+}
@@ -0,0 +1,47 @@
+package com.demo.admin.modules.system.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 日志表分区维护 Mapper
+ * <p>
+ * 表名和分区名拼接进 SQL，只能传入代码中固定的表名和 pYYYYMM 格式的分区名
+ */
+@Mapper
+public interface LogPartitionMapper {
+
+    /**
+     * 表的分区名，按分区顺序；未分区时返回空列表
+     */
+    @Select("SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = #{table} AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION")
+    List<String> selectPartitionNames(@Param("table") String table);
+
+    @Select("SELECT MIN(create_time) FROM ${table}")
+    LocalDateTime selectMinCreateTime(@Param("table") String table);
+
+    /**
+     * 拆分 pmax 分区，definitions 为新分区定义（不含 pmax）
+     */
+    @Update("ALTER TABLE ${table} REORGANIZE PARTITION pmax INTO " +
+            "(${definitions}, PARTITION pmax VALUES LESS THAN MAXVALUE)")
+    void splitMaxPartition(@Param("table") String table, @Param("definitions") String definitions);
+
+    @Update("ALTER TABLE ${table} DROP PARTITION ${partition}")
+    void dropPartition(@Param("table") String table, @Param("partition") String partition);
+
+    /**
+     * 按ID升序读取分区中ID大于 afterId 的至多 limit 条记录
+     */
+    @Select("SELECT * FROM ${table} PARTITION (${partition}) WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<Map<String, Object>> selectPartitionRows(@Param("table") String table, @Param("partition") String partition,
+                                                  @Param("afterId") long afterId, @Param("limit") int limit);
+}
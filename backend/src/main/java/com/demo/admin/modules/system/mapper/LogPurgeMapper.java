@@ -0,0 +1,37 @@
+package com.demo.admin.modules.system.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 日志分批清理 Mapper
+ * <p>
+ * 表名和列名拼接进 SQL，只能传入代码中固定的名称；before 为 true 时匹配 create_time 早于 time 的记录，否则匹配不早于 time 的记录
+ */
+@Mapper
+public interface LogPurgeMapper {
+
+    /**
+     * 匹配记录的最小、最大ID，键为 minId、maxId，无匹配时值为null
+     */
+    @Select("<script>SELECT MIN(${idColumn}) AS minId, MAX(${idColumn}) AS maxId FROM ${table} WHERE " +
+            "<choose><when test='before'>create_time &lt; #{time}</when><otherwise>create_time &gt;= #{time}</otherwise></choose>" +
+            "</script>")
+    Map<String, Object> selectIdRange(@Param("table") String table, @Param("idColumn") String idColumn,
+                                      @Param("before") boolean before, @Param("time") LocalDateTime time);
+
+    /**
+     * 删除ID在 [fromId, toId] 内的匹配记录
+     */
+    @Delete("<script>DELETE FROM ${table} WHERE ${idColumn} BETWEEN #{fromId} AND #{toId} AND " +
+            "<choose><when test='before'>create_time &lt; #{time}</when><otherwise>create_time &gt;= #{time}</otherwise></choose>" +
+            "</script>")
+    int deleteRange(@Param("table") String table, @Param("idColumn") String idColumn,
+                    @Param("before") boolean before, @Param("time") LocalDateTime time,
+                    @Param("fromId") long fromId, @Param("toId") long toId);
+}
@@ -0,0 +1,12 @@
+package com.demo.admin.modules.system.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.demo.admin.modules.system.entity.SysLogDetail;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 操作日志详情 Mapper
+ */
+@Mapper
+public interface SysLogDetailMapper extends BaseMapper<SysLogDetail> {
+}
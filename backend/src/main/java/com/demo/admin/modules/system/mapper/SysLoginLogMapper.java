@@ -3,10 +3,18 @@ package com.demo.admin.modules.system.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.demo.admin.modules.system.entity.SysLoginLog;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 登录日志 Mapper
  */
 @Mapper
 public interface SysLoginLogMapper extends BaseMapper<SysLoginLog> {
+
+    /**
+     * 多行插入登录日志
+     */
+    int batchInsert(@Param("logs") List<SysLoginLog> logs);
 }
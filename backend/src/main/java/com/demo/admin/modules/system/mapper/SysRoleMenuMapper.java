@@ -22,4 +22,9 @@ public interface SysRoleMenuMapper extends BaseMapper<SysRoleMenu> {
      * 批量插入角色菜单关联
      */
     int batchInsert(@Param("roleId") Long roleId, @Param("menuIds") List<Long> menuIds);
+
+    /**
+     * 根据角色ID查询关联的菜单ID列表
+     */
+    List<Long> selectMenuIdsByRoleId(@Param("roleId") Long roleId);
 }
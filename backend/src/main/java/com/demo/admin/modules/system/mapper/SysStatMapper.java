@@ -0,0 +1,84 @@
+package com.demo.admin.modules.system.mapper;
+
+import com.demo.admin.modules.system.entity.SysStatHourly;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 统计汇总 Mapper
+ * <p>
+ * 重新计算时表名和维度列拼接进 SQL，只能传入代码中固定的名称
+ */
+@Mapper
+public interface SysStatMapper {
+
+    /**
+     * 累加小时计数
+     */
+    @Insert("<script>INSERT INTO sys_stat_hourly (metric, dim, stat_time, cnt) VALUES " +
+            "<foreach collection='rows' item='r' separator=','>(#{r.metric}, #{r.dim}, #{r.statTime}, #{r.cnt})</foreach> " +
+            "ON DUPLICATE KEY UPDATE cnt = cnt + VALUES(cnt)</script>")
+    int upsertHourly(@Param("rows") List<SysStatHourly> rows);
+
+    /**
+     * 累加天计数，statTime 取日期部分
+     */
+    @Insert("<script>INSERT INTO sys_stat_daily (metric, dim, stat_date, cnt) VALUES " +
+            "<foreach collection='rows' item='r' separator=','>(#{r.metric}, #{r.dim}, DATE(#{r.statTime}), #{r.cnt})</foreach> " +
+            "ON DUPLICATE KEY UPDATE cnt = cnt + VALUES(cnt)</script>")
+    int upsertDaily(@Param("rows") List<SysStatHourly> rows);
+
+    @Select("SELECT COALESCE(SUM(cnt), 0) FROM sys_stat_daily WHERE metric = #{metric} AND stat_date = #{date}")
+    long selectDailyCount(@Param("metric") String metric, @Param("date") LocalDate date);
+
+    /**
+     * 自 since 起每天的计数，键为 date、count
+     */
+    @Select("SELECT stat_date AS date, cnt AS count FROM sys_stat_daily " +
+            "WHERE metric = #{metric} AND dim = '' AND stat_date >= #{since} ORDER BY stat_date")
+    List<Map<String, Object>> selectDailyTrend(@Param("metric") String metric, @Param("since") LocalDate since);
+
+    /**
+     * 指定日期每小时的计数，键为 hour、count
+     */
+    @Select("SELECT HOUR(stat_time) AS hour, cnt AS count FROM sys_stat_hourly " +
+            "WHERE metric = #{metric} AND dim = '' AND stat_time >= #{date} AND stat_time < DATE_ADD(#{date}, INTERVAL 1 DAY) " +
+            "ORDER BY stat_time")
+    List<Map<String, Object>> selectHourlyTrend(@Param("metric") String metric, @Param("date") LocalDate date);
+
+    /**
+     * 自 since 起各维度值的合计，键为 name、value，按合计降序
+     */
+    @Select("SELECT dim AS name, CAST(SUM(cnt) AS SIGNED) AS value FROM sys_stat_daily " +
+            "WHERE metric = #{metric} AND stat_date >= #{since} GROUP BY dim ORDER BY value DESC LIMIT #{limit}")
+    List<Map<String, Object>> selectDistribution(@Param("metric") String metric, @Param("since") LocalDate since,
+                                                 @Param("limit") int limit);
+
+    @Delete("DELETE FROM sys_stat_hourly WHERE metric = #{metric} AND stat_time >= #{since}")
+    int deleteHourlySince(@Param("metric") String metric, @Param("since") LocalDateTime since);
+
+    @Delete("DELETE FROM sys_stat_daily WHERE metric = #{metric} AND stat_date >= #{since}")
+    int deleteDailySince(@Param("metric") String metric, @Param("since") LocalDate since);
+
+    @Delete("DELETE FROM sys_stat_hourly WHERE stat_time < #{before}")
+    int deleteHourlyBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * 从原始日志统计 since 之后的小时计数；dimColumn 为空时维度为空串。
+     * 普通 SELECT 为一致性读，不对日志表加锁，不阻塞日志写入
+     */
+    @Select("<script>SELECT #{metric} AS metric, " +
+            "<choose><when test='dimColumn != null'>IFNULL(${dimColumn}, '')</when><otherwise>''</otherwise></choose> AS dim, " +
+            "STR_TO_DATE(DATE_FORMAT(create_time, '%Y-%m-%d %H:00:00'), '%Y-%m-%d %H:%i:%s') AS stat_time, COUNT(*) AS cnt " +
+            "FROM ${table} WHERE create_time &gt;= #{since} GROUP BY dim, stat_time</script>")
+    List<SysStatHourly> selectHourlyCounts(@Param("metric") String metric, @Param("table") String table,
+                                           @Param("dimColumn") String dimColumn, @Param("since") LocalDateTime since);
+}
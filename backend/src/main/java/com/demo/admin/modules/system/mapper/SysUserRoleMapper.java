@@ -5,6 +5,7 @@ import com.demo.admin.modules.system.entity.SysUserRole;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -28,6 +29,16 @@ public interface SysUserRoleMapper extends BaseMapper<SysUserRole> {
      */
     List<Long> selectRoleIdsByUserId(@Param("userId") Long userId);
 
+    /**
+     * 根据角色ID查询绑定的用户ID列表
+     */
+    List<Long> selectUserIdsByRoleId(@Param("roleId") Long roleId);
+
+    /**
+     * 批量查询用户的角色关联
+     */
+    List<SysUserRole> selectByUserIds(@Param("userIds") Collection<Long> userIds);
+
     /**
      * 根据角色ID查询绑定的用户数量
      */
@@ -0,0 +1,92 @@
+package com.demo.admin.modules.system.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 大屏统计快照
+ * <p>
+ * 每个节点按 snapshot-ttl 毫秒最多计算一次完整快照，大屏接口和 WebSocket 推送共用，
+ * 打开的大屏数量不影响统计查询次数。
+ */
+@Service
+public class DashboardSnapshotService {
+
+    /** 快照有效期（毫秒） */
+    @Value("${admin.dashboard.snapshot-ttl:5000}")
+    private long snapshotTtl = 5000;
+
+    @Autowired
+    private SysRoleService roleService;
+
+    @Autowired
+    private SysMenuService menuService;
+
+    @Autowired
+    private SysDeptService deptService;
+
+    @Autowired
+    private StatRollupService rollupService;
+
+    @Autowired
+    private LiveStatsService liveStatsService;
+
+    private volatile Map<String, Object> snapshot;
+    private volatile long snapshotTime;
+
+    /**
+     * 当前快照，过期时重新计算
+     */
+    public Map<String, Object> getBigscreen() {
+        Map<String, Object> current = snapshot;
+        if (current != null && System.currentTimeMillis() - snapshotTime < snapshotTtl) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot != null && System.currentTimeMillis() - snapshotTime < snapshotTtl) {
+                return snapshot;
+            }
+            return refresh();
+        }
+    }
+
+    /**
+     * 重新计算快照
+     */
+    public synchronized Map<String, Object> refresh() {
+        Map<String, Object> data = new LinkedHashMap<>();
+
+        // 基础统计
+        data.put("userCount", liveStatsService.getUserCount());
+        data.put("roleCount", roleService.count());
+        data.put("menuCount", menuService.count());
+        data.put("deptCount", deptService.count());
+
+        // 今日操作数、登录数、活跃用户数
+        data.put("todayLogCount", liveStatsService.getTodayCount(LiveStatsService.OPERATION));
+        data.put("todayLoginCount", liveStatsService.getTodayCount(LiveStatsService.LOGIN));
+        data.put("todayActiveUsers", liveStatsService.getTodayActiveUsers());
+        data.put("today", liveStatsService.getTodaySnapshot());
+
+        // 今日24小时操作趋势
+        data.put("hourlyTrend", rollupService.getTodayHourlyTrend(StatRollupService.METRIC_LOG));
+
+        // 近30天操作趋势
+        data.put("monthlyTrend", rollupService.getDailyTrend(StatRollupService.METRIC_LOG, 30));
+
+        // 操作类型分布
+        data.put("operationDistribution", rollupService.getOperationDistribution(30, 8));
+
+        // 最近操作流水(10条)
+        data.put("recentLogs", liveStatsService.getRecentLogs(10));
+
+        snapshot = Collections.unmodifiableMap(data);
+        snapshotTime = System.currentTimeMillis();
+        return snapshot;
+    }
+}
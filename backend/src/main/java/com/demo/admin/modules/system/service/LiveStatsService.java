@@ -0,0 +1,430 @@
+package com.demo.admin.modules.system.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.RedisUtils;
+import com.demo.admin.modules.system.entity.SysLog;
+import com.demo.admin.modules.system.entity.SysLoginLog;
+import com.demo.admin.modules.system.mapper.SysLogMapper;
+import com.demo.admin.modules.system.mapper.SysLoginLogMapper;
+import com.demo.admin.modules.system.mapper.SysUserMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 当天实时统计
+ * <p>
+ * 操作日志、登录日志写入数据库后在本节点按天用只增不减的 LongAdder 计数，请求路径上不访问数据库和Redis；
+ * 各节点每隔 sync-interval 毫秒把与上次推送相比的增量累加到当天的Redis哈希，同时取回集群合计值。
+ * 登录成功或有操作记录的用户名成批写入当天的 HyperLogLog，估算活跃用户数。
+ * 最近写入的操作日志保存在内存环形缓冲区，用户总数每隔 count-refresh 毫秒刷新，仪表盘读取时只读内存。
+ * <p>
+ * 当天的Redis哈希不存在时（首次部署或Redis数据丢失），由最先同步的节点从数据库统计当天已写入的日志补齐，
+ * 本节点此前已计数的日志视为包含在统计结果中，不再推送；补齐失败时撤销标记，下次同步重新补齐。
+ * 其他节点已计数、尚未推送的日志（至多一个 sync-interval 的量）同时包含在统计结果中，推送后会重复计入一次，
+ * 当天计数可能因此略偏高，按天汇总的统计表不受影响。
+ * 最近操作只包含本节点启动时从数据库加载的记录和之后本节点写入的日志。
+ */
+@Slf4j
+@Service
+public class LiveStatsService {
+
+    /** 操作次数 */
+    public static final String OPERATION = "operation";
+    /** 失败的操作次数 */
+    public static final String OPERATION_FAIL = "operationFail";
+    /** 登录次数 */
+    public static final String LOGIN = "login";
+    /** 失败的登录次数 */
+    public static final String LOGIN_FAIL = "loginFail";
+
+    private static final String[] FIELDS = {OPERATION, OPERATION_FAIL, LOGIN, LOGIN_FAIL};
+    private static final int IDX_OPERATION = 0;
+    private static final int IDX_OPERATION_FAIL = 1;
+    private static final int IDX_LOGIN = 2;
+    private static final int IDX_LOGIN_FAIL = 3;
+
+    /** 哈希中标记当天已从数据库补齐的字段 */
+    private static final String SEEDED_FIELD = "seeded";
+
+    /** 最近操作缓冲区大小 */
+    @Value("${admin.live-stats.recent-size:20}")
+    private int recentSize = 20;
+
+    /** 用户总数刷新间隔（毫秒） */
+    @Value("${admin.live-stats.count-refresh:30000}")
+    private long countRefresh = 30000;
+
+    /** Redis中计数和活跃用户的保留天数 */
+    @Value("${admin.live-stats.retention-days:7}")
+    private int retentionDays = 7;
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    @Autowired
+    private SysLogMapper logMapper;
+
+    @Autowired
+    private SysLoginLogMapper loginLogMapper;
+
+    @Autowired
+    private SysUserMapper userMapper;
+
+    private volatile DayCounter current = new DayCounter(LocalDate.now());
+    /** 跨天后仍可能收到的前一天计数 */
+    private volatile DayCounter previous;
+
+    private SysLog[] recentLogs;
+    private int recentNext;
+    private int recentCount;
+
+    private volatile long userCount = -1;
+    private volatile long userCountTime;
+
+    @PostConstruct
+    public void init() {
+        recentLogs = new SysLog[Math.max(1, recentSize)];
+        try {
+            List<SysLog> latest = logMapper.selectList(new LambdaQueryWrapper<SysLog>()
+                    .select(SysLog::getId, SysLog::getUsername, SysLog::getOperation, SysLog::getMethod,
+                            SysLog::getTime, SysLog::getIp, SysLog::getStatus, SysLog::getCreateTime)
+                    .orderByDesc(SysLog::getCreateTime)
+                    .last("LIMIT " + recentLogs.length));
+            Collections.reverse(latest);
+            addRecentLogs(latest);
+        } catch (Exception e) {
+            log.warn("加载最近操作失败: {}", e.getMessage());
+        }
+        sync();
+    }
+
+    /**
+     * 记录一批已写入的操作日志
+     */
+    public void recordOperations(List<SysLog> logs) {
+        for (SysLog sysLog : logs) {
+            recordOperation(sysLog);
+        }
+    }
+
+    /**
+     * 记录一批已写入的登录日志
+     */
+    public void recordLogins(List<SysLoginLog> logs) {
+        for (SysLoginLog loginLog : logs) {
+            recordLogin(loginLog);
+        }
+    }
+
+    /**
+     * 记录一次操作
+     */
+    public void recordOperation(SysLog sysLog) {
+        DayCounter day = counterOf(sysLog.getCreateTime());
+        if (day == null) {
+            return;
+        }
+        day.counted[IDX_OPERATION].increment();
+        if (Integer.valueOf(0).equals(sysLog.getStatus())) {
+            day.counted[IDX_OPERATION_FAIL].increment();
+        }
+        if (sysLog.getUsername() != null) {
+            day.users.add(sysLog.getUsername());
+        }
+    }
+
+    /**
+     * 记录一次登录
+     */
+    public void recordLogin(SysLoginLog loginLog) {
+        DayCounter day = counterOf(loginLog.getCreateTime());
+        if (day == null) {
+            return;
+        }
+        day.counted[IDX_LOGIN].increment();
+        if (Integer.valueOf(1).equals(loginLog.getStatus())) {
+            if (loginLog.getUsername() != null) {
+                day.users.add(loginLog.getUsername());
+            }
+        } else {
+            day.counted[IDX_LOGIN_FAIL].increment();
+        }
+    }
+
+    /**
+     * 放入一批已写入的操作日志，只保留列表展示需要的字段
+     */
+    public synchronized void addRecentLogs(List<SysLog> logs) {
+        for (SysLog sysLog : logs) {
+            recentLogs[recentNext] = summary(sysLog);
+            recentNext = (recentNext + 1) % recentLogs.length;
+            recentCount = Math.min(recentCount + 1, recentLogs.length);
+        }
+    }
+
+    /**
+     * 最近 limit 条操作，按写入时间倒序
+     */
+    public synchronized List<SysLog> getRecentLogs(int limit) {
+        int size = Math.min(limit, recentCount);
+        List<SysLog> logs = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            logs.add(recentLogs[(recentNext - i + recentLogs.length) % recentLogs.length]);
+        }
+        return logs;
+    }
+
+    /**
+     * 当天集群合计次数（最近一次同步的合计值加上本节点尚未同步的增量）
+     */
+    public long getTodayCount(String field) {
+        DayCounter day = today();
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (FIELDS[i].equals(field)) {
+                return day.merged.get(i) + day.counted[i].sum() - day.pushed.get(i);
+            }
+        }
+        throw new IllegalArgumentException("未知的统计项: " + field);
+    }
+
+    /**
+     * 当天活跃用户数估计值
+     */
+    public long getTodayActiveUsers() {
+        return today().activeUsers;
+    }
+
+    /**
+     * 用户总数，每隔 count-refresh 毫秒刷新
+     */
+    public long getUserCount() {
+        if (userCount < 0) {
+            refreshUserCount();
+        }
+        return userCount;
+    }
+
+    /**
+     * 当天计数汇总
+     */
+    public Map<String, Object> getTodaySnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        long operations = getTodayCount(OPERATION);
+        long operationFails = getTodayCount(OPERATION_FAIL);
+        long logins = getTodayCount(LOGIN);
+        long loginFails = getTodayCount(LOGIN_FAIL);
+        snapshot.put("operationCount", operations);
+        snapshot.put("operationSuccessCount", operations - operationFails);
+        snapshot.put("operationFailCount", operationFails);
+        snapshot.put("loginCount", logins);
+        snapshot.put("loginSuccessCount", logins - loginFails);
+        snapshot.put("loginFailCount", loginFails);
+        snapshot.put("activeUsers", getTodayActiveUsers());
+        return snapshot;
+    }
+
+    /**
+     * 把本地增量和活跃用户同步到Redis并取回合计值，到期时刷新用户总数
+     */
+    @Scheduled(fixedDelayString = "${admin.live-stats.sync-interval:2000}")
+    public void sync() {
+        DayCounter last = previous;
+        if (last != null) {
+            push(last, false);
+        }
+        push(today(), true);
+        if (System.currentTimeMillis() - userCountTime >= countRefresh) {
+            refreshUserCount();
+        }
+    }
+
+    /**
+     * 推送 counted 与上次推送值之差及尚未推送的补齐计数；计数只增不减，推送期间的新增计数留到下次，
+     * 失败时不推进 pushed 即可重试
+     */
+    private synchronized void push(DayCounter day, boolean seed) {
+        String key = RedisConstant.LIVE_STATS_PREFIX + day.date;
+        try {
+            if (seed && Boolean.TRUE.equals(redisUtils.putHashIfAbsent(key, SEEDED_FIELD, 1))) {
+                redisUtils.expire(key, retentionDays, TimeUnit.DAYS);
+                try {
+                    seed(day);
+                } catch (Exception e) {
+                    // 补齐失败时撤销标记，由下次同步的节点重新补齐
+                    redisUtils.deleteHashFields(key, SEEDED_FIELD);
+                    throw e;
+                }
+            }
+            long[] deltas = new long[FIELDS.length];
+            Map<String, Long> increments = new LinkedHashMap<>();
+            for (int i = 0; i < FIELDS.length; i++) {
+                deltas[i] = day.counted[i].sum() - day.pushed.get(i);
+                increments.put(FIELDS[i], deltas[i] + day.seeded[i]);
+            }
+            Map<String, Long> totals = redisUtils.incrementHash(key, increments, retentionDays, TimeUnit.DAYS);
+            for (int i = 0; i < FIELDS.length; i++) {
+                day.pushed.addAndGet(i, deltas[i]);
+                day.seeded[i] = 0;
+                day.merged.set(i, totals.getOrDefault(FIELDS[i], day.merged.get(i) + increments.get(FIELDS[i])));
+            }
+        } catch (Exception e) {
+            log.warn("同步实时统计失败: {}", e.getMessage());
+            return;
+        }
+        pushActiveUsers(day);
+    }
+
+    private void pushActiveUsers(DayCounter day) {
+        String key = RedisConstant.ACTIVE_USER_PREFIX + day.date;
+        List<String> users = new ArrayList<>();
+        Iterator<String> it = day.users.iterator();
+        while (it.hasNext()) {
+            users.add(it.next());
+            it.remove();
+        }
+        try {
+            if (!users.isEmpty()) {
+                redisUtils.addHyperLogLog(key, users, retentionDays, TimeUnit.DAYS);
+            }
+            Long count = redisUtils.countHyperLogLog(key);
+            day.activeUsers = count != null ? count : 0;
+        } catch (Exception e) {
+            day.users.addAll(users);
+            log.warn("同步活跃用户失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从数据库统计当天已写入的日志；本节点在统计前已计数的日志都已入库，包含在统计结果中，
+     * 把它们记为已推送，避免重复累加。其他节点尚未推送的计数无法扣除，见类注释
+     */
+    private void seed(DayCounter day) {
+        long[] counted = new long[FIELDS.length];
+        for (int i = 0; i < FIELDS.length; i++) {
+            counted[i] = day.counted[i].sum();
+        }
+        LocalDateTime begin = day.date.atStartOfDay();
+        LocalDateTime end = day.date.plusDays(1).atStartOfDay();
+        long[] counts = new long[FIELDS.length];
+        counts[IDX_OPERATION] = logMapper.selectCount(new LambdaQueryWrapper<SysLog>()
+                .ge(SysLog::getCreateTime, begin).lt(SysLog::getCreateTime, end));
+        counts[IDX_OPERATION_FAIL] = logMapper.selectCount(new LambdaQueryWrapper<SysLog>()
+                .eq(SysLog::getStatus, 0).ge(SysLog::getCreateTime, begin).lt(SysLog::getCreateTime, end));
+        counts[IDX_LOGIN] = loginLogMapper.selectCount(new LambdaQueryWrapper<SysLoginLog>()
+                .ge(SysLoginLog::getCreateTime, begin).lt(SysLoginLog::getCreateTime, end));
+        counts[IDX_LOGIN_FAIL] = loginLogMapper.selectCount(new LambdaQueryWrapper<SysLoginLog>()
+                .ne(SysLoginLog::getStatus, 1).ge(SysLoginLog::getCreateTime, begin).lt(SysLoginLog::getCreateTime, end));
+        addUsers(day, logMapper.selectObjs(new QueryWrapper<SysLog>().select("DISTINCT username")
+                .ge("create_time", begin).lt("create_time", end)));
+        addUsers(day, loginLogMapper.selectObjs(new QueryWrapper<SysLoginLog>().select("DISTINCT username")
+                .eq("status", 1).ge("create_time", begin).lt("create_time", end)));
+        for (int i = 0; i < FIELDS.length; i++) {
+            day.pushed.set(i, counted[i]);
+            day.seeded[i] = counts[i];
+        }
+        log.info("实时统计已从数据库补齐 {} 的计数", day.date);
+    }
+
+    private static void addUsers(DayCounter day, List<Object> usernames) {
+        for (Object username : usernames) {
+            if (username != null) {
+                day.users.add(username.toString());
+            }
+        }
+    }
+
+    private void refreshUserCount() {
+        try {
+            userCount = userMapper.selectCount(null);
+            userCountTime = System.currentTimeMillis();
+        } catch (Exception e) {
+            log.warn("刷新用户总数失败: {}", e.getMessage());
+        }
+    }
+
+    private DayCounter today() {
+        return counterOf(LocalDate.now());
+    }
+
+    private DayCounter counterOf(LocalDateTime time) {
+        return counterOf(time != null ? time.toLocalDate() : LocalDate.now());
+    }
+
+    /**
+     * 取日期对应的计数器，跨天时切换；早于前一天的记录不计入，返回null
+     */
+    private DayCounter counterOf(LocalDate date) {
+        DayCounter day = current;
+        if (day.date.equals(date)) {
+            return day;
+        }
+        synchronized (this) {
+            day = current;
+            if (day.date.equals(date)) {
+                return day;
+            }
+            if (date.isAfter(day.date)) {
+                previous = day;
+                current = new DayCounter(date);
+                return current;
+            }
+            DayCounter last = previous;
+            return last != null && last.date.equals(date) ? last : null;
+        }
+    }
+
+    private static SysLog summary(SysLog sysLog) {
+        SysLog item = new SysLog();
+        item.setId(sysLog.getId());
+        item.setUsername(sysLog.getUsername());
+        item.setOperation(sysLog.getOperation());
+        item.setMethod(sysLog.getMethod());
+        item.setTime(sysLog.getTime());
+        item.setIp(sysLog.getIp());
+        item.setStatus(sysLog.getStatus());
+        item.setCreateTime(sysLog.getCreateTime());
+        return item;
+    }
+
+    /**
+     * 单日计数：本节点累计计数、已推送到Redis的部分、最近一次同步取回的集群合计值、待写入的活跃用户
+     */
+    private static final class DayCounter {
+
+        private final LocalDate date;
+        private final LongAdder[] counted = new LongAdder[FIELDS.length];
+        private final AtomicLongArray pushed = new AtomicLongArray(FIELDS.length);
+        private final AtomicLongArray merged = new AtomicLongArray(FIELDS.length);
+        /** 从数据库补齐、尚未推送成功的计数，只在同步时访问 */
+        private final long[] seeded = new long[FIELDS.length];
+        private final Set<String> users = ConcurrentHashMap.newKeySet();
+        private volatile long activeUsers;
+
+        private DayCounter(LocalDate date) {
+            this.date = date;
+            for (int i = 0; i < counted.length; i++) {
+                counted[i] = new LongAdder();
+            }
+        }
+    }
+}
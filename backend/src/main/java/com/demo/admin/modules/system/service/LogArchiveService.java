@@ -0,0 +1,351 @@
+package com.demo.admin.modules.system.service;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.demo.admin.common.archive.LogArchiveStore;
+import com.demo.admin.modules.system.entity.SysJobLog;
+import com.demo.admin.modules.system.entity.SysLog;
+import com.demo.admin.modules.system.entity.SysLoginLog;
+import com.demo.admin.modules.system.mapper.LogPartitionMapper;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+/**
+ * 日志分区与归档
+ * <p>
+ * sys_log、sys_log_detail、sys_login_log、sys_job_log 按 create_time 每月一个 RANGE 分区（pYYYYMM），
+ * 另有 pmax 承接未来数据。{@link #maintain()} 由系统定时任务调用：
+ * <ul>
+ *     <li>拆分 pmax，提前建好未来 months-ahead 个月的分区</li>
+ *     <li>超出保留期（当月之前 retention-months 个整月）的分区逐批读出，写成压缩的只读归档分段后整区删除，
+ *     sys_log 的详情一并写入归档，sys_log_detail 的同名分区先于 sys_log 分区删除</li>
+ * </ul>
+ * 表未分区时只跳过，由按行删除的清理任务清理；表已分区时清理任务跳过，过期数据只按分区删除。
+ * 日志查询的开始时间早于在线数据时，{@link #withArchive} 在数据库结果之后接上归档中的匹配记录。
+ */
+@Slf4j
+@Service
+public class LogArchiveService {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("p\\d{6}");
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String DETAIL_TABLE = "sys_log_detail";
+
+    /** 数据库行转实体：列名为下划线格式 */
+    private static final ObjectMapper ROW_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /** 在线保留的整月数，不含当月 */
+    @Value("${admin.log-archive.retention-months:6}")
+    private int retentionMonths = 6;
+
+    /** 提前创建的分区月数 */
+    @Value("${admin.log-archive.months-ahead:2}")
+    private int monthsAhead = 2;
+
+    /** 归档时每批读取的行数，即每个数据块的记录数 */
+    @Value("${admin.log-archive.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Autowired
+    private LogPartitionMapper partitionMapper;
+
+    @Autowired
+    private LogArchiveStore archiveStore;
+
+    @Autowired
+    private SysLogService logService;
+
+    private final Map<Class<?>, ArchiveTable<?>> tables = new LinkedHashMap<>();
+
+    public LogArchiveService() {
+        register(new ArchiveTable<>("sys_log", SysLog.class, SysLog::getId, SysLog::getCreateTime,
+                DETAIL_TABLE, logs -> logService.fillDetails(logs)));
+        register(new ArchiveTable<>("sys_login_log", SysLoginLog.class, SysLoginLog::getId,
+                SysLoginLog::getCreateTime, null, null));
+        register(new ArchiveTable<>("sys_job_log", SysJobLog.class, SysJobLog::getId,
+                SysJobLog::getCreateTime, null, null));
+    }
+
+    private void register(ArchiveTable<?> table) {
+        tables.put(table.type, table);
+    }
+
+    /**
+     * 建立未来分区并归档过期分区
+     */
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        List<String> partitioned = new ArrayList<>();
+        for (String table : partitionedTables()) {
+            try {
+                if (ensurePartitions(table, current)) {
+                    partitioned.add(table);
+                }
+            } catch (Exception e) {
+                log.error("创建日志分区失败 {}: {}", table, e.getMessage());
+            }
+        }
+        YearMonth cutoff = current.minusMonths(retentionMonths);
+        for (ArchiveTable<?> table : tables.values()) {
+            if (!partitioned.contains(table.name)) {
+                continue;
+            }
+            try {
+                archiveExpired(table, cutoff);
+            } catch (Exception e) {
+                log.error("归档日志分区失败 {}: {}", table.name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 日志表是否已按月分区
+     */
+    public boolean isPartitioned(Class<?> type) {
+        return !partitionMapper.selectPartitionNames(table(type).name).isEmpty();
+    }
+
+    /**
+     * 在数据库结果之后接上归档中的匹配记录；开始时间为空或晚于已归档数据时直接返回数据库结果
+     */
+    public <T> IPage<T> withArchive(IPage<T> online, Class<T> type, LocalDateTime begin, LocalDateTime end,
+                                    Predicate<T> filter) {
+        ArchiveTable<T> table = table(type);
+        if (begin == null) {
+            return online;
+        }
+        LocalDateTime archivedUntil = archiveStore.getArchivedUntil(table.name);
+        if (archivedUntil == null || begin.isAfter(archivedUntil)) {
+            return online;
+        }
+        long skip = Math.max(0, (online.getCurrent() - 1) * online.getSize() - online.getTotal());
+        int limit = (int) Math.max(0, online.getSize() - online.getRecords().size());
+        try {
+            LogArchiveStore.ArchivePage<T> archived = archiveStore.search(table.name, type, begin, end,
+                    table.timeGetter, filter, skip, limit);
+            List<T> records = new ArrayList<>(online.getRecords());
+            records.addAll(archived.getRecords());
+            Page<T> merged = new Page<>(online.getCurrent(), online.getSize(), online.getTotal() + archived.getTotal());
+            merged.setRecords(records);
+            return merged;
+        } catch (IOException | RuntimeException e) {
+            log.warn("查询日志归档失败 {}: {}", table.name, e.getMessage());
+            return online;
+        }
+    }
+
+    /**
+     * 按ID在归档中查找，未找到返回null
+     */
+    public <T> T findArchived(Class<T> type, Long id) {
+        ArchiveTable<T> table = table(type);
+        if (id == null) {
+            return null;
+        }
+        try {
+            return archiveStore.findById(table.name, type, id, table.idGetter);
+        } catch (IOException | RuntimeException e) {
+            log.warn("查询日志归档失败 {}: {}", table.name, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 确保已建到 current + monthsAhead 月的分区，表未分区时返回false
+     */
+    boolean ensurePartitions(String table, YearMonth current) {
+        List<String> names = partitionMapper.selectPartitionNames(table);
+        if (names.isEmpty()) {
+            log.debug("{} 未分区，跳过分区维护", table);
+            return false;
+        }
+        List<YearMonth> months = months(names);
+        YearMonth start;
+        if (months.isEmpty()) {
+            // 首次拆分：从最早的数据所在月份开始，一次建好所有分区，只重写一次 pmax
+            LocalDateTime min = partitionMapper.selectMinCreateTime(table);
+            start = min != null ? YearMonth.from(min) : current;
+        } else {
+            start = months.get(months.size() - 1).plusMonths(1);
+        }
+        YearMonth last = current.plusMonths(monthsAhead);
+        if (start.isAfter(last)) {
+            return true;
+        }
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = start; !month.isAfter(last); month = month.plusMonths(1)) {
+            LocalDate bound = month.plusMonths(1).atDay(1);
+            definitions.add("PARTITION " + partitionName(month) + " VALUES LESS THAN (TO_DAYS('" + bound + "'))");
+        }
+        partitionMapper.splitMaxPartition(table, String.join(", ", definitions));
+        log.info("{} 新建分区 {} 个：{} ~ {}", table, definitions.size(), partitionName(start), partitionName(last));
+        return true;
+    }
+
+    /**
+     * 归档并删除早于 cutoff 月的分区；附属表分区先于主表删除，主表分区删除失败时下次重新删除，
+     * 不会留下没有主表记录的附属数据
+     */
+    <T> void archiveExpired(ArchiveTable<T> table, YearMonth cutoff) throws IOException {
+        List<String> partitions = partitionMapper.selectPartitionNames(table.name);
+        List<String> companionPartitions = table.companion != null
+                ? partitionMapper.selectPartitionNames(table.companion) : Collections.emptyList();
+        // 主表分区已删除而附属表分区仍在时补删
+        for (YearMonth month : months(companionPartitions)) {
+            if (!month.isBefore(cutoff)) {
+                break;
+            }
+            String partition = partitionName(month);
+            if (!partitions.contains(partition)) {
+                partitionMapper.dropPartition(table.companion, partition);
+                log.info("{} 分区 {} 已删除", table.companion, partition);
+            }
+        }
+        for (YearMonth month : months(partitions)) {
+            if (!month.isBefore(cutoff)) {
+                break;
+            }
+            String partition = partitionName(month);
+            long rows = archivePartition(table, partition);
+            if (companionPartitions.contains(partition)) {
+                partitionMapper.dropPartition(table.companion, partition);
+            }
+            partitionMapper.dropPartition(table.name, partition);
+            log.info("{} 分区 {} 已归档 {} 条并删除", table.name, partition, rows);
+        }
+    }
+
+    /**
+     * 把分区数据写成归档分段；分段已存在（上次归档后未删除分区）时不重复写入
+     */
+    private <T> long archivePartition(ArchiveTable<T> table, String partition) throws IOException {
+        if (archiveStore.exists(table.name, partition)) {
+            return 0;
+        }
+        long count = 0;
+        try (LogArchiveStore.Writer<T> writer = archiveStore.open(table.name, partition, table.idGetter, table.timeGetter)) {
+            long afterId = 0;
+            while (true) {
+                List<Map<String, Object>> rows = partitionMapper.selectPartitionRows(table.name, partition, afterId, batchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<T> records = new ArrayList<>(rows.size());
+                for (Map<String, Object> row : rows) {
+                    records.add(toEntity(row, table.type));
+                }
+                if (table.enricher != null) {
+                    table.enricher.accept(records);
+                }
+                writer.append(records);
+                count += records.size();
+                afterId = table.idGetter.applyAsLong(records.get(records.size() - 1));
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+            if (count > 0) {
+                writer.commit();
+            }
+        }
+        return count;
+    }
+
+    private List<String> partitionedTables() {
+        List<String> names = new ArrayList<>();
+        for (ArchiveTable<?> table : tables.values()) {
+            names.add(table.name);
+            if (table.companion != null) {
+                names.add(table.companion);
+            }
+        }
+        return names;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ArchiveTable<T> table(Class<T> type) {
+        ArchiveTable<T> table = (ArchiveTable<T>) tables.get(type);
+        if (table == null) {
+            throw new IllegalArgumentException("不支持归档的类型: " + type.getName());
+        }
+        return table;
+    }
+
+    private static List<YearMonth> months(List<String> names) {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            if (PARTITION_NAME.matcher(name).matches()) {
+                months.add(YearMonth.parse(name.substring(1), MONTH));
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "p" + month.format(MONTH);
+    }
+
+    static <T> T toEntity(Map<String, Object> row, Class<T> type) {
+        Map<String, Object> values = new LinkedHashMap<>(row.size() * 2);
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            Object value = entry.getValue();
+            values.put(entry.getKey().toLowerCase(), value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : value);
+        }
+        return ROW_MAPPER.convertValue(values, type);
+    }
+
+    /**
+     * 可归档的日志表
+     */
+    static final class ArchiveTable<T> {
+
+        private final String name;
+        private final Class<T> type;
+        private final ToLongFunction<T> idGetter;
+        private final Function<T, LocalDateTime> timeGetter;
+        /** 按同名分区一起删除的附属表 */
+        private final String companion;
+        /** 写入归档前补充数据 */
+        private final Consumer<List<T>> enricher;
+
+        ArchiveTable(String name, Class<T> type, Function<T, Long> idGetter, Function<T, LocalDateTime> timeGetter,
+                     String companion, Consumer<List<T>> enricher) {
+            this.name = name;
+            this.type = type;
+            this.idGetter = row -> {
+                Long id = idGetter.apply(row);
+                return id != null ? id : 0L;
+            };
+            this.timeGetter = timeGetter;
+            this.companion = companion;
+            this.enricher = enricher;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.demo.admin.modules.system.service;
+
+import com.demo.admin.modules.system.mapper.LogPurgeMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 日志分批清理
+ * <p>
+ * 先取匹配记录的ID范围，再按主键区间每次删除 chunk-size 个ID内的匹配记录，每批之间暂停 pause 毫秒，
+ * 每批单独提交，不会长时间持有锁或堆积 undo 日志。中断后已删除的批次不会恢复，下次执行从剩余记录的最小ID继续。
+ * 在定时任务中执行时，每隔 progress-interval 毫秒把进度和删除速度写入任务日志。
+ */
+@Slf4j
+@Service
+public class LogPurgeService {
+
+    /** 登录日志 */
+    public static final Target LOGIN_LOG = new Target("登录日志", "sys_login_log", "id");
+
+    /** 任务执行日志 */
+    public static final Target JOB_LOG = new Target("任务日志", "sys_job_log", "id");
+
+    /** 操作日志，详情与日志同ID、同创建时间，先于日志删除 */
+    public static final Target OPER_LOG = new Target("操作日志", "sys_log", "id")
+            .with(new Target("操作日志详情", "sys_log_detail", "log_id"));
+
+    /** 每批删除的ID区间大小 */
+    @Value("${admin.log-purge.chunk-size:5000}")
+    private int chunkSize = 5000;
+
+    /** 批次之间的暂停时间（毫秒） */
+    @Value("${admin.log-purge.pause:100}")
+    private long pause = 100;
+
+    /** 上报进度的间隔（毫秒） */
+    @Value("${admin.log-purge.progress-interval:10000}")
+    private long progressInterval = 10000;
+
+    @Autowired
+    private LogPurgeMapper purgeMapper;
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    private volatile boolean stopping;
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+
+    /**
+     * 删除 create_time 早于 time 的记录，返回删除条数
+     */
+    public long purgeBefore(Target target, LocalDateTime time) {
+        return purge(target, true, time);
+    }
+
+    /**
+     * 删除 create_time 不早于 time 的记录，返回删除条数
+     */
+    public long purgeSince(Target target, LocalDateTime time) {
+        return purge(target, false, time);
+    }
+
+    private long purge(Target target, boolean before, LocalDateTime time) {
+        Map<String, Object> range = purgeMapper.selectIdRange(target.table, target.idColumn, before, time);
+        Long minId = range != null ? toLong(range.get("minId")) : null;
+        Long maxId = range != null ? toLong(range.get("maxId")) : null;
+        if (minId == null || maxId == null) {
+            scheduleService.reportResult(target.label + "：没有需要清理的记录");
+            return 0;
+        }
+        long startTime = System.currentTimeMillis();
+        long lastReport = startTime;
+        long deleted = 0;
+        long fromId = minId;
+        boolean interrupted = false;
+        while (fromId <= maxId) {
+            long toId = maxId - fromId < chunkSize ? maxId : fromId + chunkSize - 1;
+            for (Target companion : target.companions) {
+                purgeMapper.deleteRange(companion.table, companion.idColumn, before, time, fromId, toId);
+            }
+            deleted += purgeMapper.deleteRange(target.table, target.idColumn, before, time, fromId, toId);
+            fromId = toId + 1;
+            if (toId == maxId) {
+                break;
+            }
+            if (stopping || Thread.currentThread().isInterrupted()) {
+                interrupted = true;
+                break;
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastReport >= progressInterval) {
+                lastReport = now;
+                scheduleService.reportProgress(String.format("%s：已删除 %d 条，进度 %d%%（ID %d / %d），%d 条/秒",
+                        target.label, deleted, (fromId - minId) * 100 / (maxId - minId + 1), fromId, maxId,
+                        rate(deleted, now - startTime)));
+            }
+            if (pause > 0) {
+                try {
+                    Thread.sleep(pause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
+                    break;
+                }
+            }
+        }
+        long elapsed = System.currentTimeMillis() - startTime;
+        String message = String.format("%s：删除 %d 条，ID %d ~ %d，耗时 %.1f 秒，%d 条/秒",
+                target.label, deleted, minId, fromId - 1, elapsed / 1000.0, rate(deleted, elapsed));
+        if (interrupted) {
+            message += "，已中断，下次执行从ID " + fromId + " 继续";
+        }
+        scheduleService.reportResult(message);
+        log.info(message);
+        return deleted;
+    }
+
+    private static long rate(long deleted, long elapsed) {
+        return elapsed > 0 ? deleted * 1000 / elapsed : deleted;
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    /**
+     * 清理对象：表名、主键列及需要按相同ID区间和时间条件一并删除的附属表
+     */
+    public static final class Target {
+
+        private final String label;
+        private final String table;
+        private final String idColumn;
+        private final List<Target> companions;
+
+        public Target(String label, String table, String idColumn) {
+            this(label, table, idColumn, Collections.emptyList());
+        }
+
+        private Target(String label, String table, String idColumn, List<Target> companions) {
+            this.label = label;
+            this.table = table;
+            this.idColumn = idColumn;
+            this.companions = companions;
+        }
+
+        /**
+         * 追加附属表
+         */
+        public Target with(Target companion) {
+            List<Target> list = new ArrayList<>(companions);
+            list.add(companion);
+            return new Target(label, table, idColumn, Collections.unmodifiableList(list));
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+}
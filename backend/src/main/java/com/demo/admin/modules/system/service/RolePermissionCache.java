@@ -0,0 +1,320 @@
+package com.demo.admin.modules.system.service;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.RedisUtils;
+import com.demo.admin.common.utils.TransactionUtils;
+import com.demo.admin.modules.system.entity.SysMenu;
+import com.demo.admin.modules.system.entity.SysRole;
+import com.demo.admin.modules.system.entity.SysRoleMenu;
+import com.demo.admin.modules.system.mapper.SysMenuMapper;
+import com.demo.admin.modules.system.mapper.SysRoleMapper;
+import com.demo.admin.modules.system.mapper.SysRoleMenuMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+
+/**
+ * 角色权限/菜单缓存
+ * <p>
+ * 内存中维护 角色ID -> (角色编码, 状态, 菜单ID, 启用菜单的权限标识) 及启用菜单表，
+ * 登录与菜单加载只需查询用户及其角色ID，其余由缓存计算。
+ * 快照不可变，变更时整体替换并递增版本号；角色/菜单在事务提交后增量刷新，
+ * 并通过Redis发布订阅通知其他节点从数据库重新加载对应部分。
+ */
+@Slf4j
+@Service
+public class RolePermissionCache implements MessageListener {
+
+    private static final String MSG_ROLE = "role:";
+    private static final String MSG_MENU = "menu";
+
+    /** 节点标识，用于忽略本节点发出的广播 */
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    @Autowired
+    private SysRoleMapper roleMapper;
+
+    @Autowired
+    private SysRoleMenuMapper roleMenuMapper;
+
+    @Autowired
+    private SysMenuMapper menuMapper;
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    @Autowired(required = false)
+    private RedisMessageListenerContainer listenerContainer;
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        if (listenerContainer != null) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.ROLE_PERM_CHANNEL));
+        }
+    }
+
+    /**
+     * 角色编码（仅启用角色，与原 selectRoleCodesByUserId 口径一致）
+     */
+    public List<String> getRoleCodes(Collection<Long> roleIds) {
+        Snapshot current = getSnapshot();
+        List<String> codes = new ArrayList<>();
+        if (roleIds == null) {
+            return codes;
+        }
+        for (Long roleId : roleIds) {
+            RoleEntry role = current.roles.get(roleId);
+            if (role != null && role.enabled) {
+                codes.add(role.code);
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * 权限标识并集（与原 selectPermissionsByUserId 口径一致，不区分角色状态）
+     */
+    public List<String> getPermissions(Collection<Long> roleIds) {
+        Snapshot current = getSnapshot();
+        Set<String> permissions = new LinkedHashSet<>();
+        if (roleIds == null) {
+            return new ArrayList<>(permissions);
+        }
+        for (Long roleId : roleIds) {
+            RoleEntry role = current.roles.get(roleId);
+            if (role != null) {
+                permissions.addAll(role.permissions);
+            }
+        }
+        return new ArrayList<>(permissions);
+    }
+
+    /**
+     * 启用菜单并集，按排序号升序；返回副本，调用方可自由修改（如构建菜单树）
+     */
+    public List<SysMenu> getMenus(Collection<Long> roleIds) {
+        Snapshot current = getSnapshot();
+        Set<Long> menuIds = new HashSet<>();
+        if (roleIds != null) {
+            for (Long roleId : roleIds) {
+                RoleEntry role = current.roles.get(roleId);
+                if (role != null) {
+                    menuIds.addAll(role.menuIds);
+                }
+            }
+        }
+        List<SysMenu> menus = new ArrayList<>(menuIds.size());
+        // 启用菜单表已按排序号有序
+        for (SysMenu menu : current.menus.values()) {
+            if (menuIds.contains(menu.getId())) {
+                menus.add(BeanUtil.copyProperties(menu, SysMenu.class));
+            }
+        }
+        return menus;
+    }
+
+    public long getVersion() {
+        return getSnapshot().version;
+    }
+
+    /**
+     * 角色或其菜单授权变更（含删除），事务提交后刷新并广播
+     */
+    public void roleChanged(Long roleId) {
+        if (roleId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            refreshRole(roleId);
+            broadcast(MSG_ROLE + roleId);
+        });
+    }
+
+    /**
+     * 菜单变更（新增、修改、删除、排序），事务提交后刷新并广播
+     */
+    public void menusChanged() {
+        TransactionUtils.afterCommit(() -> {
+            refreshMenus();
+            broadcast(MSG_MENU);
+        });
+    }
+
+    /**
+     * 全量加载
+     */
+    public synchronized void reload() {
+        Map<Long, List<Long>> roleMenus = new HashMap<>();
+        for (SysRoleMenu roleMenu : roleMenuMapper.selectList(null)) {
+            roleMenus.computeIfAbsent(roleMenu.getRoleId(), k -> new ArrayList<>()).add(roleMenu.getMenuId());
+        }
+        Map<Long, SysMenu> menus = loadMenus();
+        Map<Long, RoleEntry> roles = new HashMap<>();
+        for (SysRole role : roleMapper.selectList(null)) {
+            List<Long> menuIds = roleMenus.getOrDefault(role.getId(), Collections.emptyList());
+            roles.put(role.getId(), new RoleEntry(role, menuIds, menus));
+        }
+        Snapshot old = snapshot;
+        snapshot = new Snapshot(old != null ? old.version + 1 : 1, roles, menus);
+        log.info("角色权限缓存已加载，角色 {} 个，启用菜单 {} 个", roles.size(), menus.size());
+    }
+
+    /**
+     * 重新加载单个角色，角色不存在（已删除）时移除
+     */
+    public synchronized void refreshRole(Long roleId) {
+        Snapshot old = snapshot;
+        if (old == null) {
+            reload();
+            return;
+        }
+        Map<Long, RoleEntry> roles = new HashMap<>(old.roles);
+        SysRole role = roleMapper.selectById(roleId);
+        if (role == null) {
+            roles.remove(roleId);
+        } else {
+            roles.put(roleId, new RoleEntry(role, roleMenuMapper.selectMenuIdsByRoleId(roleId), old.menus));
+        }
+        snapshot = new Snapshot(old.version + 1, roles, old.menus);
+    }
+
+    /**
+     * 重新加载菜单表，并按各角色的菜单ID重算权限
+     */
+    public synchronized void refreshMenus() {
+        Snapshot old = snapshot;
+        if (old == null) {
+            reload();
+            return;
+        }
+        Map<Long, SysMenu> menus = loadMenus();
+        Map<Long, RoleEntry> roles = new HashMap<>(old.roles.size() * 2);
+        for (RoleEntry role : old.roles.values()) {
+            roles.put(role.id, role.withMenus(menus));
+        }
+        snapshot = new Snapshot(old.version + 1, roles, menus);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisUtils.deserialize(message.getBody());
+        if (body == null) {
+            return;
+        }
+        String value = body.toString();
+        int sep = value.indexOf('|');
+        if (sep < 0 || nodeId.equals(value.substring(0, sep))) {
+            return;
+        }
+        String event = value.substring(sep + 1);
+        if (event.startsWith(MSG_ROLE)) {
+            refreshRole(Long.valueOf(event.substring(MSG_ROLE.length())));
+        } else if (MSG_MENU.equals(event)) {
+            refreshMenus();
+        }
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 启用且未删除的菜单，按排序号升序（与原 selectMenusByUserId 口径一致）
+     */
+    private Map<Long, SysMenu> loadMenus() {
+        List<SysMenu> list = new ArrayList<>();
+        for (SysMenu menu : menuMapper.selectList(null)) {
+            if (Integer.valueOf(1).equals(menu.getStatus())) {
+                list.add(menu);
+            }
+        }
+        list.sort(Comparator.comparing(SysMenu::getSort, Comparator.nullsFirst(Comparator.naturalOrder())));
+        Map<Long, SysMenu> menus = new LinkedHashMap<>(list.size() * 2);
+        for (SysMenu menu : list) {
+            menus.put(menu.getId(), menu);
+        }
+        return menus;
+    }
+
+    private void broadcast(String event) {
+        try {
+            redisUtils.publish(RedisConstant.ROLE_PERM_CHANNEL, nodeId + "|" + event);
+        } catch (Exception e) {
+            log.warn("广播角色权限变更失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 缓存快照
+     */
+    private static final class Snapshot {
+
+        final long version;
+        final Map<Long, RoleEntry> roles;
+        /** 启用菜单，按排序号有序 */
+        final Map<Long, SysMenu> menus;
+
+        Snapshot(long version, Map<Long, RoleEntry> roles, Map<Long, SysMenu> menus) {
+            this.version = version;
+            this.roles = roles;
+            this.menus = menus;
+        }
+    }
+
+    /**
+     * 角色条目：菜单ID为授权的全部菜单，权限仅取其中启用菜单
+     */
+    private static final class RoleEntry {
+
+        final Long id;
+        final String code;
+        final boolean enabled;
+        final List<Long> menuIds;
+        final Set<String> permissions;
+
+        RoleEntry(SysRole role, List<Long> menuIds, Map<Long, SysMenu> menus) {
+            this(role.getId(), role.getCode(), Integer.valueOf(1).equals(role.getStatus()),
+                    menuIds != null ? new ArrayList<>(menuIds) : Collections.emptyList(), menus);
+        }
+
+        private RoleEntry(Long id, String code, boolean enabled, List<Long> menuIds, Map<Long, SysMenu> menus) {
+            this.id = id;
+            this.code = code;
+            this.enabled = enabled;
+            this.menuIds = menuIds;
+            Set<String> perms = new HashSet<>();
+            for (Long menuId : menuIds) {
+                SysMenu menu = menus.get(menuId);
+                if (menu != null && StrUtil.isNotBlank(menu.getPermission())) {
+                    perms.add(menu.getPermission());
+                }
+            }
+            this.permissions = perms;
+        }
+
+        RoleEntry withMenus(Map<Long, SysMenu> menus) {
+            return new RoleEntry(id, code, enabled, menuIds, menus);
+        }
+    }
+}
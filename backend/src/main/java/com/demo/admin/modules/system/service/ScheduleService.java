@@ -38,6 +38,12 @@ public class ScheduleService {
     @Autowired
     private ApplicationContext applicationContext;
 
+    /** 执行状态：执行中，仅长时间运行的任务上报进度时出现 */
+    public static final int STATUS_RUNNING = 2;
+
+    /** 当前线程正在执行的任务日志 */
+    private static final ThreadLocal<JobRun> CURRENT = new ThreadLocal<>();
+
     private final ThreadPoolTaskScheduler taskScheduler;
     private final Map<Long, ScheduledFuture<?>> runningTasks = new ConcurrentHashMap<>();
 
@@ -54,6 +60,7 @@ public class ScheduleService {
      */
     @PostConstruct
     public void init() {
+        closeInterruptedLogs();
         LambdaQueryWrapper<SysJob> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(SysJob::getStatus, 1);
         List<SysJob> jobs = jobMapper.selectList(wrapper);
@@ -67,6 +74,52 @@ public class ScheduleService {
         log.info("定时任务初始化完成, 共加载 {} 个任务", jobs.size());
     }
 
+    /**
+     * 上次停机时仍在执行的任务日志标记为失败，任务下次执行时自行从断点继续
+     */
+    private void closeInterruptedLogs() {
+        SysJobLog interrupted = new SysJobLog();
+        interrupted.setStatus(0);
+        interrupted.setMessage("应用停止，执行中断");
+        int count = jobLogMapper.update(interrupted,
+                new LambdaQueryWrapper<SysJobLog>().eq(SysJobLog::getStatus, STATUS_RUNNING));
+        if (count > 0) {
+            log.warn("{} 条任务日志在上次停机时仍在执行，已标记为中断", count);
+        }
+    }
+
+    /**
+     * 上报当前任务的执行进度：首次上报时写入一条执行中的日志，之后更新该日志；不在任务线程中调用时只打印日志
+     */
+    public void reportProgress(String message) {
+        JobRun run = CURRENT.get();
+        if (run == null) {
+            log.info(message);
+            return;
+        }
+        SysJobLog jobLog = run.jobLog;
+        jobLog.setStatus(STATUS_RUNNING);
+        jobLog.setMessage(truncate(message));
+        jobLog.setDuration(System.currentTimeMillis() - run.startTime);
+        if (jobLog.getId() == null) {
+            jobLogMapper.insert(jobLog);
+        } else {
+            jobLogMapper.updateById(jobLog);
+        }
+    }
+
+    /**
+     * 设置当前任务成功时的执行信息，代替默认的“执行成功”
+     */
+    public void reportResult(String message) {
+        JobRun run = CURRENT.get();
+        if (run == null) {
+            log.info(message);
+            return;
+        }
+        run.result = message;
+    }
+
     /**
      * 添加并启动任务
      */
@@ -137,6 +190,8 @@ public class ScheduleService {
             jobLog.setMethodName(job.getMethodName());
             jobLog.setParams(job.getParams());
             jobLog.setCreateTime(LocalDateTime.now());
+            JobRun run = new JobRun(jobLog, startTime);
+            CURRENT.set(run);
 
             try {
                 Object bean = applicationContext.getBean(job.getBeanName());
@@ -149,16 +204,40 @@ public class ScheduleService {
                     method.invoke(bean);
                 }
                 jobLog.setStatus(1);
-                jobLog.setMessage("执行成功");
+                jobLog.setMessage(run.result != null ? truncate(run.result) : "执行成功");
             } catch (Exception e) {
                 jobLog.setStatus(0);
                 String msg = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
-                jobLog.setMessage(msg != null && msg.length() > 2000 ? msg.substring(0, 2000) : msg);
+                jobLog.setMessage(truncate(msg));
                 log.error("定时任务执行失败: {}", job.getJobName(), e);
             } finally {
+                CURRENT.remove();
                 jobLog.setDuration(System.currentTimeMillis() - startTime);
-                jobLogMapper.insert(jobLog);
+                if (jobLog.getId() == null) {
+                    jobLogMapper.insert(jobLog);
+                } else {
+                    jobLogMapper.updateById(jobLog);
+                }
             }
         };
     }
+
+    private static String truncate(String msg) {
+        return msg != null && msg.length() > 2000 ? msg.substring(0, 2000) : msg;
+    }
+
+    /**
+     * 一次任务执行的上下文
+     */
+    private static final class JobRun {
+
+        private final SysJobLog jobLog;
+        private final long startTime;
+        private volatile String result;
+
+        private JobRun(SysJobLog jobLog, long startTime) {
+            this.jobLog = jobLog;
+            this.startTime = startTime;
+        }
+    }
 }
@@ -0,0 +1,185 @@
+package com.demo.admin.modules.system.service;
+
+import com.demo.admin.modules.system.entity.SysLog;
+import com.demo.admin.modules.system.entity.SysLoginLog;
+import com.demo.admin.modules.system.entity.SysStatHourly;
+import com.demo.admin.modules.system.mapper.SysStatMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 仪表盘统计汇总
+ * <p>
+ * 操作日志、登录日志写入成功后按小时和天累加到 sys_stat_hourly、sys_stat_daily，仪表盘和大屏只读汇总表。
+ * 汇总失败只记日志，由定时任务从原始日志重新计算最近 reconcile-days 天校准，同时清理过期的小时计数。
+ * 校准时先以普通 SELECT 读出原始日志的小时计数，再删除旧汇总并分批写入，不对日志表加锁。
+ */
+@Slf4j
+@Service
+public class StatRollupService {
+
+    public static final String METRIC_LOG = "log";
+    public static final String METRIC_LOGIN = "login";
+    public static final String METRIC_OPERATION = "operation";
+
+    /** 重新计算的天数，含当天 */
+    @Value("${admin.stat.reconcile-days:2}")
+    private int reconcileDays = 2;
+
+    /** 校准时每批写入的行数 */
+    private static final int UPSERT_BATCH = 500;
+
+    /** 小时计数保留天数 */
+    @Value("${admin.stat.hourly-retention-days:7}")
+    private int hourlyRetentionDays = 7;
+
+    @Autowired
+    private SysStatMapper statMapper;
+
+    /**
+     * 累加一批已写入的操作日志
+     */
+    public void recordLogs(List<SysLog> logs) {
+        Map<Key, Long> counts = new LinkedHashMap<>();
+        for (SysLog sysLog : logs) {
+            LocalDateTime hour = hourOf(sysLog.getCreateTime());
+            counts.merge(new Key(METRIC_LOG, "", hour), 1L, Long::sum);
+            counts.merge(new Key(METRIC_OPERATION, sysLog.getOperation() != null ? sysLog.getOperation() : "", hour),
+                    1L, Long::sum);
+        }
+        upsert(counts);
+    }
+
+    /**
+     * 累加一批已写入的登录日志
+     */
+    public void recordLoginLogs(List<SysLoginLog> logs) {
+        Map<Key, Long> counts = new LinkedHashMap<>();
+        for (SysLoginLog loginLog : logs) {
+            counts.merge(new Key(METRIC_LOGIN, "", hourOf(loginLog.getCreateTime())), 1L, Long::sum);
+        }
+        upsert(counts);
+    }
+
+    /**
+     * 指定日期的次数
+     */
+    public long getDailyCount(String metric, LocalDate date) {
+        return statMapper.selectDailyCount(metric, date);
+    }
+
+    /**
+     * 最近 days 天（含当天）每天的次数，键为 date、count
+     */
+    public List<Map<String, Object>> getDailyTrend(String metric, int days) {
+        return statMapper.selectDailyTrend(metric, LocalDate.now().minusDays(days - 1));
+    }
+
+    /**
+     * 当天每小时的次数，键为 hour、count
+     */
+    public List<Map<String, Object>> getTodayHourlyTrend(String metric) {
+        return statMapper.selectHourlyTrend(metric, LocalDate.now());
+    }
+
+    /**
+     * 近 days 天各操作类型次数，取前 limit 个，键为 name、value
+     */
+    public List<Map<String, Object>> getOperationDistribution(int days, int limit) {
+        return statMapper.selectDistribution(METRIC_OPERATION, LocalDate.now().minusDays(days), limit);
+    }
+
+    /**
+     * 从原始日志重新计算最近 reconcile-days 天的计数，并清理过期的小时计数
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void reconcile() {
+        LocalDate since = LocalDate.now().minusDays(Math.max(1, reconcileDays) - 1);
+        LocalDateTime begin = since.atStartOfDay();
+        Map<String, List<SysStatHourly>> counts = new LinkedHashMap<>();
+        counts.put(METRIC_LOG, statMapper.selectHourlyCounts(METRIC_LOG, "sys_log", null, begin));
+        counts.put(METRIC_OPERATION, statMapper.selectHourlyCounts(METRIC_OPERATION, "sys_log", "operation", begin));
+        counts.put(METRIC_LOGIN, statMapper.selectHourlyCounts(METRIC_LOGIN, "sys_login_log", null, begin));
+        for (Map.Entry<String, List<SysStatHourly>> entry : counts.entrySet()) {
+            rebuild(entry.getKey(), entry.getValue(), since);
+        }
+        int expired = statMapper.deleteHourlyBefore(LocalDate.now().minusDays(hourlyRetentionDays).atStartOfDay());
+        log.info("统计汇总已从 {} 起重新计算，清理过期小时计数 {} 条", since, expired);
+    }
+
+    /**
+     * 用重新统计的小时计数替换 since 之后的汇总，天计数由小时计数按日期累加
+     */
+    private void rebuild(String metric, List<SysStatHourly> rows, LocalDate since) {
+        statMapper.deleteHourlySince(metric, since.atStartOfDay());
+        statMapper.deleteDailySince(metric, since);
+        for (int i = 0; i < rows.size(); i += UPSERT_BATCH) {
+            List<SysStatHourly> batch = rows.subList(i, Math.min(i + UPSERT_BATCH, rows.size()));
+            statMapper.upsertHourly(batch);
+            statMapper.upsertDaily(batch);
+        }
+    }
+
+    private void upsert(Map<Key, Long> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        List<SysStatHourly> rows = new ArrayList<>(counts.size());
+        for (Map.Entry<Key, Long> entry : counts.entrySet()) {
+            Key key = entry.getKey();
+            rows.add(new SysStatHourly(key.metric, key.dim, key.hour, entry.getValue()));
+        }
+        try {
+            statMapper.upsertHourly(rows);
+            statMapper.upsertDaily(rows);
+        } catch (Exception e) {
+            log.warn("累加统计汇总失败，等待定时校准: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDateTime hourOf(LocalDateTime time) {
+        return (time != null ? time : LocalDateTime.now()).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static final class Key {
+
+        private final String metric;
+        private final String dim;
+        private final LocalDateTime hour;
+
+        private Key(String metric, String dim, LocalDateTime hour) {
+            this.metric = metric;
+            this.dim = dim;
+            this.hour = hour;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return metric.equals(key.metric) && dim.equals(key.dim) && hour.equals(key.hour);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(metric, dim, hour);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.demo.admin.modules.system.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.demo.admin.modules.system.entity.SysLogDetail;
+
+/**
+ * 操作日志详情 Service
+ */
+public interface SysLogDetailService extends IService<SysLogDetail> {
+}
@@ -3,8 +3,33 @@ package com.demo.admin.modules.system.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.demo.admin.modules.system.entity.SysLog;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 操作日志 Service
+ * <p>
+ * saveBatch 同时写入 sys_log_detail；列表查询只读 sys_log，详情按需加载
  */
 public interface SysLogService extends IService<SysLog> {
+
+    /**
+     * 查询单条日志及其详情
+     */
+    SysLog getDetail(Long id);
+
+    /**
+     * 为一批日志加载详情
+     */
+    void fillDetails(List<SysLog> logs);
+
+    /**
+     * 按ID删除日志及其详情
+     */
+    void deleteLogs(Collection<Long> ids);
+
+    /**
+     * 清空日志及详情
+     */
+    void cleanLogs();
 }
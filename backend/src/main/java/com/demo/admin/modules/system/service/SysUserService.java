@@ -15,6 +15,11 @@ public interface SysUserService extends IService<SysUser> {
      */
     SysUser getByUsername(String username);
 
+    /**
+     * 查询用户关联的角色ID列表
+     */
+    List<Long> getRoleIdsByUserId(Long userId);
+
     /**
      * 查询用户的角色编码列表
      */
@@ -0,0 +1,14 @@
+package com.demo.admin.modules.system.service.impl;
+
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.demo.admin.modules.system.entity.SysLogDetail;
+import com.demo.admin.modules.system.mapper.SysLogDetailMapper;
+import com.demo.admin.modules.system.service.SysLogDetailService;
+import org.springframework.stereotype.Service;
+
+/**
+ * 操作日志详情 Service 实现
+ */
+@Service
+public class SysLogDetailServiceImpl extends ServiceImpl<SysLogDetailMapper, SysLogDetail> implements SysLogDetailService {
+}
@@ -1,14 +1,163 @@
 package com.demo.admin.modules.system.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.demo.admin.common.utils.CompressUtils;
 import com.demo.admin.modules.system.entity.SysLog;
+import com.demo.admin.modules.system.entity.SysLogDetail;
+import com.demo.admin.modules.system.mapper.SysLogDetailMapper;
 import com.demo.admin.modules.system.mapper.SysLogMapper;
+import com.demo.admin.modules.system.service.SysLogDetailService;
 import com.demo.admin.modules.system.service.SysLogService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 操作日志 Service 实现
  */
+@Slf4j
 @Service
 public class SysLogServiceImpl extends ServiceImpl<SysLogMapper, SysLog> implements SysLogService {
+
+    /** 按ID批量查询详情时每批的条数 */
+    private static final int DETAIL_BATCH = 500;
+
+    @Autowired
+    private SysLogDetailMapper detailMapper;
+
+    @Autowired
+    private SysLogDetailService detailService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 批量保存日志，详情压缩后写入 sys_log_detail
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean saveBatch(Collection<SysLog> entityList, int batchSize) {
+        for (SysLog sysLog : entityList) {
+            sysLog.setChanged(sysLog.getOldValue() != null || sysLog.getNewValue() != null ? 1 : 0);
+        }
+        boolean saved = super.saveBatch(entityList, batchSize);
+        List<SysLogDetail> details = new ArrayList<>(entityList.size());
+        for (SysLog sysLog : entityList) {
+            SysLogDetail detail = toDetail(sysLog);
+            if (detail != null) {
+                details.add(detail);
+            }
+        }
+        if (!details.isEmpty()) {
+            detailService.saveBatch(details, batchSize);
+        }
+        return saved;
+    }
+
+    @Override
+    public SysLog getDetail(Long id) {
+        SysLog sysLog = getById(id);
+        if (sysLog != null) {
+            applyDetail(sysLog, detailMapper.selectById(id));
+        }
+        return sysLog;
+    }
+
+    @Override
+    public void fillDetails(List<SysLog> logs) {
+        for (int from = 0; from < logs.size(); from += DETAIL_BATCH) {
+            List<SysLog> chunk = logs.subList(from, Math.min(from + DETAIL_BATCH, logs.size()));
+            List<Long> ids = new ArrayList<>(chunk.size());
+            for (SysLog sysLog : chunk) {
+                ids.add(sysLog.getId());
+            }
+            Map<Long, SysLogDetail> details = new HashMap<>(ids.size() * 2);
+            for (SysLogDetail detail : detailMapper.selectBatchIds(ids)) {
+                details.put(detail.getLogId(), detail);
+            }
+            for (SysLog sysLog : chunk) {
+                applyDetail(sysLog, details.get(sysLog.getId()));
+            }
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void deleteLogs(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        baseMapper.deleteBatchIds(ids);
+        detailMapper.deleteBatchIds(ids);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void cleanLogs() {
+        remove(new LambdaQueryWrapper<>());
+        detailMapper.delete(new LambdaQueryWrapper<>());
+    }
+
+    /**
+     * 日志的详情字段序列化为 JSON 并压缩，无详情时返回null
+     */
+    private SysLogDetail toDetail(SysLog sysLog) {
+        if (sysLog.getId() == null) {
+            return null;
+        }
+        Map<String, String> payload = new LinkedHashMap<>();
+        putIfPresent(payload, "params", sysLog.getParams());
+        putIfPresent(payload, "errorMsg", sysLog.getErrorMsg());
+        putIfPresent(payload, "responseBody", sysLog.getResponseBody());
+        putIfPresent(payload, "oldValue", sysLog.getOldValue());
+        putIfPresent(payload, "newValue", sysLog.getNewValue());
+        if (payload.isEmpty()) {
+            return null;
+        }
+        try {
+            SysLogDetail detail = new SysLogDetail();
+            detail.setLogId(sysLog.getId());
+            detail.setContent(CompressUtils.compress(objectMapper.writeValueAsString(payload)));
+            detail.setCreateTime(sysLog.getCreateTime());
+            return detail;
+        } catch (Exception e) {
+            log.warn("操作日志详情序列化失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void applyDetail(SysLog sysLog, SysLogDetail detail) {
+        if (detail == null || detail.getContent() == null) {
+            return;
+        }
+        try {
+            Map<String, String> payload = objectMapper.readValue(CompressUtils.uncompress(detail.getContent()),
+                    new TypeReference<Map<String, String>>() {
+                    });
+            sysLog.setParams(payload.get("params"));
+            sysLog.setErrorMsg(payload.get("errorMsg"));
+            sysLog.setResponseBody(payload.get("responseBody"));
+            sysLog.setOldValue(payload.get("oldValue"));
+            sysLog.setNewValue(payload.get("newValue"));
+        } catch (Exception e) {
+            log.warn("操作日志详情解析失败，日志ID {}: {}", sysLog.getId(), e.getMessage());
+        }
+    }
+
+    private static void putIfPresent(Map<String, String> payload, String key, String value) {
+        if (value != null) {
+            payload.put(key, value);
+        }
+    }
 }
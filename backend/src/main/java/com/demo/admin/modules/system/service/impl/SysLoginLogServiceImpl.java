@@ -1,19 +1,24 @@
 package com.demo.admin.modules.system.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.demo.admin.common.audit.LoginLogWriter;
 import com.demo.admin.modules.system.entity.SysLoginLog;
 import com.demo.admin.modules.system.mapper.SysLoginLogMapper;
 import com.demo.admin.modules.system.service.SysLoginLogService;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+
 /**
  * 登录日志 Service 实现
  */
 @Service
 public class SysLoginLogServiceImpl extends ServiceImpl<SysLoginLogMapper, SysLoginLog> implements SysLoginLogService {
 
-    @Async
+    @Autowired
+    private LoginLogWriter loginLogWriter;
+
     @Override
     public void recordLoginLog(String username, Integer status, String message, String ip, String userAgent) {
         SysLoginLog log = new SysLoginLog();
@@ -26,6 +31,8 @@ public class SysLoginLogServiceImpl extends ServiceImpl<SysLoginLogMapper, SysLo
             userAgent = userAgent.substring(0, 500);
         }
         log.setUserAgent(userAgent);
-        save(log);
+        // 登录时刻，批量写入时不再取数据库时间
+        log.setCreateTime(LocalDateTime.now());
+        loginLogWriter.submit(log);
     }
 }
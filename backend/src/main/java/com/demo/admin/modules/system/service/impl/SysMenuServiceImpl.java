@@ -4,7 +4,10 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.demo.admin.modules.system.entity.SysMenu;
 import com.demo.admin.modules.system.mapper.SysMenuMapper;
+import com.demo.admin.modules.system.mapper.SysUserRoleMapper;
+import com.demo.admin.modules.system.service.RolePermissionCache;
 import com.demo.admin.modules.system.service.SysMenuService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -17,9 +20,15 @@ import java.util.stream.Collectors;
 @Service
 public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> implements SysMenuService {
 
+    @Autowired
+    private SysUserRoleMapper userRoleMapper;
+
+    @Autowired
+    private RolePermissionCache rolePermissionCache;
+
     @Override
     public List<SysMenu> getMenusByUserId(Long userId) {
-        return baseMapper.selectMenusByUserId(userId);
+        return rolePermissionCache.getMenus(userRoleMapper.selectRoleIdsByUserId(userId));
     }
 
     @Override
@@ -8,7 +8,9 @@ import com.demo.admin.modules.system.entity.SysRole;
 import com.demo.admin.modules.system.mapper.SysRoleMapper;
 import com.demo.admin.modules.system.mapper.SysRoleMenuMapper;
 import com.demo.admin.modules.system.mapper.SysUserRoleMapper;
+import com.demo.admin.modules.system.service.RolePermissionCache;
 import com.demo.admin.modules.system.service.SysRoleService;
+import com.demo.admin.security.service.SessionPermissionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +29,12 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
     @Autowired
     private SysUserRoleMapper userRoleMapper;
 
+    @Autowired
+    private RolePermissionCache rolePermissionCache;
+
+    @Autowired
+    private SessionPermissionService sessionPermissionService;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean createRole(SysRole role, List<Long> menuIds) {
@@ -36,6 +44,9 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
         if (result && menuIds != null && !menuIds.isEmpty()) {
             roleMenuMapper.batchInsert(role.getId(), menuIds);
         }
+        if (result) {
+            rolePermissionCache.roleChanged(role.getId());
+        }
         return result;
     }
 
@@ -49,6 +60,11 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
                 roleMenuMapper.batchInsert(role.getId(), menuIds);
             }
         }
+        if (result) {
+            rolePermissionCache.roleChanged(role.getId());
+            // 缓存刷新后再原地刷新在线会话
+            sessionPermissionService.roleChanged(role.getId());
+        }
         return result;
     }
 
@@ -61,7 +77,9 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
             throw new BusinessException(ResultCode.ROLE_HAS_USERS);
         }
         roleMenuMapper.deleteByRoleId(roleId);
-        return removeById(roleId);
+        boolean result = removeById(roleId);
+        rolePermissionCache.roleChanged(roleId);
+        return result;
     }
 
     @Override
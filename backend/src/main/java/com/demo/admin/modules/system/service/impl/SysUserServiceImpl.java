@@ -35,6 +35,11 @@ public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> impl
         return baseMapper.selectByUsername(username);
     }
 
+    @Override
+    public List<Long> getRoleIdsByUserId(Long userId) {
+        return userRoleMapper.selectRoleIdsByUserId(userId);
+    }
+
     @Override
     public List<String> getRoleCodesByUserId(Long userId) {
         return baseMapper.selectRoleCodesByUserId(userId);
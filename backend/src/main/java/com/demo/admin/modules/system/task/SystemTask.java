@@ -1,12 +1,10 @@
 package com.demo.admin.modules.system.task;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.demo.admin.modules.system.entity.SysLog;
-import com.demo.admin.modules.system.entity.SysLoginLog;
 import com.demo.admin.modules.system.entity.SysJobLog;
-import com.demo.admin.modules.system.mapper.SysLogMapper;
-import com.demo.admin.modules.system.mapper.SysLoginLogMapper;
-import com.demo.admin.modules.system.mapper.SysJobLogMapper;
+import com.demo.admin.modules.system.entity.SysLoginLog;
+import com.demo.admin.modules.system.service.LogArchiveService;
+import com.demo.admin.modules.system.service.LogPurgeService;
+import com.demo.admin.modules.system.service.StatRollupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,33 +22,37 @@ public class SystemTask {
     private static final Logger log = LoggerFactory.getLogger(SystemTask.class);
 
     @Autowired
-    private SysLogMapper logMapper;
+    private LogPurgeService purgeService;
 
     @Autowired
-    private SysLoginLogMapper loginLogMapper;
+    private LogArchiveService archiveService;
 
     @Autowired
-    private SysJobLogMapper jobLogMapper;
+    private StatRollupService rollupService;
 
     /**
-     * 清理30天前的登录日志
+     * 清理30天前的登录日志；表已分区时由分区维护按月归档删除，不再按行删除
      */
     public void cleanLoginLog() {
+        if (archiveService.isPartitioned(SysLoginLog.class)) {
+            log.info("登录日志已分区，跳过按行清理");
+            return;
+        }
         LocalDateTime threshold = LocalDateTime.now().minusDays(30);
-        int count = loginLogMapper.delete(
-                new LambdaQueryWrapper<SysLoginLog>().lt(SysLoginLog::getCreateTime, threshold)
-        );
+        long count = purgeService.purgeBefore(LogPurgeService.LOGIN_LOG, threshold);
         log.info("清理登录日志完成，删除 {} 条30天前的记录", count);
     }
 
     /**
-     * 清理30天前的任务执行日志
+     * 清理30天前的任务执行日志；表已分区时由分区维护按月归档删除，不再按行删除
      */
     public void cleanJobLog() {
+        if (archiveService.isPartitioned(SysJobLog.class)) {
+            log.info("任务日志已分区，跳过按行清理");
+            return;
+        }
         LocalDateTime threshold = LocalDateTime.now().minusDays(30);
-        int count = jobLogMapper.delete(
-                new LambdaQueryWrapper<SysJobLog>().lt(SysJobLog::getCreateTime, threshold)
-        );
+        long count = purgeService.purgeBefore(LogPurgeService.JOB_LOG, threshold);
         log.info("清理任务日志完成，删除 {} 条30天前的记录", count);
     }
 
@@ -59,9 +61,22 @@ public class SystemTask {
      */
     public void cleanTodayOperLog() {
         LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        int count = logMapper.delete(
-                new LambdaQueryWrapper<SysLog>().ge(SysLog::getCreateTime, startOfDay)
-        );
+        long count = purgeService.purgeSince(LogPurgeService.OPER_LOG, startOfDay);
         log.info("清理当天操作日志完成，删除 {} 条记录", count);
     }
+
+    /**
+     * 维护日志分区：创建未来月份的分区，归档并删除超出保留期的分区
+     */
+    public void archiveLogs() {
+        archiveService.maintain();
+        log.info("日志分区维护完成");
+    }
+
+    /**
+     * 从原始日志重新计算最近几天的仪表盘统计汇总
+     */
+    public void reconcileStats() {
+        rollupService.reconcile();
+    }
 }
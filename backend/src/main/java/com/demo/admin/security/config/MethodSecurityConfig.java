@@ -0,0 +1,69 @@
+package com.demo.admin.security.config;
+
+import com.demo.admin.security.service.CompiledPermissionVoter;
+import com.demo.admin.security.service.PermissionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.vote.AbstractAccessDecisionManager;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.config.annotation.method.configuration.GlobalMethodSecurityConfiguration;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 方法级权限配置
+ * <p>
+ * 在默认投票器之前加入预编译权限投票器，@ss.hasPermi 校验通过时不再执行 SpEL
+ */
+@Slf4j
+@Configuration
+@EnableGlobalMethodSecurity(prePostEnabled = true)
+public class MethodSecurityConfig extends GlobalMethodSecurityConfiguration {
+
+    @Lazy
+    @Autowired
+    private PermissionService permissionService;
+
+    private CompiledPermissionVoter compiledPermissionVoter;
+
+    @Override
+    protected AccessDecisionManager accessDecisionManager() {
+        AbstractAccessDecisionManager defaults = (AbstractAccessDecisionManager) super.accessDecisionManager();
+        List<AccessDecisionVoter<?>> voters = new ArrayList<>();
+        voters.add(getCompiledPermissionVoter());
+        voters.addAll(defaults.getDecisionVoters());
+        return new AffirmativeBased(voters);
+    }
+
+    /**
+     * 启动完成后预编译所有接口方法的权限要求
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precompile(ApplicationReadyEvent event) {
+        CompiledPermissionVoter voter = getCompiledPermissionVoter();
+        for (RequestMappingHandlerMapping mapping : event.getApplicationContext()
+                .getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            for (HandlerMethod handlerMethod : mapping.getHandlerMethods().values()) {
+                voter.compile(handlerMethod.getMethod());
+            }
+        }
+        log.info("权限表达式预编译完成，共 {} 个接口方法", voter.compiledCount());
+    }
+
+    private synchronized CompiledPermissionVoter getCompiledPermissionVoter() {
+        if (compiledPermissionVoter == null) {
+            compiledPermissionVoter = new CompiledPermissionVoter(permissionService);
+        }
+        return compiledPermissionVoter;
+    }
+}
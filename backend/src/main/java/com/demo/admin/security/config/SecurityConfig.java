@@ -1,6 +1,7 @@
 package com.demo.admin.security.config;
 
 import com.demo.admin.security.filter.JwtAuthenticationFilter;
+import com.demo.admin.security.filter.LoginThrottleFilter;
 import com.demo.admin.security.handler.AccessDeniedHandlerImpl;
 import com.demo.admin.security.handler.AuthenticationEntryPointImpl;
 
@@ -9,7 +10,6 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -23,7 +23,6 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  */
 @Configuration
 @EnableWebSecurity
-@EnableGlobalMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
     /**
@@ -44,6 +43,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private LoginThrottleFilter loginThrottleFilter;
+
     @Autowired
     private AuthenticationEntryPointImpl authenticationEntryPoint;
 
@@ -84,7 +86,9 @@ public class SecurityConfig {
                 .accessDeniedHandler(accessDeniedHandler)
                 .and()
                 // 添加JWT过滤器
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // 登录IP限流在JWT过滤器之前
+                .addFilterBefore(loginThrottleFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
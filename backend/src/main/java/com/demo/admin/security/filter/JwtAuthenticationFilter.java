@@ -1,9 +1,10 @@
 package com.demo.admin.security.filter;
 
-import com.demo.admin.common.constant.RedisConstant;
 import com.demo.admin.common.utils.JwtUtils;
-import com.demo.admin.common.utils.RedisUtils;
 import com.demo.admin.security.service.LoginUser;
+import com.demo.admin.security.service.StatelessSessionService;
+import com.demo.admin.security.service.TokenCacheService;
+import io.jsonwebtoken.Claims;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -28,7 +29,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private RedisUtils redisUtils;
+    private TokenCacheService tokenCacheService;
+
+    @Autowired
+    private StatelessSessionService statelessSessionService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -36,12 +40,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 获取Token
         String token = getToken(request);
         if (StringUtils.isNotBlank(token)) {
-            // 从Token中获取用户名
-            String username = jwtUtils.getUsernameFromToken(token);
+            // 验签并解析Token（一次验签，结果按token缓存至过期）
+            Claims claims = jwtUtils.parseToken(token);
+            String username = claims != null ? claims.getSubject() : null;
             if (StringUtils.isNotBlank(username) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // 从Redis获取用户信息
-                LoginUser loginUser = redisUtils.get(RedisConstant.TOKEN_PREFIX + token, LoginUser.class);
-                if (loginUser != null && jwtUtils.validateToken(token, username)) {
+                // 无状态token直接由声明还原用户；否则优先本地缓存，未命中再查Redis
+                LoginUser loginUser = statelessSessionService.resolve(claims);
+                if (loginUser == null) {
+                    loginUser = tokenCacheService.get(token);
+                }
+                if (loginUser != null && username.equals(loginUser.getUsername())) {
                     // 设置认证信息
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(loginUser, null, loginUser.getAuthorities());
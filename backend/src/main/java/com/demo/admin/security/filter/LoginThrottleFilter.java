@@ -0,0 +1,58 @@
+package com.demo.admin.security.filter;
+
+import com.demo.admin.common.result.R;
+import com.demo.admin.common.result.ResultCode;
+import com.demo.admin.common.utils.IpUtils;
+import com.demo.admin.security.service.LoginThrottleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 登录IP限流过滤器
+ * <p>
+ * 位于 JWT 过滤器之前，只拦截登录请求；超过IP或网段阈值时直接返回 429，
+ * 不进入验证码、锁定检查和密码校验。
+ * 限流按直连地址计数，只有请求来自 trusted-proxies 中的代理时才采用 X-Forwarded-For 中的客户端地址。
+ */
+@Component
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/auth/login";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** 可信反向代理，逗号分隔的IP或 IPv4 CIDR */
+    @Value("${admin.login.trusted-proxies:}")
+    private String[] trustedProxies = {};
+
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equalsIgnoreCase(request.getMethod()) || !LOGIN_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!loginThrottleService.tryAcquire(IpUtils.getClientIp(request, trustedProxies))) {
+            response.setStatus(ResultCode.TOO_MANY_REQUESTS.getCode());
+            response.setHeader("Retry-After", String.valueOf(loginThrottleService.getWindowSeconds()));
+            response.setContentType("application/json;charset=UTF-8");
+            response.getWriter().write(MAPPER.writeValueAsString(
+                    R.fail(ResultCode.TOO_MANY_REQUESTS.getCode(), "登录请求过于频繁，请稍后重试")));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,289 @@
+package com.demo.admin.security.service;
+
+import cn.hutool.captcha.CaptchaUtil;
+import cn.hutool.captcha.ShearCaptcha;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.crypto.digest.HMac;
+import cn.hutool.crypto.digest.HmacAlgorithm;
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.RedisUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 验证码服务
+ * <p>
+ * 验证码图片由后台线程预先渲染放入有界池，请求线程 O(1) 取出，池空时退化为同步渲染。
+ * 补充线程按每秒消耗量的指数滑动平均调整目标水位，登录高峰时提前备货，空闲时保持最小水位。
+ * <p>
+ * 无状态模式下过期时间、随机串及其 HMAC 标签和答案的 HMAC 签名编码进验证码key，生成时无需访问Redis；
+ * 校验时先检查过期时间不超过有效期、标签与过期时间和随机串匹配，伪造的key不会留下任何标记；
+ * 再在本节点内存中原子标记已使用，并以 SET NX PX 在Redis中标记，集群内同一key只能使用一次。
+ * Redis不可用时只依赖本节点标记；本节点标记数达到上限时拒绝新的验证码，过期标记由补充线程清理。
+ */
+@Slf4j
+@Component
+public class CaptchaService {
+
+    private static final int WIDTH = 130;
+    private static final int HEIGHT = 38;
+    private static final int CODE_COUNT = 4;
+    private static final int THICKNESS = 2;
+
+    /** 无状态验证码key前缀 */
+    private static final String STATELESS_PREFIX = "s.";
+    /** 目标水位覆盖的消耗秒数 */
+    private static final int REFILL_HORIZON_SECONDS = 5;
+    private static final double EWMA_ALPHA = 0.3;
+
+    @Value("${admin.captcha.pool-size:200}")
+    private int poolSize = 200;
+
+    @Value("${admin.captcha.min-idle:20}")
+    private int minIdle = 20;
+
+    @Value("${admin.captcha.stateless:false}")
+    private boolean stateless;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    private BlockingQueue<RenderedCaptcha> pool;
+    private final BlockingQueue<Boolean> refillSignal = new ArrayBlockingQueue<>(1);
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile int targetSize;
+    private volatile boolean running;
+    private Thread refillThread;
+
+    /** 本节点最多记录的已使用验证码数 */
+    static final int MAX_USED_KEYS = 100000;
+    /** Redis中已使用的无状态验证码标记 */
+    private static final String USED_PREFIX = RedisConstant.CAPTCHA_PREFIX + "used:";
+
+    /** 已使用的无状态验证码随机串 -> 过期时间，保留到验证码过期 */
+    private final ConcurrentHashMap<String, Long> usedKeys = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        pool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        targetSize = Math.min(minIdle, poolSize);
+        running = true;
+        refillThread = new Thread(this::refillLoop, "captcha-refill");
+        refillThread.setDaemon(true);
+        refillThread.setPriority(Thread.MIN_PRIORITY);
+        refillThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (refillThread != null) {
+            refillThread.interrupt();
+        }
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    /**
+     * 生成验证码，返回 key 和 base64 图片
+     */
+    public Map<String, String> generate() {
+        RenderedCaptcha captcha = take();
+        String key;
+        if (stateless) {
+            key = sign(captcha.code, System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(RedisConstant.CAPTCHA_EXPIRE));
+        } else {
+            key = IdUtil.simpleUUID();
+            redisUtils.set(RedisConstant.CAPTCHA_PREFIX + key, captcha.code,
+                    RedisConstant.CAPTCHA_EXPIRE, TimeUnit.MINUTES);
+        }
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("key", key);
+        result.put("image", captcha.image);
+        return result;
+    }
+
+    /**
+     * 校验无状态验证码，key只能使用一次
+     */
+    public LoginSessionManager.PreCheckStatus verifyStateless(String key, String answer) {
+        if (key == null || !key.startsWith(STATELESS_PREFIX)) {
+            return LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED;
+        }
+        String[] parts = key.substring(STATELESS_PREFIX.length()).split("\\.");
+        if (parts.length != 4) {
+            return LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED;
+        }
+        long expireAt;
+        try {
+            expireAt = Long.parseLong(parts[0], Character.MAX_RADIX);
+        } catch (NumberFormatException e) {
+            return LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED;
+        }
+        long remaining = expireAt - System.currentTimeMillis();
+        if (remaining <= 0 || remaining > TimeUnit.MINUTES.toMillis(RedisConstant.CAPTCHA_EXPIRE)
+                || !matches(tag(parts[0], parts[1]), parts[2])) {
+            return LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED;
+        }
+        // 与有状态模式一致：不管对错都作废
+        if (!markUsed(parts[1], expireAt, remaining)) {
+            return LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED;
+        }
+        if (!matches(signature(parts[0], parts[1], answer != null ? answer : ""), parts[3])) {
+            return LoginSessionManager.PreCheckStatus.CAPTCHA_MISMATCH;
+        }
+        return LoginSessionManager.PreCheckStatus.PASSED;
+    }
+
+    /**
+     * 标记验证码已使用，已被使用过时返回false
+     */
+    private boolean markUsed(String nonce, long expireAt, long remaining) {
+        if (usedKeys.size() >= MAX_USED_KEYS || usedKeys.putIfAbsent(nonce, expireAt) != null) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redisUtils.setIfAbsent(USED_PREFIX + nonce, 1, remaining, TimeUnit.MILLISECONDS));
+        } catch (Exception e) {
+            log.warn("标记验证码已使用失败，仅依赖本节点记录: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * 清理已过期的使用标记
+     */
+    void purgeUsedKeys() {
+        long now = System.currentTimeMillis();
+        usedKeys.values().removeIf(expireAt -> expireAt < now);
+    }
+
+    public int getPoolSize() {
+        return pool != null ? pool.size() : 0;
+    }
+
+    public int getTargetSize() {
+        return targetSize;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    RenderedCaptcha take() {
+        consumed.incrementAndGet();
+        RenderedCaptcha captcha = pool != null ? pool.poll() : null;
+        if (captcha != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            captcha = render();
+        }
+        if (pool != null && pool.size() < targetSize / 2) {
+            refillSignal.offer(Boolean.TRUE);
+        }
+        return captcha;
+    }
+
+    String sign(String code, long expireAt) {
+        String expire = Long.toString(expireAt, Character.MAX_RADIX);
+        String nonce = IdUtil.fastSimpleUUID();
+        return STATELESS_PREFIX + expire + "." + nonce + "." + tag(expire, nonce) + "." + signature(expire, nonce, code);
+    }
+
+    /**
+     * 过期时间和随机串的签名，不含答案，用于在标记已使用前识别伪造的key
+     */
+    private String tag(String expire, String nonce) {
+        return hmac("key." + expire + "." + nonce);
+    }
+
+    private String signature(String expire, String nonce, String code) {
+        return hmac(expire + "." + nonce + "." + code.toLowerCase(Locale.ROOT));
+    }
+
+    private String hmac(String data) {
+        HMac hmac = new HMac(HmacAlgorithm.HmacSHA256, secret.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hmac.digest(data));
+    }
+
+    private static boolean matches(String expected, String actual) {
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII),
+                actual.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void refillLoop() {
+        double rate = 0;
+        long windowStart = System.nanoTime();
+        while (running) {
+            try {
+                long now = System.nanoTime();
+                long elapsed = now - windowStart;
+                if (elapsed >= TimeUnit.SECONDS.toNanos(1)) {
+                    double perSecond = consumed.getAndSet(0) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+                    rate = rate * (1 - EWMA_ALPHA) + perSecond * EWMA_ALPHA;
+                    targetSize = (int) Math.min(poolSize, Math.max(minIdle, Math.ceil(rate * REFILL_HORIZON_SECONDS)));
+                    windowStart = now;
+                    purgeUsedKeys();
+                }
+                while (running && pool.size() < targetSize) {
+                    if (!pool.offer(render())) {
+                        break;
+                    }
+                }
+                refillSignal.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("预生成验证码失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static RenderedCaptcha render() {
+        ShearCaptcha captcha = CaptchaUtil.createShearCaptcha(WIDTH, HEIGHT, CODE_COUNT, THICKNESS);
+        return new RenderedCaptcha(captcha.getCode(), captcha.getImageBase64Data());
+    }
+
+    /**
+     * 预渲染的验证码
+     */
+    static final class RenderedCaptcha {
+
+        final String code;
+        final String image;
+
+        RenderedCaptcha(String code, String image) {
+            this.code = code;
+            this.image = image;
+        }
+    }
+}
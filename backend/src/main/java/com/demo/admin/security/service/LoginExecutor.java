@@ -0,0 +1,151 @@
+package com.demo.admin.security.service;
+
+import com.demo.admin.common.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录认证执行器
+ * <p>
+ * 密码校验（BCrypt）在独立的有界线程池中执行，不占满 Tomcat 工作线程：
+ * 队列已满时立即拒绝，排队超过上限或等待超时的请求直接放弃，均返回 429，
+ * 登录高峰时吞吐按线程数封顶，其余接口不受影响。
+ */
+@Slf4j
+@Component
+public class LoginExecutor {
+
+    /** 认证线程数，0 表示 CPU 核数的一半 */
+    @Value("${admin.login.threads:0}")
+    private int threads;
+
+    @Value("${admin.login.queue-capacity:64}")
+    private int queueCapacity = 64;
+
+    /** 排队超过该时长（毫秒）的任务不再执行 */
+    @Value("${admin.login.max-queue-wait:3000}")
+    private long maxQueueWait = 3000;
+
+    /** 调用方最长等待时长（毫秒） */
+    @Value("${admin.login.timeout:5000}")
+    private long timeout = 5000;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder queueWaitTotal = new LongAdder();
+    private final LongAccumulator queueWaitMax = new LongAccumulator(Math::max, 0);
+    private final LongAdder hashTimeTotal = new LongAdder();
+    private final LongAccumulator hashTimeMax = new LongAccumulator(Math::max, 0);
+
+    @PostConstruct
+    public void init() {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "login-auth-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("登录认证线程池已启动，线程数 {}，队列容量 {}", size, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 在认证线程池中执行认证；过载时抛出 {@link TooManyRequestsException}，认证异常原样抛出
+     */
+    public Authentication authenticate(Authentication token) {
+        long submitAt = System.nanoTime();
+        Future<Authentication> future;
+        try {
+            future = executor.submit(() -> {
+                long startAt = System.nanoTime();
+                long waitMillis = TimeUnit.NANOSECONDS.toMillis(startAt - submitAt);
+                started.increment();
+                queueWaitTotal.add(waitMillis);
+                queueWaitMax.accumulate(waitMillis);
+                if (waitMillis > maxQueueWait) {
+                    expired.increment();
+                    throw new TooManyRequestsException("登录请求过多，请稍后重试");
+                }
+                try {
+                    return authenticationManager.authenticate(token);
+                } finally {
+                    long hashMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startAt);
+                    hashTimeTotal.add(hashMillis);
+                    hashTimeMax.accumulate(hashMillis);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("登录请求过多，请稍后重试");
+        }
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            expired.increment();
+            throw new TooManyRequestsException("登录请求过多，请稍后重试");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TooManyRequestsException("登录请求已中断，请稍后重试");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * 运行指标：排队等待与认证耗时（毫秒）、拒绝及过期数
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long done = completed.sum();
+        metrics.put("threads", executor.getMaximumPoolSize());
+        metrics.put("active", executor.getActiveCount());
+        metrics.put("queued", executor.getQueue().size());
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("completed", done);
+        metrics.put("rejected", rejected.sum());
+        metrics.put("expired", expired.sum());
+        long begun = started.sum();
+        metrics.put("avgQueueWait", begun > 0 ? queueWaitTotal.sum() / begun : 0);
+        metrics.put("maxQueueWait", queueWaitMax.get());
+        metrics.put("avgHashTime", done > 0 ? hashTimeTotal.sum() / done : 0);
+        metrics.put("maxHashTime", hashTimeMax.get());
+        return metrics;
+    }
+}
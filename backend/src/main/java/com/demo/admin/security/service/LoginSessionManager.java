@@ -0,0 +1,139 @@
+package com.demo.admin.security.service;
+
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.RedisUtils;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 登录会话管理
+ * <p>
+ * 登录流程的Redis操作合并为原子Lua脚本，每个阶段一次往返：
+ * <ul>
+ *     <li>认证前：校验并消费验证码、检查账号锁定</li>
+ *     <li>认证失败：累加失败次数，首次失败时设置锁定时长</li>
+ *     <li>认证成功：写入会话、维护用户会话索引、清除失败次数</li>
+ * </ul>
+ * 脚本参数经值序列化器编码，验证码与会话token在脚本内按序列化后的形式比较和存储，
+ * 与 RedisUtils 直接写入的数据格式一致。
+ */
+@Component
+public class LoginSessionManager {
+
+    /**
+     * KEYS[1]=验证码key（不校验时为空串） KEYS[2]=失败计数key
+     * ARGV[1]=用户输入的验证码 ARGV[2]=最大失败次数
+     * 返回 {状态, 锁定剩余秒数}
+     */
+    private static final String PRE_CHECK_LUA =
+            "if KEYS[1] ~= '' then " +
+            "  local code = redis.call('get', KEYS[1]); " +
+            "  redis.call('del', KEYS[1]); " +
+            "  if not code then return {1, 0} end; " +
+            "  if string.lower(code) ~= string.lower(ARGV[1]) then return {2, 0} end; " +
+            "end; " +
+            "local fails = tonumber(redis.call('get', KEYS[2]) or '0'); " +
+            "if fails >= tonumber(ARGV[2]) then return {3, redis.call('ttl', KEYS[2])} end; " +
+            "return {0, 0};";
+
+    /** KEYS[1]=失败计数key ARGV[1]=锁定秒数；返回累加后的失败次数 */
+    private static final String RECORD_FAILURE_LUA =
+            "local c = redis.call('incr', KEYS[1]); " +
+            "if c == 1 then redis.call('expire', KEYS[1], ARGV[1]) end; " +
+            "return c;";
+
+    /**
+     * KEYS[1]=会话key KEYS[2]=用户会话索引key KEYS[3]=失败计数key
+     * ARGV[1]=会话 ARGV[2]=token ARGV[3]=有效期（毫秒）
+     */
+    private static final String CREATE_SESSION_LUA =
+            "redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[3]); " +
+            "redis.call('sadd', KEYS[2], ARGV[2]); " +
+            "redis.call('pexpire', KEYS[2], ARGV[3]); " +
+            "redis.call('del', KEYS[3]); " +
+            "return 1;";
+
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> PRE_CHECK_SCRIPT = new DefaultRedisScript<>(PRE_CHECK_LUA, List.class);
+    private static final DefaultRedisScript<Long> RECORD_FAILURE_SCRIPT = new DefaultRedisScript<>(RECORD_FAILURE_LUA, Long.class);
+    private static final DefaultRedisScript<Long> CREATE_SESSION_SCRIPT = new DefaultRedisScript<>(CREATE_SESSION_LUA, Long.class);
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    @Autowired
+    private CaptchaService captchaService;
+
+    /**
+     * 认证前检查：校验并消费验证码（captchaKey 为null时跳过），检查账号锁定
+     */
+    public PreCheckResult preCheck(String captchaKey, String captcha, String username) {
+        if (captchaKey != null && captchaService.isStateless()) {
+            // 无状态验证码在本地验签，脚本只检查锁定
+            PreCheckStatus status = captchaService.verifyStateless(captchaKey, captcha);
+            if (status != PreCheckStatus.PASSED) {
+                return new PreCheckResult(status, 0);
+            }
+            captchaKey = null;
+        }
+        List<String> keys = Arrays.asList(
+                captchaKey != null ? RedisConstant.CAPTCHA_PREFIX + captchaKey : "",
+                RedisConstant.LOGIN_FAIL_PREFIX + username);
+        List<?> result = redisUtils.executeLuaScript(PRE_CHECK_SCRIPT, keys,
+                captcha != null ? captcha : "", RedisConstant.LOGIN_MAX_RETRY);
+        if (result == null || result.isEmpty()) {
+            return new PreCheckResult(PreCheckStatus.PASSED, 0);
+        }
+        int status = ((Number) result.get(0)).intValue();
+        long ttl = result.size() > 1 ? ((Number) result.get(1)).longValue() : 0;
+        return new PreCheckResult(PreCheckStatus.values()[status], ttl);
+    }
+
+    /**
+     * 认证失败，返回累加后的失败次数
+     */
+    public long recordFailure(String username) {
+        Long count = redisUtils.executeLuaScript(RECORD_FAILURE_SCRIPT,
+                Collections.singletonList(RedisConstant.LOGIN_FAIL_PREFIX + username),
+                RedisConstant.LOGIN_LOCK_TIME * 60);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 认证成功：写入会话及用户会话索引，清除失败次数
+     */
+    public void createSession(String token, LoginUser loginUser, String username, long expireMillis) {
+        String tokenKey = RedisConstant.TOKEN_PREFIX + token;
+        redisUtils.executeLuaScript(CREATE_SESSION_SCRIPT,
+                Arrays.asList(tokenKey,
+                        RedisConstant.USER_TOKEN_SET_PREFIX + loginUser.getUserId(),
+                        RedisConstant.LOGIN_FAIL_PREFIX + username),
+                redisUtils.wrap(tokenKey, loginUser), token, expireMillis);
+    }
+
+    /**
+     * 认证前检查状态，顺序与脚本返回值一致
+     */
+    public enum PreCheckStatus {
+        PASSED, CAPTCHA_EXPIRED, CAPTCHA_MISMATCH, LOCKED
+    }
+
+    @Getter
+    public static class PreCheckResult {
+
+        private final PreCheckStatus status;
+        /** 锁定剩余秒数 */
+        private final long lockTtl;
+
+        public PreCheckResult(PreCheckStatus status, long lockTtl) {
+            this.status = status;
+            this.lockTtl = lockTtl;
+        }
+    }
+}
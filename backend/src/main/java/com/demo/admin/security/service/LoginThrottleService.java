@@ -0,0 +1,314 @@
+package com.demo.admin.security.service;
+
+import cn.hutool.core.util.IdUtil;
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.IpUtils;
+import com.demo.admin.common.utils.RedisUtils;
+import com.demo.admin.modules.system.service.SysConfigService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录请求IP限流
+ * <p>
+ * 按IP及其网段在内存中做滑动窗口计数（每秒一个桶），请求路径上不访问Redis和数据库；
+ * 各节点每秒通过Redis发布订阅广播本地增量，收到其他节点的增量后计入本地窗口，实现集群内近似全局计数。
+ * 过期窗口由同步任务定时清理；跟踪的key数达到上限时先清理过期窗口，仍超限则淘汰最久没有请求的窗口，
+ * 持续发起请求的来源最近活跃，计数不会因其他来源大量涌入而被清空。
+ * 阈值读取参数配置（sys_config），定时刷新：
+ * <ul>
+ *     <li>sys.login.ipLimit：单个IP窗口内最大登录请求数，0 不限制</li>
+ *     <li>sys.login.subnetLimit：单个网段（IPv4 /24，IPv6 /64）窗口内最大登录请求数，0 不限制</li>
+ *     <li>sys.login.throttleWindow：窗口长度（秒）</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class LoginThrottleService implements MessageListener {
+
+    public static final String CONFIG_IP_LIMIT = "sys.login.ipLimit";
+    public static final String CONFIG_SUBNET_LIMIT = "sys.login.subnetLimit";
+    public static final String CONFIG_WINDOW = "sys.login.throttleWindow";
+
+    private static final int DEFAULT_IP_LIMIT = 30;
+    private static final int DEFAULT_SUBNET_LIMIT = 200;
+    private static final int DEFAULT_WINDOW = 60;
+    /** 内存中最多跟踪的key数，达到上限后淘汰最久没有请求的窗口 */
+    static final int MAX_ENTRIES = 200000;
+    /** 淘汰后保留的key数 */
+    private static final int EVICT_TO = MAX_ENTRIES * 9 / 10;
+    /** 每隔多少次同步刷新一次阈值 */
+    private static final int CONFIG_REFRESH_TICKS = 30;
+
+    private static final String IP_PREFIX = "ip:";
+    private static final String SUBNET_PREFIX = "net:";
+
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    @Autowired
+    private SysConfigService configService;
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    @Autowired(required = false)
+    private RedisMessageListenerContainer listenerContainer;
+
+    private volatile int ipLimit = DEFAULT_IP_LIMIT;
+    private volatile int subnetLimit = DEFAULT_SUBNET_LIMIT;
+    private volatile int windowSeconds = DEFAULT_WINDOW;
+
+    private final Map<String, SlidingWindow> windows = new ConcurrentHashMap<>();
+    /** 待广播的本地增量 */
+    private final Map<String, Integer> pending = new ConcurrentHashMap<>();
+    private final Object evictLock = new Object();
+    private int ticks;
+
+    @PostConstruct
+    public void init() {
+        if (listenerContainer != null) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.LOGIN_THROTTLE_CHANNEL));
+        }
+        try {
+            reloadConfig();
+        } catch (Exception e) {
+            log.warn("加载登录限流配置失败，使用默认值: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 记录一次登录请求，超过IP或网段阈值时返回false
+     */
+    public boolean tryAcquire(String ip) {
+        if (ip == null) {
+            return true;
+        }
+        long now = currentSecond();
+        boolean allowed = true;
+        if (ipLimit > 0) {
+            allowed = record(IP_PREFIX + ip, now) <= ipLimit;
+        }
+        String subnet = IpUtils.getSubnet(ip);
+        if (subnetLimit > 0 && subnet != null) {
+            allowed &= record(SUBNET_PREFIX + subnet, now) <= subnetLimit;
+        }
+        return allowed;
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    /**
+     * 广播本地增量并清理过期窗口，定期刷新阈值
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void sync() {
+        Map<String, Integer> counts = drainPending();
+        if (!counts.isEmpty()) {
+            Map<String, Object> message = new HashMap<>();
+            message.put("node", nodeId);
+            message.put("counts", counts);
+            try {
+                redisUtils.publish(RedisConstant.LOGIN_THROTTLE_CHANNEL, message);
+            } catch (Exception e) {
+                log.warn("广播登录限流计数失败: {}", e.getMessage());
+            }
+        }
+        if (++ticks >= CONFIG_REFRESH_TICKS) {
+            ticks = 0;
+            try {
+                reloadConfig();
+            } catch (Exception e) {
+                log.warn("刷新登录限流配置失败: {}", e.getMessage());
+            }
+        }
+        purge();
+    }
+
+    /**
+     * 重新读取阈值，窗口长度变化时清空计数
+     */
+    public void reloadConfig() {
+        ipLimit = readInt(CONFIG_IP_LIMIT, DEFAULT_IP_LIMIT);
+        subnetLimit = readInt(CONFIG_SUBNET_LIMIT, DEFAULT_SUBNET_LIMIT);
+        int window = Math.max(1, readInt(CONFIG_WINDOW, DEFAULT_WINDOW));
+        if (window != windowSeconds) {
+            windowSeconds = window;
+            windows.clear();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisUtils.deserialize(message.getBody());
+        if (!(body instanceof Map)) {
+            return;
+        }
+        Map<String, Object> map = (Map<String, Object>) body;
+        if (nodeId.equals(map.get("node")) || !(map.get("counts") instanceof Map)) {
+            return;
+        }
+        long now = currentSecond();
+        for (Map.Entry<String, Object> entry : ((Map<String, Object>) map.get("counts")).entrySet()) {
+            if (entry.getValue() instanceof Number) {
+                window(entry.getKey()).add(now, ((Number) entry.getValue()).intValue());
+            }
+        }
+    }
+
+    /**
+     * 计入一次请求，返回窗口内总数
+     */
+    private long record(String key, long now) {
+        SlidingWindow window = window(key);
+        pending.merge(key, 1, Integer::sum);
+        return window.add(now, 1);
+    }
+
+    /**
+     * 取key对应的窗口，不存在时创建；达到上限时先淘汰
+     */
+    private SlidingWindow window(String key) {
+        SlidingWindow window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= MAX_ENTRIES) {
+                evict();
+            }
+            window = windows.computeIfAbsent(key, k -> new SlidingWindow(windowSeconds));
+        }
+        return window;
+    }
+
+    /**
+     * 清理过期窗口，仍超过 EVICT_TO 时按最近请求时间淘汰最久没有请求的窗口
+     */
+    private void evict() {
+        synchronized (evictLock) {
+            if (windows.size() < MAX_ENTRIES) {
+                return;
+            }
+            purge();
+            int excess = windows.size() - EVICT_TO;
+            if (excess <= 0) {
+                return;
+            }
+            // 先取最近请求时间的快照再排序，避免排序过程中被并发修改
+            long[] lastSeconds = new long[windows.size()];
+            int n = 0;
+            for (SlidingWindow window : windows.values()) {
+                if (n == lastSeconds.length) {
+                    break;
+                }
+                lastSeconds[n++] = window.getLastSecond();
+            }
+            Arrays.sort(lastSeconds, 0, n);
+            long threshold = lastSeconds[Math.min(excess, n) - 1];
+            windows.values().removeIf(window -> window.getLastSecond() < threshold);
+            // 与阈值同一秒的窗口只淘汰到补足数量为止
+            Iterator<SlidingWindow> it = windows.values().iterator();
+            while (windows.size() > EVICT_TO && it.hasNext()) {
+                if (it.next().getLastSecond() == threshold) {
+                    it.remove();
+                }
+            }
+            log.warn("登录限流跟踪的来源数达到上限 {}，已淘汰 {} 之前没有请求的窗口", MAX_ENTRIES, threshold);
+        }
+    }
+
+    private Map<String, Integer> drainPending() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String key : pending.keySet()) {
+            // remove 原子取出当前值，之后的增量进入新的条目
+            Integer count = pending.remove(key);
+            if (count != null && count > 0) {
+                counts.put(key, count);
+            }
+        }
+        return counts;
+    }
+
+    private void purge() {
+        long now = currentSecond();
+        windows.values().removeIf(window -> window.isIdle(now));
+    }
+
+    private int readInt(String key, int defaultValue) {
+        String value = configService.getConfigByKey(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("参数 {} 不是有效的整数: {}", key, value);
+            return defaultValue;
+        }
+    }
+
+    private static long currentSecond() {
+        return TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+    }
+
+    /**
+     * 按秒分桶的滑动窗口计数器
+     */
+    static final class SlidingWindow {
+
+        private final int[] counts;
+        private final long[] seconds;
+        private long lastSecond;
+
+        SlidingWindow(int windowSeconds) {
+            this.counts = new int[windowSeconds];
+            this.seconds = new long[windowSeconds];
+        }
+
+        /**
+         * 在当前秒的桶中累加，返回窗口内总数
+         */
+        synchronized long add(long now, int delta) {
+            int index = (int) (now % counts.length);
+            if (seconds[index] != now) {
+                seconds[index] = now;
+                counts[index] = 0;
+            }
+            counts[index] += delta;
+            lastSecond = now;
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (now - seconds[i] < counts.length) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        synchronized long getLastSecond() {
+            return lastSecond;
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now - lastSecond >= counts.length;
+        }
+    }
+}
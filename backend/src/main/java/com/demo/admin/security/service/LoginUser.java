@@ -2,8 +2,13 @@ package com.demo.admin.security.service;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -40,6 +45,16 @@ public class LoginUser implements UserDetails {
     private String os;
     private Long loginTime;
     private String tokenKey;
+    /** 会话权限版本，角色授权变更后原地刷新时递增 */
+    private Long permVersion;
+
+    /** 编译后的权限集合，按需从 permissions 构建，不参与序列化 */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient volatile PermissionSet permissionSet;
 
     public LoginUser(Long userId, Long deptId, String username, String password, String nickname,
                      String avatar, Integer status, List<String> roles, List<String> permissions) {
@@ -54,6 +69,23 @@ public class LoginUser implements UserDetails {
         this.permissions = permissions != null ? permissions : new ArrayList<>();
     }
 
+    public void setPermissions(List<String> permissions) {
+        this.permissions = permissions;
+        this.permissionSet = null;
+    }
+
+    /**
+     * 编译后的权限集合，首次访问时构建
+     */
+    public PermissionSet permissionSet() {
+        PermissionSet set = permissionSet;
+        if (set == null) {
+            set = PermissionSet.of(permissions);
+            permissionSet = set;
+        }
+        return set;
+    }
+
     @Override
     @JsonIgnore
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -0,0 +1,79 @@
+package com.demo.admin.security.service;
+
+import com.demo.admin.common.redis.RedisValueCodec;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static com.demo.admin.common.redis.RedisValueCodec.*;
+
+/**
+ * LoginUser 紧凑编解码器
+ * <p>
+ * 只保存会话需要的字段，密码哈希不写入 Redis
+ */
+@Component
+public class LoginUserCodec implements RedisValueCodec<LoginUser> {
+
+    private static final byte TYPE_ID = 1;
+    private static final byte SCHEMA_VERSION = 2;
+    /** v1 不含权限版本 */
+    private static final byte SCHEMA_VERSION_V1 = 1;
+
+    @Override
+    public byte typeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public Class<LoginUser> type() {
+        return LoginUser.class;
+    }
+
+    @Override
+    public void write(LoginUser user, DataOutput out) throws IOException {
+        out.writeByte(SCHEMA_VERSION);
+        writeLong(out, user.getUserId());
+        writeLong(out, user.getDeptId());
+        writeString(out, user.getUsername());
+        writeString(out, user.getNickname());
+        writeString(out, user.getAvatar());
+        writeInt(out, user.getStatus());
+        writeStrings(out, user.getRoles());
+        writeStrings(out, user.getPermissions());
+        writeString(out, user.getLoginIp());
+        writeString(out, user.getBrowser());
+        writeString(out, user.getOs());
+        writeLong(out, user.getLoginTime());
+        writeString(out, user.getTokenKey());
+        writeLong(out, user.getPermVersion());
+    }
+
+    @Override
+    public LoginUser read(DataInput in) throws IOException {
+        byte version = in.readByte();
+        if (version != SCHEMA_VERSION && version != SCHEMA_VERSION_V1) {
+            throw new IOException("不支持的LoginUser编码版本: " + version);
+        }
+        LoginUser user = new LoginUser();
+        user.setUserId(readLong(in));
+        user.setDeptId(readLong(in));
+        user.setUsername(readString(in));
+        user.setNickname(readString(in));
+        user.setAvatar(readString(in));
+        user.setStatus(readInt(in));
+        user.setRoles(readStrings(in));
+        user.setPermissions(readStrings(in));
+        user.setLoginIp(readString(in));
+        user.setBrowser(readString(in));
+        user.setOs(readString(in));
+        user.setLoginTime(readLong(in));
+        user.setTokenKey(readString(in));
+        if (version >= SCHEMA_VERSION) {
+            user.setPermVersion(readLong(in));
+        }
+        return user;
+    }
+}
@@ -5,13 +5,12 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 /**
- * 自定义权限校验服务，支持超级管理员角色和通配权限
+ * 自定义权限校验服务，支持超级管理员角色和通配权限（如 system:user:*、*:*:*）
  */
 @Service("ss")
 public class PermissionService {
 
     private static final String SUPER_ADMIN_ROLE = "admin";
-    private static final String ALL_PERMISSION = "*:*:*";
 
     /**
      * 判断当前用户是否拥有指定权限
@@ -25,19 +24,18 @@ public class PermissionService {
         if (!(principal instanceof LoginUser)) {
             return false;
         }
-        LoginUser loginUser = (LoginUser) principal;
+        return hasPermi((LoginUser) principal, permission);
+    }
 
+    /**
+     * 判断指定用户是否拥有权限
+     */
+    public boolean hasPermi(LoginUser loginUser, String permission) {
         // 超级管理员角色拥有所有权限
-        if (loginUser.getRoles().contains(SUPER_ADMIN_ROLE)) {
+        if (loginUser.getRoles() != null && loginUser.getRoles().contains(SUPER_ADMIN_ROLE)) {
             return true;
         }
-
-        // 检查通配权限或精确匹配
-        for (String perm : loginUser.getPermissions()) {
-            if (ALL_PERMISSION.equals(perm) || perm.equals(permission)) {
-                return true;
-            }
-        }
-        return false;
+        // 编译后的权限集合：精确匹配 + 段通配
+        return loginUser.permissionSet().has(permission);
     }
 }
@@ -0,0 +1,122 @@
+package com.demo.admin.security.service;
+
+import java.util.*;
+
+/**
+ * 编译后的权限集合
+ * <p>
+ * 精确权限放入哈希集合，O(1) 判断；含通配段的权限按首段分组索引，
+ * 仅在精确匹配失败时扫描对应分组。通配规则：
+ * <ul>
+ *     <li>{@code *} 段匹配任意一个段，如 {@code system:*:list}</li>
+ *     <li>末尾的 {@code *} 段匹配剩余所有段，如 {@code system:*} 匹配 {@code system:user:list}</li>
+ *     <li>{@code *:*:*} 匹配全部权限</li>
+ * </ul>
+ * 实例不可变，可在线程间共享。
+ */
+public final class PermissionSet {
+
+    public static final String ALL_PERMISSION = "*:*:*";
+
+    private static final String WILDCARD = "*";
+    private static final String SEPARATOR = ":";
+
+    public static final PermissionSet EMPTY = new PermissionSet(Collections.emptyList());
+
+    private final boolean all;
+    private final Set<String> exact;
+    /** 首段 -> 通配模式，首段为 * 的模式放在 key "*" 下 */
+    private final Map<String, List<String[]>> patterns;
+
+    private PermissionSet(Collection<String> permissions) {
+        boolean matchAll = false;
+        Set<String> exactSet = new HashSet<>(Math.max(16, permissions.size() * 2));
+        Map<String, List<String[]>> patternMap = new HashMap<>();
+        for (String perm : permissions) {
+            if (perm == null || perm.isEmpty()) {
+                continue;
+            }
+            if (ALL_PERMISSION.equals(perm) || WILDCARD.equals(perm)) {
+                matchAll = true;
+                continue;
+            }
+            if (!perm.contains(WILDCARD)) {
+                exactSet.add(perm.intern());
+                continue;
+            }
+            String[] segments = perm.split(SEPARATOR, -1);
+            patternMap.computeIfAbsent(segments[0], k -> new ArrayList<>(2)).add(segments);
+        }
+        this.all = matchAll;
+        this.exact = exactSet;
+        this.patterns = patternMap;
+    }
+
+    public static PermissionSet of(Collection<String> permissions) {
+        if (permissions == null || permissions.isEmpty()) {
+            return EMPTY;
+        }
+        return new PermissionSet(permissions);
+    }
+
+    /**
+     * 判断是否拥有指定权限
+     */
+    public boolean has(String permission) {
+        if (all) {
+            return true;
+        }
+        if (permission == null) {
+            return false;
+        }
+        if (exact.contains(permission)) {
+            return true;
+        }
+        if (patterns.isEmpty()) {
+            return false;
+        }
+        String[] required = permission.split(SEPARATOR, -1);
+        return matchAny(patterns.get(required[0]), required) || matchAny(patterns.get(WILDCARD), required);
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public int size() {
+        int size = exact.size();
+        for (List<String[]> list : patterns.values()) {
+            size += list.size();
+        }
+        return all ? size + 1 : size;
+    }
+
+    private static boolean matchAny(List<String[]> candidates, String[] required) {
+        if (candidates == null) {
+            return false;
+        }
+        for (String[] pattern : candidates) {
+            if (matches(pattern, required)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(String[] pattern, String[] required) {
+        int last = pattern.length - 1;
+        for (int i = 0; i < pattern.length; i++) {
+            if (i == last && WILDCARD.equals(pattern[i])) {
+                // 末尾通配匹配剩余段（至少一段）
+                return required.length > i;
+            }
+            if (i >= required.length) {
+                return false;
+            }
+            if (!WILDCARD.equals(pattern[i]) && !pattern[i].equals(required[i])) {
+                return false;
+            }
+        }
+        return pattern.length == required.length;
+    }
+}
@@ -0,0 +1,150 @@
+package com.demo.admin.security.service;
+
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.RedisUtils;
+import com.demo.admin.common.utils.TransactionUtils;
+import com.demo.admin.modules.system.entity.SysUserRole;
+import com.demo.admin.modules.system.mapper.SysUserRoleMapper;
+import com.demo.admin.modules.system.service.RolePermissionCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 在线会话权限刷新
+ * <p>
+ * 角色授权变更后，通过用户会话索引（USER_TOKEN_SET_PREFIX）定位受影响的会话，
+ * 按批以管道方式读取并原地写回新的角色和权限，保留原过期时间，无需重新登录。
+ * 每次变更递增全局权限版本号，会话版本不低于本次版本时跳过，避免并发刷新互相覆盖。
+ */
+@Slf4j
+@Component
+public class SessionPermissionService {
+
+    @Value("${admin.session.refresh-batch-size:200}")
+    private int batchSize = 200;
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    @Autowired
+    private SysUserRoleMapper userRoleMapper;
+
+    @Autowired
+    private RolePermissionCache rolePermissionCache;
+
+    @Autowired
+    private TokenCacheService tokenCacheService;
+
+    /**
+     * 当前权限版本号，登录时写入会话
+     */
+    public long currentVersion() {
+        Object version = redisUtils.get(RedisConstant.PERM_VERSION_KEY);
+        return version instanceof Number ? ((Number) version).longValue() : 0L;
+    }
+
+    /**
+     * 角色授权变更，事务提交后刷新绑定该角色的用户会话
+     */
+    public void roleChanged(Long roleId) {
+        if (roleId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            try {
+                refreshRole(roleId);
+            } catch (Exception e) {
+                log.warn("刷新角色 {} 的在线会话失败: {}", roleId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 刷新绑定指定角色的所有用户会话，返回刷新的会话数
+     */
+    public int refreshRole(Long roleId) {
+        List<Long> userIds = userRoleMapper.selectUserIdsByRoleId(roleId);
+        if (userIds == null || userIds.isEmpty()) {
+            return 0;
+        }
+        long version = redisUtils.increment(RedisConstant.PERM_VERSION_KEY);
+        int refreshed = 0;
+        for (int from = 0; from < userIds.size(); from += batchSize) {
+            refreshed += refreshUsers(userIds.subList(from, Math.min(from + batchSize, userIds.size())), version);
+        }
+        log.info("角色 {} 授权变更，已刷新 {} 个用户的 {} 个会话，权限版本 {}", roleId, userIds.size(), refreshed, version);
+        return refreshed;
+    }
+
+    private int refreshUsers(List<Long> userIds, long version) {
+        // 1. 管道读取各用户的会话索引
+        List<String> setKeys = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            setKeys.add(RedisConstant.USER_TOKEN_SET_PREFIX + userId);
+        }
+        List<Set<Object>> tokenSets = redisUtils.getSetMembers(setKeys);
+        List<String> tokens = new ArrayList<>();
+        List<String> tokenKeys = new ArrayList<>();
+        for (Set<Object> tokenSet : tokenSets) {
+            if (tokenSet == null) {
+                continue;
+            }
+            for (Object token : tokenSet) {
+                tokens.add(token.toString());
+                tokenKeys.add(RedisConstant.TOKEN_PREFIX + token);
+            }
+        }
+        if (tokens.isEmpty()) {
+            return 0;
+        }
+
+        // 2. 一次查询本批用户的角色，由角色权限缓存计算新的角色编码和权限
+        Map<Long, List<Long>> roleIdsByUser = new HashMap<>();
+        for (SysUserRole userRole : userRoleMapper.selectByUserIds(userIds)) {
+            roleIdsByUser.computeIfAbsent(userRole.getUserId(), k -> new ArrayList<>()).add(userRole.getRoleId());
+        }
+
+        // 3. 批量读取会话及剩余有效期，原地更新后管道写回
+        List<Object> sessions = redisUtils.multiGet(tokenKeys);
+        List<Long> expires = redisUtils.getExpireMillis(tokenKeys);
+        Map<String, Object> updates = new LinkedHashMap<>();
+        Map<String, Long> updateExpires = new HashMap<>();
+        List<String> updatedTokens = new ArrayList<>();
+        for (int i = 0; i < tokenKeys.size(); i++) {
+            Object session = sessions.get(i);
+            Long expire = expires.get(i);
+            if (!(session instanceof LoginUser) || expire == null || expire <= 0) {
+                continue;
+            }
+            LoginUser loginUser = (LoginUser) session;
+            if (loginUser.getPermVersion() != null && loginUser.getPermVersion() >= version) {
+                continue;
+            }
+            List<Long> roleIds = roleIdsByUser.getOrDefault(loginUser.getUserId(), Collections.emptyList());
+            loginUser.setRoles(rolePermissionCache.getRoleCodes(roleIds));
+            loginUser.setPermissions(rolePermissionCache.getPermissions(roleIds));
+            loginUser.setPermVersion(version);
+            updates.put(tokenKeys.get(i), loginUser);
+            updateExpires.put(tokenKeys.get(i), expire);
+            updatedTokens.add(tokens.get(i));
+        }
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        // 只覆盖仍存在的会话，读取之后已注销或被强退的会话不会被写回
+        List<Boolean> written = redisUtils.setAllIfPresent(updates, updateExpires);
+        // 4. 失效各节点本地缓存（无状态token同时吊销，回源到已刷新的Redis会话）
+        tokenCacheService.evict(updatedTokens);
+        int refreshed = 0;
+        for (Boolean ok : written) {
+            if (Boolean.TRUE.equals(ok)) {
+                refreshed++;
+            }
+        }
+        return refreshed;
+    }
+}
@@ -0,0 +1,201 @@
+package com.demo.admin.security.service;
+
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import com.demo.admin.modules.system.entity.SysMenu;
+import com.demo.admin.modules.system.service.SysMenuService;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * 无状态会话：将用户ID、部门ID、角色和权限位图写入JWT，认证时无需访问Redis
+ * <p>
+ * 权限位图基于全量权限字典（sys_menu.permission 去重排序）编码，字典版本随token下发；
+ * 字典版本不一致（菜单已变更）或token不含会话声明时返回null，由调用方回源Redis。
+ */
+@Slf4j
+@Component
+public class StatelessSessionService {
+
+    public static final String CLAIM_TOKEN_ID = "jti";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_DEPT_ID = "did";
+    public static final String CLAIM_ROLES = "rol";
+    public static final String CLAIM_PERMS = "pm";
+    public static final String CLAIM_PERM_VERSION = "pv";
+
+    @Value("${admin.session.stateless:false}")
+    private boolean enabled;
+
+    @Autowired
+    private SysMenuService menuService;
+
+    @Autowired
+    private TokenRevocationService revocationService;
+
+    private volatile Dictionary dictionary;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 构建写入token的会话声明；未开启或权限无法编码时返回null（签发普通token）
+     */
+    public Map<String, Object> buildClaims(LoginUser loginUser) {
+        if (!enabled) {
+            return null;
+        }
+        Dictionary dict = getDictionary();
+        String bitmap = dict.encode(loginUser.getPermissions());
+        if (bitmap == null) {
+            // 存在字典外的权限，刷新后重试一次
+            dict = rebuild();
+            bitmap = dict.encode(loginUser.getPermissions());
+            if (bitmap == null) {
+                return null;
+            }
+        }
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_TOKEN_ID, IdUtil.fastSimpleUUID());
+        claims.put(CLAIM_USER_ID, loginUser.getUserId());
+        claims.put(CLAIM_DEPT_ID, loginUser.getDeptId());
+        claims.put(CLAIM_ROLES, loginUser.getRoles());
+        claims.put(CLAIM_PERMS, bitmap);
+        claims.put(CLAIM_PERM_VERSION, dict.version);
+        return claims;
+    }
+
+    /**
+     * 从token声明还原登录用户；无法还原或已吊销时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public LoginUser resolve(Claims claims) {
+        if (!enabled || claims == null || !claims.containsKey(CLAIM_USER_ID)) {
+            return null;
+        }
+        if (revocationService.isRevoked(claims.getId())) {
+            return null;
+        }
+        Number version = claims.get(CLAIM_PERM_VERSION, Number.class);
+        Dictionary dict = getDictionary();
+        if (version == null || version.longValue() != dict.version) {
+            return null;
+        }
+        List<String> permissions = dict.decode(claims.get(CLAIM_PERMS, String.class));
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        Number deptId = claims.get(CLAIM_DEPT_ID, Number.class);
+        List<String> roles = claims.get(CLAIM_ROLES, List.class);
+        return new LoginUser(
+                userId.longValue(),
+                deptId != null ? deptId.longValue() : null,
+                claims.getSubject(),
+                null,
+                null,
+                null,
+                1,
+                roles != null ? new ArrayList<>(roles) : null,
+                permissions
+        );
+    }
+
+    /**
+     * 定时重建权限字典，使各节点尽快与菜单变更对齐
+     */
+    @Scheduled(fixedDelayString = "${admin.session.dictionary-refresh:60000}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    /**
+     * 重建权限字典
+     */
+    public void refresh() {
+        rebuild();
+    }
+
+    private Dictionary rebuild() {
+        // 与用户权限查询口径一致，只取启用的菜单
+        List<SysMenu> menus = menuService.listAll();
+        TreeSet<String> permissions = new TreeSet<>();
+        for (SysMenu menu : menus) {
+            if (StrUtil.isNotBlank(menu.getPermission())) {
+                permissions.add(menu.getPermission());
+            }
+        }
+        Dictionary dict = new Dictionary(new ArrayList<>(permissions));
+        Dictionary old = dictionary;
+        if (old == null || old.version != dict.version) {
+            log.info("权限字典已更新，共 {} 项，版本 {}", dict.permissions.size(), dict.version);
+        }
+        dictionary = dict;
+        return dict;
+    }
+
+    private Dictionary getDictionary() {
+        Dictionary dict = dictionary;
+        return dict != null ? dict : rebuild();
+    }
+
+    /**
+     * 权限字典快照：有序权限列表及其下标
+     */
+    static final class Dictionary {
+
+        final List<String> permissions;
+        final Map<String, Integer> index;
+        final long version;
+
+        Dictionary(List<String> permissions) {
+            this.permissions = permissions;
+            this.index = new HashMap<>(permissions.size() * 2);
+            CRC32 crc = new CRC32();
+            for (int i = 0; i < permissions.size(); i++) {
+                String perm = permissions.get(i);
+                index.put(perm, i);
+                crc.update(perm.getBytes(StandardCharsets.UTF_8));
+                crc.update('\n');
+            }
+            this.version = crc.getValue();
+        }
+
+        /**
+         * 编码为 base64url 位图，含字典外权限时返回null
+         */
+        String encode(Collection<String> perms) {
+            BitSet bits = new BitSet(permissions.size());
+            if (perms != null) {
+                for (String perm : perms) {
+                    Integer i = index.get(perm);
+                    if (i == null) {
+                        return null;
+                    }
+                    bits.set(i);
+                }
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray());
+        }
+
+        List<String> decode(String bitmap) {
+            List<String> result = new ArrayList<>();
+            if (bitmap == null || bitmap.isEmpty()) {
+                return result;
+            }
+            BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(bitmap));
+            for (int i = bits.nextSetBit(0); i >= 0 && i < permissions.size(); i = bits.nextSetBit(i + 1)) {
+                result.add(permissions.get(i));
+            }
+            return result;
+        }
+    }
+}
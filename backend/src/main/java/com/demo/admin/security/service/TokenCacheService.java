@@ -0,0 +1,123 @@
+package com.demo.admin.security.service;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.RedisUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录会话本地缓存（L1）
+ * <p>
+ * 按token缓存已解析的 LoginUser，命中时无需访问Redis；
+ * 会话注销时通过Redis发布订阅通知所有节点同步失效，
+ * 广播丢失时最多在TTL内读到旧会话。
+ */
+@Slf4j
+@Component
+public class TokenCacheService implements MessageListener {
+
+    @Value("${admin.token-cache.capacity:10000}")
+    private int capacity = 10000;
+
+    /** 本地缓存有效期（秒） */
+    @Value("${admin.token-cache.ttl:30}")
+    private long ttl = 30;
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    @Autowired(required = false)
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired(required = false)
+    private TokenRevocationService revocationService;
+
+    private LRUCache<String, LoginUser> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheUtil.newLRUCache(capacity, TimeUnit.SECONDS.toMillis(ttl));
+        if (listenerContainer != null) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.TOKEN_EVICT_CHANNEL));
+        }
+    }
+
+    /**
+     * 获取token对应的登录用户，本地未命中时回源Redis
+     */
+    public LoginUser get(String token) {
+        // 不刷新访问时间，保证TTL从写入时起算
+        LoginUser loginUser = cache.get(token, false);
+        if (loginUser != null) {
+            return loginUser;
+        }
+        loginUser = redisUtils.get(RedisConstant.TOKEN_PREFIX + token, LoginUser.class);
+        if (loginUser != null) {
+            cache.put(token, loginUser);
+        }
+        return loginUser;
+    }
+
+    /**
+     * 使token在所有节点的本地缓存中失效（会话注销的统一入口，无状态模式下同时吊销token）
+     */
+    public void evict(String token) {
+        if (token == null) {
+            return;
+        }
+        cache.remove(token);
+        // 吊销失败不能影响广播，否则其他节点会继续命中本地缓存
+        try {
+            if (revocationService != null) {
+                revocationService.revoke(token);
+            }
+        } catch (Exception e) {
+            log.warn("吊销token失败: {}", e.getMessage());
+        }
+        try {
+            redisUtils.publish(RedisConstant.TOKEN_EVICT_CHANNEL, token);
+        } catch (Exception e) {
+            log.warn("广播会话失效消息失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 批量失效
+     */
+    public void evict(Collection<String> tokens) {
+        if (tokens != null) {
+            tokens.forEach(this::evict);
+        }
+    }
+
+    /**
+     * 仅清除本节点缓存
+     */
+    public void evictLocal(String token) {
+        cache.remove(token);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object token = redisUtils.deserialize(message.getBody());
+        if (token != null) {
+            evictLocal(token.toString());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.demo.admin.security.service;
+
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.JwtUtils;
+import com.demo.admin.common.utils.RedisUtils;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 无状态token吊销表
+ * <p>
+ * 吊销记录持久化在Redis有序集合（score为token过期时间），各节点内存中保留一份副本，
+ * 启动时全量加载，运行中通过发布订阅增量同步，认证时只查内存。
+ * 发布订阅不保证送达（断线重连、长时间GC期间的消息会丢失），因此定时清理时同时从Redis重新加载一次，
+ * 漏收的吊销记录最迟在一个清理周期内补齐。
+ */
+@Slf4j
+@Component
+public class TokenRevocationService implements MessageListener {
+
+    @Value("${admin.session.stateless:false}")
+    private boolean enabled;
+
+    @Autowired
+    private RedisUtils redisUtils;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired(required = false)
+    private RedisMessageListenerContainer listenerContainer;
+
+    /** token id -> 过期时间戳 */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        if (listenerContainer != null) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.TOKEN_REVOKE_CHANNEL));
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("加载token吊销表失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 吊销token；非无状态token（不含token id）无需处理
+     */
+    public void revoke(String token) {
+        if (!enabled) {
+            return;
+        }
+        Claims claims = jwtUtils.parseToken(token);
+        if (claims == null || claims.getId() == null || claims.getExpiration() == null) {
+            return;
+        }
+        String tokenId = claims.getId();
+        long expireAt = claims.getExpiration().getTime();
+        revoked.put(tokenId, expireAt);
+        redisUtils.addZSetMember(RedisConstant.TOKEN_REVOKED_KEY, tokenId, expireAt);
+        redisUtils.publish(RedisConstant.TOKEN_REVOKE_CHANNEL, tokenId + ":" + expireAt);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    /**
+     * 从Redis全量加载未过期的吊销记录
+     */
+    public void reload() {
+        long now = System.currentTimeMillis();
+        Set<ZSetOperations.TypedTuple<Object>> members =
+                redisUtils.rangeZSetByScore(RedisConstant.TOKEN_REVOKED_KEY, now, Double.MAX_VALUE);
+        if (members != null) {
+            for (ZSetOperations.TypedTuple<Object> member : members) {
+                if (member.getValue() != null && member.getScore() != null) {
+                    revoked.put(member.getValue().toString(), member.getScore().longValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * 清理已过期的吊销记录（过期token本身已无法通过验签），并从Redis补齐漏收的吊销记录
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expireAt -> expireAt < now);
+        try {
+            redisUtils.removeZSetRangeByScore(RedisConstant.TOKEN_REVOKED_KEY, 0, now);
+            reload();
+        } catch (Exception e) {
+            log.warn("同步token吊销表失败: {}", e.getMessage());
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body = redisUtils.deserialize(message.getBody());
+        if (body == null) {
+            return;
+        }
+        String value = body.toString();
+        int sep = value.lastIndexOf(':');
+        if (sep > 0) {
+            revoked.put(value.substring(0, sep), Long.parseLong(value.substring(sep + 1)));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.demo.admin.security.service;
 import com.demo.admin.common.exception.BusinessException;
 import com.demo.admin.common.result.ResultCode;
 import com.demo.admin.modules.system.entity.SysUser;
+import com.demo.admin.modules.system.service.RolePermissionCache;
 import com.demo.admin.modules.system.service.SysUserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,6 +22,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private SysUserService userService;
 
+    @Autowired
+    private RolePermissionCache rolePermissionCache;
+
+    @Autowired
+    private SessionPermissionService sessionPermissionService;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         SysUser user = userService.getByUsername(username);
@@ -30,11 +37,14 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         if (user.getStatus() == 0) {
             throw new BusinessException(ResultCode.USER_DISABLED);
         }
-        // 获取用户角色和权限
-        List<String> roles = userService.getRoleCodesByUserId(user.getId());
-        List<String> permissions = userService.getPermissionsByUserId(user.getId());
+        // 先取权限版本再计算权限，并发的授权变更最多导致多刷新一次
+        long permVersion = sessionPermissionService.currentVersion();
+        // 角色和权限由角色权限缓存计算，只需查询角色ID
+        List<Long> roleIds = userService.getRoleIdsByUserId(user.getId());
+        List<String> roles = rolePermissionCache.getRoleCodes(roleIds);
+        List<String> permissions = rolePermissionCache.getPermissions(roleIds);
 
-        return new LoginUser(
+        LoginUser loginUser = new LoginUser(
                 user.getId(),
                 user.getDeptId(),
                 user.getUsername(),
@@ -45,5 +55,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 roles,
                 permissions
         );
+        loginUser.setPermVersion(permVersion);
+        return loginUser;
     }
 }
@@ -0,0 +1,8 @@
+-- ============================================
+-- 增量SQL脚本 (在已有数据库上执行)
+-- 包含: 操作日志记录策略参数
+-- ============================================
+
+INSERT INTO `sys_config` (`config_name`, `config_key`, `config_value`, `config_type`, `remark`)
+SELECT '操作日志记录策略', 'sys.audit.policy', '', 0, '覆盖@OperLog的记录级别(NONE/SUMMARY/PARAMS/FULL)、抽样率与长度上限，多条以分号分隔，如 SysUserController.export=SUMMARY;导入用户=PARAMS,sample:0.5,params:500,response:0'
+FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `sys_config` WHERE `config_key` = 'sys.audit.policy');
@@ -153,7 +153,7 @@ CREATE TABLE `sys_role_menu` (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='角色菜单关联表';
 
 -- -----------------------------------------------
--- 操作日志表
+-- 操作日志表（按 create_time 每月一个分区，由“日志分区维护”任务创建分区并归档过期分区，下同）
 -- -----------------------------------------------
 DROP TABLE IF EXISTS `sys_log`;
 CREATE TABLE `sys_log` (
@@ -161,18 +161,32 @@ CREATE TABLE `sys_log` (
     `username` VARCHAR(50) DEFAULT NULL COMMENT '操作用户',
     `operation` VARCHAR(50) DEFAULT NULL COMMENT '操作类型',
     `method` VARCHAR(200) DEFAULT NULL COMMENT '请求方法',
-    `params` TEXT DEFAULT NULL COMMENT '请求参数',
     `time` BIGINT DEFAULT NULL COMMENT '执行时长(毫秒)',
     `ip` VARCHAR(50) DEFAULT NULL COMMENT 'IP地址',
     `status` TINYINT DEFAULT 1 COMMENT '操作状态：0-失败，1-成功',
-    `error_msg` VARCHAR(2000) DEFAULT NULL COMMENT '错误信息',
-    `response_body` VARCHAR(2000) DEFAULT NULL COMMENT '响应结果',
-    `old_value` TEXT DEFAULT NULL COMMENT '变更前数据',
-    `new_value` TEXT DEFAULT NULL COMMENT '变更后数据',
-    `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    PRIMARY KEY (`id`),
+    `changed` TINYINT DEFAULT 0 COMMENT '是否有变更前后数据：0-否，1-是',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`id`, `create_time`),
+    KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志表'
+PARTITION BY RANGE (TO_DAYS(`create_time`)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+-- -----------------------------------------------
+-- 操作日志详情表（请求参数、响应结果、错误信息、变更前后数据，JSON 经 COMPRESS 压缩）
+-- -----------------------------------------------
+DROP TABLE IF EXISTS `sys_log_detail`;
+CREATE TABLE `sys_log_detail` (
+    `log_id` BIGINT NOT NULL COMMENT '日志ID',
+    `content` BLOB DEFAULT NULL COMMENT '压缩后的详情，可用 UNCOMPRESS(content) 查看',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (`log_id`, `create_time`),
     KEY `idx_create_time` (`create_time`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志表';
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志详情表'
+PARTITION BY RANGE (TO_DAYS(`create_time`)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
 
 -- -----------------------------------------------
 -- 字典类型表
@@ -239,10 +253,13 @@ CREATE TABLE `sys_login_log` (
     `ip` VARCHAR(50) DEFAULT NULL COMMENT 'IP地址',
     `message` VARCHAR(255) DEFAULT NULL COMMENT '提示消息',
     `user_agent` VARCHAR(500) DEFAULT NULL COMMENT '浏览器UA',
-    `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '登录时间',
-    PRIMARY KEY (`id`),
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '登录时间',
+    PRIMARY KEY (`id`, `create_time`),
     KEY `idx_create_time` (`create_time`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='登录日志表';
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='登录日志表'
+PARTITION BY RANGE (TO_DAYS(`create_time`)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
 
 -- -----------------------------------------------
 -- 代码生成 - 表信息
@@ -351,14 +368,39 @@ CREATE TABLE `sys_job_log` (
     `bean_name` VARCHAR(200) DEFAULT NULL COMMENT '调用目标',
     `method_name` VARCHAR(100) DEFAULT NULL COMMENT '调用方法',
     `params` VARCHAR(500) DEFAULT NULL COMMENT '方法参数',
-    `status` TINYINT DEFAULT 1 COMMENT '执行状态：0-失败，1-成功',
+    `status` TINYINT DEFAULT 1 COMMENT '执行状态：0-失败，1-成功，2-执行中',
     `message` VARCHAR(2000) DEFAULT NULL COMMENT '执行信息',
     `duration` BIGINT DEFAULT 0 COMMENT '执行时长(毫秒)',
-    `create_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '执行时间',
-    PRIMARY KEY (`id`),
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '执行时间',
+    PRIMARY KEY (`id`, `create_time`),
     KEY `idx_job_id` (`job_id`),
     KEY `idx_create_time` (`create_time`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='定时任务日志表';
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='定时任务日志表'
+PARTITION BY RANGE (TO_DAYS(`create_time`)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+-- -----------------------------------------------
+-- 统计汇总表（仪表盘、大屏读取；日志写入时累加，定时任务从原始日志校准）
+-- metric：log-操作次数，login-登录次数，operation-按操作类型（dim）的操作次数
+-- -----------------------------------------------
+DROP TABLE IF EXISTS `sys_stat_hourly`;
+CREATE TABLE `sys_stat_hourly` (
+    `metric` VARCHAR(20) NOT NULL COMMENT '统计项',
+    `dim` VARCHAR(50) NOT NULL DEFAULT '' COMMENT '维度值',
+    `stat_time` DATETIME NOT NULL COMMENT '统计小时（整点）',
+    `cnt` BIGINT NOT NULL DEFAULT 0 COMMENT '次数',
+    PRIMARY KEY (`metric`, `stat_time`, `dim`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='按小时统计汇总表';
+
+DROP TABLE IF EXISTS `sys_stat_daily`;
+CREATE TABLE `sys_stat_daily` (
+    `metric` VARCHAR(20) NOT NULL COMMENT '统计项',
+    `dim` VARCHAR(50) NOT NULL DEFAULT '' COMMENT '维度值',
+    `stat_date` DATE NOT NULL COMMENT '统计日期',
+    `cnt` BIGINT NOT NULL DEFAULT 0 COMMENT '次数',
+    PRIMARY KEY (`metric`, `stat_date`, `dim`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='按天统计汇总表';
 
 -- -----------------------------------------------
 -- 文件表
@@ -533,7 +575,11 @@ INSERT INTO `sys_post` (`post_code`, `post_name`, `sort`, `status`) VALUES
 INSERT INTO `sys_config` (`config_name`, `config_key`, `config_value`, `config_type`, `remark`) VALUES
 ('是否开启验证码', 'sys.account.captchaEnabled', 'true', 0, '是否开启登录验证码功能（true开启，false关闭）'),
 ('用户默认密码', 'sys.account.initPassword', '123456', 0, '新增用户时的默认密码'),
-('上传文件大小限制(MB)', 'sys.upload.maxSize', '50', 0, '上传文件的大小限制，单位MB');
+('上传文件大小限制(MB)', 'sys.upload.maxSize', '50', 0, '上传文件的大小限制，单位MB'),
+('登录IP限流(次)', 'sys.login.ipLimit', '30', 0, '单个IP在限流窗口内最多的登录请求数，0为不限制'),
+('登录网段限流(次)', 'sys.login.subnetLimit', '200', 0, '单个网段（IPv4 /24，IPv6 /64）在限流窗口内最多的登录请求数，0为不限制'),
+('登录限流窗口(秒)', 'sys.login.throttleWindow', '60', 0, '登录IP限流的滑动窗口长度，单位秒'),
+('操作日志记录策略', 'sys.audit.policy', '', 0, '覆盖@OperLog的记录级别(NONE/SUMMARY/PARAMS/FULL)、抽样率与长度上限，多条以分号分隔，如 SysUserController.export=SUMMARY;导入用户=PARAMS,sample:0.5,params:500,response:0');
 
 -- 初始化通知公告
 INSERT INTO `sys_notice` (`title`, `type`, `content`, `status`, `create_by`) VALUES
@@ -544,9 +590,11 @@ INSERT INTO `sys_notice` (`title`, `type`, `content`, `status`, `create_by`) VAL
 -- 初始化定时任务
 INSERT INTO `sys_job` (`job_name`, `job_group`, `cron_expression`, `bean_name`, `method_name`, `params`, `status`, `remark`) VALUES
 ('示例任务（无参）', 'DEFAULT', '0 0/30 * * * ?', 'demoTask', 'noParams', NULL, 0, '每30分钟执行一次的示例任务，默认暂停'),
-('清理登录日志', 'SYSTEM', '0 0 2 * * ?', 'systemTask', 'cleanLoginLog', NULL, 0, '每天凌晨2点清理30天前的登录日志，按需启用'),
-('清理任务日志', 'SYSTEM', '0 0 3 * * ?', 'systemTask', 'cleanJobLog', NULL, 0, '每天凌晨3点清理30天前的任务执行日志，按需启用'),
-('清理当天操作日志', 'SYSTEM', '0 0 23 * * ?', 'systemTask', 'cleanTodayOperLog', NULL, 0, '每天23点清理当天的操作日志，按需启用');
+('清理登录日志', 'SYSTEM', '0 0 2 * * ?', 'systemTask', 'cleanLoginLog', NULL, 0, '每天凌晨2点清理30天前的登录日志，表已分区时跳过，按需启用'),
+('清理任务日志', 'SYSTEM', '0 0 3 * * ?', 'systemTask', 'cleanJobLog', NULL, 0, '每天凌晨3点清理30天前的任务执行日志，表已分区时跳过，按需启用'),
+('清理当天操作日志', 'SYSTEM', '0 0 23 * * ?', 'systemTask', 'cleanTodayOperLog', NULL, 0, '每天23点清理当天的操作日志，按需启用'),
+('日志分区维护', 'SYSTEM', '0 30 1 * * ?', 'systemTask', 'archiveLogs', NULL, 1, '每天凌晨1点30分创建未来月份的日志分区，归档并删除超出保留期的分区'),
+('统计汇总校准', 'SYSTEM', '0 5 * * * ?', 'systemTask', 'reconcileStats', NULL, 1, '每小时从原始日志重新计算最近两天的仪表盘统计汇总');
 
 -- 初始化部门
 INSERT INTO `sys_dept` (`parent_id`, `name`, `sort`, `leader`, `status`) VALUES
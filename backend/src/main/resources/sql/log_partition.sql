@@ -0,0 +1,54 @@
+-- ============================================
+-- 增量SQL脚本 (在已有数据库上执行)
+-- 包含: 操作、登录、任务日志表按 create_time 分区，新增日志分区维护任务
+-- 分区表的主键必须包含分区列，主键改为 (id, create_time)
+-- 执行时会重建表，日志量大时建议先清理或在业务低峰执行
+-- 执行后由“日志分区维护”任务从最早的数据所在月份起拆分出按月分区
+-- ============================================
+
+-- 1. 操作日志表
+UPDATE `sys_log` SET `create_time` = NOW() WHERE `create_time` IS NULL;
+ALTER TABLE `sys_log`
+    MODIFY COLUMN `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (`id`, `create_time`);
+ALTER TABLE `sys_log` PARTITION BY RANGE (TO_DAYS(`create_time`)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+-- 2. 操作日志详情表
+UPDATE `sys_log_detail` d JOIN `sys_log` l ON l.`id` = d.`log_id`
+SET d.`create_time` = l.`create_time` WHERE d.`create_time` IS NULL;
+UPDATE `sys_log_detail` SET `create_time` = NOW() WHERE `create_time` IS NULL;
+ALTER TABLE `sys_log_detail`
+    MODIFY COLUMN `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (`log_id`, `create_time`);
+ALTER TABLE `sys_log_detail` PARTITION BY RANGE (TO_DAYS(`create_time`)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+-- 3. 登录日志表
+UPDATE `sys_login_log` SET `create_time` = NOW() WHERE `create_time` IS NULL;
+ALTER TABLE `sys_login_log`
+    MODIFY COLUMN `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '登录时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (`id`, `create_time`);
+ALTER TABLE `sys_login_log` PARTITION BY RANGE (TO_DAYS(`create_time`)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+-- 4. 定时任务日志表
+UPDATE `sys_job_log` SET `create_time` = NOW() WHERE `create_time` IS NULL;
+ALTER TABLE `sys_job_log`
+    MODIFY COLUMN `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '执行时间',
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (`id`, `create_time`);
+ALTER TABLE `sys_job_log` PARTITION BY RANGE (TO_DAYS(`create_time`)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+-- 5. 日志分区维护任务
+INSERT INTO `sys_job` (`job_name`, `job_group`, `cron_expression`, `bean_name`, `method_name`, `params`, `status`, `remark`)
+SELECT '日志分区维护', 'SYSTEM', '0 30 1 * * ?', 'systemTask', 'archiveLogs', NULL, 1, '每天凌晨1点30分创建未来月份的日志分区，归档并删除超出保留期的分区'
+FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `sys_job` WHERE `bean_name` = 'systemTask' AND `method_name` = 'archiveLogs');
@@ -0,0 +1,16 @@
+-- ============================================
+-- 增量SQL脚本 (在已有数据库上执行)
+-- 包含: 登录IP限流参数
+-- ============================================
+
+INSERT INTO `sys_config` (`config_name`, `config_key`, `config_value`, `config_type`, `remark`)
+SELECT '登录IP限流(次)', 'sys.login.ipLimit', '30', 0, '单个IP在限流窗口内最多的登录请求数，0为不限制'
+FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `sys_config` WHERE `config_key` = 'sys.login.ipLimit');
+
+INSERT INTO `sys_config` (`config_name`, `config_key`, `config_value`, `config_type`, `remark`)
+SELECT '登录网段限流(次)', 'sys.login.subnetLimit', '200', 0, '单个网段（IPv4 /24，IPv6 /64）在限流窗口内最多的登录请求数，0为不限制'
+FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `sys_config` WHERE `config_key` = 'sys.login.subnetLimit');
+
+INSERT INTO `sys_config` (`config_name`, `config_key`, `config_value`, `config_type`, `remark`)
+SELECT '登录限流窗口(秒)', 'sys.login.throttleWindow', '60', 0, '登录IP限流的滑动窗口长度，单位秒'
+FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `sys_config` WHERE `config_key` = 'sys.login.throttleWindow');
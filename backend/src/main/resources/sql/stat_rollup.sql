@@ -0,0 +1,52 @@
+-- ============================================
+-- 增量SQL脚本 (在已有数据库上执行)
+-- 包含: 仪表盘统计汇总表 sys_stat_hourly / sys_stat_daily，按已有日志回填近30天数据，新增统计汇总校准任务
+-- ============================================
+
+-- -----------------------------------------------
+-- 统计汇总表（仪表盘、大屏读取；日志写入时累加，定时任务从原始日志校准）
+-- metric：log-操作次数，login-登录次数，operation-按操作类型（dim）的操作次数
+-- -----------------------------------------------
+CREATE TABLE IF NOT EXISTS `sys_stat_hourly` (
+    `metric` VARCHAR(20) NOT NULL COMMENT '统计项',
+    `dim` VARCHAR(50) NOT NULL DEFAULT '' COMMENT '维度值',
+    `stat_time` DATETIME NOT NULL COMMENT '统计小时（整点）',
+    `cnt` BIGINT NOT NULL DEFAULT 0 COMMENT '次数',
+    PRIMARY KEY (`metric`, `stat_time`, `dim`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='按小时统计汇总表';
+
+CREATE TABLE IF NOT EXISTS `sys_stat_daily` (
+    `metric` VARCHAR(20) NOT NULL COMMENT '统计项',
+    `dim` VARCHAR(50) NOT NULL DEFAULT '' COMMENT '维度值',
+    `stat_date` DATE NOT NULL COMMENT '统计日期',
+    `cnt` BIGINT NOT NULL DEFAULT 0 COMMENT '次数',
+    PRIMARY KEY (`metric`, `stat_date`, `dim`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='按天统计汇总表';
+
+-- 回填近30天（可重复执行）
+DELETE FROM `sys_stat_hourly` WHERE `stat_time` >= DATE_SUB(CURDATE(), INTERVAL 30 DAY);
+DELETE FROM `sys_stat_daily` WHERE `stat_date` >= DATE_SUB(CURDATE(), INTERVAL 30 DAY);
+
+INSERT INTO `sys_stat_hourly` (`metric`, `dim`, `stat_time`, `cnt`)
+SELECT 'log', '', DATE_FORMAT(`create_time`, '%Y-%m-%d %H:00:00') AS h, COUNT(*)
+FROM `sys_log` WHERE `create_time` >= DATE_SUB(CURDATE(), INTERVAL 30 DAY) GROUP BY h;
+
+INSERT INTO `sys_stat_hourly` (`metric`, `dim`, `stat_time`, `cnt`)
+SELECT 'operation', IFNULL(`operation`, '') AS d, DATE_FORMAT(`create_time`, '%Y-%m-%d %H:00:00') AS h, COUNT(*)
+FROM `sys_log` WHERE `create_time` >= DATE_SUB(CURDATE(), INTERVAL 30 DAY) GROUP BY d, h;
+
+INSERT INTO `sys_stat_hourly` (`metric`, `dim`, `stat_time`, `cnt`)
+SELECT 'login', '', DATE_FORMAT(`create_time`, '%Y-%m-%d %H:00:00') AS h, COUNT(*)
+FROM `sys_login_log` WHERE `create_time` >= DATE_SUB(CURDATE(), INTERVAL 30 DAY) GROUP BY h;
+
+INSERT INTO `sys_stat_daily` (`metric`, `dim`, `stat_date`, `cnt`)
+SELECT `metric`, `dim`, DATE(`stat_time`) AS d, SUM(`cnt`)
+FROM `sys_stat_hourly` WHERE `stat_time` >= DATE_SUB(CURDATE(), INTERVAL 30 DAY) GROUP BY `metric`, `dim`, d;
+
+-- 小时计数只保留7天，回填后清理
+DELETE FROM `sys_stat_hourly` WHERE `stat_time` < DATE_SUB(CURDATE(), INTERVAL 7 DAY);
+
+-- 统计汇总校准任务
+INSERT INTO `sys_job` (`job_name`, `job_group`, `cron_expression`, `bean_name`, `method_name`, `params`, `status`, `remark`)
+SELECT '统计汇总校准', 'SYSTEM', '0 5 * * * ?', 'systemTask', 'reconcileStats', NULL, 1, '每小时从原始日志重新计算最近两天的仪表盘统计汇总'
+FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM `sys_job` WHERE `bean_name` = 'systemTask' AND `method_name` = 'reconcileStats');
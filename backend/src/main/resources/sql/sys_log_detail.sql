@@ -0,0 +1,36 @@
+-- ============================================
+-- 增量SQL脚本 (在已有数据库上执行)
+-- 包含: 操作日志拆分为窄表 sys_log + 压缩详情表 sys_log_detail
+-- 建议在业务低峰执行，日志量大时 ALTER TABLE 耗时较长
+-- ============================================
+
+-- 1. 创建操作日志详情表
+CREATE TABLE IF NOT EXISTS `sys_log_detail` (
+    `log_id` BIGINT NOT NULL COMMENT '日志ID',
+    `content` BLOB DEFAULT NULL COMMENT '压缩后的详情，可用 UNCOMPRESS(content) 查看',
+    `create_time` DATETIME DEFAULT NULL COMMENT '创建时间',
+    PRIMARY KEY (`log_id`),
+    KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='操作日志详情表';
+
+-- 2. sys_log 新增变更标记
+ALTER TABLE `sys_log` ADD COLUMN `changed` TINYINT DEFAULT 0 COMMENT '是否有变更前后数据：0-否，1-是' AFTER `status`;
+UPDATE `sys_log` SET `changed` = 1 WHERE `old_value` IS NOT NULL OR `new_value` IS NOT NULL;
+
+-- 3. 迁移已有详情，JSON 键名与应用写入的一致
+INSERT IGNORE INTO `sys_log_detail` (`log_id`, `content`, `create_time`)
+SELECT `id`,
+       COMPRESS(JSON_OBJECT('params', `params`, 'errorMsg', `error_msg`, 'responseBody', `response_body`,
+                            'oldValue', `old_value`, 'newValue', `new_value`)),
+       `create_time`
+FROM `sys_log`
+WHERE `params` IS NOT NULL OR `error_msg` IS NOT NULL OR `response_body` IS NOT NULL
+   OR `old_value` IS NOT NULL OR `new_value` IS NOT NULL;
+
+-- 4. 删除 sys_log 中已迁移的宽字段
+ALTER TABLE `sys_log`
+    DROP COLUMN `params`,
+    DROP COLUMN `error_msg`,
+    DROP COLUMN `response_body`,
+    DROP COLUMN `old_value`,
+    DROP COLUMN `new_value`;
@@ -0,0 +1,127 @@
+package com.demo.admin.benchmark;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.demo.admin.common.annotation.OperLog;
+import com.demo.admin.common.audit.AuditMetadata;
+import com.demo.admin.modules.system.entity.SysUser;
+import com.demo.admin.modules.system.mapper.SysUserMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 操作日志切面每次调用的反射开销：原逐次反射 vs 缓存的元数据
+ * <p>
+ * 覆盖修改操作的 id 读取、mapper 查找，以及注解和方法签名的获取。
+ * 运行：mvn test-compile 后直接执行 main 方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditMetadataBenchmark {
+
+    /** 模拟 Controller：mapper 字段排在其他依赖之后 */
+    public static class DemoController {
+        private String name = "demo";
+        private Object service = new Object();
+        private Object passwordEncoder = new Object();
+        private SysUserMapper userMapper;
+
+        @OperLog("修改用户")
+        public void update(SysUser user) {
+        }
+    }
+
+    private DemoController controller;
+    private SysUser user;
+    private Method method;
+
+    @Setup
+    public void setUp() throws Exception {
+        controller = new DemoController();
+        controller.userMapper = (SysUserMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{SysUserMapper.class}, (proxy, m, args) -> null);
+        user = new SysUser();
+        user.setId(1L);
+        method = DemoController.class.getMethod("update", SysUser.class);
+    }
+
+    @Benchmark
+    public void reflective(Blackhole bh) {
+        bh.consume(legacyExtractId(user));
+        bh.consume(legacyFindMapper(controller));
+        OperLog operLog = method.getAnnotation(OperLog.class);
+        bh.consume(operLog.value());
+        bh.consume(controller.getClass().getName() + "." + method.getName() + "()");
+    }
+
+    @Benchmark
+    public void cached(Blackhole bh) {
+        bh.consume(AuditMetadata.getId(user));
+        bh.consume(AuditMetadata.getMapper(controller));
+        AuditMetadata.HandlerMeta handler = AuditMetadata.getHandler(method, controller.getClass());
+        bh.consume(handler.getOperLog().value());
+        bh.consume(handler.getSignature());
+    }
+
+    private static Long legacyExtractId(Object entity) {
+        try {
+            Field idField = null;
+            Class<?> clazz = entity.getClass();
+            while (clazz != null) {
+                try {
+                    idField = clazz.getDeclaredField("id");
+                    break;
+                } catch (NoSuchFieldException e) {
+                    clazz = clazz.getSuperclass();
+                }
+            }
+            if (idField != null) {
+                idField.setAccessible(true);
+                Object val = idField.get(entity);
+                if (val != null) return Long.valueOf(val.toString());
+            }
+        } catch (Exception e) {
+            // ignore
+        }
+        return null;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static BaseMapper legacyFindMapper(Object target) {
+        Class<?> clazz = target.getClass();
+        if (clazz.getName().contains("$$")) {
+            clazz = clazz.getSuperclass();
+        }
+        for (Field field : clazz.getDeclaredFields()) {
+            field.setAccessible(true);
+            try {
+                Object val = field.get(target);
+                if (val instanceof BaseMapper) {
+                    return (BaseMapper) val;
+                }
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AuditMetadataBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
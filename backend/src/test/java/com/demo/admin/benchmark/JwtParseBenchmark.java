@@ -0,0 +1,85 @@
+package com.demo.admin.benchmark;
+
+import com.demo.admin.common.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 认证过滤器每请求的解析开销
+ * <p>
+ * legacy：原实现，每请求 getUsernameFromToken + validateToken 共三次解析验签，每次从字符串secret派生密钥；
+ * singleParse：预构建解析器，每请求一次验签；
+ * cached：JwtUtils.parseToken，同一token命中已验签缓存。
+ * <p>
+ * 运行：mvn test-compile 后直接执行 main 方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "demo-admin-secret-key-2024-very-long-secret";
+
+    private JwtUtils jwtUtils;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtils, "header", "Authorization");
+        ReflectionTestUtils.setField(jwtUtils, "prefix", "Bearer");
+        token = jwtUtils.generateToken("admin");
+        parser = Jwts.parser().setSigningKey(
+                new SecretKeySpec(TextCodec.BASE64.decode(SECRET), SignatureAlgorithm.HS512.getJcaName()));
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        String username = legacyClaims().getSubject();
+        String tokenUsername = legacyClaims().getSubject();
+        boolean expired = legacyClaims().getExpiration().before(new Date());
+        bh.consume(username);
+        bh.consume(tokenUsername.equals(username) && !expired);
+    }
+
+    @Benchmark
+    public Claims singleParse() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims cached() {
+        return jwtUtils.parseToken(token);
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtParseBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.demo.admin.benchmark;
+
+import com.demo.admin.security.service.PermissionSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 权限校验开销：原线性扫描 vs 编译后的权限集合
+ * <p>
+ * 运行：mvn test-compile 后直接执行 main 方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionBenchmark {
+
+    @Param({"50", "1000", "5000"})
+    private int permissionCount;
+
+    private List<String> permissions;
+    private PermissionSet permissionSet;
+    /** 命中最后一项（线性扫描最坏情况）与未命中 */
+    private String lastPermission;
+    private String missingPermission;
+
+    @Setup
+    public void setUp() {
+        permissions = new ArrayList<>(permissionCount);
+        for (int i = 0; i < permissionCount; i++) {
+            permissions.add("module" + (i / 10) + ":resource" + i + ":list");
+        }
+        // 使用新字符串实例，避免与列表元素同一引用
+        lastPermission = new String(permissions.get(permissionCount - 1));
+        missingPermission = "system:user:delete";
+        permissionSet = PermissionSet.of(permissions);
+    }
+
+    @Benchmark
+    public boolean linearHit() {
+        return linear(lastPermission);
+    }
+
+    @Benchmark
+    public boolean linearMiss() {
+        return linear(missingPermission);
+    }
+
+    @Benchmark
+    public boolean compiledHit() {
+        return permissionSet.has(lastPermission);
+    }
+
+    @Benchmark
+    public boolean compiledMiss() {
+        return permissionSet.has(missingPermission);
+    }
+
+    private boolean linear(String permission) {
+        for (String perm : permissions) {
+            if ("*:*:*".equals(perm) || perm.equals(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PermissionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,137 @@
+package com.demo.admin.common.archive;
+
+import com.demo.admin.modules.system.entity.SysLoginLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LogArchiveStore 单元测试")
+class LogArchiveStoreTest {
+
+    private static final String TABLE = "sys_login_log";
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    private LogArchiveStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LogArchiveStore();
+        ReflectionTestUtils.setField(store, "dir", dir.toString());
+    }
+
+    /**
+     * 每小时一条，偶数ID为 admin
+     */
+    private static List<SysLoginLog> logs(long fromId, int count) {
+        List<SysLoginLog> logs = new ArrayList<>();
+        for (long id = fromId; id < fromId + count; id++) {
+            SysLoginLog log = new SysLoginLog();
+            log.setId(id);
+            log.setUsername(id % 2 == 0 ? "admin" : "test");
+            log.setStatus(1);
+            log.setIp("127.0.0.1");
+            log.setCreateTime(BASE.plusHours(id));
+            logs.add(log);
+        }
+        return logs;
+    }
+
+    private void write(String segment, long fromId, int count, int batchSize) throws IOException {
+        try (LogArchiveStore.Writer<SysLoginLog> writer = store.open(TABLE, segment,
+                SysLoginLog::getId, SysLoginLog::getCreateTime)) {
+            List<SysLoginLog> rows = logs(fromId, count);
+            for (int i = 0; i < rows.size(); i += batchSize) {
+                writer.append(rows.subList(i, Math.min(i + batchSize, rows.size())));
+            }
+            writer.commit();
+        }
+    }
+
+    private LogArchiveStore.ArchivePage<SysLoginLog> search(LocalDateTime begin, LocalDateTime end,
+                                                            long offset, int limit) throws IOException {
+        return store.search(TABLE, SysLoginLog.class, begin, end, SysLoginLog::getCreateTime, null, offset, limit);
+    }
+
+    @Test
+    @DisplayName("写入后可查询，结果按时间从新到旧")
+    void testWriteAndSearch() throws IOException {
+        write("p202603", 1, 25, 10);
+
+        assertTrue(store.exists(TABLE, "p202603"));
+        assertEquals(BASE.plusHours(25), store.getArchivedUntil(TABLE));
+
+        LogArchiveStore.ArchivePage<SysLoginLog> page = search(BASE, null, 0, 5);
+        assertEquals(25, page.getTotal());
+        assertEquals(5, page.getRecords().size());
+        assertEquals(25L, page.getRecords().get(0).getId());
+        assertEquals(21L, page.getRecords().get(4).getId());
+        assertEquals("127.0.0.1", page.getRecords().get(0).getIp());
+
+        File[] files = new File(dir.toFile(), TABLE).listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            assertFalse(file.getName().endsWith(".tmp"));
+        }
+    }
+
+    @Test
+    @DisplayName("按时间范围和条件过滤，偏移量跨分段生效")
+    void testFilterAndOffset() throws IOException {
+        write("p202603", 1, 20, 8);
+        write("p202604", 21, 20, 8);
+
+        LogArchiveStore.ArchivePage<SysLoginLog> range = search(BASE.plusHours(10), BASE.plusHours(30), 0, 100);
+        assertEquals(21, range.getTotal());
+        assertEquals(30L, range.getRecords().get(0).getId());
+        assertEquals(10L, range.getRecords().get(20).getId());
+
+        LogArchiveStore.ArchivePage<SysLoginLog> admin = store.search(TABLE, SysLoginLog.class, BASE, null,
+                SysLoginLog::getCreateTime, log -> "admin".equals(log.getUsername()), 15, 10);
+        assertEquals(20, admin.getTotal());
+        assertEquals(5, admin.getRecords().size());
+        assertEquals(10L, admin.getRecords().get(0).getId());
+        assertEquals(2L, admin.getRecords().get(4).getId());
+    }
+
+    @Test
+    @DisplayName("按ID查找归档记录")
+    void testFindById() throws IOException {
+        write("p202603", 1, 30, 7);
+
+        SysLoginLog log = store.findById(TABLE, SysLoginLog.class, 17, SysLoginLog::getId);
+        assertNotNull(log);
+        assertEquals(BASE.plusHours(17), log.getCreateTime());
+        assertNull(store.findById(TABLE, SysLoginLog.class, 31, SysLoginLog::getId));
+    }
+
+    @Test
+    @DisplayName("未提交的分段不可见，新实例从磁盘加载索引")
+    void testUncommittedAndReload() throws IOException {
+        try (LogArchiveStore.Writer<SysLoginLog> writer = store.open(TABLE, "p202603",
+                SysLoginLog::getId, SysLoginLog::getCreateTime)) {
+            writer.append(logs(1, 5));
+        }
+        assertFalse(store.exists(TABLE, "p202603"));
+        assertNull(store.getArchivedUntil(TABLE));
+
+        write("p202603", 1, 5, 5);
+        LogArchiveStore reloaded = new LogArchiveStore();
+        ReflectionTestUtils.setField(reloaded, "dir", dir.toString());
+        assertEquals(5, reloaded.search(TABLE, SysLoginLog.class, BASE, null,
+                SysLoginLog::getCreateTime, null, 0, 10).getTotal());
+    }
+}
@@ -2,6 +2,7 @@ package com.demo.admin.common.aspect;
 
 import com.demo.admin.common.annotation.RateLimit;
 import com.demo.admin.common.exception.BusinessException;
+import com.demo.admin.common.ratelimit.RateLimitEngine;
 import com.demo.admin.common.utils.RedisUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.reflect.MethodSignature;
@@ -14,11 +15,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.lang.reflect.Method;
-import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -42,6 +43,9 @@ class RateLimitAspectTest {
 
     @BeforeEach
     void setUp() {
+        RateLimitEngine engine = new RateLimitEngine();
+        ReflectionTestUtils.setField(engine, "redisUtils", redisUtils);
+        ReflectionTestUtils.setField(rateLimitAspect, "rateLimitEngine", engine);
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.setRequestURI("/api/test/action");
         RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
@@ -0,0 +1,146 @@
+package com.demo.admin.common.audit;
+
+import com.demo.admin.modules.system.entity.SysUser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AuditDiff 单元测试")
+class AuditDiffTest {
+
+    public static class UserForm {
+        private Long id;
+        private String nickname;
+        private String email;
+        private Long status;
+        private String password;
+        private List<Long> roleIds;
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getNickname() {
+            return nickname;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public Long getStatus() {
+            return status;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public List<Long> getRoleIds() {
+            return roleIds;
+        }
+    }
+
+    private SysUser oldUser() {
+        SysUser user = new SysUser();
+        user.setId(1L);
+        user.setUsername("admin");
+        user.setNickname("管理员");
+        user.setEmail("admin@demo.com");
+        user.setStatus(1);
+        user.setPassword("$2a$10$hash");
+        return user;
+    }
+
+    @Test
+    @DisplayName("只记录有变化的字段")
+    void testChangedFieldsOnly() {
+        SysUser request = oldUser();
+        request.setNickname("超级管理员");
+
+        AuditDiff diff = AuditDiff.of(oldUser(), request);
+
+        assertEquals(1, diff.getOldValues().size());
+        assertEquals("管理员", diff.getOldValues().get("nickname"));
+        assertEquals("超级管理员", diff.getNewValues().get("nickname"));
+    }
+
+    @Test
+    @DisplayName("请求中为空的字段不参与比较，未变化时为空")
+    void testNullFieldsIgnored() {
+        SysUser request = new SysUser();
+        request.setId(1L);
+        request.setEmail("admin@demo.com");
+
+        AuditDiff diff = AuditDiff.of(oldUser(), request);
+
+        assertTrue(diff.isEmpty());
+    }
+
+    @Test
+    @DisplayName("数值按数值比较，Integer 与 Long 相等")
+    void testNumberComparison() {
+        UserForm form = new UserForm();
+        form.status = 1L;
+
+        assertTrue(AuditDiff.of(oldUser(), form).isEmpty());
+
+        form.status = 0L;
+        AuditDiff diff = AuditDiff.of(oldUser(), form);
+        assertEquals(1, diff.getOldValues().get("status"));
+        assertEquals(0L, diff.getNewValues().get("status"));
+    }
+
+    @Test
+    @DisplayName("密码只记录已变更，不记录内容")
+    void testPasswordMasked() {
+        UserForm form = new UserForm();
+        form.password = "123456";
+
+        AuditDiff diff = AuditDiff.of(oldUser(), form);
+
+        assertEquals("******", diff.getOldValues().get("password"));
+        assertEquals("******", diff.getNewValues().get("password"));
+    }
+
+    @Test
+    @DisplayName("实体上没有的属性只记录新值")
+    void testExtraPropertyNewOnly() {
+        UserForm form = new UserForm();
+        form.id = 1L;
+        form.roleIds = Arrays.asList(1L, 2L);
+
+        AuditDiff diff = AuditDiff.of(oldUser(), form);
+
+        assertFalse(diff.getOldValues().containsKey("roleIds"));
+        assertEquals(Arrays.asList(1L, 2L), diff.getNewValues().get("roleIds"));
+        assertFalse(diff.getNewValues().containsKey("id"));
+    }
+
+    @Test
+    @DisplayName("Map 参数 - 字符串形式的数值与实体数值相等")
+    void testMapRequest() {
+        Map<String, Object> request = new HashMap<>();
+        request.put("id", 1);
+        request.put("status", "1");
+        request.put("email", "new@demo.com");
+
+        AuditDiff diff = AuditDiff.of(oldUser(), request);
+
+        assertEquals(1, diff.getOldValues().size());
+        assertEquals("admin@demo.com", diff.getOldValues().get("email"));
+        assertEquals("new@demo.com", diff.getNewValues().get("email"));
+    }
+
+    @Test
+    @DisplayName("旧实体为空时无差异")
+    void testNoOldEntity() {
+        assertTrue(AuditDiff.of(null, oldUser()).isEmpty());
+    }
+}
@@ -0,0 +1,146 @@
+package com.demo.admin.common.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AuditJournal 单元测试")
+class AuditJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<AuditJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(AuditJournal::close);
+    }
+
+    private AuditJournal open(int segmentSize, int maxSegments) {
+        AuditJournal journal = new AuditJournal();
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "dir", dir.toString());
+        ReflectionTestUtils.setField(journal, "segmentSize", segmentSize);
+        ReflectionTestUtils.setField(journal, "maxSegments", maxSegments);
+        journal.open();
+        opened.add(journal);
+        return journal;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(AuditJournal.Batch batch) {
+        List<String> values = new ArrayList<>();
+        for (byte[] record : batch.getRecords()) {
+            values.add(new String(record, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    @Test
+    @DisplayName("追加后按顺序读取，确认前重复读取同一批")
+    void testAppendAndRead() {
+        AuditJournal journal = open(1024, 4);
+        assertTrue(journal.append(bytes("a")));
+        assertTrue(journal.append(bytes("b")));
+        assertTrue(journal.append(bytes("c")));
+
+        AuditJournal.Batch batch = journal.read(2);
+        assertEquals(Arrays.asList("a", "b"), strings(batch));
+        assertEquals(Arrays.asList("a", "b"), strings(journal.read(2)));
+
+        journal.confirm(batch);
+        assertEquals(1, journal.pending());
+        assertEquals(Collections.singletonList("c"), strings(journal.read(10)));
+    }
+
+    @Test
+    @DisplayName("跨分段读取，确认后删除旧分段")
+    void testSegmentRoll() {
+        AuditJournal journal = open(64, 8);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(journal.append(bytes("record-" + i)));
+        }
+        assertTrue(journal.segmentCount() > 1);
+
+        AuditJournal.Batch batch = journal.read(100);
+        assertEquals(10, batch.getRecords().size());
+        assertEquals("record-9", strings(batch).get(9));
+
+        journal.confirm(batch);
+        assertEquals(1, journal.segmentCount());
+        assertEquals(0, journal.pending());
+        // 已解除映射并删除的分段不再刷盘
+        assertEquals(1, dir.toFile().listFiles((d, name) -> name.endsWith(".seg")).length);
+        journal.force();
+        assertTrue(journal.append(bytes("record-10")));
+        assertEquals(Collections.singletonList("record-10"), strings(journal.read(10)));
+    }
+
+    @Test
+    @DisplayName("分段数已满时追加失败")
+    void testFull() {
+        AuditJournal journal = open(32, 2);
+        int appended = 0;
+        while (journal.append(bytes("0123456789")) && appended < 100) {
+            appended++;
+        }
+        assertEquals(2, appended);
+        assertFalse(journal.append(new byte[64]));
+    }
+
+    @Test
+    @DisplayName("重启后从检查点恢复未确认的记录")
+    void testRecover() {
+        AuditJournal journal = open(64, 8);
+        for (int i = 0; i < 6; i++) {
+            journal.append(bytes("r" + i));
+        }
+        journal.confirm(journal.read(2));
+        journal.close();
+
+        AuditJournal reopened = open(64, 8);
+        assertEquals(4, reopened.pending());
+        assertEquals(Arrays.asList("r2", "r3", "r4", "r5"), strings(reopened.read(10)));
+
+        reopened.append(bytes("r6"));
+        assertEquals("r6", strings(reopened.read(10)).get(4));
+    }
+
+    @Test
+    @DisplayName("尾部残缺记录在恢复时丢弃")
+    void testTornTail() throws Exception {
+        AuditJournal journal = open(1024, 4);
+        journal.append(bytes("ok"));
+        journal.append(bytes("torn"));
+        journal.close();
+
+        // 破坏第二条记录的内容，模拟写入中途崩溃
+        File segment = dir.resolve(String.format("%020d.seg", 0)).toFile();
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(8 + 2 + 8);
+            file.write(bytes("xx"));
+        }
+
+        AuditJournal reopened = open(1024, 4);
+        assertEquals(1, reopened.pending());
+        reopened.append(bytes("next"));
+        assertEquals(Arrays.asList("ok", "next"), strings(reopened.read(10)));
+    }
+}
@@ -0,0 +1,191 @@
+package com.demo.admin.common.audit;
+
+import com.demo.admin.modules.system.entity.SysLog;
+import com.demo.admin.modules.system.service.LiveStatsService;
+import com.demo.admin.modules.system.service.StatRollupService;
+import com.demo.admin.modules.system.service.SysLogService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditLogWriter 单元测试")
+class AuditLogWriterTest {
+
+    @InjectMocks
+    private AuditLogWriter writer;
+
+    @Mock
+    private SysLogService logService;
+
+    @Mock
+    private StatRollupService rollupService;
+
+    @Mock
+    private LiveStatsService liveStatsService;
+
+    @TempDir
+    Path journalDir;
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    private void start(String policy, int capacity) {
+        ReflectionTestUtils.setField(writer, "overflowPolicy", policy);
+        ReflectionTestUtils.setField(writer, "queueCapacity", capacity);
+        ReflectionTestUtils.setField(writer, "batchSize", 100);
+        // 写入线程长时间等待，由测试控制写入时机
+        ReflectionTestUtils.setField(writer, "flushInterval", 60000L);
+        ReflectionTestUtils.setField(writer, "blockTimeout", 10L);
+        writer.start();
+    }
+
+    private SysLog sysLog(String operation) {
+        SysLog sysLog = new SysLog();
+        sysLog.setOperation(operation);
+        return sysLog;
+    }
+
+    @Test
+    @DisplayName("入队后批量写入，并补全创建时间")
+    @SuppressWarnings("unchecked")
+    void testBatchWrite() {
+        start("BLOCK", 10);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(writer.submit(sysLog("op" + i)));
+        }
+
+        assertEquals(3, writer.drain(100));
+
+        ArgumentCaptor<List<SysLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(logService).saveBatch(captor.capture(), anyInt());
+        assertEquals(3, captor.getValue().size());
+        assertNotNull(captor.getValue().get(0).getCreateTime());
+    }
+
+    @Test
+    @DisplayName("BLOCK - 唤醒写入线程等待腾出空间，写入线程繁忙超时后丢弃")
+    void testBlockPolicy() {
+        CountDownLatch dbBusy = new CountDownLatch(1);
+        when(logService.saveBatch(anyList(), anyInt())).thenAnswer(inv -> dbBusy.await(5, TimeUnit.SECONDS));
+        start("BLOCK", 2);
+        ReflectionTestUtils.setField(writer, "blockTimeout", 200L);
+        assertTrue(writer.submit(sysLog("a")));
+        assertTrue(writer.submit(sysLog("b")));
+
+        // 队列已满，写入线程被唤醒取走 a、b 后腾出空间
+        assertTrue(writer.submit(sysLog("c")));
+        assertTrue(writer.submit(sysLog("d")));
+        // 写入线程仍在写库，等待超时
+        assertFalse(writer.submit(sysLog("e")));
+        dbBusy.countDown();
+
+        Map<String, Object> metrics = writer.getMetrics();
+        assertEquals(1L, metrics.get("dropped"));
+        assertEquals(2L, metrics.get("blocked"));
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST - 丢弃最早的日志")
+    @SuppressWarnings("unchecked")
+    void testDropOldest() {
+        start("drop-oldest", 2);
+        writer.submit(sysLog("a"));
+        writer.submit(sysLog("b"));
+        writer.submit(sysLog("c"));
+
+        writer.drain(100);
+
+        ArgumentCaptor<List<SysLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(logService).saveBatch(captor.capture(), anyInt());
+        assertEquals("b", captor.getValue().get(0).getOperation());
+        assertEquals("c", captor.getValue().get(1).getOperation());
+        assertEquals(1L, writer.getMetrics().get("dropped"));
+        // 只统计实际写入的日志
+        verify(liveStatsService).recordOperations(captor.getValue());
+        verify(liveStatsService, never()).recordOperation(any());
+    }
+
+    @Test
+    @DisplayName("SAMPLE - 队列接近满时抽样保留")
+    void testSample() {
+        start("SAMPLE", 8);
+        for (int i = 0; i < 6; i++) {
+            assertTrue(writer.submit(sysLog("op" + i)));
+        }
+        int accepted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (writer.submit(sysLog("extra" + i))) {
+                accepted++;
+            }
+        }
+
+        assertEquals(2, accepted);
+        assertEquals(18L, writer.getMetrics().get("sampledOut"));
+    }
+
+    @Test
+    @DisplayName("关闭时写完剩余日志，关闭后直接写入")
+    void testFlushOnStop() {
+        start("BLOCK", 10);
+        writer.submit(sysLog("a"));
+        writer.submit(sysLog("b"));
+
+        writer.stop();
+        verify(logService).saveBatch(argThat(list -> list.size() == 2), anyInt());
+
+        writer.submit(sysLog("c"));
+        verify(logService).saveBatch(argThat(list -> list.size() == 1), anyInt());
+        assertEquals(0, writer.getMetrics().get("queueDepth"));
+    }
+
+    @Test
+    @DisplayName("journal - 写库失败时保留记录，恢复后回放")
+    @SuppressWarnings("unchecked")
+    void testJournalReplay() {
+        AuditJournal journal = new AuditJournal();
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "dir", journalDir.toString());
+        journal.open();
+        ReflectionTestUtils.setField(writer, "journal", journal);
+        start("BLOCK", 10);
+        when(logService.saveBatch(anyList(), anyInt()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(true);
+
+        writer.submit(sysLog("a"));
+        writer.submit(sysLog("b"));
+        assertEquals(0, writer.getMetrics().get("queueDepth"));
+        assertEquals(2L, journal.pending());
+
+        assertEquals(-1, writer.replay(100));
+        assertEquals(2L, journal.pending());
+        assertEquals(2, writer.replay(100));
+        assertEquals(0L, journal.pending());
+
+        ArgumentCaptor<List<SysLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(logService, times(2)).saveBatch(captor.capture(), anyInt());
+        assertEquals("a", captor.getValue().get(0).getOperation());
+        assertNotNull(captor.getValue().get(0).getCreateTime());
+        journal.close();
+    }
+}
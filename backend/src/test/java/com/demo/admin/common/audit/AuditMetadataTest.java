@@ -0,0 +1,96 @@
+package com.demo.admin.common.audit;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.demo.admin.common.annotation.OperLog;
+import com.demo.admin.modules.system.entity.SysUser;
+import com.demo.admin.modules.system.mapper.SysUserMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("AuditMetadata 单元测试")
+class AuditMetadataTest {
+
+    static class FieldOnly {
+        private final Integer id;
+
+        FieldOnly(Integer id) {
+            this.id = id;
+        }
+    }
+
+    static class Child extends FieldOnly {
+        Child(Integer id) {
+            super(id);
+        }
+    }
+
+    static class NoId {
+        private String name;
+    }
+
+    static class DemoController {
+        private String name = "demo";
+        private final SysUserMapper userMapper;
+
+        DemoController(SysUserMapper userMapper) {
+            this.userMapper = userMapper;
+        }
+
+        @OperLog("修改用户")
+        public void update() {
+        }
+    }
+
+    @Test
+    @DisplayName("id - 通过 getter 读取")
+    void testIdByGetter() {
+        SysUser user = new SysUser();
+        user.setId(42L);
+
+        assertEquals(42L, AuditMetadata.getId(user));
+    }
+
+    @Test
+    @DisplayName("id - 无 getter 时读取字段，支持父类字段")
+    void testIdByField() {
+        assertEquals(7L, AuditMetadata.getId(new FieldOnly(7)));
+        assertEquals(8L, AuditMetadata.getId(new Child(8)));
+    }
+
+    @Test
+    @DisplayName("id - Map 取 id 键，无 id 返回 null")
+    void testIdMapAndMissing() {
+        assertEquals(3L, AuditMetadata.getId(Collections.singletonMap("id", "3")));
+        assertNull(AuditMetadata.getId(new NoId()));
+        assertNull(AuditMetadata.getId(new FieldOnly(null)));
+        assertNull(AuditMetadata.getId(null));
+    }
+
+    @Test
+    @DisplayName("mapper - 查找 Controller 中的 BaseMapper 字段")
+    @SuppressWarnings("rawtypes")
+    void testMapper() {
+        SysUserMapper mapper = mock(SysUserMapper.class);
+
+        BaseMapper found = AuditMetadata.getMapper(new DemoController(mapper));
+
+        assertSame(mapper, found);
+        assertNull(AuditMetadata.getMapper(new NoId()));
+    }
+
+    @Test
+    @DisplayName("处理方法 - 缓存注解与方法签名")
+    void testHandler() throws Exception {
+        AuditMetadata.HandlerMeta meta = AuditMetadata.getHandler(
+                DemoController.class.getMethod("update"), DemoController.class);
+
+        assertEquals("修改用户", meta.getOperLog().value());
+        assertEquals(DemoController.class.getName() + ".update()", meta.getSignature());
+        assertSame(meta, AuditMetadata.getHandler(DemoController.class.getMethod("update"), DemoController.class));
+    }
+}
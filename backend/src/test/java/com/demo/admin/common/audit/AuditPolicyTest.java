@@ -0,0 +1,117 @@
+package com.demo.admin.common.audit;
+
+import com.demo.admin.common.annotation.OperLog;
+import com.demo.admin.modules.system.service.SysConfigService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditPolicy 单元测试")
+class AuditPolicyTest {
+
+    @Mock
+    private SysConfigService configService;
+
+    @InjectMocks
+    private AuditPolicy auditPolicy;
+
+    static class DemoController {
+
+        @OperLog("修改用户")
+        public void update() {
+        }
+
+        @OperLog(value = "导出用户列表", level = OperLog.Level.PARAMS, maxResponse = 0)
+        public void export() {
+        }
+
+        @OperLog(value = "导入用户", sampleRate = 0.5, maxParams = 100)
+        public void importUsers() {
+        }
+    }
+
+    private AuditMetadata.HandlerMeta handler(String name) throws NoSuchMethodException {
+        return AuditMetadata.getHandler(DemoController.class.getMethod(name), DemoController.class);
+    }
+
+    @Test
+    @DisplayName("未配置覆盖时使用注解上的规则")
+    void testAnnotationDefaults() throws Exception {
+        when(configService.getConfigByKey(AuditPolicy.CONFIG_KEY)).thenReturn(null);
+        auditPolicy.reload();
+
+        AuditPolicy.Rule update = auditPolicy.resolve(handler("update"));
+        assertEquals(OperLog.Level.FULL, update.getLevel());
+        assertEquals(1.0, update.getSampleRate());
+        assertEquals(2000, update.getMaxParams());
+
+        AuditPolicy.Rule export = auditPolicy.resolve(handler("export"));
+        assertTrue(export.includes(OperLog.Level.PARAMS));
+        assertFalse(export.includes(OperLog.Level.FULL));
+        assertEquals(0, export.getMaxResponse());
+
+        AuditPolicy.Rule importUsers = auditPolicy.resolve(handler("importUsers"));
+        assertEquals(0.5, importUsers.getSampleRate());
+        assertEquals(100, importUsers.getMaxParams());
+    }
+
+    @Test
+    @DisplayName("按类名.方法名覆盖，未写的项沿用注解")
+    void testOverrideByName() throws Exception {
+        when(configService.getConfigByKey(AuditPolicy.CONFIG_KEY))
+                .thenReturn("DemoController.importUsers=summary,sample:0.1");
+        auditPolicy.reload();
+
+        AuditPolicy.Rule rule = auditPolicy.resolve(handler("importUsers"));
+        assertEquals(OperLog.Level.SUMMARY, rule.getLevel());
+        assertEquals(0.1, rule.getSampleRate());
+        assertEquals(100, rule.getMaxParams());
+        assertEquals(OperLog.Level.FULL, auditPolicy.resolve(handler("update")).getLevel());
+    }
+
+    @Test
+    @DisplayName("按操作描述覆盖，通配规则作用于其余方法")
+    void testOverrideByOperationAndWildcard() throws Exception {
+        when(configService.getConfigByKey(AuditPolicy.CONFIG_KEY))
+                .thenReturn("导出用户列表=NONE; *=params:50,response:9999");
+        auditPolicy.reload();
+
+        assertEquals(OperLog.Level.NONE, auditPolicy.resolve(handler("export")).getLevel());
+        AuditPolicy.Rule update = auditPolicy.resolve(handler("update"));
+        assertEquals(50, update.getMaxParams());
+        // 响应长度不超过列宽
+        assertEquals(AuditResponseFilter.MAX_RESPONSE_CHARS, update.getMaxResponse());
+    }
+
+    @Test
+    @DisplayName("配置变更后重新解析，无效规则被忽略")
+    void testReloadAndInvalidEntries() throws Exception {
+        when(configService.getConfigByKey(AuditPolicy.CONFIG_KEY))
+                .thenReturn("DemoController.update=SUMMARY")
+                .thenReturn("DemoController.update=VERBOSE;DemoController.export=foo:1");
+        auditPolicy.reload();
+        assertEquals(OperLog.Level.SUMMARY, auditPolicy.resolve(handler("update")).getLevel());
+
+        auditPolicy.reload();
+        assertEquals(OperLog.Level.FULL, auditPolicy.resolve(handler("update")).getLevel());
+        assertEquals(OperLog.Level.PARAMS, auditPolicy.resolve(handler("export")).getLevel());
+    }
+
+    @Test
+    @DisplayName("抽样率为0时成功调用不记录")
+    void testSampling() {
+        AuditPolicy.Rule never = new AuditPolicy.Rule(OperLog.Level.FULL, 0, 2000, 2000);
+        AuditPolicy.Rule always = new AuditPolicy.Rule(OperLog.Level.FULL, 1, 2000, 2000);
+        for (int i = 0; i < 100; i++) {
+            assertFalse(never.sample());
+            assertTrue(always.sample());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.demo.admin.common.audit;
+
+import com.demo.admin.common.result.R;
+import com.demo.admin.modules.system.entity.SysLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditResponseFilter 单元测试")
+class AuditResponseFilterTest {
+
+    @InjectMocks
+    private AuditResponseFilter filter;
+
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AuditResponseBodyAdvice advice = new AuditResponseBodyAdvice();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private SysLog runRequest(MediaType contentType, byte[] written, Object body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/system/user");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        SysLog sysLog = new SysLog();
+        FilterChain chain = (req, res) -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((HttpServletRequest) req));
+            // 切面挂起日志
+            assertTrue(AuditResponseCapture.defer(sysLog, body, AuditResponseFilter.MAX_RESPONSE_CHARS));
+            // 消息转换器写出响应体
+            advice.beforeBodyWrite(body, null, contentType, null,
+                    new ServletServerHttpRequest((HttpServletRequest) req), null);
+            res.getOutputStream().write(written);
+        };
+
+        filter.doFilter(request, response, chain);
+
+        assertArrayEquals(written, response.getContentAsByteArray());
+        ArgumentCaptor<SysLog> captor = ArgumentCaptor.forClass(SysLog.class);
+        verify(auditLogWriter).submit(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("JSON 响应 - 直接复用写出的字节，不再序列化返回值")
+    void testCaptureJson() throws Exception {
+        byte[] written = "{\"code\":200,\"msg\":\"操作成功\"}".getBytes(StandardCharsets.UTF_8);
+
+        SysLog sysLog = runRequest(MediaType.APPLICATION_JSON, written, R.ok());
+
+        assertEquals("{\"code\":200,\"msg\":\"操作成功\"}", sysLog.getResponseBody());
+        verify(objectMapper, never()).writeValue(any(Writer.class), any());
+    }
+
+    @Test
+    @DisplayName("JSON 响应 - 只保留前2000个字符")
+    void testCaptureTruncated() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            json.append(i).append(',');
+        }
+        json.append("0]");
+
+        SysLog sysLog = runRequest(MediaType.APPLICATION_JSON, json.toString().getBytes(StandardCharsets.UTF_8), R.ok());
+
+        assertEquals(AuditResponseFilter.MAX_RESPONSE_CHARS, sysLog.getResponseBody().length());
+    }
+
+    @Test
+    @DisplayName("非 JSON 响应 - 不记录字节，退回限长序列化返回值")
+    void testBinaryFallback() throws Exception {
+        SysLog sysLog = runRequest(MediaType.APPLICATION_OCTET_STREAM, new byte[]{1, 2, 3}, "ok");
+
+        assertEquals("\"ok\"", sysLog.getResponseBody());
+    }
+
+    @Test
+    @DisplayName("未挂起日志的请求不提交")
+    void testNoPendingLog() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest(), response, (req, res) -> res.getOutputStream().write(1));
+
+        verifyNoInteractions(auditLogWriter);
+        assertEquals(1, response.getContentAsByteArray().length);
+    }
+}
@@ -0,0 +1,62 @@
+package com.demo.admin.common.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BoundedJsonSerializer 单元测试")
+class BoundedJsonSerializerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("未超长时输出完整 JSON")
+    void testWithinLimit() throws Exception {
+        assertEquals("{\"a\":1}", BoundedJsonSerializer.toJson(mapper, Collections.singletonMap("a", 1), 100));
+        assertNull(BoundedJsonSerializer.toJson(mapper, null, 100));
+    }
+
+    @Test
+    @DisplayName("超长时截断并提前停止序列化")
+    void testStopsAtLimit() throws Exception {
+        AtomicInteger visited = new AtomicInteger();
+        // 一百万个元素的列表，完整序列化约 12MB
+        AbstractList<String> huge = new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                visited.incrementAndGet();
+                return "element-" + index;
+            }
+
+            @Override
+            public int size() {
+                return 1_000_000;
+            }
+        };
+
+        String json = BoundedJsonSerializer.toJson(mapper, huge, 2000);
+
+        assertEquals(2000, json.length());
+        assertTrue(json.startsWith("[\"element-0\",\"element-1\""));
+        assertTrue(visited.get() < 2000, "visited " + visited.get());
+    }
+
+    @Test
+    @DisplayName("解码截获字节 - 截断的多字节字符被去掉")
+    void testDecode() {
+        byte[] bytes = "{\"name\":\"管理员\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("{\"name\":\"管理员\"}", BoundedJsonSerializer.decode(bytes, bytes.length, 100));
+        // 截在“员”字的第二个字节
+        assertEquals("{\"name\":\"管理", BoundedJsonSerializer.decode(bytes, 16, 100));
+        assertEquals("{\"name\"", BoundedJsonSerializer.decode(bytes, bytes.length, 7));
+        assertNull(BoundedJsonSerializer.decode(bytes, 0, 100));
+    }
+}
@@ -0,0 +1,112 @@
+package com.demo.admin.common.audit;
+
+import com.demo.admin.modules.system.entity.SysLoginLog;
+import com.demo.admin.modules.system.mapper.SysLoginLogMapper;
+import com.demo.admin.modules.system.service.LiveStatsService;
+import com.demo.admin.modules.system.service.StatRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoginLogWriter 单元测试")
+class LoginLogWriterTest {
+
+    @InjectMocks
+    private LoginLogWriter writer;
+
+    @Mock
+    private SysLoginLogMapper loginLogMapper;
+
+    @Mock
+    private StatRollupService rollupService;
+
+    @Mock
+    private LiveStatsService liveStatsService;
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    private void start(int capacity, long flushInterval) {
+        ReflectionTestUtils.setField(writer, "queueCapacity", capacity);
+        ReflectionTestUtils.setField(writer, "batchSize", 100);
+        ReflectionTestUtils.setField(writer, "flushInterval", flushInterval);
+        writer.start();
+    }
+
+    private SysLoginLog loginLog(String username) {
+        SysLoginLog loginLog = new SysLoginLog();
+        loginLog.setUsername(username);
+        loginLog.setStatus(1);
+        return loginLog;
+    }
+
+    @Test
+    @DisplayName("写入线程按批多行插入，并补全登录时间")
+    @SuppressWarnings("unchecked")
+    void testBatchWrite() {
+        start(100, 50);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(writer.submit(loginLog("user" + i)));
+        }
+
+        ArgumentCaptor<List<SysLoginLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(loginLogMapper, timeout(2000).atLeastOnce()).batchInsert(captor.capture());
+        int total = captor.getAllValues().stream().mapToInt(List::size).sum();
+        assertEquals(5, total);
+        assertNotNull(captor.getAllValues().get(0).get(0).getCreateTime());
+    }
+
+    @Test
+    @DisplayName("队列满时丢弃新日志，不阻塞调用方")
+    void testDropWhenFull() {
+        // 不启动写入线程，队列只进不出
+        ReflectionTestUtils.setField(writer, "queue", new ArrayBlockingQueue<SysLoginLog>(2));
+        ReflectionTestUtils.setField(writer, "running", true);
+
+        assertTrue(writer.submit(loginLog("a")));
+        assertTrue(writer.submit(loginLog("b")));
+        assertFalse(writer.submit(loginLog("c")));
+
+        Map<String, Object> metrics = writer.getMetrics();
+        assertEquals(2, metrics.get("queueDepth"));
+        assertEquals(1L, metrics.get("dropped"));
+        verify(loginLogMapper, never()).batchInsert(anyList());
+        verify(liveStatsService, never()).recordLogins(anyList());
+        verify(liveStatsService, never()).recordLogin(any());
+    }
+
+    @Test
+    @DisplayName("关闭时写完剩余日志，关闭后直接写入")
+    @SuppressWarnings("unchecked")
+    void testFlushOnStop() {
+        start(100, 60000);
+        writer.submit(loginLog("a"));
+        writer.submit(loginLog("b"));
+
+        writer.stop();
+
+        ArgumentCaptor<List<SysLoginLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(loginLogMapper, atLeastOnce()).batchInsert(captor.capture());
+        assertEquals(2, captor.getAllValues().stream().mapToInt(List::size).sum());
+
+        writer.submit(loginLog("c"));
+        verify(loginLogMapper, times(captor.getAllValues().size() + 1)).batchInsert(anyList());
+    }
+}
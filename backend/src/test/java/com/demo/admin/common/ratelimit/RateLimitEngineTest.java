@@ -0,0 +1,146 @@
+package com.demo.admin.common.ratelimit;
+
+import com.demo.admin.common.annotation.RateLimit;
+import com.demo.admin.common.utils.RedisUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateLimitEngine 单元测试")
+class RateLimitEngineTest {
+
+    @InjectMocks
+    private RateLimitEngine engine;
+
+    @Mock
+    private RedisUtils redisUtils;
+
+    @RateLimit(count = 100, time = 60, algorithm = RateLimit.Algorithm.TOKEN_BUCKET, lease = 20)
+    public void tokenBucket() {}
+
+    @RateLimit(count = 100, time = 60, lease = 40)
+    public void leasedFixedWindow() {}
+
+    @RateLimit(count = 100, time = 60)
+    public void defaultFixedWindow() {}
+
+    @RateLimit(count = 5, time = 60)
+    public void exactFixedWindow() {}
+
+    @RateLimit(count = 100, time = 60, algorithm = RateLimit.Algorithm.SLIDING_LOG, lease = 20)
+    public void slidingLog() {}
+
+    private RateLimit rule(String name) throws NoSuchMethodException {
+        return getClass().getMethod(name).getAnnotation(RateLimit.class);
+    }
+
+    @Test
+    @DisplayName("租借量 - 默认取次数的1/10，限流次数较小时逐次访问Redis，滑动日志不预取")
+    void testLeaseSize() throws Exception {
+        assertEquals(10, engine.leaseSize(rule("defaultFixedWindow")));
+        assertEquals(1, engine.leaseSize(rule("exactFixedWindow")));
+        assertEquals(20, engine.leaseSize(rule("tokenBucket")));
+        assertEquals(1, engine.leaseSize(rule("slidingLog")));
+    }
+
+    @Test
+    @DisplayName("令牌桶 - 一次租借内只访问一次Redis")
+    @SuppressWarnings("unchecked")
+    void testTokenBucketLease() throws Exception {
+        RateLimit rule = rule("tokenBucket");
+        when(redisUtils.executeLuaScript(any(DefaultRedisScript.class), anyList(), any(), any(), any(), any()))
+                .thenReturn(20L);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(engine.tryAcquire("k", rule));
+        }
+
+        verify(redisUtils, times(1)).executeLuaScript(any(DefaultRedisScript.class), anyList(),
+                any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("令牌桶 - Redis中令牌耗尽后拒绝")
+    @SuppressWarnings("unchecked")
+    void testTokenBucketExhausted() throws Exception {
+        RateLimit rule = rule("tokenBucket");
+        AtomicLong tokens = new AtomicLong(30);
+        AtomicLong calls = new AtomicLong();
+        when(redisUtils.executeLuaScript(any(DefaultRedisScript.class), anyList(), any(), any(), any(), any()))
+                .thenAnswer(inv -> {
+                    calls.incrementAndGet();
+                    long want = ((Number) inv.getArgument(5)).longValue();
+                    long granted = Math.min(want, tokens.get());
+                    tokens.addAndGet(-granted);
+                    return granted;
+                });
+
+        int allowed = 0;
+        for (int i = 0; i < 50; i++) {
+            if (engine.tryAcquire("k", rule)) {
+                allowed++;
+            }
+        }
+
+        assertEquals(30, allowed);
+        // 耗尽后不再每次访问Redis，被拒绝的20次调用在本地完成
+        assertTrue(calls.get() < 10, "Redis调用次数: " + calls.get());
+    }
+
+    @Test
+    @DisplayName("固定窗口预取 - 只放行窗口内剩余的名额")
+    @SuppressWarnings("unchecked")
+    void testFixedWindowLease() throws Exception {
+        RateLimit rule = rule("leasedFixedWindow");
+        // 其他节点已占用 90 个名额，本次占用 40 个后计数为 130，实际只得到 10 个
+        when(redisUtils.executeLuaScript(any(DefaultRedisScript.class), anyList(), any(), any()))
+                .thenReturn(130L);
+
+        int allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (engine.tryAcquire("k", rule)) {
+                allowed++;
+            }
+        }
+
+        assertEquals(10, allowed);
+        // 窗口名额已分完，窗口结束前不再访问Redis
+        verify(redisUtils, times(1)).executeLuaScript(any(DefaultRedisScript.class), anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("固定窗口 - 次数较小时逐次计数")
+    @SuppressWarnings("unchecked")
+    void testExactFixedWindow() throws Exception {
+        RateLimit rule = rule("exactFixedWindow");
+        when(redisUtils.executeLuaScript(any(DefaultRedisScript.class), anyList(), any()))
+                .thenReturn(5L, 6L);
+
+        assertTrue(engine.tryAcquire("k", rule));
+        assertFalse(engine.tryAcquire("k", rule));
+        assertEquals(0, engine.leaseCount());
+    }
+
+    @Test
+    @DisplayName("滑动日志 - 由Redis判定")
+    @SuppressWarnings("unchecked")
+    void testSlidingLog() throws Exception {
+        RateLimit rule = rule("slidingLog");
+        when(redisUtils.executeLuaScript(any(DefaultRedisScript.class), anyList(), any(), any(), any(), any()))
+                .thenReturn(1L, 0L);
+
+        assertTrue(engine.tryAcquire("k", rule));
+        assertFalse(engine.tryAcquire("k", rule));
+    }
+}
@@ -0,0 +1,91 @@
+package com.demo.admin.common.redis;
+
+import com.demo.admin.security.service.LoginUser;
+import com.demo.admin.security.service.LoginUserCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CompactRedisSerializer 单元测试")
+class CompactRedisSerializerTest {
+
+    private CompactRedisSerializer serializer;
+    private GenericJackson2JsonRedisSerializer json;
+
+    @BeforeEach
+    void setUp() {
+        json = new GenericJackson2JsonRedisSerializer();
+        serializer = new CompactRedisSerializer(json,
+                Collections.singletonList(new LoginUserCodec()), 1024);
+    }
+
+    private LoginUser buildUser(List<String> permissions) {
+        LoginUser user = new LoginUser(1L, 100L, "admin", "$2a$10$hash", "管理员",
+                "/avatar.png", 1, Arrays.asList("admin"), permissions);
+        user.setLoginIp("127.0.0.1");
+        user.setBrowser("Chrome");
+        user.setLoginTime(1700000000000L);
+        user.setTokenKey("token");
+        user.setPermVersion(3L);
+        return user;
+    }
+
+    @Test
+    @DisplayName("紧凑编码往返 - 字段一致且不含密码")
+    void testRoundTrip() {
+        LoginUser user = buildUser(Arrays.asList("system:user:list", "system:user:add"));
+
+        byte[] bytes = serializer.serialize(new CompactValue(user));
+        LoginUser decoded = (LoginUser) serializer.deserialize(bytes);
+
+        assertEquals(CompactRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(0, bytes[2] & CompactRedisSerializer.FLAG_LZ4);
+        assertEquals(1L, decoded.getUserId());
+        assertEquals(100L, decoded.getDeptId());
+        assertEquals("管理员", decoded.getNickname());
+        assertEquals(user.getPermissions(), decoded.getPermissions());
+        assertEquals("Chrome", decoded.getBrowser());
+        assertNull(decoded.getOs());
+        assertEquals(1700000000000L, decoded.getLoginTime());
+        assertEquals(3L, decoded.getPermVersion());
+        assertNull(decoded.getPassword());
+    }
+
+    @Test
+    @DisplayName("超过阈值 - LZ4压缩并可还原")
+    void testCompressed() {
+        List<String> permissions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            permissions.add("system:module" + i + ":list");
+        }
+        LoginUser user = buildUser(permissions);
+
+        byte[] bytes = serializer.serialize(new CompactValue(user));
+        LoginUser decoded = (LoginUser) serializer.deserialize(bytes);
+
+        assertNotEquals(0, bytes[2] & CompactRedisSerializer.FLAG_LZ4);
+        assertEquals(permissions, decoded.getPermissions());
+        assertTrue(bytes.length < json.serialize(user).length / 2);
+    }
+
+    @Test
+    @DisplayName("未包装或未注册类型 - 回退JSON，历史JSON数据可读")
+    void testJsonFallback() {
+        byte[] plain = serializer.serialize("hello");
+        byte[] unregistered = serializer.serialize(new CompactValue(42));
+
+        assertEquals("hello", serializer.deserialize(plain));
+        assertEquals(42, serializer.deserialize(unregistered));
+
+        LoginUser legacy = (LoginUser) serializer.deserialize(json.serialize(buildUser(Collections.emptyList())));
+        assertEquals("admin", legacy.getUsername());
+    }
+}
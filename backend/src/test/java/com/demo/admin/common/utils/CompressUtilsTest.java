@@ -0,0 +1,68 @@
+package com.demo.admin.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CompressUtils 单元测试")
+class CompressUtilsTest {
+
+    @Test
+    @DisplayName("压缩后解压得到原文")
+    void testRoundTrip() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("{\"params\":\"[{\\\"id\\\":").append(i).append(",\\\"nickname\\\":\\\"管理员\\\"}]\"}");
+        }
+
+        byte[] compressed = CompressUtils.compress(text.toString());
+
+        assertTrue(compressed.length < text.toString().getBytes(StandardCharsets.UTF_8).length / 4);
+        assertEquals(text.toString(), CompressUtils.uncompress(compressed));
+    }
+
+    @Test
+    @DisplayName("与 MySQL COMPRESS 格式一致：小端序长度头 + zlib")
+    void testMysqlFormat() {
+        byte[] compressed = CompressUtils.compress("a");
+        assertArrayEquals(new byte[]{1, 0, 0, 0}, Arrays.copyOf(compressed, 4));
+        // zlib 头
+        assertEquals(0x78, compressed[4] & 0xff);
+
+        // SELECT HEX(COMPRESS('a')) 的结果
+        byte[] mysql = hex("01000000789C4B040000620062");
+        assertEquals("a", CompressUtils.uncompress(mysql));
+    }
+
+    @Test
+    @DisplayName("null 与空串")
+    void testEmpty() {
+        assertNull(CompressUtils.compress(null));
+        assertNull(CompressUtils.uncompress(null));
+        assertEquals(0, CompressUtils.compress("").length);
+        assertEquals("", CompressUtils.uncompress(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("损坏的数据抛出异常")
+    void testCorrupted() {
+        byte[] compressed = CompressUtils.compress("hello world hello world");
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length - 6);
+
+        assertThrows(IllegalArgumentException.class, () -> CompressUtils.uncompress(truncated));
+        assertThrows(IllegalArgumentException.class, () -> CompressUtils.uncompress(new byte[]{1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> CompressUtils.uncompress(new byte[]{-1, -1, -1, -1, 0}));
+    }
+
+    private static byte[] hex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+}
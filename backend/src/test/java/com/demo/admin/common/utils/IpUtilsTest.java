@@ -0,0 +1,55 @@
+package com.demo.admin.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IpUtils 单元测试")
+class IpUtilsTest {
+
+    private static final String[] TRUSTED = {"10.0.0.1", "192.168.0.0/16"};
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwarded) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwarded != null) {
+            request.addHeader("X-Forwarded-For", forwarded);
+        }
+        return request;
+    }
+
+    @Test
+    @DisplayName("直连地址不是可信代理时忽略 X-Forwarded-For")
+    void testUntrustedRemote() {
+        assertEquals("8.8.8.8", IpUtils.getClientIp(request("8.8.8.8", "1.1.1.1"), TRUSTED));
+        assertEquals("10.0.0.1", IpUtils.getClientIp(request("10.0.0.1", "1.1.1.1"), new String[0]));
+    }
+
+    @Test
+    @DisplayName("来自可信代理时取最右侧的不可信地址")
+    void testRightMostUntrusted() {
+        // 客户端伪造的首段被忽略
+        assertEquals("2.2.2.2", IpUtils.getClientIp(request("10.0.0.1", "1.1.1.1, 2.2.2.2"), TRUSTED));
+        assertEquals("2.2.2.2", IpUtils.getClientIp(request("10.0.0.1", "1.1.1.1, 2.2.2.2, 192.168.1.5"), TRUSTED));
+        assertEquals("10.0.0.1", IpUtils.getClientIp(request("10.0.0.1", null), TRUSTED));
+    }
+
+    @Test
+    @DisplayName("经compose网络内的nginx转发时采用其追加的客户端地址")
+    void testPrivateRangeProxy() {
+        String[] privateRanges = {"10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16"};
+        assertEquals("203.0.113.9", IpUtils.getClientIp(request("172.18.0.5", "203.0.113.9"), privateRanges));
+        assertEquals("203.0.113.9", IpUtils.getClientIp(request("172.31.255.1", "1.1.1.1, 203.0.113.9"), privateRanges));
+        assertEquals("172.32.0.1", IpUtils.getClientIp(request("172.32.0.1", "203.0.113.9"), privateRanges));
+    }
+
+    @Test
+    @DisplayName("网段")
+    void testSubnet() {
+        assertEquals("10.0.0.0/24", IpUtils.getSubnet("10.0.0.7"));
+        assertEquals("2001:db8:1:2::/64", IpUtils.getSubnet("2001:db8:1:2:3:4:5:6"));
+        assertNull(IpUtils.getSubnet("localhost"));
+    }
+}
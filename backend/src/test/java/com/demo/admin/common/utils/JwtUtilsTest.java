@@ -108,4 +108,28 @@ class JwtUtilsTest {
         assertEquals("Bearer", jwtUtils.getPrefix());
         assertEquals(86400000L, jwtUtils.getExpiration());
     }
+
+    @Test
+    @DisplayName("解析Token - 同一token只验签一次，复用缓存的Claims")
+    void testParseToken_Cached() {
+        String token = jwtUtils.generateToken("admin");
+
+        io.jsonwebtoken.Claims first = jwtUtils.parseToken(token);
+        io.jsonwebtoken.Claims second = jwtUtils.parseToken(token);
+
+        assertNotNull(first);
+        assertEquals("admin", first.getSubject());
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("解析Token - 签名被篡改返回null")
+    void testParseToken_TamperedSignature() {
+        String token = jwtUtils.generateToken("admin");
+        int pos = token.length() - 10;
+        char replaced = token.charAt(pos) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, pos) + replaced + token.substring(pos + 1);
+
+        assertNull(jwtUtils.parseToken(tampered));
+    }
 }
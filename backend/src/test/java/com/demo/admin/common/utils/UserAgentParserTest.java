@@ -0,0 +1,57 @@
+package com.demo.admin.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UserAgentParser 单元测试")
+class UserAgentParserTest {
+
+    private static final String CHROME_WINDOWS = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    private final UserAgentParser parser = new UserAgentParser();
+
+    private void assertParsed(String ua, String browser, String os) {
+        UserAgentParser.UserAgent agent = parser.parse(ua);
+        assertEquals(browser, agent.getBrowser());
+        assertEquals(os, agent.getOs());
+    }
+
+    @Test
+    @DisplayName("识别常见浏览器和操作系统")
+    void testParse() {
+        assertParsed(CHROME_WINDOWS, "Chrome", "Windows");
+        assertParsed("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) "
+                + "Chrome/120.0.0.0 Safari/537.36 Edg/120.0.0.0", "Edge", "Windows");
+        assertParsed("Mozilla/5.0 (Macintosh; Intel Mac OS X 14_0) AppleWebKit/605.1.15 (KHTML, like Gecko) "
+                + "Version/17.0 Safari/605.1.15", "Safari", "macOS");
+        assertParsed("Mozilla/5.0 (X11; Linux x86_64; rv:121.0) Gecko/20100101 Firefox/121.0", "Firefox", "Linux");
+        assertParsed("Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) AppleWebKit/605.1.15 "
+                + "(KHTML, like Gecko) Version/17.0 Mobile/15E148 Safari/604.1", "Safari", "iOS");
+        assertParsed("Mozilla/5.0 (Linux; Android 14) AppleWebKit/537.36 (KHTML, like Gecko) "
+                + "Chrome/120.0.0.0 Mobile Safari/537.36", "Chrome", "Android");
+        assertParsed("curl/8.4.0", "其他", "其他");
+    }
+
+    @Test
+    @DisplayName("空 UA 返回未知")
+    void testEmpty() {
+        assertParsed(null, "未知", "未知");
+        assertParsed("", "未知", "未知");
+    }
+
+    @Test
+    @DisplayName("同一 UA 命中缓存返回同一结果")
+    void testCached() {
+        UserAgentParser.UserAgent first = parser.parse(CHROME_WINDOWS);
+        assertSame(first, parser.parse(new String(CHROME_WINDOWS)));
+
+        StringBuilder longUa = new StringBuilder(CHROME_WINDOWS);
+        while (longUa.length() < 600) {
+            longUa.append(" x");
+        }
+        assertSame(parser.parse(longUa.toString()), parser.parse(longUa.substring(0, 550)));
+    }
+}
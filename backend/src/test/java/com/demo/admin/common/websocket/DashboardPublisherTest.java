@@ -0,0 +1,179 @@
+package com.demo.admin.common.websocket;
+
+import com.demo.admin.modules.system.service.DashboardSnapshotService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardPublisher 单元测试")
+class DashboardPublisherTest {
+
+    @InjectMocks
+    private DashboardPublisher publisher;
+
+    @Mock
+    private DashboardSnapshotService snapshotService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Map<String, Object> snapshot(long userCount, long todayLogCount) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("userCount", userCount);
+        data.put("todayLogCount", todayLogCount);
+        data.put("hourlyTrend", Arrays.asList(1, 2, 3));
+        return data;
+    }
+
+    private static WebSocketSession session(String id) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        lenient().when(session.getId()).thenReturn(id);
+        lenient().when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private List<JsonNode> sent(WebSocketSession session, int times) throws Exception {
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, times(times)).sendMessage(captor.capture());
+        JsonNode[] nodes = new JsonNode[times];
+        for (int i = 0; i < times; i++) {
+            nodes[i] = objectMapper.readTree(captor.getAllValues().get(i).getPayload());
+        }
+        return Arrays.asList(nodes);
+    }
+
+    @Test
+    @DisplayName("订阅后立即收到完整快照")
+    void testSubscribeSendsSnapshot() throws Exception {
+        when(snapshotService.getBigscreen()).thenReturn(snapshot(10, 100));
+        WebSocketSession session = session("s1");
+
+        publisher.subscribe(session, Long.MAX_VALUE);
+
+        JsonNode msg = sent(session, 1).get(0);
+        assertEquals(DashboardPublisher.TYPE_SNAPSHOT, msg.get("type").asText());
+        assertEquals(10, msg.get("data").get("userCount").asLong());
+        assertEquals(1, publisher.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("每次推送只计算一次快照，只发送变化的字段")
+    void testPublishDelta() throws Exception {
+        when(snapshotService.getBigscreen()).thenReturn(snapshot(10, 100));
+        when(snapshotService.refresh()).thenReturn(snapshot(10, 120));
+        WebSocketSession first = session("s1");
+        WebSocketSession second = session("s2");
+        publisher.subscribe(first, Long.MAX_VALUE);
+        publisher.subscribe(second, Long.MAX_VALUE);
+
+        publisher.publish();
+        // 没有变化时不发送
+        publisher.publish();
+
+        verify(snapshotService, times(2)).refresh();
+        for (WebSocketSession session : Arrays.asList(first, second)) {
+            JsonNode delta = sent(session, 2).get(1);
+            assertEquals(DashboardPublisher.TYPE_DELTA, delta.get("type").asText());
+            assertEquals(120, delta.get("data").get("todayLogCount").asLong());
+            assertFalse(delta.get("data").has("userCount"));
+            assertFalse(delta.get("data").has("hourlyTrend"));
+        }
+    }
+
+    @Test
+    @DisplayName("计算快照时不阻塞新订阅者")
+    void testSubscribeWhileRefreshing() throws Exception {
+        when(snapshotService.getBigscreen()).thenReturn(snapshot(10, 100));
+        publisher.subscribe(session("s1"), Long.MAX_VALUE);
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(snapshotService.refresh()).thenAnswer(inv -> {
+            refreshing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return snapshot(10, 120);
+        });
+        Thread publishing = new Thread(publisher::publish);
+        publishing.start();
+        assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+
+        WebSocketSession late = session("s2");
+        CompletableFuture.runAsync(() -> publisher.subscribe(late, Long.MAX_VALUE)).get(2, TimeUnit.SECONDS);
+        release.countDown();
+        publishing.join(5000);
+
+        assertEquals(2, publisher.getSubscriberCount());
+        assertEquals(DashboardPublisher.TYPE_DELTA, sent(late, 2).get(1).get("type").asText());
+    }
+
+    @Test
+    @DisplayName("没有订阅者时不计算快照")
+    void testNoSubscribers() {
+        publisher.publish();
+        verify(snapshotService, never()).refresh();
+    }
+
+    @Test
+    @DisplayName("凭证过期或连接断开的订阅者被移除")
+    void testRemoveExpired() throws Exception {
+        when(snapshotService.getBigscreen()).thenReturn(snapshot(10, 100));
+        WebSocketSession expired = session("s1");
+        WebSocketSession closed = session("s2");
+        publisher.subscribe(expired, System.currentTimeMillis() - 1);
+        publisher.subscribe(closed, Long.MAX_VALUE);
+        when(closed.isOpen()).thenReturn(false);
+
+        publisher.publish();
+
+        assertEquals(0, publisher.getSubscriberCount());
+        verify(expired).close(any(CloseStatus.class));
+        verify(snapshotService, never()).refresh();
+    }
+
+    @Test
+    @DisplayName("发送失败的订阅者被移除，不影响其他订阅者")
+    void testSendFailure() throws Exception {
+        when(snapshotService.getBigscreen()).thenReturn(snapshot(10, 100));
+        when(snapshotService.refresh()).thenReturn(snapshot(11, 100));
+        WebSocketSession broken = session("s1");
+        WebSocketSession healthy = session("s2");
+        publisher.subscribe(broken, Long.MAX_VALUE);
+        publisher.subscribe(healthy, Long.MAX_VALUE);
+        doThrow(new java.io.IOException("broken pipe")).when(broken).sendMessage(any());
+
+        publisher.publish();
+
+        assertEquals(1, publisher.getSubscriberCount());
+        assertEquals(11, sent(healthy, 2).get(1).get("data").get("userCount").asLong());
+    }
+
+    @Test
+    @DisplayName("首次推送发送完整快照作为增量")
+    void testDiff() {
+        Map<String, Object> current = snapshot(1, 2);
+        assertSame(current, DashboardPublisher.diff(null, current));
+        assertEquals(1, DashboardPublisher.diff(snapshot(1, 1), current).size());
+    }
+}
@@ -1,21 +1,26 @@
 package com.demo.admin.modules.auth.controller;
 
-import com.demo.admin.common.constant.RedisConstant;
 import com.demo.admin.common.result.R;
 import com.demo.admin.common.utils.JwtUtils;
+import com.demo.admin.common.utils.UserAgentParser;
 import com.demo.admin.common.utils.RedisUtils;
 import com.demo.admin.modules.system.service.SysConfigService;
 import com.demo.admin.modules.system.service.SysLoginLogService;
+import com.demo.admin.security.service.CaptchaService;
+import com.demo.admin.security.service.LoginExecutor;
+import com.demo.admin.security.service.LoginSessionManager;
 import com.demo.admin.security.service.LoginUser;
+import com.demo.admin.security.service.StatelessSessionService;
+import com.demo.admin.security.service.TokenCacheService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockHttpServletRequest;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -35,7 +40,7 @@ class AuthControllerTest {
     private AuthController authController;
 
     @Mock
-    private AuthenticationManager authenticationManager;
+    private LoginExecutor loginExecutor;
 
     @Mock
     private JwtUtils jwtUtils;
@@ -58,6 +63,21 @@ class AuthControllerTest {
     @Mock
     private SysConfigService configService;
 
+    @Mock
+    private TokenCacheService tokenCacheService;
+
+    @Mock
+    private StatelessSessionService statelessSessionService;
+
+    @Mock
+    private LoginSessionManager loginSessionManager;
+
+    @Mock
+    private CaptchaService captchaService;
+
+    @Spy
+    private UserAgentParser userAgentParser = new UserAgentParser();
+
     private MockHttpServletRequest request;
 
     @BeforeEach
@@ -71,21 +91,26 @@ class AuthControllerTest {
     @Test
     @DisplayName("获取验证码 - 返回key和image")
     void testCaptcha() {
+        Map<String, String> captcha = new java.util.LinkedHashMap<>();
+        captcha.put("key", "k");
+        captcha.put("image", "data:image/png;base64,xxx");
+        when(captchaService.generate()).thenReturn(captcha);
+
         R<Map<String, String>> result = authController.getCaptcha();
 
         assertEquals(200, result.getCode());
         assertNotNull(result.getData());
         assertTrue(result.getData().containsKey("key"));
         assertTrue(result.getData().containsKey("image"));
-        // 验证存入了Redis
-        verify(redisUtils).set(anyString(), anyString(), eq(RedisConstant.CAPTCHA_EXPIRE), any());
+        verify(captchaService).generate();
     }
 
     @Test
     @DisplayName("登录 - 验证码错误")
     void testLogin_WrongCaptcha() {
         when(configService.getConfigByKey("sys.account.captchaEnabled")).thenReturn("true");
-        when(redisUtils.get(anyString())).thenReturn("correctCode");
+        when(loginSessionManager.preCheck("testkey", "wrongCode", "admin")).thenReturn(
+                new LoginSessionManager.PreCheckResult(LoginSessionManager.PreCheckStatus.CAPTCHA_MISMATCH, 0));
 
         com.demo.admin.modules.auth.dto.LoginRequest loginRequest = new com.demo.admin.modules.auth.dto.LoginRequest();
         loginRequest.setUsername("admin");
@@ -97,8 +122,8 @@ class AuthControllerTest {
 
         assertEquals(500, result.getCode());
         assertEquals("验证码错误", result.getMessage());
-        // 验证码用后即删
-        verify(redisUtils).delete(RedisConstant.CAPTCHA_PREFIX + "testkey");
+        // 验证码校验与消费在同一脚本内完成，未进入认证
+        verify(loginExecutor, never()).authenticate(any());
     }
 
     @Test
@@ -107,7 +132,8 @@ class AuthControllerTest {
         // 禁用验证码
         when(configService.getConfigByKey("sys.account.captchaEnabled")).thenReturn("false");
         // 无锁定
-        when(redisUtils.get(startsWith("admin:login_fail:"))).thenReturn(null);
+        when(loginSessionManager.preCheck(isNull(), isNull(), eq("admin"))).thenReturn(
+                new LoginSessionManager.PreCheckResult(LoginSessionManager.PreCheckStatus.PASSED, 0));
 
         LoginUser loginUser = new LoginUser();
         loginUser.setUserId(1L);
@@ -115,7 +141,7 @@ class AuthControllerTest {
         loginUser.setStatus(1);
         UsernamePasswordAuthenticationToken auth =
                 new UsernamePasswordAuthenticationToken(loginUser, null, loginUser.getAuthorities());
-        when(authenticationManager.authenticate(any())).thenReturn(auth);
+        when(loginExecutor.authenticate(any())).thenReturn(auth);
         when(jwtUtils.generateToken("admin")).thenReturn("mock-token");
         when(jwtUtils.getExpiration()).thenReturn(86400000L);
 
@@ -128,7 +154,45 @@ class AuthControllerTest {
         assertEquals(200, result.getCode());
         assertNotNull(result.getData());
         verify(jwtUtils).generateToken("admin");
-        // 登录成功清除失败计数
-        verify(redisUtils).delete(RedisConstant.LOGIN_FAIL_PREFIX + "admin");
+        // 登录成功写入会话并清除失败计数
+        verify(loginSessionManager).createSession("mock-token", loginUser, "admin", 86400000L);
+    }
+
+    @Test
+    @DisplayName("登录 - 账号已锁定")
+    void testLogin_Locked() {
+        when(configService.getConfigByKey("sys.account.captchaEnabled")).thenReturn("false");
+        when(loginSessionManager.preCheck(isNull(), isNull(), eq("admin"))).thenReturn(
+                new LoginSessionManager.PreCheckResult(LoginSessionManager.PreCheckStatus.LOCKED, 600));
+
+        com.demo.admin.modules.auth.dto.LoginRequest loginRequest = new com.demo.admin.modules.auth.dto.LoginRequest();
+        loginRequest.setUsername("admin");
+        loginRequest.setPassword("admin123");
+
+        R<?> result = authController.login(loginRequest, request);
+
+        assertEquals(500, result.getCode());
+        assertTrue(result.getMessage().contains("11分钟"));
+        verify(loginExecutor, never()).authenticate(any());
+    }
+
+    @Test
+    @DisplayName("登录 - 密码错误累加失败次数")
+    void testLogin_BadCredentials() {
+        when(configService.getConfigByKey("sys.account.captchaEnabled")).thenReturn("false");
+        when(loginSessionManager.preCheck(isNull(), isNull(), eq("admin"))).thenReturn(
+                new LoginSessionManager.PreCheckResult(LoginSessionManager.PreCheckStatus.PASSED, 0));
+        when(loginExecutor.authenticate(any())).thenThrow(new BadCredentialsException("bad"));
+        when(loginSessionManager.recordFailure("admin")).thenReturn(2L);
+
+        com.demo.admin.modules.auth.dto.LoginRequest loginRequest = new com.demo.admin.modules.auth.dto.LoginRequest();
+        loginRequest.setUsername("admin");
+        loginRequest.setPassword("wrong");
+
+        R<?> result = authController.login(loginRequest, request);
+
+        assertEquals(500, result.getCode());
+        assertEquals("用户名或密码错误，还可尝试3次", result.getMessage());
+        verify(loginSessionManager, never()).createSession(anyString(), any(), anyString(), anyLong());
     }
 }
@@ -0,0 +1,261 @@
+package com.demo.admin.modules.system.service;
+
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.RedisUtils;
+import com.demo.admin.modules.system.entity.SysLog;
+import com.demo.admin.modules.system.entity.SysLoginLog;
+import com.demo.admin.modules.system.mapper.SysLogMapper;
+import com.demo.admin.modules.system.mapper.SysLoginLogMapper;
+import com.demo.admin.modules.system.mapper.SysUserMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LiveStatsService 单元测试")
+class LiveStatsServiceTest {
+
+    @InjectMocks
+    private LiveStatsService liveStatsService;
+
+    @Mock
+    private RedisUtils redisUtils;
+
+    @Mock
+    private SysLogMapper logMapper;
+
+    @Mock
+    private SysLoginLogMapper loginLogMapper;
+
+    @Mock
+    private SysUserMapper userMapper;
+
+    private final String statsKey = RedisConstant.LIVE_STATS_PREFIX + LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(liveStatsService, "recentSize", 3);
+        liveStatsService.init();
+        clearInvocations(redisUtils);
+    }
+
+    private static SysLog sysLog(long id, String username, int status) {
+        SysLog sysLog = new SysLog();
+        sysLog.setId(id);
+        sysLog.setUsername(username);
+        sysLog.setOperation("操作" + id);
+        sysLog.setStatus(status);
+        sysLog.setParams("{\"id\":" + id + "}");
+        sysLog.setCreateTime(LocalDateTime.now());
+        return sysLog;
+    }
+
+    private static SysLoginLog loginLog(String username, int status) {
+        SysLoginLog loginLog = new SysLoginLog();
+        loginLog.setUsername(username);
+        loginLog.setStatus(status);
+        loginLog.setCreateTime(LocalDateTime.now());
+        return loginLog;
+    }
+
+    private Map<String, Long> captureDeltas() {
+        List<Map<String, Long>> deltas = captureAllDeltas();
+        return deltas.get(deltas.size() - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Long>> captureAllDeltas() {
+        ArgumentCaptor<Map<String, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(redisUtils, atLeastOnce()).incrementHash(eq(statsKey), captor.capture(), anyLong(), any());
+        return captor.getAllValues();
+    }
+
+    @Test
+    @DisplayName("同步前读取本节点计数，失败次数单独统计")
+    void testLocalCount() {
+        liveStatsService.recordOperation(sysLog(1, "admin", 1));
+        liveStatsService.recordOperation(sysLog(2, "admin", 0));
+        liveStatsService.recordLogin(loginLog("admin", 1));
+        liveStatsService.recordLogin(loginLog("guest", 0));
+        liveStatsService.recordLogin(loginLog("guest", 0));
+
+        assertEquals(2, liveStatsService.getTodayCount(LiveStatsService.OPERATION));
+        assertEquals(1, liveStatsService.getTodayCount(LiveStatsService.OPERATION_FAIL));
+        assertEquals(3, liveStatsService.getTodayCount(LiveStatsService.LOGIN));
+        assertEquals(2, liveStatsService.getTodayCount(LiveStatsService.LOGIN_FAIL));
+        Map<String, Object> snapshot = liveStatsService.getTodaySnapshot();
+        assertEquals(1L, snapshot.get("operationSuccessCount"));
+        assertEquals(1L, snapshot.get("loginSuccessCount"));
+        assertThrows(IllegalArgumentException.class, () -> liveStatsService.getTodayCount("unknown"));
+    }
+
+    @Test
+    @DisplayName("同步时推送增量并取回集群合计值")
+    void testSyncMergesClusterTotal() {
+        Map<String, Long> totals = new HashMap<>();
+        totals.put(LiveStatsService.OPERATION, 100L);
+        totals.put(LiveStatsService.OPERATION_FAIL, 4L);
+        totals.put(LiveStatsService.LOGIN, 20L);
+        totals.put(LiveStatsService.LOGIN_FAIL, 3L);
+        when(redisUtils.incrementHash(eq(statsKey), anyMap(), anyLong(), any())).thenReturn(totals);
+
+        liveStatsService.recordOperation(sysLog(1, "admin", 1));
+        liveStatsService.recordOperation(sysLog(2, "admin", 1));
+        liveStatsService.sync();
+
+        Map<String, Long> deltas = captureDeltas();
+        assertEquals(2L, deltas.get(LiveStatsService.OPERATION));
+        assertEquals(0L, deltas.get(LiveStatsService.LOGIN));
+        assertEquals(100, liveStatsService.getTodayCount(LiveStatsService.OPERATION));
+        assertEquals(20, liveStatsService.getTodayCount(LiveStatsService.LOGIN));
+
+        // 同步后的新增量叠加在合计值上
+        liveStatsService.recordOperation(sysLog(3, "admin", 1));
+        assertEquals(101, liveStatsService.getTodayCount(LiveStatsService.OPERATION));
+    }
+
+    @Test
+    @DisplayName("同步失败时增量退回本地，下次重试")
+    void testSyncFailureKeepsDelta() {
+        when(redisUtils.incrementHash(eq(statsKey), anyMap(), anyLong(), any()))
+                .thenThrow(new IllegalStateException("redis down"));
+
+        liveStatsService.recordLogin(loginLog("admin", 1));
+        liveStatsService.sync();
+        assertEquals(1, liveStatsService.getTodayCount(LiveStatsService.LOGIN));
+
+        reset(redisUtils);
+        liveStatsService.sync();
+        assertEquals(1L, captureDeltas().get(LiveStatsService.LOGIN));
+    }
+
+    @Test
+    @DisplayName("推送期间新增的计数留到下次推送")
+    void testRecordDuringSync() {
+        when(redisUtils.incrementHash(eq(statsKey), anyMap(), anyLong(), any())).thenAnswer(inv -> {
+            liveStatsService.recordOperation(sysLog(2, "admin", 1));
+            return new HashMap<String, Long>();
+        }).thenReturn(new HashMap<>());
+
+        liveStatsService.recordOperation(sysLog(1, "admin", 1));
+        liveStatsService.sync();
+        liveStatsService.sync();
+
+        List<Map<String, Long>> deltas = captureAllDeltas();
+        assertEquals(1L, deltas.get(0).get(LiveStatsService.OPERATION));
+        assertEquals(1L, deltas.get(1).get(LiveStatsService.OPERATION));
+        assertEquals(2, liveStatsService.getTodayCount(LiveStatsService.OPERATION));
+    }
+
+    @Test
+    @DisplayName("Redis中没有当天计数时从数据库补齐")
+    @SuppressWarnings("unchecked")
+    void testSeedFromDatabase() {
+        when(redisUtils.putHashIfAbsent(eq(statsKey), anyString(), any())).thenReturn(true);
+        when(logMapper.selectCount(any())).thenReturn(50L, 5L);
+        when(loginLogMapper.selectCount(any())).thenReturn(8L, 2L);
+        when(logMapper.selectObjs(any())).thenReturn(Arrays.asList("admin", "test"));
+        when(loginLogMapper.selectObjs(any())).thenReturn(Arrays.asList("admin", "guest"));
+
+        liveStatsService.recordOperation(sysLog(1, "admin", 1));
+        liveStatsService.sync();
+
+        // 本节点已计数的日志已入库，包含在数据库统计中
+        Map<String, Long> deltas = captureDeltas();
+        assertEquals(50L, deltas.get(LiveStatsService.OPERATION));
+        assertEquals(5L, deltas.get(LiveStatsService.OPERATION_FAIL));
+        assertEquals(8L, deltas.get(LiveStatsService.LOGIN));
+        assertEquals(2L, deltas.get(LiveStatsService.LOGIN_FAIL));
+        ArgumentCaptor<Collection<String>> users = ArgumentCaptor.forClass(Collection.class);
+        verify(redisUtils).addHyperLogLog(eq(RedisConstant.ACTIVE_USER_PREFIX + LocalDate.now()), users.capture(),
+                anyLong(), any());
+        assertEquals(3, users.getValue().size());
+    }
+
+    @Test
+    @DisplayName("从数据库补齐失败时撤销标记，下次同步重新补齐")
+    void testSeedFailureReleasesFlag() {
+        when(redisUtils.putHashIfAbsent(eq(statsKey), anyString(), any())).thenReturn(true);
+        when(logMapper.selectCount(any())).thenThrow(new IllegalStateException("db down")).thenReturn(7L);
+
+        liveStatsService.sync();
+        verify(redisUtils).deleteHashFields(eq(statsKey), any());
+        verify(redisUtils, never()).incrementHash(anyString(), anyMap(), anyLong(), any());
+
+        liveStatsService.sync();
+        assertEquals(7L, captureDeltas().get(LiveStatsService.OPERATION));
+    }
+
+    @Test
+    @DisplayName("活跃用户只计登录成功和有操作记录的用户，读取HyperLogLog估计值")
+    @SuppressWarnings("unchecked")
+    void testActiveUsers() {
+        String key = RedisConstant.ACTIVE_USER_PREFIX + LocalDate.now();
+        when(redisUtils.countHyperLogLog(key)).thenReturn(2L);
+
+        liveStatsService.recordLogin(loginLog("admin", 1));
+        liveStatsService.recordLogin(loginLog("guest", 0));
+        liveStatsService.recordOperation(sysLog(1, "test", 1));
+        liveStatsService.recordOperation(sysLog(2, "admin", 1));
+        liveStatsService.sync();
+
+        ArgumentCaptor<Collection<String>> users = ArgumentCaptor.forClass(Collection.class);
+        verify(redisUtils).addHyperLogLog(eq(key), users.capture(), anyLong(), any());
+        assertEquals(2, users.getValue().size());
+        assertTrue(users.getValue().containsAll(Arrays.asList("admin", "test")));
+        assertEquals(2, liveStatsService.getTodayActiveUsers());
+
+        // 已推送的用户不再重复推送
+        clearInvocations(redisUtils);
+        liveStatsService.sync();
+        verify(redisUtils, never()).addHyperLogLog(anyString(), any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("最近操作环形缓冲区按写入倒序返回，只保留展示字段")
+    void testRecentLogs() {
+        liveStatsService.addRecentLogs(Arrays.asList(sysLog(1, "admin", 1), sysLog(2, "admin", 1)));
+        List<SysLog> logs = liveStatsService.getRecentLogs(5);
+        assertEquals(Arrays.asList(2L, 1L), Arrays.asList(logs.get(0).getId(), logs.get(1).getId()));
+
+        liveStatsService.addRecentLogs(Arrays.asList(sysLog(3, "admin", 1), sysLog(4, "admin", 0),
+                sysLog(5, "admin", 1)));
+        logs = liveStatsService.getRecentLogs(5);
+        assertEquals(3, logs.size());
+        assertEquals(Arrays.asList(5L, 4L, 3L), Arrays.asList(logs.get(0).getId(), logs.get(1).getId(),
+                logs.get(2).getId()));
+        assertNull(logs.get(0).getParams());
+        assertEquals(2, liveStatsService.getRecentLogs(2).size());
+    }
+
+    @Test
+    @DisplayName("用户总数按刷新间隔读取数据库")
+    void testUserCountCached() {
+        clearInvocations(userMapper);
+        when(userMapper.selectCount(any())).thenReturn(42L);
+        ReflectionTestUtils.setField(liveStatsService, "userCount", -1L);
+
+        assertEquals(42, liveStatsService.getUserCount());
+        assertEquals(42, liveStatsService.getUserCount());
+        liveStatsService.sync();
+        verify(userMapper, times(1)).selectCount(any());
+    }
+}
@@ -0,0 +1,263 @@
+package com.demo.admin.modules.system.service;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.demo.admin.common.archive.LogArchiveStore;
+import com.demo.admin.modules.system.entity.SysLog;
+import com.demo.admin.modules.system.entity.SysLoginLog;
+import com.demo.admin.modules.system.mapper.LogPartitionMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LogArchiveService 单元测试")
+class LogArchiveServiceTest {
+
+    @InjectMocks
+    private LogArchiveService archiveService;
+
+    @Mock
+    private LogPartitionMapper partitionMapper;
+
+    @Mock
+    private SysLogService logService;
+
+    @Spy
+    private LogArchiveStore archiveStore = new LogArchiveStore();
+
+    @TempDir
+    Path dir;
+
+    private final YearMonth current = YearMonth.now();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(archiveStore, "dir", dir.toString());
+    }
+
+    private static String name(YearMonth month) {
+        return "p" + month.format(DateTimeFormatter.ofPattern("yyyyMM"));
+    }
+
+    /**
+     * 从 current - back 月到 current + 2 月的分区及 pmax
+     */
+    private List<String> partitions(int back) {
+        List<String> names = new ArrayList<>();
+        for (int i = back; i >= -2; i--) {
+            names.add(name(current.minusMonths(i)));
+        }
+        names.add("pmax");
+        return names;
+    }
+
+    private static Map<String, Object> row(long id, String username, LocalDateTime time) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("username", username);
+        row.put("status", 1);
+        row.put("user_agent", "Chrome");
+        row.put("create_time", Timestamp.valueOf(time));
+        return row;
+    }
+
+    @Test
+    @DisplayName("首次维护从最早数据所在月份起一次拆分出所有分区")
+    void testEnsurePartitionsFirstSplit() {
+        when(partitionMapper.selectPartitionNames("sys_log")).thenReturn(Collections.singletonList("pmax"));
+        when(partitionMapper.selectMinCreateTime("sys_log")).thenReturn(LocalDateTime.of(2026, 8, 15, 10, 0));
+
+        assertTrue(archiveService.ensurePartitions("sys_log", YearMonth.of(2026, 10)));
+
+        verify(partitionMapper).splitMaxPartition("sys_log",
+                "PARTITION p202608 VALUES LESS THAN (TO_DAYS('2026-09-01')), "
+                        + "PARTITION p202609 VALUES LESS THAN (TO_DAYS('2026-10-01')), "
+                        + "PARTITION p202610 VALUES LESS THAN (TO_DAYS('2026-11-01')), "
+                        + "PARTITION p202611 VALUES LESS THAN (TO_DAYS('2026-12-01')), "
+                        + "PARTITION p202612 VALUES LESS THAN (TO_DAYS('2027-01-01'))");
+    }
+
+    @Test
+    @DisplayName("已有分区时只补建缺少的月份，已够则不改表")
+    void testEnsurePartitionsIncremental() {
+        when(partitionMapper.selectPartitionNames("sys_job_log"))
+                .thenReturn(Arrays.asList("p202610", "p202611", "pmax"))
+                .thenReturn(Arrays.asList("p202610", "p202611", "p202612", "pmax"));
+
+        archiveService.ensurePartitions("sys_job_log", YearMonth.of(2026, 10));
+        verify(partitionMapper).splitMaxPartition("sys_job_log",
+                "PARTITION p202612 VALUES LESS THAN (TO_DAYS('2027-01-01'))");
+
+        archiveService.ensurePartitions("sys_job_log", YearMonth.of(2026, 10));
+        verify(partitionMapper, times(1)).splitMaxPartition(anyString(), anyString());
+        verify(partitionMapper, never()).selectMinCreateTime(anyString());
+    }
+
+    @Test
+    @DisplayName("未分区的表跳过维护")
+    void testNotPartitioned() {
+        archiveService.maintain();
+
+        verify(partitionMapper, never()).splitMaxPartition(anyString(), anyString());
+        verify(partitionMapper, never()).dropPartition(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("过期分区写入归档后删除，归档中可查询")
+    void testArchiveExpired() throws IOException {
+        YearMonth oldest = current.minusMonths(8);
+        LocalDateTime time = oldest.atDay(3).atTime(9, 0);
+        when(partitionMapper.selectPartitionNames("sys_login_log")).thenReturn(partitions(8));
+        when(partitionMapper.selectPartitionRows("sys_login_log", name(oldest), 0L, 1000))
+                .thenReturn(Arrays.asList(row(1, "admin", time), row(2, "test", time.plusHours(1))));
+        when(partitionMapper.selectPartitionRows("sys_login_log", name(current.minusMonths(7)), 0L, 1000))
+                .thenReturn(Collections.emptyList());
+
+        archiveService.maintain();
+
+        verify(partitionMapper).dropPartition("sys_login_log", name(oldest));
+        verify(partitionMapper).dropPartition("sys_login_log", name(current.minusMonths(7)));
+        verify(partitionMapper, never()).dropPartition("sys_login_log", name(current.minusMonths(6)));
+        verify(partitionMapper, never()).splitMaxPartition(anyString(), anyString());
+
+        assertTrue(archiveStore.exists("sys_login_log", name(oldest)));
+        SysLoginLog archived = archiveStore.findById("sys_login_log", SysLoginLog.class, 2, SysLoginLog::getId);
+        assertNotNull(archived);
+        assertEquals("test", archived.getUsername());
+        assertEquals("Chrome", archived.getUserAgent());
+        assertEquals(time.plusHours(1), archived.getCreateTime());
+    }
+
+    @Test
+    @DisplayName("操作日志归档时补全详情，详情表同名分区一并删除")
+    void testArchiveOperLogWithDetail() throws IOException {
+        YearMonth oldest = current.minusMonths(7);
+        when(partitionMapper.selectPartitionNames("sys_log")).thenReturn(partitions(7));
+        when(partitionMapper.selectPartitionNames("sys_log_detail")).thenReturn(partitions(7));
+        when(partitionMapper.selectPartitionRows("sys_log", name(oldest), 0L, 1000))
+                .thenReturn(Collections.singletonList(row(5, "admin", oldest.atDay(1).atStartOfDay())));
+        doAnswer(invocation -> {
+            List<SysLog> logs = invocation.getArgument(0);
+            logs.get(0).setParams("{\"id\":1}");
+            return null;
+        }).when(logService).fillDetails(anyList());
+
+        archiveService.maintain();
+
+        InOrder order = inOrder(partitionMapper);
+        order.verify(partitionMapper).dropPartition("sys_log_detail", name(oldest));
+        order.verify(partitionMapper).dropPartition("sys_log", name(oldest));
+        SysLog archived = archiveStore.findById("sys_log", SysLog.class, 5, SysLog::getId);
+        assertNotNull(archived);
+        assertEquals("{\"id\":1}", archived.getParams());
+    }
+
+    @Test
+    @DisplayName("主表分区已删除时补删详情表的过期分区")
+    void testDropOrphanDetailPartition() {
+        YearMonth orphan = current.minusMonths(8);
+        when(partitionMapper.selectPartitionNames("sys_log")).thenReturn(partitions(6));
+        when(partitionMapper.selectPartitionNames("sys_log_detail")).thenReturn(partitions(8));
+
+        archiveService.maintain();
+
+        verify(partitionMapper).dropPartition("sys_log_detail", name(orphan));
+        verify(partitionMapper).dropPartition("sys_log_detail", name(current.minusMonths(7)));
+        verify(partitionMapper, never()).dropPartition("sys_log_detail", name(current.minusMonths(6)));
+        verify(partitionMapper, never()).dropPartition(eq("sys_log"), anyString());
+    }
+
+    @Test
+    @DisplayName("按表的分区情况判断是否已分区")
+    void testIsPartitioned() {
+        when(partitionMapper.selectPartitionNames("sys_login_log")).thenReturn(partitions(1));
+
+        assertTrue(archiveService.isPartitioned(SysLoginLog.class));
+        assertFalse(archiveService.isPartitioned(SysLog.class));
+    }
+
+    @Test
+    @DisplayName("分段已归档时不重复读取，直接删除分区")
+    void testAlreadyArchived() throws IOException {
+        YearMonth oldest = current.minusMonths(7);
+        try (LogArchiveStore.Writer<SysLoginLog> writer = archiveStore.open("sys_login_log", name(oldest),
+                SysLoginLog::getId, SysLoginLog::getCreateTime)) {
+            SysLoginLog log = new SysLoginLog();
+            log.setId(1L);
+            log.setCreateTime(oldest.atDay(1).atStartOfDay());
+            writer.append(Collections.singletonList(log));
+            writer.commit();
+        }
+        when(partitionMapper.selectPartitionNames("sys_login_log")).thenReturn(partitions(7));
+
+        archiveService.maintain();
+
+        verify(partitionMapper, never()).selectPartitionRows(anyString(), anyString(), anyLong(), anyInt());
+        verify(partitionMapper).dropPartition("sys_login_log", name(oldest));
+    }
+
+    @Test
+    @DisplayName("查询开始时间早于在线数据时在数据库结果之后接上归档记录")
+    void testWithArchive() throws IOException {
+        LocalDateTime base = LocalDateTime.of(2026, 3, 1, 0, 0);
+        try (LogArchiveStore.Writer<SysLoginLog> writer = archiveStore.open("sys_login_log", "p202603",
+                SysLoginLog::getId, SysLoginLog::getCreateTime)) {
+            List<SysLoginLog> logs = new ArrayList<>();
+            for (long id = 1; id <= 12; id++) {
+                SysLoginLog log = new SysLoginLog();
+                log.setId(id);
+                log.setUsername(id % 2 == 0 ? "admin" : "test");
+                log.setCreateTime(base.plusHours(id));
+                logs.add(log);
+            }
+            writer.append(logs);
+            writer.commit();
+        }
+
+        // 在线 15 条，第 2 页只剩 5 条，补 5 条归档
+        Page<SysLoginLog> online = new Page<>(2, 10, 15);
+        online.setRecords(new ArrayList<>(Collections.nCopies(5, new SysLoginLog())));
+        IPage<SysLoginLog> merged = archiveService.withArchive(online, SysLoginLog.class, base, null, null);
+        assertEquals(27, merged.getTotal());
+        assertEquals(10, merged.getRecords().size());
+        assertEquals(12L, merged.getRecords().get(5).getId());
+
+        // 第 3 页全部来自归档，跳过上一页已展示的 5 条
+        Page<SysLoginLog> third = new Page<>(3, 10, 15);
+        IPage<SysLoginLog> archived = archiveService.withArchive(third, SysLoginLog.class, base, null,
+                log -> "admin".equals(log.getUsername()));
+        assertEquals(21, archived.getTotal());
+        assertEquals(1, archived.getRecords().size());
+        assertEquals(2L, archived.getRecords().get(0).getId());
+
+        // 开始时间晚于归档数据或为空时不查询归档
+        assertSame(online, archiveService.withArchive(online, SysLoginLog.class, base.plusMonths(1), null, null));
+        assertSame(online, archiveService.withArchive(online, SysLoginLog.class, null, null, null));
+    }
+}
@@ -0,0 +1,113 @@
+package com.demo.admin.modules.system.service;
+
+import com.demo.admin.modules.system.mapper.LogPurgeMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LogPurgeService 单元测试")
+class LogPurgeServiceTest {
+
+    @InjectMocks
+    private LogPurgeService purgeService;
+
+    @Mock
+    private LogPurgeMapper purgeMapper;
+
+    @Mock
+    private ScheduleService scheduleService;
+
+    private final LocalDateTime threshold = LocalDateTime.of(2026, 9, 18, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(purgeService, "chunkSize", 100);
+        ReflectionTestUtils.setField(purgeService, "pause", 0L);
+    }
+
+    private static Map<String, Object> range(Object minId, Object maxId) {
+        Map<String, Object> range = new HashMap<>();
+        range.put("minId", minId);
+        range.put("maxId", maxId);
+        return range;
+    }
+
+    @Test
+    @DisplayName("按主键区间分批删除，最后一批截止到最大ID")
+    void testPurgeInChunks() {
+        when(purgeMapper.selectIdRange("sys_login_log", "id", true, threshold)).thenReturn(range(1L, 250L));
+        when(purgeMapper.deleteRange(eq("sys_login_log"), eq("id"), eq(true), eq(threshold), anyLong(), anyLong()))
+                .thenReturn(100, 90, 40);
+
+        assertEquals(230, purgeService.purgeBefore(LogPurgeService.LOGIN_LOG, threshold));
+
+        verify(purgeMapper).deleteRange("sys_login_log", "id", true, threshold, 1, 100);
+        verify(purgeMapper).deleteRange("sys_login_log", "id", true, threshold, 101, 200);
+        verify(purgeMapper).deleteRange("sys_login_log", "id", true, threshold, 201, 250);
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(scheduleService).reportResult(message.capture());
+        assertTrue(message.getValue().startsWith("登录日志：删除 230 条，ID 1 ~ 250"));
+    }
+
+    @Test
+    @DisplayName("没有匹配记录时不执行删除")
+    void testNothingToPurge() {
+        when(purgeMapper.selectIdRange("sys_job_log", "id", true, threshold)).thenReturn(range(null, null));
+
+        assertEquals(0, purgeService.purgeBefore(LogPurgeService.JOB_LOG, threshold));
+        verify(purgeMapper, never()).deleteRange(anyString(), anyString(), anyBoolean(), any(), anyLong(), anyLong());
+
+        when(purgeMapper.selectIdRange("sys_job_log", "id", true, threshold)).thenReturn(null);
+        assertEquals(0, purgeService.purgeBefore(LogPurgeService.JOB_LOG, threshold));
+    }
+
+    @Test
+    @DisplayName("操作日志先删详情再删日志，条件与区间相同")
+    void testPurgeWithCompanion() {
+        when(purgeMapper.selectIdRange("sys_log", "id", false, threshold)).thenReturn(range(5L, 5L));
+        when(purgeMapper.deleteRange(anyString(), anyString(), eq(false), eq(threshold), eq(5L), eq(5L))).thenReturn(1);
+
+        assertEquals(1, purgeService.purgeSince(LogPurgeService.OPER_LOG, threshold));
+
+        InOrder inOrder = inOrder(purgeMapper);
+        inOrder.verify(purgeMapper).deleteRange("sys_log_detail", "log_id", false, threshold, 5, 5);
+        inOrder.verify(purgeMapper).deleteRange("sys_log", "id", false, threshold, 5, 5);
+    }
+
+    @Test
+    @DisplayName("按间隔上报进度，停止后记录断点")
+    void testProgressAndStop() {
+        ReflectionTestUtils.setField(purgeService, "progressInterval", 0L);
+        when(purgeMapper.selectIdRange("sys_login_log", "id", true, threshold)).thenReturn(range(1, 1000));
+        when(purgeMapper.deleteRange(eq("sys_login_log"), eq("id"), eq(true), eq(threshold), anyLong(), anyLong()))
+                .thenReturn(100);
+        doAnswer(invocation -> {
+            purgeService.stop();
+            return null;
+        }).when(scheduleService).reportProgress(anyString());
+
+        assertEquals(200, purgeService.purgeBefore(LogPurgeService.LOGIN_LOG, threshold));
+
+        verify(scheduleService).reportProgress(startsWith("登录日志：已删除 100 条，进度 10%"));
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(scheduleService).reportResult(message.capture());
+        assertTrue(message.getValue().endsWith("已中断，下次执行从ID 201 继续"));
+        verify(purgeMapper, times(2)).deleteRange(anyString(), anyString(), anyBoolean(), any(), anyLong(), anyLong());
+    }
+}
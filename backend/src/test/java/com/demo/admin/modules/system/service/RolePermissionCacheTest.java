@@ -0,0 +1,174 @@
+package com.demo.admin.modules.system.service;
+
+import com.demo.admin.common.utils.RedisUtils;
+import com.demo.admin.modules.system.entity.SysMenu;
+import com.demo.admin.modules.system.entity.SysRole;
+import com.demo.admin.modules.system.entity.SysRoleMenu;
+import com.demo.admin.modules.system.mapper.SysMenuMapper;
+import com.demo.admin.modules.system.mapper.SysRoleMapper;
+import com.demo.admin.modules.system.mapper.SysRoleMenuMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("RolePermissionCache 单元测试")
+class RolePermissionCacheTest {
+
+    @InjectMocks
+    private RolePermissionCache cache;
+
+    @Mock
+    private SysRoleMapper roleMapper;
+
+    @Mock
+    private SysRoleMenuMapper roleMenuMapper;
+
+    @Mock
+    private SysMenuMapper menuMapper;
+
+    @Mock
+    private RedisUtils redisUtils;
+
+    private SysRole role(Long id, String code, int status) {
+        SysRole role = new SysRole();
+        role.setId(id);
+        role.setCode(code);
+        role.setStatus(status);
+        return role;
+    }
+
+    private SysMenu menu(Long id, String permission, int sort, int status) {
+        SysMenu menu = new SysMenu();
+        menu.setId(id);
+        menu.setParentId(0L);
+        menu.setPermission(permission);
+        menu.setSort(sort);
+        menu.setStatus(status);
+        return menu;
+    }
+
+    private SysRoleMenu roleMenu(Long roleId, Long menuId) {
+        SysRoleMenu roleMenu = new SysRoleMenu();
+        roleMenu.setRoleId(roleId);
+        roleMenu.setMenuId(menuId);
+        return roleMenu;
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(roleMapper.selectList(null)).thenReturn(Arrays.asList(
+                role(1L, "admin", 1), role(2L, "user", 1), role(3L, "disabled", 0)));
+        when(menuMapper.selectList(null)).thenReturn(Arrays.asList(
+                menu(10L, null, 2, 1),
+                menu(11L, "system:user:list", 1, 1),
+                menu(12L, "system:role:list", 3, 1),
+                menu(13L, "system:log:list", 4, 0)));
+        when(roleMenuMapper.selectList(null)).thenReturn(Arrays.asList(
+                roleMenu(1L, 10L), roleMenu(1L, 11L), roleMenu(1L, 12L),
+                roleMenu(2L, 11L), roleMenu(2L, 13L),
+                roleMenu(3L, 12L)));
+    }
+
+    @Test
+    @DisplayName("角色编码 - 只返回启用角色")
+    void testGetRoleCodes() {
+        List<String> codes = cache.getRoleCodes(Arrays.asList(2L, 3L, 99L));
+
+        assertEquals(Collections.singletonList("user"), codes);
+    }
+
+    @Test
+    @DisplayName("权限并集 - 忽略停用菜单，不区分角色状态")
+    void testGetPermissions() {
+        List<String> perms = cache.getPermissions(Arrays.asList(2L, 3L));
+
+        assertEquals(2, perms.size());
+        assertTrue(perms.contains("system:user:list"));
+        assertTrue(perms.contains("system:role:list"));
+        assertFalse(perms.contains("system:log:list"));
+    }
+
+    @Test
+    @DisplayName("菜单并集 - 按排序号升序且返回副本")
+    void testGetMenus() {
+        List<SysMenu> menus = cache.getMenus(Arrays.asList(1L, 2L));
+
+        assertEquals(3, menus.size());
+        assertEquals(11L, menus.get(0).getId());
+        assertEquals(10L, menus.get(1).getId());
+        assertEquals(12L, menus.get(2).getId());
+
+        menus.get(0).setChildren(Collections.emptyList());
+        assertNull(cache.getMenus(Collections.singletonList(1L)).get(0).getChildren());
+    }
+
+    @Test
+    @DisplayName("全量加载只执行一次")
+    void testLoadOnce() {
+        cache.getRoleCodes(Collections.singletonList(1L));
+        cache.getPermissions(Collections.singletonList(1L));
+        cache.getMenus(Collections.singletonList(1L));
+
+        verify(roleMapper, times(1)).selectList(null);
+        verify(roleMenuMapper, times(1)).selectList(null);
+    }
+
+    @Test
+    @DisplayName("角色变更 - 增量刷新单个角色并广播")
+    void testRoleChanged() {
+        long version = cache.getVersion();
+        when(roleMapper.selectById(2L)).thenReturn(role(2L, "user", 1));
+        when(roleMenuMapper.selectMenuIdsByRoleId(2L)).thenReturn(Arrays.asList(11L, 12L));
+
+        cache.roleChanged(2L);
+
+        assertEquals(version + 1, cache.getVersion());
+        assertTrue(cache.getPermissions(Collections.singletonList(2L)).contains("system:role:list"));
+        verify(roleMenuMapper, times(1)).selectList(null);
+        verify(redisUtils).publish(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("角色删除 - 从缓存移除")
+    void testRoleRemoved() {
+        cache.getVersion();
+        when(roleMapper.selectById(1L)).thenReturn(null);
+
+        cache.roleChanged(1L);
+
+        assertTrue(cache.getRoleCodes(Collections.singletonList(1L)).isEmpty());
+        assertTrue(cache.getPermissions(Collections.singletonList(1L)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("菜单变更 - 重算各角色权限")
+    void testMenusChanged() {
+        cache.getVersion();
+        when(menuMapper.selectList(null)).thenReturn(Arrays.asList(
+                menu(11L, "system:user:query", 1, 1),
+                menu(13L, "system:log:list", 4, 1)));
+
+        cache.menusChanged();
+
+        List<String> perms = cache.getPermissions(Collections.singletonList(2L));
+        assertEquals(2, perms.size());
+        assertTrue(perms.contains("system:user:query"));
+        assertTrue(perms.contains("system:log:list"));
+        assertTrue(cache.getPermissions(Collections.singletonList(3L)).isEmpty());
+    }
+}
@@ -0,0 +1,128 @@
+package com.demo.admin.modules.system.service;
+
+import com.demo.admin.modules.system.entity.SysLog;
+import com.demo.admin.modules.system.entity.SysLoginLog;
+import com.demo.admin.modules.system.entity.SysStatHourly;
+import com.demo.admin.modules.system.mapper.SysStatMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatRollupService 单元测试")
+class StatRollupServiceTest {
+
+    @InjectMocks
+    private StatRollupService rollupService;
+
+    @Mock
+    private SysStatMapper statMapper;
+
+    private static SysLog sysLog(String operation, LocalDateTime time) {
+        SysLog sysLog = new SysLog();
+        sysLog.setOperation(operation);
+        sysLog.setCreateTime(time);
+        return sysLog;
+    }
+
+    private static SysStatHourly find(List<SysStatHourly> rows, String metric, String dim, LocalDateTime hour) {
+        for (SysStatHourly row : rows) {
+            if (row.getMetric().equals(metric) && row.getDim().equals(dim) && row.getStatTime().equals(hour)) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    @DisplayName("操作日志按小时和操作类型合并后累加")
+    @SuppressWarnings("unchecked")
+    void testRecordLogs() {
+        LocalDateTime nine = LocalDateTime.of(2026, 10, 18, 9, 0);
+        rollupService.recordLogs(Arrays.asList(
+                sysLog("新增用户", nine.plusMinutes(1)),
+                sysLog("新增用户", nine.plusMinutes(59)),
+                sysLog("删除用户", nine.plusMinutes(30)),
+                sysLog(null, nine.plusHours(1))));
+
+        ArgumentCaptor<List<SysStatHourly>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statMapper).upsertHourly(captor.capture());
+        verify(statMapper).upsertDaily(captor.getValue());
+        List<SysStatHourly> rows = captor.getValue();
+        assertEquals(5, rows.size());
+        assertEquals(3L, find(rows, "log", "", nine).getCnt());
+        assertEquals(1L, find(rows, "log", "", nine.plusHours(1)).getCnt());
+        assertEquals(2L, find(rows, "operation", "新增用户", nine).getCnt());
+        assertEquals(1L, find(rows, "operation", "删除用户", nine).getCnt());
+        assertEquals(1L, find(rows, "operation", "", nine.plusHours(1)).getCnt());
+    }
+
+    @Test
+    @DisplayName("登录日志累加，写库失败不抛出")
+    @SuppressWarnings("unchecked")
+    void testRecordLoginLogs() {
+        SysLoginLog loginLog = new SysLoginLog();
+        loginLog.setCreateTime(LocalDateTime.of(2026, 10, 18, 23, 59));
+        when(statMapper.upsertHourly(anyList())).thenThrow(new RuntimeException("db down"));
+
+        assertDoesNotThrow(() -> rollupService.recordLoginLogs(Collections.singletonList(loginLog)));
+
+        ArgumentCaptor<List<SysStatHourly>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statMapper).upsertHourly(captor.capture());
+        assertEquals(new SysStatHourly("login", "", LocalDateTime.of(2026, 10, 18, 23, 0), 1L), captor.getValue().get(0));
+        verify(statMapper, never()).upsertDaily(anyList());
+    }
+
+    @Test
+    @DisplayName("空批次不访问数据库")
+    void testRecordEmpty() {
+        rollupService.recordLogs(Collections.emptyList());
+        verifyNoInteractions(statMapper);
+    }
+
+    @Test
+    @DisplayName("校准时先读出原始日志的小时计数，再删除旧汇总并分批写入小时和天计数")
+    void testReconcile() {
+        LocalDate since = LocalDate.now().minusDays(1);
+        LocalDateTime hour = since.atTime(9, 0);
+        List<SysStatHourly> logCounts = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            logCounts.add(new SysStatHourly("log", "", hour, 1L));
+        }
+        when(statMapper.selectHourlyCounts("log", "sys_log", null, since.atStartOfDay())).thenReturn(logCounts);
+        when(statMapper.selectHourlyCounts("operation", "sys_log", "operation", since.atStartOfDay()))
+                .thenReturn(Collections.emptyList());
+        when(statMapper.selectHourlyCounts("login", "sys_login_log", null, since.atStartOfDay()))
+                .thenReturn(Collections.emptyList());
+
+        rollupService.reconcile();
+
+        InOrder inOrder = inOrder(statMapper);
+        inOrder.verify(statMapper).selectHourlyCounts("login", "sys_login_log", null, since.atStartOfDay());
+        inOrder.verify(statMapper).deleteHourlySince("log", since.atStartOfDay());
+        inOrder.verify(statMapper).deleteDailySince("log", since);
+        inOrder.verify(statMapper).upsertHourly(logCounts.subList(0, 500));
+        inOrder.verify(statMapper).upsertDaily(logCounts.subList(0, 500));
+        inOrder.verify(statMapper).upsertHourly(logCounts.subList(500, 501));
+        verify(statMapper).deleteHourlySince("operation", since.atStartOfDay());
+        verify(statMapper).deleteHourlySince("login", since.atStartOfDay());
+        verify(statMapper, times(2)).upsertHourly(anyList());
+        verify(statMapper).deleteHourlyBefore(LocalDate.now().minusDays(7).atStartOfDay());
+    }
+}
@@ -0,0 +1,127 @@
+package com.demo.admin.modules.system.service;
+
+import com.demo.admin.common.utils.CompressUtils;
+import com.demo.admin.modules.system.entity.SysLog;
+import com.demo.admin.modules.system.entity.SysLogDetail;
+import com.demo.admin.modules.system.mapper.SysLogDetailMapper;
+import com.demo.admin.modules.system.mapper.SysLogMapper;
+import com.demo.admin.modules.system.service.impl.SysLogServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SysLogService 单元测试")
+class SysLogServiceTest {
+
+    @InjectMocks
+    private SysLogServiceImpl logService;
+
+    @Mock
+    private SysLogMapper baseMapper; // 必须叫 baseMapper，匹配 ServiceImpl 的字段名
+
+    @Mock
+    private SysLogDetailMapper detailMapper;
+
+    @Mock
+    private SysLogDetailService detailService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private SysLog log(Long id) {
+        SysLog sysLog = new SysLog();
+        sysLog.setId(id);
+        sysLog.setOperation("修改用户");
+        return sysLog;
+    }
+
+    private SysLogDetail detail(Long id, String json) {
+        SysLogDetail detail = new SysLogDetail();
+        detail.setLogId(id);
+        detail.setContent(CompressUtils.compress(json));
+        return detail;
+    }
+
+    @Test
+    @DisplayName("查询详情 - 解压并填充详情字段")
+    void testGetDetail() {
+        when(baseMapper.selectById(1L)).thenReturn(log(1L));
+        when(detailMapper.selectById(1L)).thenReturn(detail(1L,
+                "{\"params\":\"[{\\\"id\\\":1}]\",\"oldValue\":\"{\\\"nickname\\\":\\\"a\\\"}\",\"newValue\":\"{\\\"nickname\\\":\\\"b\\\"}\"}"));
+
+        SysLog result = logService.getDetail(1L);
+
+        assertEquals("[{\"id\":1}]", result.getParams());
+        assertEquals("{\"nickname\":\"a\"}", result.getOldValue());
+        assertEquals("{\"nickname\":\"b\"}", result.getNewValue());
+        assertNull(result.getResponseBody());
+    }
+
+    @Test
+    @DisplayName("查询详情 - 无详情或详情损坏时只返回摘要")
+    void testGetDetail_NoDetail() {
+        when(baseMapper.selectById(1L)).thenReturn(log(1L));
+        when(detailMapper.selectById(1L)).thenReturn(null);
+        assertNull(logService.getDetail(1L).getParams());
+
+        SysLogDetail broken = new SysLogDetail();
+        broken.setLogId(1L);
+        broken.setContent(new byte[]{1, 2, 3, 4, 5});
+        when(detailMapper.selectById(1L)).thenReturn(broken);
+        SysLog result = logService.getDetail(1L);
+        assertEquals("修改用户", result.getOperation());
+        assertNull(result.getParams());
+    }
+
+    @Test
+    @DisplayName("查询详情 - 日志不存在")
+    void testGetDetail_NotFound() {
+        when(baseMapper.selectById(9L)).thenReturn(null);
+
+        assertNull(logService.getDetail(9L));
+        verifyNoInteractions(detailMapper);
+    }
+
+    @Test
+    @DisplayName("批量填充详情 - 按ID匹配")
+    void testFillDetails() {
+        List<SysLog> logs = Arrays.asList(log(1L), log(2L), log(3L));
+        when(detailMapper.selectBatchIds(anyCollection())).thenReturn(Arrays.asList(
+                detail(3L, "{\"errorMsg\":\"失败\"}"),
+                detail(1L, "{\"params\":\"p1\"}")));
+
+        logService.fillDetails(logs);
+
+        assertEquals("p1", logs.get(0).getParams());
+        assertNull(logs.get(1).getParams());
+        assertEquals("失败", logs.get(2).getErrorMsg());
+    }
+
+    @Test
+    @DisplayName("删除日志时同时删除详情")
+    void testDeleteLogs() {
+        List<Long> ids = Arrays.asList(1L, 2L);
+
+        logService.deleteLogs(ids);
+
+        verify(baseMapper).deleteBatchIds(ids);
+        verify(detailMapper).deleteBatchIds(ids);
+
+        logService.deleteLogs(Collections.emptyList());
+        verifyNoMoreInteractions(detailMapper);
+    }
+}
@@ -2,6 +2,7 @@ package com.demo.admin.modules.system.service;
 
 import com.demo.admin.modules.system.entity.SysMenu;
 import com.demo.admin.modules.system.mapper.SysMenuMapper;
+import com.demo.admin.modules.system.mapper.SysUserRoleMapper;
 import com.demo.admin.modules.system.service.impl.SysMenuServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -29,6 +30,12 @@ class SysMenuServiceTest {
     @Mock
     private SysMenuMapper baseMapper;
 
+    @Mock
+    private SysUserRoleMapper userRoleMapper;
+
+    @Mock
+    private RolePermissionCache rolePermissionCache;
+
     // 辅助方法：创建菜单对象
     private SysMenu createMenu(Long id, Long parentId, String name, Integer type) {
         SysMenu menu = new SysMenu();
@@ -121,15 +128,17 @@ class SysMenuServiceTest {
     }
 
     @Test
-    @DisplayName("根据用户ID查询菜单 - 调用Mapper")
+    @DisplayName("根据用户ID查询菜单 - 由角色权限缓存计算")
     void testGetMenusByUserId() {
         SysMenu menu = createMenu(1L, 0L, "系统管理", 1);
-        when(baseMapper.selectMenusByUserId(1L)).thenReturn(Arrays.asList(menu));
+        List<Long> roleIds = Arrays.asList(1L, 2L);
+        when(userRoleMapper.selectRoleIdsByUserId(1L)).thenReturn(roleIds);
+        when(rolePermissionCache.getMenus(roleIds)).thenReturn(Arrays.asList(menu));
 
         List<SysMenu> result = menuService.getMenusByUserId(1L);
 
         assertEquals(1, result.size());
-        verify(baseMapper).selectMenusByUserId(1L);
+        verify(baseMapper, never()).selectMenusByUserId(anyLong());
     }
 
     @Test
@@ -6,9 +6,11 @@ import com.demo.admin.modules.system.mapper.SysRoleMapper;
 import com.demo.admin.modules.system.mapper.SysRoleMenuMapper;
 import com.demo.admin.modules.system.mapper.SysUserRoleMapper;
 import com.demo.admin.modules.system.service.impl.SysRoleServiceImpl;
+import com.demo.admin.security.service.SessionPermissionService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
@@ -38,6 +40,12 @@ class SysRoleServiceTest {
     @Mock
     private SysUserRoleMapper userRoleMapper;
 
+    @Mock
+    private RolePermissionCache rolePermissionCache;
+
+    @Mock
+    private SessionPermissionService sessionPermissionService;
+
     @Test
     @DisplayName("创建角色")
     void testCreateRole() {
@@ -72,8 +80,12 @@ class SysRoleServiceTest {
         boolean result = roleService.updateRole(role, menuIds);
 
         assertTrue(result);
-        verify(roleMenuMapper).deleteByRoleId(1L);
-        verify(roleMenuMapper).batchInsert(1L, menuIds);
+        // 先写库，再刷新角色权限缓存，最后刷新在线会话
+        InOrder inOrder = inOrder(roleMenuMapper, rolePermissionCache, sessionPermissionService);
+        inOrder.verify(roleMenuMapper).deleteByRoleId(1L);
+        inOrder.verify(roleMenuMapper).batchInsert(1L, menuIds);
+        inOrder.verify(rolePermissionCache).roleChanged(1L);
+        inOrder.verify(sessionPermissionService).roleChanged(1L);
     }
 
     @Test
@@ -98,5 +110,6 @@ class SysRoleServiceTest {
         assertThrows(BusinessException.class, () -> roleService.deleteRole(1L));
         verify(roleMenuMapper, never()).deleteByRoleId(anyLong());
         verify(baseMapper, never()).deleteById(anyLong());
+        verify(rolePermissionCache, never()).roleChanged(anyLong());
     }
 }
@@ -1,9 +1,10 @@
 package com.demo.admin.security.filter;
 
-import com.demo.admin.common.constant.RedisConstant;
 import com.demo.admin.common.utils.JwtUtils;
-import com.demo.admin.common.utils.RedisUtils;
 import com.demo.admin.security.service.LoginUser;
+import com.demo.admin.security.service.StatelessSessionService;
+import com.demo.admin.security.service.TokenCacheService;
+import io.jsonwebtoken.impl.DefaultClaims;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -33,7 +34,10 @@ class JwtAuthenticationFilterTest {
     private JwtUtils jwtUtils;
 
     @Mock
-    private RedisUtils redisUtils;
+    private TokenCacheService tokenCacheService;
+
+    @Mock
+    private StatelessSessionService statelessSessionService;
 
     private MockHttpServletRequest request;
     private MockHttpServletResponse response;
@@ -71,8 +75,7 @@ class JwtAuthenticationFilterTest {
 
         when(jwtUtils.getHeader()).thenReturn("Authorization");
         when(jwtUtils.getPrefix()).thenReturn("Bearer");
-        when(jwtUtils.getUsernameFromToken(token)).thenReturn("admin");
-        when(jwtUtils.validateToken(token, "admin")).thenReturn(true);
+        when(jwtUtils.parseToken(token)).thenReturn(new DefaultClaims().setSubject("admin"));
 
         LoginUser loginUser = new LoginUser();
         loginUser.setUserId(1L);
@@ -80,7 +83,7 @@ class JwtAuthenticationFilterTest {
         loginUser.setStatus(1);
         loginUser.setPermissions(Arrays.asList("system:user:list"));
 
-        when(redisUtils.get(RedisConstant.TOKEN_PREFIX + token, LoginUser.class))
+        when(tokenCacheService.get(token))
                 .thenReturn(loginUser);
 
         jwtFilter.doFilterInternal(request, response, filterChain);
@@ -99,7 +102,7 @@ class JwtAuthenticationFilterTest {
 
         when(jwtUtils.getHeader()).thenReturn("Authorization");
         when(jwtUtils.getPrefix()).thenReturn("Bearer");
-        when(jwtUtils.getUsernameFromToken("bad-token")).thenReturn(null);
+        when(jwtUtils.parseToken("bad-token")).thenReturn(null);
 
         jwtFilter.doFilterInternal(request, response, filterChain);
 
@@ -114,10 +117,10 @@ class JwtAuthenticationFilterTest {
 
         when(jwtUtils.getHeader()).thenReturn("Authorization");
         when(jwtUtils.getPrefix()).thenReturn("Bearer");
-        when(jwtUtils.getUsernameFromToken(token)).thenReturn("admin");
+        when(jwtUtils.parseToken(token)).thenReturn(new DefaultClaims().setSubject("admin"));
 
         // Redis 中没有对应的 LoginUser（已被删除/过期）
-        when(redisUtils.get(RedisConstant.TOKEN_PREFIX + token, LoginUser.class))
+        when(tokenCacheService.get(token))
                 .thenReturn(null);
 
         jwtFilter.doFilterInternal(request, response, filterChain);
@@ -137,4 +140,27 @@ class JwtAuthenticationFilterTest {
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
+
+    @Test
+    @DisplayName("无状态Token - 由声明还原用户，不查Redis")
+    void testStatelessToken_NoRedisLookup() throws Exception {
+        String token = "stateless-token";
+        request.addHeader("Authorization", "Bearer " + token);
+        DefaultClaims claims = new DefaultClaims();
+        claims.setSubject("admin");
+
+        when(jwtUtils.getHeader()).thenReturn("Authorization");
+        when(jwtUtils.getPrefix()).thenReturn("Bearer");
+        when(jwtUtils.parseToken(token)).thenReturn(claims);
+
+        LoginUser loginUser = new LoginUser();
+        loginUser.setUserId(1L);
+        loginUser.setUsername("admin");
+        when(statelessSessionService.resolve(claims)).thenReturn(loginUser);
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(tokenCacheService, never()).get(anyString());
+    }
 }
@@ -0,0 +1,170 @@
+package com.demo.admin.security.service;
+
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.RedisUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CaptchaService 单元测试")
+class CaptchaServiceTest {
+
+    @InjectMocks
+    private CaptchaService captchaService;
+
+    @Mock
+    private RedisUtils redisUtils;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(captchaService, "secret", "test-secret");
+    }
+
+    @Test
+    @DisplayName("有状态模式 - 答案存入Redis，池未启动时同步渲染")
+    void testGenerate_Stateful() {
+        Map<String, String> result = captchaService.generate();
+
+        assertNotNull(result.get("key"));
+        assertTrue(result.get("image").startsWith("data:image/png;base64,"));
+        verify(redisUtils).set(eq(RedisConstant.CAPTCHA_PREFIX + result.get("key")), anyString(),
+                eq(RedisConstant.CAPTCHA_EXPIRE), eq(TimeUnit.MINUTES));
+        assertEquals(1, captchaService.getMisses());
+    }
+
+    @Test
+    @DisplayName("预渲染池 - 后台补充后从池中取出")
+    void testPool_Refill() throws InterruptedException {
+        ReflectionTestUtils.setField(captchaService, "poolSize", 4);
+        ReflectionTestUtils.setField(captchaService, "minIdle", 2);
+        captchaService.start();
+        try {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (captchaService.getPoolSize() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(captchaService.getPoolSize() >= 2);
+
+            captchaService.take();
+            assertEquals(1, captchaService.getHits());
+        } finally {
+            captchaService.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("无状态模式 - 签名校验通过，在Redis中以 SET NX 标记已使用")
+    void testStateless_Verify() {
+        when(redisUtils.setIfAbsent(startsWith(RedisConstant.CAPTCHA_PREFIX + "used:"), any(), anyLong(), any()))
+                .thenReturn(true);
+        String key = captchaService.sign("aBcD", System.currentTimeMillis() + 60000);
+
+        assertEquals(LoginSessionManager.PreCheckStatus.PASSED, captchaService.verifyStateless(key, "abcd"));
+        verify(redisUtils).setIfAbsent(eq(RedisConstant.CAPTCHA_PREFIX + "used:" + key.split("\\.")[2]), any(),
+                longThat(ttl -> ttl > 0 && ttl <= 60000), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("无状态模式 - 其他节点已使用的key被拒绝")
+    void testStateless_UsedOnOtherNode() {
+        when(redisUtils.setIfAbsent(anyString(), any(), anyLong(), any())).thenReturn(false);
+        String key = captchaService.sign("abcd", System.currentTimeMillis() + 60000);
+
+        assertEquals(LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED, captchaService.verifyStateless(key, "abcd"));
+    }
+
+    @Test
+    @DisplayName("无状态模式 - 同一key并发校验只有一次通过")
+    void testStateless_ConcurrentReplay() throws Exception {
+        when(redisUtils.setIfAbsent(anyString(), any(), anyLong(), any())).thenReturn(true);
+        String key = captchaService.sign("abcd", System.currentTimeMillis() + 60000);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<LoginSessionManager.PreCheckStatus>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return captchaService.verifyStateless(key, "abcd");
+                }));
+            }
+            start.countDown();
+            int passed = 0;
+            for (Future<LoginSessionManager.PreCheckStatus> result : results) {
+                if (result.get() == LoginSessionManager.PreCheckStatus.PASSED) {
+                    passed++;
+                }
+            }
+            assertEquals(1, passed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("无状态模式 - Redis不可用时仍由本节点记录防止重放")
+    void testStateless_RedisDown() {
+        when(redisUtils.setIfAbsent(anyString(), any(), anyLong(), any())).thenThrow(new IllegalStateException("down"));
+        String key = captchaService.sign("abcd", System.currentTimeMillis() + 60000);
+
+        assertEquals(LoginSessionManager.PreCheckStatus.PASSED, captchaService.verifyStateless(key, "abcd"));
+        assertEquals(LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED, captchaService.verifyStateless(key, "abcd"));
+    }
+
+    @Test
+    @DisplayName("无状态模式 - 答案错误、重放、过期、篡改")
+    void testStateless_Rejected() {
+        when(redisUtils.setIfAbsent(anyString(), any(), anyLong(), any())).thenReturn(true);
+        String wrong = captchaService.sign("abcd", System.currentTimeMillis() + 60000);
+        assertEquals(LoginSessionManager.PreCheckStatus.CAPTCHA_MISMATCH, captchaService.verifyStateless(wrong, "abce"));
+        // 不管对错都作废
+        assertEquals(LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED, captchaService.verifyStateless(wrong, "abcd"));
+
+        String expired = captchaService.sign("abcd", System.currentTimeMillis() - 1);
+        assertEquals(LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED, captchaService.verifyStateless(expired, "abcd"));
+
+        String valid = captchaService.sign("abcd", System.currentTimeMillis() + 60000);
+        String[] parts = valid.split("\\.");
+        String extended = "s." + Long.toString(System.currentTimeMillis() + 90000, Character.MAX_RADIX)
+                + "." + parts[2] + "." + parts[3] + "." + parts[4];
+        assertEquals(LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED, captchaService.verifyStateless(extended, "abcd"));
+        // 篡改未使用原key，原key仍可用
+        assertEquals(LoginSessionManager.PreCheckStatus.PASSED, captchaService.verifyStateless(valid, "abcd"));
+
+        assertEquals(LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED, captchaService.verifyStateless("random", "abcd"));
+    }
+
+    @Test
+    @DisplayName("无状态模式 - 伪造或超出有效期的key不留下使用标记")
+    void testStateless_ForgedKey() {
+        String farFuture = captchaService.sign("abcd", System.currentTimeMillis() + TimeUnit.DAYS.toMillis(365));
+        assertEquals(LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED, captchaService.verifyStateless(farFuture, "abcd"));
+
+        String forged = "s." + Long.toString(System.currentTimeMillis() + 60000, Character.MAX_RADIX)
+                + ".nonce.forged.forged";
+        assertEquals(LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED, captchaService.verifyStateless(forged, "abcd"));
+
+        verify(redisUtils, never()).setIfAbsent(anyString(), any(), anyLong(), any());
+        assertEquals(0, ((Map<?, ?>) ReflectionTestUtils.getField(captchaService, "usedKeys")).size());
+    }
+}
@@ -0,0 +1,103 @@
+package com.demo.admin.security.service;
+
+import com.demo.admin.common.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoginExecutor 单元测试")
+class LoginExecutorTest {
+
+    @InjectMocks
+    private LoginExecutor loginExecutor;
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    private final UsernamePasswordAuthenticationToken token =
+            new UsernamePasswordAuthenticationToken("admin", "admin123");
+
+    private void start(int threads, int queueCapacity) {
+        ReflectionTestUtils.setField(loginExecutor, "threads", threads);
+        ReflectionTestUtils.setField(loginExecutor, "queueCapacity", queueCapacity);
+        loginExecutor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("认证成功 - 返回认证结果并记录耗时")
+    void testAuthenticate_Success() {
+        start(1, 4);
+        Authentication result = new UsernamePasswordAuthenticationToken("admin", null);
+        when(authenticationManager.authenticate(token)).thenReturn(result);
+
+        assertSame(result, loginExecutor.authenticate(token));
+
+        Map<String, Object> metrics = loginExecutor.getMetrics();
+        assertEquals(1L, metrics.get("completed"));
+        assertEquals(0L, metrics.get("rejected"));
+    }
+
+    @Test
+    @DisplayName("认证失败 - 认证异常原样抛出")
+    void testAuthenticate_BadCredentials() {
+        start(1, 4);
+        when(authenticationManager.authenticate(token)).thenThrow(new BadCredentialsException("bad"));
+
+        assertThrows(BadCredentialsException.class, () -> loginExecutor.authenticate(token));
+    }
+
+    @Test
+    @DisplayName("过载 - 队列已满时快速失败")
+    void testAuthenticate_Rejected() throws Exception {
+        start(1, 1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            blocked.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // 第一个占满线程，第二个占满队列
+            callers.submit(() -> loginExecutor.authenticate(token));
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> loginExecutor.authenticate(token));
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((Integer) loginExecutor.getMetrics().get("queued") < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThrows(TooManyRequestsException.class, () -> loginExecutor.authenticate(token));
+            assertEquals(1L, loginExecutor.getMetrics().get("rejected"));
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+}
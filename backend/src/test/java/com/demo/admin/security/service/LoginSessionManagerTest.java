@@ -0,0 +1,112 @@
+package com.demo.admin.security.service;
+
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.redis.CompactValue;
+import com.demo.admin.common.utils.RedisUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoginSessionManager 单元测试")
+class LoginSessionManagerTest {
+
+    @InjectMocks
+    private LoginSessionManager loginSessionManager;
+
+    @Mock
+    private RedisUtils redisUtils;
+
+    @Mock
+    private CaptchaService captchaService;
+
+    @Test
+    @DisplayName("认证前检查 - 验证码与失败计数key一次传入脚本")
+    void testPreCheck_Keys() {
+        when(redisUtils.executeLuaScript(any(), anyList(), any(), any())).thenReturn(Arrays.asList(0L, 0L));
+
+        LoginSessionManager.PreCheckResult result = loginSessionManager.preCheck("k1", "abcd", "admin");
+
+        assertEquals(LoginSessionManager.PreCheckStatus.PASSED, result.getStatus());
+        verify(redisUtils).executeLuaScript(any(),
+                eq(Arrays.asList(RedisConstant.CAPTCHA_PREFIX + "k1", RedisConstant.LOGIN_FAIL_PREFIX + "admin")),
+                eq("abcd"), eq(RedisConstant.LOGIN_MAX_RETRY));
+    }
+
+    @Test
+    @DisplayName("认证前检查 - 关闭验证码时验证码key为空串")
+    void testPreCheck_CaptchaDisabled() {
+        when(redisUtils.executeLuaScript(any(), anyList(), any(), any())).thenReturn(Arrays.asList(3L, 120L));
+
+        LoginSessionManager.PreCheckResult result = loginSessionManager.preCheck(null, null, "admin");
+
+        assertEquals(LoginSessionManager.PreCheckStatus.LOCKED, result.getStatus());
+        assertEquals(120L, result.getLockTtl());
+        verify(redisUtils).executeLuaScript(any(),
+                eq(Arrays.asList("", RedisConstant.LOGIN_FAIL_PREFIX + "admin")), eq(""), any());
+    }
+
+    @Test
+    @DisplayName("认证前检查 - 验证码状态映射")
+    void testPreCheck_CaptchaStatus() {
+        when(redisUtils.executeLuaScript(any(), anyList(), any(), any()))
+                .thenReturn(Arrays.asList(1L, 0L), Arrays.asList(2L, 0L));
+
+        assertEquals(LoginSessionManager.PreCheckStatus.CAPTCHA_EXPIRED,
+                loginSessionManager.preCheck("k", "x", "admin").getStatus());
+        assertEquals(LoginSessionManager.PreCheckStatus.CAPTCHA_MISMATCH,
+                loginSessionManager.preCheck("k", "x", "admin").getStatus());
+    }
+
+    @Test
+    @DisplayName("认证前检查 - 无状态验证码本地验签，失败时不访问Redis")
+    void testPreCheck_StatelessCaptcha() {
+        when(captchaService.isStateless()).thenReturn(true);
+        when(captchaService.verifyStateless("s.key", "bad")).thenReturn(LoginSessionManager.PreCheckStatus.CAPTCHA_MISMATCH);
+        when(captchaService.verifyStateless("s.key", "good")).thenReturn(LoginSessionManager.PreCheckStatus.PASSED);
+        when(redisUtils.executeLuaScript(any(), anyList(), any(), any())).thenReturn(Arrays.asList(0L, 0L));
+
+        assertEquals(LoginSessionManager.PreCheckStatus.CAPTCHA_MISMATCH,
+                loginSessionManager.preCheck("s.key", "bad", "admin").getStatus());
+        assertEquals(LoginSessionManager.PreCheckStatus.PASSED,
+                loginSessionManager.preCheck("s.key", "good", "admin").getStatus());
+        verify(redisUtils, times(1)).executeLuaScript(any(),
+                eq(Arrays.asList("", RedisConstant.LOGIN_FAIL_PREFIX + "admin")), any(), any());
+    }
+
+    @Test
+    @DisplayName("记录失败 - 返回累加后的次数")
+    void testRecordFailure() {
+        when(redisUtils.executeLuaScript(any(), eq(Collections.singletonList(RedisConstant.LOGIN_FAIL_PREFIX + "admin")),
+                eq(RedisConstant.LOGIN_LOCK_TIME * 60))).thenReturn(3L);
+
+        assertEquals(3L, loginSessionManager.recordFailure("admin"));
+    }
+
+    @Test
+    @DisplayName("创建会话 - 会话、索引、失败计数在同一脚本内处理")
+    void testCreateSession() {
+        LoginUser loginUser = new LoginUser();
+        loginUser.setUserId(1L);
+        CompactValue wrapped = new CompactValue(loginUser);
+        when(redisUtils.wrap(RedisConstant.TOKEN_PREFIX + "tk", loginUser)).thenReturn(wrapped);
+
+        loginSessionManager.createSession("tk", loginUser, "admin", 86400000L);
+
+        verify(redisUtils).executeLuaScript(any(),
+                eq(Arrays.asList(RedisConstant.TOKEN_PREFIX + "tk",
+                        RedisConstant.USER_TOKEN_SET_PREFIX + 1L,
+                        RedisConstant.LOGIN_FAIL_PREFIX + "admin")),
+                same(wrapped), eq("tk"), eq(86400000L));
+    }
+}
@@ -0,0 +1,139 @@
+package com.demo.admin.security.service;
+
+import com.demo.admin.common.utils.RedisUtils;
+import com.demo.admin.modules.system.service.SysConfigService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("LoginThrottleService 单元测试")
+class LoginThrottleServiceTest {
+
+    @InjectMocks
+    private LoginThrottleService throttleService;
+
+    @Mock
+    private SysConfigService configService;
+
+    @Mock
+    private RedisUtils redisUtils;
+
+    @BeforeEach
+    void setUp() {
+        when(configService.getConfigByKey(LoginThrottleService.CONFIG_IP_LIMIT)).thenReturn("3");
+        when(configService.getConfigByKey(LoginThrottleService.CONFIG_SUBNET_LIMIT)).thenReturn("5");
+        when(configService.getConfigByKey(LoginThrottleService.CONFIG_WINDOW)).thenReturn("60");
+        throttleService.init();
+    }
+
+    @Test
+    @DisplayName("单个IP超过阈值后拒绝")
+    void testIpLimit() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(throttleService.tryAcquire("10.0.0.1"));
+        }
+        assertFalse(throttleService.tryAcquire("10.0.0.1"));
+        assertTrue(throttleService.tryAcquire("10.0.1.1"));
+    }
+
+    @Test
+    @DisplayName("同一网段合计超过阈值后拒绝")
+    void testSubnetLimit() {
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(throttleService.tryAcquire("10.0.0." + i));
+        }
+        assertFalse(throttleService.tryAcquire("10.0.0.6"));
+    }
+
+    @Test
+    @DisplayName("阈值为0时不限制")
+    void testDisabled() {
+        when(configService.getConfigByKey(LoginThrottleService.CONFIG_IP_LIMIT)).thenReturn("0");
+        when(configService.getConfigByKey(LoginThrottleService.CONFIG_SUBNET_LIMIT)).thenReturn("0");
+        throttleService.reloadConfig();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(throttleService.tryAcquire("10.0.0.1"));
+        }
+    }
+
+    @Test
+    @DisplayName("同步 - 广播本地增量后清空")
+    @SuppressWarnings("unchecked")
+    void testSyncPublishesDeltas() {
+        throttleService.tryAcquire("10.0.0.1");
+        throttleService.tryAcquire("10.0.0.1");
+
+        throttleService.sync();
+        throttleService.sync();
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(redisUtils, times(1)).publish(anyString(), captor.capture());
+        Map<String, Integer> counts = (Map<String, Integer>) ((Map<String, Object>) captor.getValue()).get("counts");
+        assertEquals(2, counts.get("ip:10.0.0.1"));
+        assertEquals(2, counts.get("net:10.0.0.0/24"));
+    }
+
+    @Test
+    @DisplayName("跟踪的key数达到上限后淘汰最久没有请求的窗口，新来源照常放行，活跃来源保留计数")
+    @SuppressWarnings("unchecked")
+    void testMaxEntries() {
+        for (int i = 0; i < 4; i++) {
+            throttleService.tryAcquire("10.0.0.1");
+        }
+        Map<String, LoginThrottleService.SlidingWindow> windows =
+                (Map<String, LoginThrottleService.SlidingWindow>) ReflectionTestUtils.getField(throttleService, "windows");
+        LoginThrottleService.SlidingWindow stale = new LoginThrottleService.SlidingWindow(60);
+        stale.add(System.currentTimeMillis() / 1000 - 30, 1);
+        for (int i = windows.size(); i < LoginThrottleService.MAX_ENTRIES; i++) {
+            windows.put("ip:filler-" + i, stale);
+        }
+
+        assertTrue(throttleService.tryAcquire("172.16.0.1"));
+        assertTrue(throttleService.size() < LoginThrottleService.MAX_ENTRIES);
+        assertFalse(throttleService.tryAcquire("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("其他节点的计数计入本地窗口")
+    void testRemoteCounts() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("node", "other");
+        body.put("counts", Collections.singletonMap("ip:10.0.0.1", 3));
+        when(redisUtils.deserialize(any())).thenReturn(body);
+
+        throttleService.onMessage(mock(Message.class), null);
+
+        assertFalse(throttleService.tryAcquire("10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("滑动窗口 - 过期的桶不计入")
+    void testSlidingWindowExpires() {
+        LoginThrottleService.SlidingWindow window = new LoginThrottleService.SlidingWindow(10);
+        assertEquals(5, window.add(100, 5));
+        assertEquals(7, window.add(105, 2));
+        assertEquals(3, window.add(110, 1));
+        assertFalse(window.isIdle(115));
+        assertTrue(window.isIdle(120));
+    }
+}
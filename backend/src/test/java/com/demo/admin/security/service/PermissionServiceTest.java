@@ -0,0 +1,106 @@
+package com.demo.admin.security.service;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("PermissionService 单元测试")
+class PermissionServiceTest {
+
+    private final PermissionService permissionService = new PermissionService();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private LoginUser login(List<String> roles, String... permissions) {
+        LoginUser user = new LoginUser(1L, 1L, "user", null, null, null, 1, roles, Arrays.asList(permissions));
+        Authentication auth = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        return user;
+    }
+
+    @Test
+    @DisplayName("精确匹配")
+    void testExactMatch() {
+        login(Collections.emptyList(), "system:user:list", "system:user:add");
+
+        assertTrue(permissionService.hasPermi("system:user:list"));
+        assertFalse(permissionService.hasPermi("system:user:delete"));
+    }
+
+    @Test
+    @DisplayName("段通配与全通配")
+    void testWildcard() {
+        login(Collections.emptyList(), "system:user:*", "*:log:list", "tool:*");
+
+        assertTrue(permissionService.hasPermi("system:user:delete"));
+        assertTrue(permissionService.hasPermi("monitor:log:list"));
+        assertTrue(permissionService.hasPermi("tool:gen:import"));
+        assertFalse(permissionService.hasPermi("system:role:list"));
+        assertFalse(permissionService.hasPermi("system:user"));
+
+        login(Collections.emptyList(), "*:*:*");
+        assertTrue(permissionService.hasPermi("any:thing:here"));
+    }
+
+    @Test
+    @DisplayName("超级管理员角色 - 拥有全部权限")
+    void testSuperAdmin() {
+        login(Collections.singletonList("admin"));
+
+        assertTrue(permissionService.hasPermi("system:user:list"));
+    }
+
+    @Test
+    @DisplayName("修改权限列表后重新编译")
+    void testSetPermissionsRecompiles() {
+        LoginUser user = login(Collections.emptyList(), "system:user:list");
+        assertFalse(permissionService.hasPermi("system:role:list"));
+
+        user.setPermissions(Collections.singletonList("system:role:list"));
+
+        assertTrue(permissionService.hasPermi("system:role:list"));
+        assertFalse(permissionService.hasPermi("system:user:list"));
+    }
+
+    @PreAuthorize("@ss.hasPermi('system:user:list')")
+    public void compiledHandler() {}
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public void otherHandler() {}
+
+    @Test
+    @DisplayName("预编译投票器 - 有权限赞成，无权限或非hasPermi表达式弃权")
+    void testCompiledVoter() throws Exception {
+        CompiledPermissionVoter voter = new CompiledPermissionVoter(permissionService);
+        MethodInvocation compiled = mock(MethodInvocation.class);
+        when(compiled.getMethod()).thenReturn(getClass().getMethod("compiledHandler"));
+        MethodInvocation other = mock(MethodInvocation.class);
+        when(other.getMethod()).thenReturn(getClass().getMethod("otherHandler"));
+
+        login(Collections.emptyList(), "system:user:list");
+        Authentication granted = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(AccessDecisionVoter.ACCESS_GRANTED, voter.vote(granted, compiled, Collections.emptyList()));
+        assertEquals(AccessDecisionVoter.ACCESS_ABSTAIN, voter.vote(granted, other, Collections.emptyList()));
+
+        login(Collections.emptyList(), "system:role:list");
+        Authentication denied = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(AccessDecisionVoter.ACCESS_ABSTAIN, voter.vote(denied, compiled, Collections.emptyList()));
+        assertEquals("system:user:list", voter.compile(getClass().getMethod("compiledHandler")));
+    }
+}
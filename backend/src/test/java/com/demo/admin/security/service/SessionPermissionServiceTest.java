@@ -0,0 +1,125 @@
+package com.demo.admin.security.service;
+
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.RedisUtils;
+import com.demo.admin.modules.system.entity.SysUserRole;
+import com.demo.admin.modules.system.mapper.SysUserRoleMapper;
+import com.demo.admin.modules.system.service.RolePermissionCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SessionPermissionService 单元测试")
+class SessionPermissionServiceTest {
+
+    @InjectMocks
+    private SessionPermissionService sessionPermissionService;
+
+    @Mock
+    private RedisUtils redisUtils;
+
+    @Mock
+    private SysUserRoleMapper userRoleMapper;
+
+    @Mock
+    private RolePermissionCache rolePermissionCache;
+
+    @Mock
+    private TokenCacheService tokenCacheService;
+
+    private LoginUser session(Long userId, Long permVersion) {
+        LoginUser user = new LoginUser(userId, null, "user" + userId, null, null, null, 1,
+                Collections.singletonList("old"), Collections.singletonList("old:perm"));
+        user.setPermVersion(permVersion);
+        return user;
+    }
+
+    private SysUserRole userRole(Long userId, Long roleId) {
+        SysUserRole userRole = new SysUserRole();
+        userRole.setUserId(userId);
+        userRole.setRoleId(roleId);
+        return userRole;
+    }
+
+    @Test
+    @DisplayName("角色无绑定用户 - 不访问Redis")
+    void testRefreshRole_NoUsers() {
+        when(userRoleMapper.selectUserIdsByRoleId(1L)).thenReturn(Collections.emptyList());
+
+        assertEquals(0, sessionPermissionService.refreshRole(1L));
+        verifyNoInteractions(redisUtils);
+    }
+
+    @Test
+    @DisplayName("刷新会话 - 原地写回新权限并保留过期时间，跳过已过期和已是新版本的会话")
+    @SuppressWarnings("unchecked")
+    void testRefreshRole() {
+        when(userRoleMapper.selectUserIdsByRoleId(1L)).thenReturn(Arrays.asList(10L, 20L));
+        when(redisUtils.increment(RedisConstant.PERM_VERSION_KEY)).thenReturn(5L);
+        when(redisUtils.getSetMembers(anyList())).thenReturn(Arrays.asList(
+                new LinkedHashSet<>(Arrays.asList("t1", "t2")),
+                new LinkedHashSet<>(Collections.singletonList("t3"))));
+        when(userRoleMapper.selectByUserIds(anyCollection())).thenReturn(Arrays.asList(
+                userRole(10L, 1L), userRole(20L, 1L), userRole(20L, 2L)));
+        when(redisUtils.multiGet(anyList())).thenReturn(Arrays.asList(
+                session(10L, null), null, session(20L, 6L)));
+        when(redisUtils.getExpireMillis(anyList())).thenReturn(Arrays.asList(60000L, -2L, 30000L));
+        when(rolePermissionCache.getRoleCodes(Collections.singletonList(1L)))
+                .thenReturn(Collections.singletonList("editor"));
+        when(rolePermissionCache.getPermissions(Collections.singletonList(1L)))
+                .thenReturn(Collections.singletonList("system:user:edit"));
+        when(redisUtils.setAllIfPresent(anyMap(), anyMap())).thenReturn(Collections.singletonList(true));
+
+        int refreshed = sessionPermissionService.refreshRole(1L);
+
+        assertEquals(1, refreshed);
+        ArgumentCaptor<Map<String, Object>> values = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<Map<String, Long>> expires = ArgumentCaptor.forClass(Map.class);
+        verify(redisUtils).setAllIfPresent(values.capture(), expires.capture());
+        LoginUser updated = (LoginUser) values.getValue().get(RedisConstant.TOKEN_PREFIX + "t1");
+        assertEquals(Collections.singletonList("editor"), updated.getRoles());
+        assertTrue(updated.permissionSet().has("system:user:edit"));
+        assertEquals(5L, updated.getPermVersion());
+        assertEquals(60000L, expires.getValue().get(RedisConstant.TOKEN_PREFIX + "t1"));
+        assertEquals(1, values.getValue().size());
+        verify(tokenCacheService).evict(Collections.singletonList("t1"));
+    }
+
+    @Test
+    @DisplayName("刷新会话 - 读取后已注销的会话不被写回")
+    void testRefreshSkipsRevokedSession() {
+        when(userRoleMapper.selectUserIdsByRoleId(1L)).thenReturn(Collections.singletonList(10L));
+        when(redisUtils.increment(RedisConstant.PERM_VERSION_KEY)).thenReturn(5L);
+        when(redisUtils.getSetMembers(anyList())).thenReturn(Collections.singletonList(
+                new LinkedHashSet<>(Collections.singletonList("t1"))));
+        when(userRoleMapper.selectByUserIds(anyCollection())).thenReturn(Collections.singletonList(userRole(10L, 1L)));
+        when(redisUtils.multiGet(anyList())).thenReturn(Collections.singletonList(session(10L, null)));
+        when(redisUtils.getExpireMillis(anyList())).thenReturn(Collections.singletonList(60000L));
+        // SET XX 未写入：会话在读取后被删除
+        when(redisUtils.setAllIfPresent(anyMap(), anyMap())).thenReturn(Collections.singletonList(false));
+
+        assertEquals(0, sessionPermissionService.refreshRole(1L));
+        verify(redisUtils, never()).set(anyString(), any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("当前权限版本 - 未初始化时为0")
+    void testCurrentVersion() {
+        when(redisUtils.get(RedisConstant.PERM_VERSION_KEY)).thenReturn(null);
+        assertEquals(0L, sessionPermissionService.currentVersion());
+
+        when(redisUtils.get(RedisConstant.PERM_VERSION_KEY)).thenReturn(3);
+        assertEquals(3L, sessionPermissionService.currentVersion());
+    }
+}
@@ -0,0 +1,110 @@
+package com.demo.admin.security.service;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.demo.admin.modules.system.entity.SysMenu;
+import com.demo.admin.modules.system.service.SysMenuService;
+import io.jsonwebtoken.impl.DefaultClaims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatelessSessionService 单元测试")
+class StatelessSessionServiceTest {
+
+    @InjectMocks
+    private StatelessSessionService statelessSessionService;
+
+    @Mock
+    private SysMenuService menuService;
+
+    @Mock
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(statelessSessionService, "enabled", true);
+    }
+
+    private void mockMenus(String... permissions) {
+        List<SysMenu> menus = new ArrayList<>();
+        for (String perm : permissions) {
+            SysMenu menu = new SysMenu();
+            menu.setPermission(perm);
+            menus.add(menu);
+        }
+        when(menuService.listAll()).thenReturn(menus);
+    }
+
+    private LoginUser buildUser(String... permissions) {
+        return new LoginUser(7L, 100L, "zhangsan", null, null, null, 1,
+                Arrays.asList("common"), Arrays.asList(permissions));
+    }
+
+    private DefaultClaims toClaims(Map<String, Object> map) {
+        DefaultClaims claims = new DefaultClaims(map);
+        claims.setSubject("zhangsan");
+        return claims;
+    }
+
+    @Test
+    @DisplayName("声明往返 - 还原用户ID、角色与权限")
+    void testBuildAndResolve() {
+        mockMenus("system:user:list", "system:user:add", "system:role:list");
+
+        Map<String, Object> map = statelessSessionService.buildClaims(buildUser("system:user:list", "system:role:list"));
+        LoginUser resolved = statelessSessionService.resolve(toClaims(map));
+
+        assertNotNull(resolved);
+        assertEquals(7L, resolved.getUserId());
+        assertEquals(100L, resolved.getDeptId());
+        assertEquals("zhangsan", resolved.getUsername());
+        assertEquals(Arrays.asList("common"), resolved.getRoles());
+        assertEquals(Arrays.asList("system:role:list", "system:user:list"), resolved.getPermissions());
+    }
+
+    @Test
+    @DisplayName("已吊销token - 返回null")
+    void testResolve_Revoked() {
+        mockMenus("system:user:list");
+        Map<String, Object> map = statelessSessionService.buildClaims(buildUser("system:user:list"));
+        when(revocationService.isRevoked(map.get(StatelessSessionService.CLAIM_TOKEN_ID).toString())).thenReturn(true);
+
+        assertNull(statelessSessionService.resolve(toClaims(map)));
+    }
+
+    @Test
+    @DisplayName("权限字典版本变化 - 返回null回源Redis")
+    void testResolve_DictionaryChanged() {
+        mockMenus("system:user:list");
+        Map<String, Object> map = statelessSessionService.buildClaims(buildUser("system:user:list"));
+
+        mockMenus("system:user:list", "system:user:edit");
+        statelessSessionService.refresh();
+
+        assertNull(statelessSessionService.resolve(toClaims(map)));
+    }
+
+    @Test
+    @DisplayName("未开启无状态模式 - 不生成声明")
+    void testDisabled() {
+        ReflectionTestUtils.setField(statelessSessionService, "enabled", false);
+
+        assertNull(statelessSessionService.buildClaims(buildUser("system:user:list")));
+        verify(menuService, never()).list(ArgumentMatchers.<Wrapper<SysMenu>>any());
+    }
+}
@@ -0,0 +1,97 @@
+package com.demo.admin.security.service;
+
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.RedisUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenCacheService 单元测试")
+class TokenCacheServiceTest {
+
+    @InjectMocks
+    private TokenCacheService tokenCacheService;
+
+    @Mock
+    private RedisUtils redisUtils;
+
+    @Mock
+    private TokenRevocationService revocationService;
+
+    private LoginUser loginUser;
+
+    @BeforeEach
+    void setUp() {
+        tokenCacheService.init();
+        loginUser = new LoginUser();
+        loginUser.setUserId(1L);
+        loginUser.setUsername("admin");
+    }
+
+    @Test
+    @DisplayName("本地命中 - 第二次不访问Redis")
+    void testGet_LocalHit() {
+        when(redisUtils.get(RedisConstant.TOKEN_PREFIX + "t1", LoginUser.class)).thenReturn(loginUser);
+
+        assertSame(loginUser, tokenCacheService.get("t1"));
+        assertSame(loginUser, tokenCacheService.get("t1"));
+
+        verify(redisUtils, times(1)).get(RedisConstant.TOKEN_PREFIX + "t1", LoginUser.class);
+    }
+
+    @Test
+    @DisplayName("Redis中无会话 - 不缓存空值")
+    void testGet_Miss() {
+        when(redisUtils.get(RedisConstant.TOKEN_PREFIX + "t2", LoginUser.class)).thenReturn(null);
+
+        assertNull(tokenCacheService.get("t2"));
+        assertNull(tokenCacheService.get("t2"));
+
+        verify(redisUtils, times(2)).get(RedisConstant.TOKEN_PREFIX + "t2", LoginUser.class);
+        assertEquals(0, tokenCacheService.size());
+    }
+
+    @Test
+    @DisplayName("失效 - 清除本地并广播")
+    void testEvict_Publishes() {
+        when(redisUtils.get(RedisConstant.TOKEN_PREFIX + "t1", LoginUser.class)).thenReturn(loginUser);
+        tokenCacheService.get("t1");
+
+        tokenCacheService.evict("t1");
+
+        assertEquals(0, tokenCacheService.size());
+        verify(redisUtils).publish(RedisConstant.TOKEN_EVICT_CHANNEL, "t1");
+    }
+
+    @Test
+    @DisplayName("吊销失败 - 仍然广播失效消息")
+    void testEvict_RevokeFails() {
+        doThrow(new RuntimeException("redis down")).when(revocationService).revoke("t1");
+
+        tokenCacheService.evict("t1");
+
+        verify(redisUtils).publish(RedisConstant.TOKEN_EVICT_CHANNEL, "t1");
+    }
+
+    @Test
+    @DisplayName("收到其他节点的失效消息 - 清除本地缓存")
+    void testOnMessage_EvictsLocal() {
+        when(redisUtils.get(RedisConstant.TOKEN_PREFIX + "t1", LoginUser.class)).thenReturn(loginUser);
+        tokenCacheService.get("t1");
+        byte[] body = "\"t1\"".getBytes();
+        when(redisUtils.deserialize(body)).thenReturn("t1");
+
+        tokenCacheService.onMessage(new DefaultMessage(RedisConstant.TOKEN_EVICT_CHANNEL.getBytes(), body), null);
+
+        assertEquals(0, tokenCacheService.size());
+    }
+}
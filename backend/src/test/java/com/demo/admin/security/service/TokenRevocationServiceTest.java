@@ -0,0 +1,67 @@
+package com.demo.admin.security.service;
+
+import com.demo.admin.common.constant.RedisConstant;
+import com.demo.admin.common.utils.RedisUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationService 单元测试")
+class TokenRevocationServiceTest {
+
+    @InjectMocks
+    private TokenRevocationService revocationService;
+
+    @Mock
+    private RedisUtils redisUtils;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(revocationService, "enabled", true);
+    }
+
+    @Test
+    @DisplayName("定时清理 - 补齐漏收的吊销记录")
+    void testPurgeExpired_ReloadsMissed() {
+        long expireAt = System.currentTimeMillis() + 60000;
+        Set<ZSetOperations.TypedTuple<Object>> members =
+                Collections.singleton(new DefaultTypedTuple<>("jti-1", (double) expireAt));
+        when(redisUtils.rangeZSetByScore(eq(RedisConstant.TOKEN_REVOKED_KEY), anyDouble(), anyDouble())).thenReturn(members);
+
+        revocationService.purgeExpired();
+
+        assertTrue(revocationService.isRevoked("jti-1"));
+        verify(redisUtils).removeZSetRangeByScore(eq(RedisConstant.TOKEN_REVOKED_KEY), eq(0d), anyDouble());
+    }
+
+    @Test
+    @DisplayName("定时清理 - 移除已过期记录，Redis异常时保留本地副本")
+    @SuppressWarnings("unchecked")
+    void testPurgeExpired_RedisDown() {
+        Map<String, Long> revoked = (Map<String, Long>) ReflectionTestUtils.getField(revocationService, "revoked");
+        revoked.put("expired", System.currentTimeMillis() - 1000);
+        revoked.put("live", System.currentTimeMillis() + 60000);
+        when(redisUtils.removeZSetRangeByScore(anyString(), anyDouble(), anyDouble())).thenThrow(new RuntimeException("down"));
+
+        revocationService.purgeExpired();
+
+        assertFalse(revocationService.isRevoked("expired"));
+        assertTrue(revocationService.isRevoked("live"));
+    }
+}
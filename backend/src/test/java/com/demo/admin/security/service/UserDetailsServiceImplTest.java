@@ -2,6 +2,7 @@ package com.demo.admin.security.service;
 
 import com.demo.admin.common.exception.BusinessException;
 import com.demo.admin.modules.system.entity.SysUser;
+import com.demo.admin.modules.system.service.RolePermissionCache;
 import com.demo.admin.modules.system.service.SysUserService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +30,12 @@ class UserDetailsServiceImplTest {
     @Mock
     private SysUserService userService;
 
+    @Mock
+    private RolePermissionCache rolePermissionCache;
+
+    @Mock
+    private SessionPermissionService sessionPermissionService;
+
     @Test
     @DisplayName("加载用户 - 正常返回LoginUser")
     void testLoadUser_Success() {
@@ -41,8 +49,11 @@ class UserDetailsServiceImplTest {
         user.setStatus(1);
 
         when(userService.getByUsername("admin")).thenReturn(user);
-        when(userService.getRoleCodesByUserId(1L)).thenReturn(Arrays.asList("admin", "user"));
-        when(userService.getPermissionsByUserId(1L)).thenReturn(Arrays.asList("*:*:*"));
+        List<Long> roleIds = Arrays.asList(1L, 2L);
+        when(sessionPermissionService.currentVersion()).thenReturn(7L);
+        when(userService.getRoleIdsByUserId(1L)).thenReturn(roleIds);
+        when(rolePermissionCache.getRoleCodes(roleIds)).thenReturn(Arrays.asList("admin", "user"));
+        when(rolePermissionCache.getPermissions(roleIds)).thenReturn(Arrays.asList("*:*:*"));
 
         UserDetails result = userDetailsService.loadUserByUsername("admin");
 
@@ -56,10 +67,13 @@ class UserDetailsServiceImplTest {
         assertEquals(2, loginUser.getRoles().size());
         assertTrue(loginUser.getPermissions().contains("*:*:*"));
         assertTrue(loginUser.isEnabled());
+        assertEquals(7L, loginUser.getPermVersion());
 
         verify(userService).getByUsername("admin");
-        verify(userService).getRoleCodesByUserId(1L);
-        verify(userService).getPermissionsByUserId(1L);
+        verify(userService).getRoleIdsByUserId(1L);
+        // 角色和权限不再走联表查询
+        verify(userService, never()).getRoleCodesByUserId(anyLong());
+        verify(userService, never()).getPermissionsByUserId(anyLong());
     }
 
     @Test
@@ -70,7 +84,7 @@ class UserDetailsServiceImplTest {
         assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("nouser"));
 
         verify(userService).getByUsername("nouser");
-        verify(userService, never()).getRoleCodesByUserId(anyLong());
+        verify(userService, never()).getRoleIdsByUserId(anyLong());
     }
 
     @Test
@@ -86,7 +100,7 @@ class UserDetailsServiceImplTest {
         assertThrows(BusinessException.class, () -> userDetailsService.loadUserByUsername("disabled_user"));
 
         verify(userService).getByUsername("disabled_user");
-        verify(userService, never()).getRoleCodesByUserId(anyLong());
+        verify(userService, never()).getRoleIdsByUserId(anyLong());
     }
 
     @Test
@@ -101,8 +115,9 @@ class UserDetailsServiceImplTest {
         user.setStatus(1);
 
         when(userService.getByUsername("basic_user")).thenReturn(user);
-        when(userService.getRoleCodesByUserId(3L)).thenReturn(Collections.emptyList());
-        when(userService.getPermissionsByUserId(3L)).thenReturn(Collections.emptyList());
+        when(userService.getRoleIdsByUserId(3L)).thenReturn(Collections.emptyList());
+        when(rolePermissionCache.getRoleCodes(Collections.emptyList())).thenReturn(Collections.emptyList());
+        when(rolePermissionCache.getPermissions(Collections.emptyList())).thenReturn(Collections.emptyList());
 
         UserDetails result = userDetailsService.loadUserByUsername("basic_user");
 
@@ -6,6 +6,11 @@ export function getLogPage(params: any) {
   return request.get('/system/log/page', { params });
 }
 
+/** 查询日志详情（含请求参数、响应结果、变更数据） */
+export function getLogDetail(id: number) {
+  return request.get(`/system/log/${id}`);
+}
+
 /** 删除日志 */
 export function deleteLog(id: number) {
   return request.delete(`/system/log/${id}`);
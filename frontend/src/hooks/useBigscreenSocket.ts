@@ -0,0 +1,97 @@
+import { useEffect, useRef, useState } from 'react';
+
+const MAX_RETRIES = 10;
+const BASE_DELAY = 2000; // 2秒起步
+const MAX_DELAY = 60000; // 最大60秒
+
+/**
+ * 大屏快照推送Hook - 订阅后先收到完整快照，之后只收到变化的字段
+ * 返回连接状态，未连接时由页面自行轮询
+ */
+export function useBigscreenSocket<T extends object>(onData: (update: (prev: T | null) => T) => void) {
+  const [connected, setConnected] = useState(false);
+  const onDataRef = useRef(onData);
+  const wsRef = useRef<WebSocket | null>(null);
+  const timerRef = useRef<number | null>(null);
+  const retryRef = useRef(0);
+  const reconnectTimerRef = useRef<number | null>(null);
+
+  onDataRef.current = onData;
+
+  useEffect(() => {
+    const token = localStorage.getItem('token');
+    if (!token) return;
+
+    const protocol = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
+    const host = window.location.hostname;
+    // 开发环境走后端8080端口
+    const port = import.meta.env.DEV ? '8080' : window.location.port;
+    const url = `${protocol}//${host}:${port}/api/ws/dashboard`;
+
+    const scheduleReconnect = () => {
+      if (retryRef.current < MAX_RETRIES) {
+        const delay = Math.min(BASE_DELAY * Math.pow(2, retryRef.current), MAX_DELAY);
+        retryRef.current += 1;
+        reconnectTimerRef.current = window.setTimeout(connect, delay);
+      }
+    };
+
+    const connect = () => {
+      try {
+        const ws = new WebSocket(url);
+        wsRef.current = ws;
+
+        ws.onopen = () => {
+          retryRef.current = 0; // 连接成功，重置重试计数
+          ws.send(JSON.stringify({ type: 'subscribe', token }));
+          // 心跳保活 每30秒
+          timerRef.current = window.setInterval(() => {
+            if (ws.readyState === WebSocket.OPEN) {
+              ws.send('ping');
+            }
+          }, 30000);
+        };
+
+        ws.onmessage = (event) => {
+          if (event.data === 'pong') return;
+          try {
+            const msg = JSON.parse(event.data);
+            if (msg.type === 'bigscreen' && msg.data) {
+              setConnected(true);
+              onDataRef.current(() => msg.data as T);
+            } else if (msg.type === 'bigscreen-delta' && msg.data) {
+              onDataRef.current((prev) => ({ ...(prev as T), ...msg.data }));
+            }
+          } catch {
+            // ignore parse errors
+          }
+        };
+
+        ws.onclose = () => {
+          setConnected(false);
+          if (timerRef.current) clearInterval(timerRef.current);
+          scheduleReconnect();
+        };
+
+        ws.onerror = () => {
+          ws.close();
+        };
+      } catch {
+        scheduleReconnect();
+      }
+    };
+
+    connect();
+
+    return () => {
+      if (timerRef.current) clearInterval(timerRef.current);
+      if (reconnectTimerRef.current) clearTimeout(reconnectTimerRef.current);
+      if (wsRef.current) {
+        wsRef.current.onclose = null; // prevent reconnect on unmount
+        wsRef.current.close();
+      }
+    };
+  }, []);
+
+  return connected;
+}
@@ -1,6 +1,7 @@
 import React, { useEffect, useRef, useState } from 'react';
 import echarts from '../../utils/echarts';
 import { getBigscreenData } from '../../api/dashboard';
+import { useBigscreenSocket } from '../../hooks/useBigscreenSocket';
 import './index.css';
 
 interface LogItem {
@@ -20,6 +21,7 @@ interface BigscreenData {
   deptCount: number;
   todayLogCount: number;
   todayLoginCount: number;
+  todayActiveUsers: number;
   hourlyTrend: { hour: number; count: number }[];
   monthlyTrend: { date: string; count: number }[];
   operationDistribution: { name: string; value: number }[];
@@ -44,8 +46,12 @@ const BigScreen: React.FC = () => {
     return () => clearInterval(timer);
   }, []);
 
+  // Server push; fall back to polling while the socket is not connected
+  const pushed = useBigscreenSocket<BigscreenData>(setData);
+
   // Fetch data
   useEffect(() => {
+    if (pushed) return;
     getBigscreenData()
       .then((res: any) => setData(res.data))
       .catch(() => {});
@@ -56,7 +62,7 @@ const BigScreen: React.FC = () => {
         .catch(() => {});
     }, 30000);
     return () => clearInterval(interval);
-  }, []);
+  }, [pushed]);
 
   // Line chart: 30-day trend
   useEffect(() => {
@@ -235,6 +241,7 @@ const BigScreen: React.FC = () => {
     { label: '部门数量', value: data?.deptCount ?? '-', color: '#0f6' },
     { label: '今日操作', value: data?.todayLogCount ?? '-', color: '#f60' },
     { label: '今日登录', value: data?.todayLoginCount ?? '-', color: '#f06' },
+    { label: '今日活跃', value: data?.todayActiveUsers ?? '-', color: '#0ff' },
     { label: '角色数量', value: data?.roleCount ?? '-', color: '#60f' },
     { label: '菜单数量', value: data?.menuCount ?? '-', color: '#fa0' },
   ];
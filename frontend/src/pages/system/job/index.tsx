@@ -178,7 +178,9 @@ const JobPage: React.FC = () => {
     {
       title: '执行状态', dataIndex: 'status', key: 'status', width: 90,
       render: (s: number) => (
-        <Tag color={s === 1 ? 'green' : 'red'}>{s === 1 ? '成功' : '失败'}</Tag>
+        s === 2
+          ? <Tag color="processing">执行中</Tag>
+          : <Tag color={s === 1 ? 'green' : 'red'}>{s === 1 ? '成功' : '失败'}</Tag>
       ),
     },
     { title: '执行信息', dataIndex: 'message', key: 'message', ellipsis: true },
@@ -409,6 +411,7 @@ const JobPage: React.FC = () => {
                       <Select placeholder="请选择" style={{ width: 120 }} allowClear>
                         <Select.Option value={1}>成功</Select.Option>
                         <Select.Option value={0}>失败</Select.Option>
+                        <Select.Option value={2}>执行中</Select.Option>
                       </Select>
                     </Form.Item>
                     <Form.Item>
@@ -2,7 +2,7 @@ import React, { useState, useEffect, useMemo } from 'react';
 import { Space, Table, Button, Input, Form, Tag, message, Popconfirm, Select, Tooltip, Modal, DatePicker } from 'antd';
 import type { ColumnsType, TablePaginationConfig } from 'antd/es/table';
 import { SearchOutlined, ReloadOutlined, DeleteOutlined, ClearOutlined, DownloadOutlined, CheckCircleOutlined, CloseCircleOutlined, EyeOutlined, SwapOutlined } from '@ant-design/icons';
-import { getLogPage, deleteLog, batchDeleteLogs, cleanLog, exportLogs } from '../../../api/log';
+import { getLogPage, getLogDetail, deleteLog, batchDeleteLogs, cleanLog, exportLogs } from '../../../api/log';
 import { useAuth } from '../../../store/AuthContext';
 
 interface LogData {
@@ -10,14 +10,15 @@ interface LogData {
   username: string;
   operation: string;
   method: string;
-  params: string;
+  params?: string;
   time: number;
   ip: string;
   status: number;
-  errorMsg: string;
-  responseBody: string;
-  oldValue: string;
-  newValue: string;
+  changed: number;
+  errorMsg?: string;
+  responseBody?: string;
+  oldValue?: string;
+  newValue?: string;
   createTime: string;
 }
 
@@ -101,6 +102,18 @@ const LogPage: React.FC = () => {
     loadData();
   }, []);
 
+  /** 列表只含摘要字段，打开详情时再加载请求参数、响应结果等 */
+  const showDetail = async (record: LogData) => {
+    setDetailRecord(record);
+    setDetailVisible(true);
+    try {
+      const res: any = await getLogDetail(record.id);
+      setDetailRecord(res.data);
+    } catch (error) {
+      console.error('加载日志详情失败:', error);
+    }
+  };
+
   const diffs = useMemo(() => {
     if (!detailRecord?.oldValue || !detailRecord?.newValue) return [];
     return computeDiff(detailRecord.oldValue, detailRecord.newValue);
@@ -122,7 +135,7 @@ const LogPage: React.FC = () => {
       title: '状态', dataIndex: 'status', key: 'status', width: 90, align: 'center',
       render: (status: number, record) => (
         status === 0 ? (
-          <Tooltip title={record.errorMsg || '操作失败'}>
+          <Tooltip title="操作失败，详情中查看错误信息">
             <Tag icon={<CloseCircleOutlined />} color="error">失败</Tag>
           </Tooltip>
         ) : (
@@ -133,7 +146,7 @@ const LogPage: React.FC = () => {
     {
       title: '变更', key: 'change', width: 60, align: 'center',
       render: (_, record) =>
-        record.oldValue ? <Tag color="orange"><SwapOutlined /></Tag> : <span style={{ color: '#ccc' }}>-</span>,
+        record.changed === 1 ? <Tag color="orange"><SwapOutlined /></Tag> : <span style={{ color: '#ccc' }}>-</span>,
     },
     {
       title: '耗时', dataIndex: 'time', key: 'time', width: 90, align: 'center',
@@ -147,7 +160,7 @@ const LogPage: React.FC = () => {
       title: '操作', key: 'action', width: 120,
       render: (_, record) => (
         <Space size="small">
-          <Button type="link" size="small" icon={<EyeOutlined />} onClick={() => { setDetailRecord(record); setDetailVisible(true); }}>详情</Button>
+          <Button type="link" size="small" icon={<EyeOutlined />} onClick={() => showDetail(record)}>详情</Button>
           {hasPermission('system:log:delete') && (
             <Popconfirm title="确定删除吗？" onConfirm={() => handleDelete(record.id)}>
               <Button type="link" danger size="small" icon={<DeleteOutlined />}>删除</Button>